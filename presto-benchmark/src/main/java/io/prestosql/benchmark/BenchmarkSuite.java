@@ -73,7 +73,13 @@ public class BenchmarkSuite
                 new SqlTpchQuery1(localQueryRunner),
                 new SqlTpchQuery6(localQueryRunner),
                 new SqlLikeBenchmark(localQueryRunner),
+                new SqlLikeBenchmark.SqlLikePrefixBenchmark(localQueryRunner),
+                new SqlLikeBenchmark.SqlLikeContainsBenchmark(localQueryRunner),
+                new SqlLikeBenchmark.SqlLikeSingleCharacterBenchmark(localQueryRunner),
                 new SqlInBenchmark(localQueryRunner),
+                new SqlInBenchmark.SqlDenseInBenchmark(localQueryRunner),
+                new SqlInBenchmark.SqlSparseInBenchmark(localQueryRunner),
+                new SqlInBenchmark.SqlVarcharInBenchmark(localQueryRunner),
                 new SqlSemiJoinInPredicateBenchmark(localQueryRunner),
                 new SqlRegexpLikeBenchmark(localQueryRunner),
                 new SqlApproximatePercentileBenchmark(localQueryRunner),
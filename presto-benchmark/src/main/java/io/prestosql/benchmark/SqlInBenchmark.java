@@ -15,7 +15,11 @@ package io.prestosql.benchmark;
 
 import io.prestosql.testing.LocalQueryRunner;
 
+import java.util.stream.LongStream;
+
 import static io.prestosql.benchmark.BenchmarkQueryRunner.createLocalQueryRunner;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
 
 public class SqlInBenchmark
         extends AbstractSqlBenchmark
@@ -31,6 +35,56 @@ public class SqlInBenchmark
 
     public static void main(String[] args)
     {
-        new SqlInBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        new SqlInBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlDenseInBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlSparseInBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlVarcharInBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+    }
+
+    public static class SqlDenseInBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlDenseInBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner,
+                    "sql_in_dense",
+                    10,
+                    50,
+                    "SELECT orderkey FROM lineitem WHERE orderkey IN (" + inList(LongStream.range(0, 5000).map(value -> value * 3)) + ")");
+        }
+    }
+
+    public static class SqlSparseInBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlSparseInBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner,
+                    "sql_in_sparse",
+                    10,
+                    50,
+                    "SELECT orderkey FROM lineitem WHERE orderkey IN (" + inList(LongStream.range(0, 5000).map(value -> value * 7919)) + ")");
+        }
+    }
+
+    public static class SqlVarcharInBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlVarcharInBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner,
+                    "sql_in_varchar",
+                    10,
+                    50,
+                    "SELECT orderkey FROM orders WHERE clerk IN (" + LongStream.range(0, 5000)
+                            .mapToObj(value -> format("'Clerk#%09d'", value * 7))
+                            .collect(joining(",")) + ")");
+        }
+    }
+
+    private static String inList(LongStream values)
+    {
+        return values.mapToObj(Long::toString).collect(joining(","));
     }
 }
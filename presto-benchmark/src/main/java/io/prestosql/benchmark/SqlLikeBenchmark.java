@@ -27,6 +27,37 @@ public class SqlLikeBenchmark
 
     public static void main(String[] args)
     {
-        new SqlLikeBenchmark(createLocalQueryRunner()).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        LocalQueryRunner localQueryRunner = createLocalQueryRunner();
+        new SqlLikeBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikePrefixBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikeContainsBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+        new SqlLikeSingleCharacterBenchmark(localQueryRunner).runBenchmark(new SimpleLineBenchmarkResultWriter(System.out));
+    }
+
+    public static class SqlLikePrefixBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikePrefixBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_prefix", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE 'carefully%'");
+        }
+    }
+
+    public static class SqlLikeContainsBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikeContainsBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_contains", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%furiously%'");
+        }
+    }
+
+    public static class SqlLikeSingleCharacterBenchmark
+            extends AbstractSqlBenchmark
+    {
+        public SqlLikeSingleCharacterBenchmark(LocalQueryRunner localQueryRunner)
+        {
+            super(localQueryRunner, "sql_like_single_character", 4, 5, "SELECT orderkey FROM lineitem WHERE comment LIKE '%ly_ly%'");
+        }
     }
 }
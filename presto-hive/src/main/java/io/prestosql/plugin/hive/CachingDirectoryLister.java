@@ -13,53 +13,148 @@
  */
 package io.prestosql.plugin.hive;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.Weigher;
 import com.google.common.collect.ImmutableList;
+import com.google.common.math.LongMath;
+import com.google.common.primitives.Ints;
+import io.airlift.log.Logger;
+import io.airlift.stats.TimeStat;
+import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.prestosql.plugin.hive.metastore.Table;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import org.apache.hadoop.fs.BlockLocation;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.LocatedFileStatus;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.fs.permission.FsPermission;
+import org.openjdk.jol.info.ClassLayout;
 import org.weakref.jmx.Managed;
 
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Optional;
 
+import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.SizeOf.estimatedSizeOf;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
+import static java.lang.Math.max;
+import static java.math.RoundingMode.CEILING;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
+/**
+ * Caches directory listings.
+ * <p>
+ * Listings of the tables in {@code hive.file-status-cache-tables} are trusted until they
+ * expire. When revalidation is enabled, listings of all other tables are cached as well,
+ * but they are only reused while the modification time of the directory is unchanged,
+ * which costs a single file status call instead of a listing. Directories on file systems
+ * that do not report a directory modification time, like most object stores, are not cached
+ * for these tables. Revalidated listings can be saved to a local file on shutdown and
+ * loaded on startup, so that a restarted coordinator does not have to list them again.
+ */
 public class CachingDirectoryLister
         implements DirectoryLister
 {
-    private final Cache<Path, List<LocatedFileStatus>> cache;
+    private static final Logger log = Logger.get(CachingDirectoryLister.class);
+
+    private static final int PERSISTED_FORMAT_VERSION = 1;
+    private static final int LISTING_INSTANCE_SIZE = ClassLayout.parseClass(CachedListing.class).instanceSize();
+    private static final int FILE_STATUS_INSTANCE_SIZE = ClassLayout.parseClass(LocatedFileStatus.class).instanceSize();
+    // Path, its URI and the strings derived from it
+    private static final int PATH_OVERHEAD = 160;
+    // block location with the names and host names of three replicas
+    private static final int BLOCK_LOCATION_SIZE = ClassLayout.parseClass(BlockLocation.class).instanceSize() + 6 * 64;
+
+    private final Cache<Path, CachedListing> cache;
     private final List<SchemaTablePrefix> tablePrefixes;
+    private final long expireAfterWriteNanos;
+    private final boolean revalidationEnabled;
+    private final Optional<java.nio.file.Path> persistedLocation;
+    private final NamenodeStats namenodeStats;
+    private final Ticker ticker;
 
-    @Inject
     public CachingDirectoryLister(HiveConfig hiveClientConfig)
     {
-        this(hiveClientConfig.getFileStatusCacheExpireAfterWrite(), hiveClientConfig.getFileStatusCacheMaxSize(), hiveClientConfig.getFileStatusCacheTables());
+        this(hiveClientConfig, new NamenodeStats());
+    }
+
+    @Inject
+    public CachingDirectoryLister(HiveConfig hiveClientConfig, NamenodeStats namenodeStats)
+    {
+        this(
+                hiveClientConfig.getFileStatusCacheExpireAfterWrite(),
+                hiveClientConfig.getFileStatusCacheMaxSize(),
+                hiveClientConfig.getFileStatusCacheMaxRetainedSize(),
+                hiveClientConfig.getFileStatusCacheTables(),
+                hiveClientConfig.isFileStatusCacheRevalidationEnabled(),
+                hiveClientConfig.getFileStatusCacheLocation().map(Paths::get),
+                namenodeStats,
+                Ticker.systemTicker());
+    }
+
+    public CachingDirectoryLister(Duration expireAfterWrite, long maxSize, DataSize maxRetainedSize, List<String> tables)
+    {
+        this(expireAfterWrite, maxSize, maxRetainedSize, tables, false, Optional.empty(), new NamenodeStats(), Ticker.systemTicker());
     }
 
-    public CachingDirectoryLister(Duration expireAfterWrite, long maxSize, List<String> tables)
+    @VisibleForTesting
+    CachingDirectoryLister(
+            Duration expireAfterWrite,
+            long maxSize,
+            DataSize maxRetainedSize,
+            List<String> tables,
+            boolean revalidationEnabled,
+            Optional<java.nio.file.Path> persistedLocation,
+            NamenodeStats namenodeStats,
+            Ticker ticker)
     {
+        // both limits are enforced by a single weight: the retained size of a listing, or its file count
+        // in units of the retained size available to each file, whichever is larger
+        long maxWeight = maxSize > 0 ? maxRetainedSize.toBytes() : 0;
+        long fileWeight = maxSize > 0 ? max(1, LongMath.divide(maxWeight, maxSize, CEILING)) : 0;
         this.cache = CacheBuilder.newBuilder()
-                .maximumWeight(maxSize)
-                .weigher((Weigher<Path, List<LocatedFileStatus>>) (key, value) -> value.size())
-                .expireAfterWrite(expireAfterWrite.toMillis(), TimeUnit.MILLISECONDS)
+                .maximumWeight(maxWeight)
+                .weigher((Weigher<Path, CachedListing>) (key, value) -> Ints.saturatedCast(max(
+                        value.getRetainedSizeInBytes(),
+                        LongMath.saturatedMultiply(value.getFiles().size(), fileWeight))))
                 .recordStats()
                 .build();
         this.tablePrefixes = tables.stream()
                 .map(CachingDirectoryLister::parseTableName)
                 .collect(toImmutableList());
+        this.expireAfterWriteNanos = expireAfterWrite.roundTo(NANOSECONDS);
+        this.revalidationEnabled = revalidationEnabled;
+        this.persistedLocation = requireNonNull(persistedLocation, "persistedLocation is null");
+        this.namenodeStats = requireNonNull(namenodeStats, "namenodeStats is null");
+        this.ticker = requireNonNull(ticker, "ticker is null");
+
+        if (revalidationEnabled) {
+            persistedLocation.ifPresent(this::loadListings);
+        }
     }
 
     private static SchemaTablePrefix parseTableName(String tableName)
@@ -81,19 +176,53 @@ public class CachingDirectoryLister
     public RemoteIterator<LocatedFileStatus> list(FileSystem fs, Table table, Path path)
             throws IOException
     {
-        List<LocatedFileStatus> files = cache.getIfPresent(path);
-        if (files != null) {
-            return simpleRemoteIterator(files);
+        boolean trustedTable = tablePrefixes.stream().anyMatch(prefix -> prefix.matches(table.getSchemaTableName()));
+
+        CachedListing listing = cache.getIfPresent(path);
+        if (listing != null) {
+            if (trustedTable && !listing.isRevalidationRequired() && ticker.read() - listing.getCreateTime() < expireAfterWriteNanos) {
+                namenodeStats.getListingCacheHits().update(1);
+                return simpleRemoteIterator(listing.getFiles());
+            }
+            if (revalidationEnabled && listing.getDirectoryModificationTime() > 0) {
+                namenodeStats.getListingCacheRevalidations().update(1);
+                long modificationTime = getDirectoryModificationTime(fs, path);
+                if (modificationTime == listing.getDirectoryModificationTime()) {
+                    namenodeStats.getListingCacheHits().update(1);
+                    return simpleRemoteIterator(listing.getFiles());
+                }
+                namenodeStats.getListingCacheStaleListings().update(1);
+            }
+            cache.invalidate(path);
+        }
+        namenodeStats.getListingCacheMisses().update(1);
+
+        // the modification time must be read before listing, so that changes made during the listing are detected later
+        long directoryModificationTime = 0;
+        if (revalidationEnabled) {
+            directoryModificationTime = getDirectoryModificationTime(fs, path);
         }
         RemoteIterator<LocatedFileStatus> iterator = fs.listLocatedStatus(path);
 
-        if (tablePrefixes.stream().noneMatch(prefix -> prefix.matches(table.getSchemaTableName()))) {
+        if (!trustedTable && directoryModificationTime <= 0) {
             return iterator;
         }
-        return cachingRemoteIterator(iterator, path);
+        return cachingRemoteIterator(iterator, path, directoryModificationTime, !trustedTable);
     }
 
-    private RemoteIterator<LocatedFileStatus> cachingRemoteIterator(RemoteIterator<LocatedFileStatus> iterator, Path path)
+    private long getDirectoryModificationTime(FileSystem fs, Path path)
+            throws IOException
+    {
+        try (TimeStat.BlockTimer ignored = namenodeStats.getDirectoryStatus().time()) {
+            return fs.getFileStatus(path).getModificationTime();
+        }
+        catch (IOException | RuntimeException e) {
+            namenodeStats.getDirectoryStatus().recordException(e);
+            throw e;
+        }
+    }
+
+    private RemoteIterator<LocatedFileStatus> cachingRemoteIterator(RemoteIterator<LocatedFileStatus> iterator, Path path, long directoryModificationTime, boolean revalidationRequired)
     {
         return new RemoteIterator<>()
         {
@@ -105,7 +234,7 @@ public class CachingDirectoryLister
             {
                 boolean hasNext = iterator.hasNext();
                 if (!hasNext) {
-                    cache.put(path, ImmutableList.copyOf(files));
+                    cache.put(path, new CachedListing(ImmutableList.copyOf(files), directoryModificationTime, ticker.read(), revalidationRequired));
                 }
                 return hasNext;
             }
@@ -141,6 +270,133 @@ public class CachingDirectoryLister
         };
     }
 
+    @PreDestroy
+    public void saveListings()
+    {
+        if (!revalidationEnabled || persistedLocation.isEmpty()) {
+            return;
+        }
+        java.nio.file.Path location = persistedLocation.get();
+        java.nio.file.Path temporaryLocation = location.resolveSibling(location.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(location.toAbsolutePath().getParent());
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryLocation)))) {
+                List<Map.Entry<Path, CachedListing>> entries = cache.asMap().entrySet().stream()
+                        .filter(entry -> entry.getValue().getDirectoryModificationTime() > 0)
+                        .collect(toImmutableList());
+                output.writeInt(PERSISTED_FORMAT_VERSION);
+                output.writeInt(entries.size());
+                for (Map.Entry<Path, CachedListing> entry : entries) {
+                    output.writeUTF(entry.getKey().toString());
+                    output.writeLong(entry.getValue().getDirectoryModificationTime());
+                    output.writeInt(entry.getValue().getFiles().size());
+                    for (LocatedFileStatus file : entry.getValue().getFiles()) {
+                        writeFileStatus(output, file);
+                    }
+                }
+            }
+            Files.move(temporaryLocation, location, REPLACE_EXISTING, ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to save directory listings to %s", location);
+        }
+    }
+
+    private void loadListings(java.nio.file.Path location)
+    {
+        if (!Files.exists(location)) {
+            return;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(location)))) {
+            if (input.readInt() != PERSISTED_FORMAT_VERSION) {
+                log.info("Ignoring directory listings in %s saved in an unknown format", location);
+                return;
+            }
+            int entryCount = input.readInt();
+            for (int entry = 0; entry < entryCount; entry++) {
+                Path path = new Path(input.readUTF());
+                long directoryModificationTime = input.readLong();
+                int fileCount = input.readInt();
+                ImmutableList.Builder<LocatedFileStatus> files = ImmutableList.builderWithExpectedSize(fileCount);
+                for (int file = 0; file < fileCount; file++) {
+                    files.add(readFileStatus(input));
+                }
+                // listings from a previous run are never trusted without revalidation
+                cache.put(path, new CachedListing(files.build(), directoryModificationTime, ticker.read(), true));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            log.warn(e, "Failed to load directory listings from %s", location);
+            cache.invalidateAll();
+        }
+    }
+
+    private static void writeFileStatus(DataOutputStream output, LocatedFileStatus file)
+            throws IOException
+    {
+        output.writeUTF(file.getPath().toString());
+        output.writeLong(file.getLen());
+        output.writeBoolean(file.isDirectory());
+        output.writeShort(file.getReplication());
+        output.writeLong(file.getBlockSize());
+        output.writeLong(file.getModificationTime());
+        output.writeLong(file.getAccessTime());
+        output.writeShort(file.getPermission().toShort());
+        output.writeUTF(nullToEmpty(file.getOwner()));
+        output.writeUTF(nullToEmpty(file.getGroup()));
+        BlockLocation[] blockLocations = firstNonNull(file.getBlockLocations(), new BlockLocation[0]);
+        output.writeInt(blockLocations.length);
+        for (BlockLocation blockLocation : blockLocations) {
+            output.writeLong(blockLocation.getOffset());
+            output.writeLong(blockLocation.getLength());
+            writeStrings(output, blockLocation.getNames());
+            writeStrings(output, blockLocation.getHosts());
+        }
+    }
+
+    private static LocatedFileStatus readFileStatus(DataInputStream input)
+            throws IOException
+    {
+        Path path = new Path(input.readUTF());
+        long length = input.readLong();
+        boolean directory = input.readBoolean();
+        short replication = input.readShort();
+        long blockSize = input.readLong();
+        long modificationTime = input.readLong();
+        long accessTime = input.readLong();
+        FsPermission permission = new FsPermission(input.readShort());
+        String owner = input.readUTF();
+        String group = input.readUTF();
+        BlockLocation[] blockLocations = new BlockLocation[input.readInt()];
+        for (int i = 0; i < blockLocations.length; i++) {
+            long offset = input.readLong();
+            long blockLength = input.readLong();
+            String[] names = readStrings(input);
+            String[] hosts = readStrings(input);
+            blockLocations[i] = new BlockLocation(names, hosts, offset, blockLength);
+        }
+        return new LocatedFileStatus(length, directory, replication, blockSize, modificationTime, accessTime, permission, owner, group, null, path, blockLocations);
+    }
+
+    private static void writeStrings(DataOutputStream output, String[] values)
+            throws IOException
+    {
+        output.writeInt(values.length);
+        for (String value : values) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream input)
+            throws IOException
+    {
+        String[] values = new String[input.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readUTF();
+        }
+        return values;
+    }
+
     @Managed
     public void flushCache()
     {
@@ -176,4 +432,65 @@ public class CachingDirectoryLister
     {
         return cache.stats().requestCount();
     }
+
+    @Managed
+    public long getCachedDirectories()
+    {
+        return cache.size();
+    }
+
+    private static class CachedListing
+    {
+        private final List<LocatedFileStatus> files;
+        private final long directoryModificationTime;
+        private final long createTime;
+        private final boolean revalidationRequired;
+        private final long retainedSizeInBytes;
+
+        public CachedListing(List<LocatedFileStatus> files, long directoryModificationTime, long createTime, boolean revalidationRequired)
+        {
+            this.files = requireNonNull(files, "files is null");
+            this.directoryModificationTime = directoryModificationTime;
+            this.createTime = createTime;
+            this.revalidationRequired = revalidationRequired;
+            this.retainedSizeInBytes = LISTING_INSTANCE_SIZE + files.stream()
+                    .mapToLong(CachingDirectoryLister::getRetainedSizeInBytes)
+                    .sum();
+        }
+
+        public List<LocatedFileStatus> getFiles()
+        {
+            return files;
+        }
+
+        public long getDirectoryModificationTime()
+        {
+            return directoryModificationTime;
+        }
+
+        public long getCreateTime()
+        {
+            return createTime;
+        }
+
+        public boolean isRevalidationRequired()
+        {
+            return revalidationRequired;
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return retainedSizeInBytes;
+        }
+    }
+
+    // an estimate, as file status implementations differ between file systems
+    private static long getRetainedSizeInBytes(LocatedFileStatus file)
+    {
+        BlockLocation[] blockLocations = file.getBlockLocations();
+        int blockCount = blockLocations == null ? 0 : blockLocations.length;
+        return FILE_STATUS_INSTANCE_SIZE +
+                PATH_OVERHEAD + 2 * estimatedSizeOf(file.getPath().toString()) +
+                sizeOfObjectArray(blockCount) + (long) blockCount * BLOCK_LOCATION_SIZE;
+    }
 }
@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.TimeZone;
 
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.HiveSessionProperties.InsertExistingPartitionsBehavior.APPEND;
 import static io.prestosql.plugin.hive.HiveSessionProperties.InsertExistingPartitionsBehavior.ERROR;
@@ -58,7 +59,9 @@ public class HiveConfig
 
     private DataSize maxSplitSize = DataSize.of(64, MEGABYTE);
     private int maxPartitionsPerScan = 100_000;
+    private int maxPartitionsForEagerLoad = 10_000;
     private int maxOutstandingSplits = 1_000;
+    private int initialOutstandingSplits = 100;
     private DataSize maxOutstandingSplitsSize = DataSize.of(256, MEGABYTE);
     private int maxSplitIteratorThreads = 1_000;
     private int minPartitionBatchSize = 10;
@@ -67,6 +70,7 @@ public class HiveConfig
     private int splitLoaderConcurrency = 4;
     private Integer maxSplitsPerSecond;
     private DataSize maxInitialSplitSize;
+    private DataSize combinedSplitTargetSize = DataSize.ofBytes(0);
     private int domainCompactionThreshold = 100;
     private DataSize writerSortBufferSize = DataSize.of(64, MEGABYTE);
     private boolean forceLocalScheduling;
@@ -75,6 +79,7 @@ public class HiveConfig
 
     private int maxConcurrentFileRenames = 20;
     private int maxConcurrentMetastoreDrops = 20;
+    private int maxConcurrentMetastoreUpdates = 20;
 
     private boolean allowCorruptWritesForTesting;
 
@@ -114,6 +119,7 @@ public class HiveConfig
     private int partitionStatisticsSampleSize = 100;
     private boolean ignoreCorruptedStatistics;
     private boolean collectColumnStatisticsOnWrite = true;
+    private boolean collectDistinctValuesSketches;
 
     private String recordingPath;
     private boolean replay;
@@ -126,11 +132,18 @@ public class HiveConfig
 
     private Duration fileStatusCacheExpireAfterWrite = new Duration(1, MINUTES);
     private long fileStatusCacheMaxSize = 1000 * 1000;
+    private DataSize fileStatusCacheMaxRetainedSize = DataSize.of(1, GIGABYTE);
     private List<String> fileStatusCacheTables = ImmutableList.of();
+    private boolean fileStatusCacheRevalidationEnabled;
+    private Optional<String> fileStatusCacheLocation = Optional.empty();
     private boolean translateHiveViews;
 
     private Optional<Duration> hiveTransactionHeartbeatInterval = Optional.empty();
     private int hiveTransactionHeartbeatThreads = 5;
+    private DataSize deleteDeltaCacheMaxSize = DataSize.of(256, MEGABYTE);
+
+    private boolean asyncReadEnabled;
+    private int maxAsyncReadThreads = 64;
 
     private boolean allowRegisterPartition;
     private boolean queryPartitionFilterRequired;
@@ -169,6 +182,20 @@ public class HiveConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getCombinedSplitTargetSize()
+    {
+        return combinedSplitTargetSize;
+    }
+
+    @Config("hive.combined-split-target-size")
+    @ConfigDescription("Target size of splits combining multiple small files, 0 disables combining")
+    public HiveConfig setCombinedSplitTargetSize(DataSize combinedSplitTargetSize)
+    {
+        this.combinedSplitTargetSize = combinedSplitTargetSize;
+        return this;
+    }
+
     @Min(1)
     public int getSplitLoaderConcurrency()
     {
@@ -263,6 +290,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(1)
+    public int getMaxConcurrentMetastoreUpdates()
+    {
+        return maxConcurrentMetastoreUpdates;
+    }
+
+    @Config("hive.max-concurrent-metastore-updates")
+    @ConfigDescription("Maximum number of concurrent partition additions and statistics updates when committing a write")
+    public HiveConfig setMaxConcurrentMetastoreUpdates(int maxConcurrentMetastoreUpdates)
+    {
+        this.maxConcurrentMetastoreUpdates = maxConcurrentMetastoreUpdates;
+        return this;
+    }
+
     @Config("hive.recursive-directories")
     public HiveConfig setRecursiveDirWalkerEnabled(boolean recursiveDirWalkerEnabled)
     {
@@ -314,6 +355,20 @@ public class HiveConfig
         return this;
     }
 
+    @Min(1)
+    public int getMaxPartitionsForEagerLoad()
+    {
+        return maxPartitionsForEagerLoad;
+    }
+
+    @Config("hive.max-partitions-for-eager-load")
+    @ConfigDescription("Maximum number of partitions loaded during planning; partitions of larger scans are streamed during split generation")
+    public HiveConfig setMaxPartitionsForEagerLoad(int maxPartitionsForEagerLoad)
+    {
+        this.maxPartitionsForEagerLoad = maxPartitionsForEagerLoad;
+        return this;
+    }
+
     @Min(1)
     public int getMaxOutstandingSplits()
     {
@@ -321,13 +376,27 @@ public class HiveConfig
     }
 
     @Config("hive.max-outstanding-splits")
-    @ConfigDescription("Target number of buffered splits for each table scan in a query, before the scheduler tries to pause itself")
+    @ConfigDescription("Maximum target number of buffered splits for each table scan in a query, before the scheduler tries to pause itself")
     public HiveConfig setMaxOutstandingSplits(int maxOutstandingSplits)
     {
         this.maxOutstandingSplits = maxOutstandingSplits;
         return this;
     }
 
+    @Min(1)
+    public int getInitialOutstandingSplits()
+    {
+        return initialOutstandingSplits;
+    }
+
+    @Config("hive.initial-outstanding-splits")
+    @ConfigDescription("Initial target number of buffered splits for each table scan in a query, which grows up to hive.max-outstanding-splits while the splits are consumed")
+    public HiveConfig setInitialOutstandingSplits(int initialOutstandingSplits)
+    {
+        this.initialOutstandingSplits = initialOutstandingSplits;
+        return this;
+    }
+
     @MinDataSize("1MB")
     public DataSize getMaxOutstandingSplitsSize()
     {
@@ -678,12 +747,54 @@ public class HiveConfig
     }
 
     @Config("hive.file-status-cache-size")
+    @ConfigDescription("Maximum total number of cached file statuses")
     public HiveConfig setFileStatusCacheMaxSize(long fileStatusCacheMaxSize)
     {
         this.fileStatusCacheMaxSize = fileStatusCacheMaxSize;
         return this;
     }
 
+    @NotNull
+    public DataSize getFileStatusCacheMaxRetainedSize()
+    {
+        return fileStatusCacheMaxRetainedSize;
+    }
+
+    @Config("hive.file-status-cache.max-retained-size")
+    @ConfigDescription("Maximum retained size of cached directory listings")
+    public HiveConfig setFileStatusCacheMaxRetainedSize(DataSize fileStatusCacheMaxRetainedSize)
+    {
+        this.fileStatusCacheMaxRetainedSize = fileStatusCacheMaxRetainedSize;
+        return this;
+    }
+
+    public boolean isFileStatusCacheRevalidationEnabled()
+    {
+        return fileStatusCacheRevalidationEnabled;
+    }
+
+    @Config("hive.file-status-cache.revalidation-enabled")
+    @ConfigDescription("Cache directory listings of all tables and reuse them while the directory modification time is unchanged")
+    public HiveConfig setFileStatusCacheRevalidationEnabled(boolean fileStatusCacheRevalidationEnabled)
+    {
+        this.fileStatusCacheRevalidationEnabled = fileStatusCacheRevalidationEnabled;
+        return this;
+    }
+
+    @NotNull
+    public Optional<String> getFileStatusCacheLocation()
+    {
+        return fileStatusCacheLocation;
+    }
+
+    @Config("hive.file-status-cache.location")
+    @ConfigDescription("Local file used to keep revalidated directory listings across restarts")
+    public HiveConfig setFileStatusCacheLocation(String fileStatusCacheLocation)
+    {
+        this.fileStatusCacheLocation = Optional.ofNullable(fileStatusCacheLocation);
+        return this;
+    }
+
     public Duration getFileStatusCacheExpireAfterWrite()
     {
         return fileStatusCacheExpireAfterWrite;
@@ -827,6 +938,19 @@ public class HiveConfig
         return this;
     }
 
+    public boolean isCollectDistinctValuesSketches()
+    {
+        return collectDistinctValuesSketches;
+    }
+
+    @Config("hive.collect-distinct-values-sketches")
+    @ConfigDescription("Store mergeable sketches of column values with statistics to estimate the number of distinct values across partitions")
+    public HiveConfig setCollectDistinctValuesSketches(boolean collectDistinctValuesSketches)
+    {
+        this.collectDistinctValuesSketches = collectDistinctValuesSketches;
+        return this;
+    }
+
     @Config("hive.metastore-recording-path")
     public HiveConfig setRecordingPath(String recordingPath)
     {
@@ -944,6 +1068,47 @@ public class HiveConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getDeleteDeltaCacheMaxSize()
+    {
+        return deleteDeltaCacheMaxSize;
+    }
+
+    @Config("hive.delete-delta-cache.max-size")
+    @ConfigDescription("Maximum retained size of row ids of ACID delete deltas cached by a worker")
+    public HiveConfig setDeleteDeltaCacheMaxSize(DataSize deleteDeltaCacheMaxSize)
+    {
+        this.deleteDeltaCacheMaxSize = deleteDeltaCacheMaxSize;
+        return this;
+    }
+
+    public boolean isAsyncReadEnabled()
+    {
+        return asyncReadEnabled;
+    }
+
+    @Config("hive.async-read.enabled")
+    @ConfigDescription("Read small ORC and Parquet file segments of a stripe or row group concurrently")
+    public HiveConfig setAsyncReadEnabled(boolean asyncReadEnabled)
+    {
+        this.asyncReadEnabled = asyncReadEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxAsyncReadThreads()
+    {
+        return maxAsyncReadThreads;
+    }
+
+    @Config("hive.async-read.max-threads")
+    @ConfigDescription("Maximum number of threads used for concurrent file reads")
+    public HiveConfig setMaxAsyncReadThreads(int maxAsyncReadThreads)
+    {
+        this.maxAsyncReadThreads = maxAsyncReadThreads;
+        return this;
+    }
+
     public boolean isAllowRegisterPartition()
     {
         return allowRegisterPartition;
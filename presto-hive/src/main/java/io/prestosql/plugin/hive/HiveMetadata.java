@@ -25,6 +25,7 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.math.IntMath;
 import io.airlift.json.JsonCodec;
 import io.airlift.slice.Slice;
 import io.prestosql.plugin.base.CatalogName;
@@ -118,6 +119,7 @@ import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -163,12 +165,14 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getHiveStorageForma
 import static io.prestosql.plugin.hive.HiveSessionProperties.getTimestampPrecision;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isBucketExecutionEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isCollectColumnStatisticsOnWrite;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isCollectDistinctValuesSketches;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isCreateEmptyBucketFiles;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOptimizedMismatchedBucketCount;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isProjectionPushdownEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isRespectTableFormat;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isSortedWritingEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isStatisticsEnabled;
+import static io.prestosql.plugin.hive.HiveSplitManager.isReadBucketCountCompatible;
 import static io.prestosql.plugin.hive.HiveTableProperties.ANALYZE_COLUMNS_PROPERTY;
 import static io.prestosql.plugin.hive.HiveTableProperties.AVRO_SCHEMA_URL;
 import static io.prestosql.plugin.hive.HiveTableProperties.BUCKETED_BY_PROPERTY;
@@ -243,6 +247,7 @@ import static io.prestosql.spi.StandardErrorCode.INVALID_TABLE_PROPERTY;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.StandardErrorCode.SCHEMA_NOT_EMPTY;
 import static io.prestosql.spi.predicate.TupleDomain.withColumnDomains;
+import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES_SUMMARY;
 import static io.prestosql.spi.statistics.TableStatisticType.ROW_COUNT;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.TimestampType.TIMESTAMP_MILLIS;
@@ -301,6 +306,7 @@ public class HiveMetadata
     private final String prestoVersion;
     private final HiveStatisticsProvider hiveStatisticsProvider;
     private final AccessControlMetadata accessControlMetadata;
+    private final Map<HiveTableHandle, Optional<List<HivePartition>>> unfilteredTablePartitions = new ConcurrentHashMap<>();
 
     public HiveMetadata(
             CatalogName catalogName,
@@ -403,7 +409,7 @@ public class HiveMetadata
 
             handle = handle.withAnalyzePartitionValues(list);
             HivePartitionResult partitions = partitionManager.getPartitions(handle, list);
-            handle = partitionManager.applyPartitionResult(handle, partitions, Optional.empty());
+            handle = partitionManager.applyPartitionResult(handle, partitions, Constraint.alwaysTrue());
         }
 
         if (analyzeColumnNames.isPresent()) {
@@ -663,6 +669,20 @@ public class HiveMetadata
                         false));
     }
 
+    @Override
+    public Optional<Object> getInfo(ConnectorSession session, ConnectorTableHandle table)
+    {
+        HiveTableHandle handle = (HiveTableHandle) table;
+        if (handle.getStreamedPartitionsPredicate().isEmpty()) {
+            return getInfo(table);
+        }
+        // the partitions which are too many to load during planning are listed once for the inputs of the query
+        ImmutableList.Builder<String> partitionIds = ImmutableList.builder();
+        partitionManager.getPartitions(metastore, new HiveIdentity(session), handle)
+                .forEachRemaining(partition -> partitionIds.add(partition.getPartitionId()));
+        return Optional.of(new HiveInputInfo(partitionIds.build(), false));
+    }
+
     @Override
     public List<SchemaTableName> listTables(ConnectorSession session, Optional<String> optionalSchemaName)
     {
@@ -728,6 +748,11 @@ public class HiveMetadata
         if (!isStatisticsEnabled(session)) {
             return TableStatistics.empty();
         }
+        if (((HiveTableHandle) tableHandle).getStreamedPartitionsPredicate().isPresent()) {
+            // the statistics are estimated from all the partitions of the scan, and the optimizer requests them many times,
+            // so the partitions which are too many to load during planning are not listed for them
+            return TableStatistics.empty();
+        }
         Map<String, ColumnHandle> columns = getColumnHandles(session, tableHandle)
                 .entrySet().stream()
                 .filter(entry -> !((HiveColumnHandle) entry.getValue()).isHidden())
@@ -1950,17 +1975,31 @@ public class HiveMetadata
         HiveTableHandle hiveTable = (HiveTableHandle) table;
 
         List<ColumnHandle> partitionColumns = ImmutableList.copyOf(hiveTable.getPartitionColumns());
-        List<HivePartition> partitions = partitionManager.getOrLoadPartitions(metastore, new HiveIdentity(session), hiveTable);
-
-        TupleDomain<ColumnHandle> predicate = createPredicate(partitionColumns, partitions);
+        Optional<List<HivePartition>> loadedPartitions = hiveTable.getPartitions();
+        if (loadedPartitions.isEmpty() && hiveTable.getStreamedPartitionsPredicate().isEmpty()) {
+            // the partitions of a handle that was never filtered are loaded once per transaction
+            loadedPartitions = unfilteredTablePartitions.get(hiveTable);
+            if (loadedPartitions == null) {
+                loadedPartitions = partitionManager.getPartitionsForEagerLoad(
+                        partitionManager.getPartitions(metastore, new HiveIdentity(session), hiveTable, new Constraint(hiveTable.getEnforcedConstraint())));
+                unfilteredTablePartitions.put(hiveTable, loadedPartitions);
+            }
+        }
 
+        // partitions of large scans are only enumerated during split generation
+        TupleDomain<ColumnHandle> predicate = hiveTable.getEnforcedConstraint();
         Optional<DiscretePredicates> discretePredicates = Optional.empty();
-        if (!partitionColumns.isEmpty()) {
-            // Do not create tuple domains for every partition at the same time!
-            // There can be a huge number of partitions so use an iterable so
-            // all domains do not need to be in memory at the same time.
-            Iterable<TupleDomain<ColumnHandle>> partitionDomains = Iterables.transform(partitions, (hivePartition) -> TupleDomain.fromFixedValues(hivePartition.getKeys()));
-            discretePredicates = Optional.of(new DiscretePredicates(partitionColumns, partitionDomains));
+        if (loadedPartitions.isPresent()) {
+            List<HivePartition> partitions = loadedPartitions.get();
+            predicate = createPredicate(partitionColumns, partitions);
+
+            if (!partitionColumns.isEmpty()) {
+                // Do not create tuple domains for every partition at the same time!
+                // There can be a huge number of partitions so use an iterable so
+                // all domains do not need to be in memory at the same time.
+                Iterable<TupleDomain<ColumnHandle>> partitionDomains = Iterables.transform(partitions, (hivePartition) -> TupleDomain.fromFixedValues(hivePartition.getKeys()));
+                discretePredicates = Optional.of(new DiscretePredicates(partitionColumns, partitionDomains));
+            }
         }
 
         Optional<ConnectorTablePartitioning> tablePartitioning = Optional.empty();
@@ -1993,9 +2032,12 @@ public class HiveMetadata
         checkArgument(handle.getAnalyzePartitionValues().isEmpty() || constraint.getSummary().isAll(), "Analyze should not have a constraint");
 
         HivePartitionResult partitionResult = partitionManager.getPartitions(metastore, new HiveIdentity(session), handle, constraint);
-        HiveTableHandle newHandle = partitionManager.applyPartitionResult(handle, partitionResult, constraint.getPredicateColumns());
+        HiveTableHandle newHandle = partitionManager.applyPartitionResult(handle, partitionResult, constraint);
 
+        // the predicate of a constraint is recreated for every call, so for streamed partitions
+        // only the domains they are listed with tell whether the filter made progress
         if (handle.getPartitions().equals(newHandle.getPartitions()) &&
+                handle.getStreamedPartitionsPredicate().isPresent() == newHandle.getStreamedPartitionsPredicate().isPresent() &&
                 handle.getCompactEffectivePredicate().equals(newHandle.getCompactEffectivePredicate()) &&
                 handle.getBucketFilter().equals(newHandle.getBucketFilter()) &&
                 handle.getConstraintColumns().equals(newHandle.getConstraintColumns())) {
@@ -2142,27 +2184,28 @@ public class HiveMetadata
             return Optional.empty();
         }
 
-        int largerBucketCount = Math.max(leftHandle.getBucketCount(), rightHandle.getBucketCount());
-        int smallerBucketCount = Math.min(leftHandle.getBucketCount(), rightHandle.getBucketCount());
-        if (largerBucketCount % smallerBucketCount != 0) {
-            // must be evenly divisible
+        // bucket = hash % bucketCount, so any common divisor of both bucket counts is a valid common bucketing:
+        // hash % divisor == (hash % bucketCount) % divisor, regardless of the ratio between the bucket counts
+        int commonBucketCount = IntMath.gcd(leftHandle.getBucketCount(), rightHandle.getBucketCount());
+        if (commonBucketCount == 1) {
+            // a single bucket does not allow for any parallelism
             return Optional.empty();
         }
-        if (Integer.bitCount(largerBucketCount / smallerBucketCount) != 1) {
-            // ratio must be power of two
+        if (!isReadBucketCountCompatible(leftHandle.getBucketCount(), commonBucketCount) || !isReadBucketCountCompatible(rightHandle.getBucketCount(), commonBucketCount)) {
+            // the partitions of a table may have a bucket count that is neither a multiple nor a divisor of commonBucketCount
             return Optional.empty();
         }
 
         OptionalInt maxCompatibleBucketCount = min(leftHandle.getMaxCompatibleBucketCount(), rightHandle.getMaxCompatibleBucketCount());
-        if (maxCompatibleBucketCount.isPresent() && maxCompatibleBucketCount.getAsInt() < smallerBucketCount) {
-            // maxCompatibleBucketCount must be larger than or equal to smallerBucketCount
-            // because the current code uses the smallerBucketCount as the common partitioning handle.
+        if (maxCompatibleBucketCount.isPresent() && maxCompatibleBucketCount.getAsInt() < commonBucketCount) {
+            // maxCompatibleBucketCount must be larger than or equal to commonBucketCount
+            // because commonBucketCount is used as the common partitioning handle.
             return Optional.empty();
         }
 
         return Optional.of(new HivePartitioningHandle(
                 leftHandle.getBucketingVersion(), // same as rightHandle.getBucketingVersion()
-                smallerBucketCount,
+                commonBucketCount,
                 leftHandle.getHiveTypes(),
                 maxCompatibleBucketCount));
     }
@@ -2192,10 +2235,8 @@ public class HiveMetadata
                 "Types from the new PartitioningHandle (%s) does not match the TableHandle (%s)",
                 hivePartitioningHandle.getHiveTypes(),
                 bucketTypes);
-        int largerBucketCount = Math.max(bucketHandle.getTableBucketCount(), hivePartitioningHandle.getBucketCount());
-        int smallerBucketCount = Math.min(bucketHandle.getTableBucketCount(), hivePartitioningHandle.getBucketCount());
         checkArgument(
-                largerBucketCount % smallerBucketCount == 0 && Integer.bitCount(largerBucketCount / smallerBucketCount) == 1,
+                isReadBucketCountCompatible(bucketHandle.getTableBucketCount(), hivePartitioningHandle.getBucketCount()),
                 "The requested partitioning is not a valid alternative for the table layout");
 
         return new HiveTableHandle(
@@ -2214,7 +2255,8 @@ public class HiveMetadata
                 hiveTable.getBucketFilter(),
                 hiveTable.getAnalyzePartitionValues(),
                 hiveTable.getAnalyzeColumnNames(),
-                Optional.empty());
+                Optional.empty(),
+                hiveTable.getStreamedPartitionsPredicate());
     }
 
     @VisibleForTesting
@@ -2365,24 +2407,24 @@ public class HiveMetadata
             return TableStatisticsMetadata.empty();
         }
         List<String> partitionedBy = firstNonNull(getPartitionedBy(tableMetadata.getProperties()), ImmutableList.of());
-        return getStatisticsCollectionMetadata(tableMetadata.getColumns(), partitionedBy, Optional.empty(), false);
+        return getStatisticsCollectionMetadata(session, tableMetadata.getColumns(), partitionedBy, Optional.empty(), false);
     }
 
     @Override
     public TableStatisticsMetadata getStatisticsCollectionMetadata(ConnectorSession session, ConnectorTableMetadata tableMetadata)
     {
         List<String> partitionedBy = firstNonNull(getPartitionedBy(tableMetadata.getProperties()), ImmutableList.of());
-        return getStatisticsCollectionMetadata(tableMetadata.getColumns(), partitionedBy, getAnalyzeColumns(tableMetadata.getProperties()), true);
+        return getStatisticsCollectionMetadata(session, tableMetadata.getColumns(), partitionedBy, getAnalyzeColumns(tableMetadata.getProperties()), true);
     }
 
-    private TableStatisticsMetadata getStatisticsCollectionMetadata(List<ColumnMetadata> columns, List<String> partitionedBy, Optional<Set<String>> analyzeColumns, boolean includeRowCount)
+    private TableStatisticsMetadata getStatisticsCollectionMetadata(ConnectorSession session, List<ColumnMetadata> columns, List<String> partitionedBy, Optional<Set<String>> analyzeColumns, boolean includeRowCount)
     {
         validateTimestampColumns(columns);
         Set<ColumnStatisticMetadata> columnStatistics = columns.stream()
                 .filter(column -> !partitionedBy.contains(column.getName()))
                 .filter(column -> !column.isHidden())
                 .filter(column -> analyzeColumns.isEmpty() || analyzeColumns.get().contains(column.getName()))
-                .map(this::getColumnStatisticMetadata)
+                .map(column -> getColumnStatisticMetadata(session, column))
                 .flatMap(List::stream)
                 .collect(toImmutableSet());
 
@@ -2390,9 +2432,13 @@ public class HiveMetadata
         return new TableStatisticsMetadata(columnStatistics, tableStatistics, partitionedBy);
     }
 
-    private List<ColumnStatisticMetadata> getColumnStatisticMetadata(ColumnMetadata columnMetadata)
+    private List<ColumnStatisticMetadata> getColumnStatisticMetadata(ConnectorSession session, ColumnMetadata columnMetadata)
     {
-        return getColumnStatisticMetadata(columnMetadata.getName(), metastore.getSupportedColumnStatistics(columnMetadata.getType()));
+        Set<ColumnStatisticType> statisticTypes = metastore.getSupportedColumnStatistics(columnMetadata.getType());
+        if (!isCollectDistinctValuesSketches(session)) {
+            statisticTypes = Sets.difference(statisticTypes, ImmutableSet.of(NUMBER_OF_DISTINCT_VALUES_SUMMARY));
+        }
+        return getColumnStatisticMetadata(columnMetadata.getName(), statisticTypes);
     }
 
     private List<ColumnStatisticMetadata> getColumnStatisticMetadata(String columnName, Set<ColumnStatisticType> statisticTypes)
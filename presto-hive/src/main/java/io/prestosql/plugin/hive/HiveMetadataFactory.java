@@ -50,6 +50,7 @@ public class HiveMetadataFactory
     private final JsonCodec<PartitionUpdate> partitionUpdateCodec;
     private final BoundedExecutor renameExecution;
     private final BoundedExecutor dropExecutor;
+    private final BoundedExecutor updateExecutor;
     private final String prestoVersion;
     private final AccessControlMetadataFactory accessControlMetadataFactory;
     private final Optional<Duration> hiveTransactionHeartbeatInterval;
@@ -78,6 +79,7 @@ public class HiveMetadataFactory
                 partitionManager,
                 hiveConfig.getMaxConcurrentFileRenames(),
                 hiveConfig.getMaxConcurrentMetastoreDrops(),
+                hiveConfig.getMaxConcurrentMetastoreUpdates(),
                 hiveConfig.isSkipDeletionForAlter(),
                 hiveConfig.isSkipTargetCleanupOnRollback(),
                 hiveConfig.getWritesToNonManagedTablesEnabled(),
@@ -101,6 +103,7 @@ public class HiveMetadataFactory
             HivePartitionManager partitionManager,
             int maxConcurrentFileRenames,
             int maxConcurrentMetastoreDrops,
+            int maxConcurrentMetastoreUpdates,
             boolean skipDeletionForAlter,
             boolean skipTargetCleanupOnRollback,
             boolean writesToNonManagedTablesEnabled,
@@ -136,6 +139,7 @@ public class HiveMetadataFactory
 
         renameExecution = new BoundedExecutor(executorService, maxConcurrentFileRenames);
         dropExecutor = new BoundedExecutor(executorService, maxConcurrentMetastoreDrops);
+        updateExecutor = new BoundedExecutor(executorService, maxConcurrentMetastoreUpdates);
         this.heartbeatService = requireNonNull(heartbeatService, "heartbeatService is null");
     }
 
@@ -147,6 +151,7 @@ public class HiveMetadataFactory
                 new HiveMetastoreClosure(memoizeMetastore(this.metastore, perTransactionCacheMaximumSize)), // per-transaction cache
                 renameExecution,
                 dropExecutor,
+                updateExecutor,
                 skipDeletionForAlter,
                 skipTargetCleanupOnRollback,
                 hiveTransactionHeartbeatInterval,
@@ -20,9 +20,13 @@ import com.google.inject.Module;
 import com.google.inject.Provides;
 import com.google.inject.Scopes;
 import com.google.inject.multibindings.Multibinder;
+import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.event.client.EventClient;
 import io.prestosql.plugin.base.CatalogName;
+import io.prestosql.plugin.hive.cache.LocalDataCache;
+import io.prestosql.plugin.hive.cache.LocalDataCacheConfig;
 import io.prestosql.plugin.hive.metastore.SemiTransactionalHiveMetastore;
+import io.prestosql.plugin.hive.orc.OrcDeleteDeltaCache;
 import io.prestosql.plugin.hive.orc.OrcFileWriterFactory;
 import io.prestosql.plugin.hive.orc.OrcPageSourceFactory;
 import io.prestosql.plugin.hive.orc.OrcReaderConfig;
@@ -46,6 +50,7 @@ import io.prestosql.spi.type.TypeManager;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Function;
@@ -100,6 +105,13 @@ public class HiveModule
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).withGeneratedName();
 
+        configBinder(binder).bindConfig(LocalDataCacheConfig.class);
+        binder.bind(LocalDataCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(LocalDataCache.class).withGeneratedName();
+
+        binder.bind(OrcDeleteDeltaCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(OrcDeleteDeltaCache.class).withGeneratedName();
+
         Multibinder<HivePageSourceFactory> pageSourceFactoryBinder = newSetBinder(binder, HivePageSourceFactory.class);
         pageSourceFactoryBinder.addBinding().to(OrcPageSourceFactory.class).in(Scopes.SINGLETON);
         pageSourceFactoryBinder.addBinding().to(ParquetPageSourceFactory.class).in(Scopes.SINGLETON);
@@ -134,6 +146,26 @@ public class HiveModule
         return newCachedThreadPool(daemonThreadsNamed("hive-" + catalogName + "-%s"));
     }
 
+    @ForHiveAsyncRead
+    @Singleton
+    @Provides
+    public Executor createHiveAsyncReadExecutor(CatalogName catalogName, HiveConfig hiveConfig)
+    {
+        return new BoundedExecutor(
+                newCachedThreadPool(daemonThreadsNamed("hive-async-read-" + catalogName + "-%s")),
+                hiveConfig.getMaxAsyncReadThreads());
+    }
+
+    @ForHiveOrcWriter
+    @Singleton
+    @Provides
+    public Executor createHiveOrcWriterExecutor(CatalogName catalogName, OrcWriterConfig orcWriterConfig)
+    {
+        return new BoundedExecutor(
+                newCachedThreadPool(daemonThreadsNamed("hive-orc-writer-" + catalogName + "-%s")),
+                orcWriterConfig.getMaxEncodingThreads());
+    }
+
     @ForHiveTransactionHeartbeats
     @Singleton
     @Provides
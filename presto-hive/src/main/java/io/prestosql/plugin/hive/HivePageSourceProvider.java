@@ -19,6 +19,7 @@ import io.prestosql.plugin.hive.HdfsEnvironment.HdfsContext;
 import io.prestosql.plugin.hive.HivePageSourceFactory.ReaderPageSourceWithProjections;
 import io.prestosql.plugin.hive.HiveRecordCursorProvider.ReaderRecordCursorWithProjections;
 import io.prestosql.plugin.hive.HiveSplit.BucketConversion;
+import io.prestosql.plugin.hive.HiveSplit.CombinedFile;
 import io.prestosql.plugin.hive.util.HiveBucketing.BucketingVersion;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorPageSource;
@@ -46,6 +47,7 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -94,7 +96,32 @@ public class HivePageSourceProvider
                 .collect(toList());
 
         HiveSplit hiveSplit = (HiveSplit) split;
-        Path path = new Path(hiveSplit.getPath());
+        TupleDomain<HiveColumnHandle> effectivePredicate = hiveTable.getCompactEffectivePredicate().intersect(dynamicFilter.transform(HiveColumnHandle.class::cast).simplify());
+
+        if (hiveSplit.getCombinedFiles().isEmpty()) {
+            return createPageSource(session, hiveSplit, hiveSplit.getPath(), hiveSplit.getStart(), hiveSplit.getLength(), hiveSplit.getEstimatedFileSize(), hiveSplit.getFileModifiedTime(), effectivePredicate, hiveColumns);
+        }
+
+        ImmutableList.Builder<Supplier<ConnectorPageSource>> pageSources = ImmutableList.builder();
+        pageSources.add(() -> createPageSource(session, hiveSplit, hiveSplit.getPath(), hiveSplit.getStart(), hiveSplit.getLength(), hiveSplit.getEstimatedFileSize(), hiveSplit.getFileModifiedTime(), effectivePredicate, hiveColumns));
+        for (CombinedFile file : hiveSplit.getCombinedFiles()) {
+            pageSources.add(() -> createPageSource(session, hiveSplit, file.getPath(), 0, file.getFileSize(), file.getFileSize(), file.getFileModifiedTime(), effectivePredicate, hiveColumns));
+        }
+        return new HiveCombinedPageSource(pageSources.build());
+    }
+
+    private ConnectorPageSource createPageSource(
+            ConnectorSession session,
+            HiveSplit hiveSplit,
+            String filePath,
+            long start,
+            long length,
+            long estimatedFileSize,
+            long fileModifiedTime,
+            TupleDomain<HiveColumnHandle> effectivePredicate,
+            List<HiveColumnHandle> hiveColumns)
+    {
+        Path path = new Path(filePath);
 
         Configuration configuration = hdfsEnvironment.getConfiguration(new HdfsContext(session, hiveSplit.getDatabase(), hiveSplit.getTable()), path);
 
@@ -105,12 +132,12 @@ public class HivePageSourceProvider
                 session,
                 path,
                 hiveSplit.getBucketNumber(),
-                hiveSplit.getStart(),
-                hiveSplit.getLength(),
-                hiveSplit.getEstimatedFileSize(),
-                hiveSplit.getFileModifiedTime(),
+                start,
+                length,
+                estimatedFileSize,
+                fileModifiedTime,
                 hiveSplit.getSchema(),
-                hiveTable.getCompactEffectivePredicate().intersect(dynamicFilter.transform(HiveColumnHandle.class::cast).simplify()),
+                effectivePredicate,
                 hiveColumns,
                 hiveSplit.getPartitionName(),
                 hiveSplit.getPartitionKeys(),
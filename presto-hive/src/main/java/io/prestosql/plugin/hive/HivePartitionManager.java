@@ -14,6 +14,7 @@
 package io.prestosql.plugin.hive;
 
 import com.google.common.base.VerifyException;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
@@ -40,7 +41,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -56,7 +56,10 @@ import static java.util.stream.Collectors.toList;
 
 public class HivePartitionManager
 {
+    private static final Predicate<Map<ColumnHandle, NullableValue>> ALL_PARTITIONS = partition -> true;
+
     private final int maxPartitions;
+    private final int maxPartitionsForEagerLoad;
     private final int domainCompactionThreshold;
 
     @Inject
@@ -64,15 +67,19 @@ public class HivePartitionManager
     {
         this(
                 hiveConfig.getMaxPartitionsPerScan(),
+                hiveConfig.getMaxPartitionsForEagerLoad(),
                 hiveConfig.getDomainCompactionThreshold());
     }
 
     public HivePartitionManager(
             int maxPartitions,
+            int maxPartitionsForEagerLoad,
             int domainCompactionThreshold)
     {
         checkArgument(maxPartitions >= 1, "maxPartitions must be at least 1");
         this.maxPartitions = maxPartitions;
+        checkArgument(maxPartitionsForEagerLoad >= 1, "maxPartitionsForEagerLoad must be at least 1");
+        this.maxPartitionsForEagerLoad = maxPartitionsForEagerLoad;
         checkArgument(domainCompactionThreshold >= 1, "domainCompactionThreshold must be at least 1");
         this.domainCompactionThreshold = domainCompactionThreshold;
     }
@@ -115,7 +122,7 @@ public class HivePartitionManager
                 .collect(toList());
 
         Iterable<HivePartition> partitionsIterable;
-        Predicate<Map<ColumnHandle, NullableValue>> predicate = constraint.predicate().orElse(value -> true);
+        Predicate<Map<ColumnHandle, NullableValue>> predicate = getPartitionPredicate(hiveTableHandle, constraint);
         if (hiveTableHandle.getPartitions().isPresent()) {
             partitionsIterable = hiveTableHandle.getPartitions().get().stream()
                     .filter(partition -> partitionMatches(partitionColumns, effectivePredicate, predicate, partition))
@@ -162,40 +169,63 @@ public class HivePartitionManager
     }
 
     public List<HivePartition> getPartitionsAsList(HivePartitionResult partitionResult)
+    {
+        return ImmutableList.copyOf(limitPartitions(partitionResult.getPartitions()));
+    }
+
+    /**
+     * Returns the partitions of the result, or empty when there are more than
+     * {@code maxPartitionsForEagerLoad} of them. Such partitions are not retained
+     * in the table handle, but streamed by {@link #getPartitions(SemiTransactionalHiveMetastore, HiveIdentity, HiveTableHandle)}
+     * during split generation.
+     */
+    public Optional<List<HivePartition>> getPartitionsForEagerLoad(HivePartitionResult partitionResult)
     {
         ImmutableList.Builder<HivePartition> partitionList = ImmutableList.builder();
         int count = 0;
-        Iterator<HivePartition> iterator = partitionResult.getPartitions();
+        Iterator<HivePartition> iterator = limitPartitions(partitionResult.getPartitions());
         while (iterator.hasNext()) {
-            HivePartition partition = iterator.next();
-            if (count == maxPartitions) {
-                throw new PrestoException(HIVE_EXCEEDED_PARTITION_LIMIT, format(
-                        "Query over table '%s' can potentially read more than %s partitions",
-                        partition.getTableName(),
-                        maxPartitions));
+            if (count == maxPartitionsForEagerLoad) {
+                return Optional.empty();
             }
-            partitionList.add(partition);
+            partitionList.add(iterator.next());
             count++;
         }
-        return partitionList.build();
+        return Optional.of(partitionList.build());
     }
 
-    public HiveTableHandle applyPartitionResult(HiveTableHandle handle, HivePartitionResult partitions, Optional<Set<ColumnHandle>> columns)
+    public HiveTableHandle applyPartitionResult(HiveTableHandle handle, HivePartitionResult partitions, Constraint constraint)
     {
+        Optional<List<HivePartition>> partitionList;
+        if (handle.getAnalyzePartitionValues().isPresent()) {
+            // explicitly listed partitions cannot be recomputed from the enforced constraint
+            partitionList = Optional.of(getPartitionsAsList(partitions));
+        }
+        else {
+            partitionList = getPartitionsForEagerLoad(partitions);
+        }
+
+        // streamed partitions are recomputed from the enforced constraint and the predicate they were filtered with
+        Optional<Predicate<Map<ColumnHandle, NullableValue>>> streamedPartitionsPredicate = Optional.empty();
+        if (partitionList.isEmpty()) {
+            streamedPartitionsPredicate = Optional.of(getPartitionPredicate(handle, constraint));
+        }
+
         return new HiveTableHandle(
                 handle.getSchemaName(),
                 handle.getTableName(),
                 handle.getTableParameters(),
                 ImmutableList.copyOf(partitions.getPartitionColumns()),
-                Optional.of(getPartitionsAsList(partitions)),
+                partitionList,
                 partitions.getCompactEffectivePredicate(),
                 partitions.getEnforcedConstraint(),
                 partitions.getBucketHandle(),
                 partitions.getBucketFilter(),
                 handle.getAnalyzePartitionValues(),
                 handle.getAnalyzeColumnNames(),
-                Optionals.combine(handle.getConstraintColumns(), columns,
-                        Sets::union));
+                Optionals.combine(handle.getConstraintColumns(), constraint.getPredicateColumns(),
+                        Sets::union),
+                streamedPartitionsPredicate);
     }
 
     public List<HivePartition> getOrLoadPartitions(SemiTransactionalHiveMetastore metastore, HiveIdentity identity, HiveTableHandle table)
@@ -204,6 +234,55 @@ public class HivePartitionManager
                 getPartitionsAsList(getPartitions(metastore, identity, table, new Constraint(table.getEnforcedConstraint()))));
     }
 
+    /**
+     * Like {@link #getOrLoadPartitions}, but partitions which are not loaded in the handle
+     * are produced lazily, so the caller can start processing them before all of them are parsed and filtered.
+     */
+    public Iterator<HivePartition> getPartitions(SemiTransactionalHiveMetastore metastore, HiveIdentity identity, HiveTableHandle table)
+    {
+        return table.getPartitions()
+                .map(List::iterator)
+                .orElseGet(() -> limitPartitions(getPartitions(metastore, identity, table, new Constraint(table.getEnforcedConstraint())).getPartitions()));
+    }
+
+    private static Predicate<Map<ColumnHandle, NullableValue>> getPartitionPredicate(HiveTableHandle handle, Constraint constraint)
+    {
+        if (constraint.predicate().isEmpty()) {
+            // keep the predicate of the handle, so that filtering it again yields an equal handle
+            return handle.getStreamedPartitionsPredicate().orElse(ALL_PARTITIONS);
+        }
+        Predicate<Map<ColumnHandle, NullableValue>> predicate = constraint.predicate().get();
+        // the partitions of the handle have been filtered with its predicate as well
+        return handle.getStreamedPartitionsPredicate()
+                .map(predicate::and)
+                .orElse(predicate);
+    }
+
+    private Iterator<HivePartition> limitPartitions(Iterator<HivePartition> partitions)
+    {
+        return new AbstractIterator<>()
+        {
+            private int count;
+
+            @Override
+            protected HivePartition computeNext()
+            {
+                if (!partitions.hasNext()) {
+                    return endOfData();
+                }
+                HivePartition partition = partitions.next();
+                if (count == maxPartitions) {
+                    throw new PrestoException(HIVE_EXCEEDED_PARTITION_LIMIT, format(
+                            "Query over table '%s' can potentially read more than %s partitions",
+                            partition.getTableName(),
+                            maxPartitions));
+                }
+                count++;
+                return partition;
+            }
+        };
+    }
+
     private Optional<HivePartition> parseValuesAndFilterPartition(
             SchemaTableName tableName,
             String partitionId,
@@ -64,6 +64,7 @@ public final class HiveSessionProperties
     private static final String ORC_OPTIMIZED_WRITER_MAX_STRIPE_SIZE = "orc_optimized_writer_max_stripe_size";
     private static final String ORC_OPTIMIZED_WRITER_MAX_STRIPE_ROWS = "orc_optimized_writer_max_stripe_rows";
     private static final String ORC_OPTIMIZED_WRITER_MAX_DICTIONARY_MEMORY = "orc_optimized_writer_max_dictionary_memory";
+    private static final String ORC_OPTIMIZED_WRITER_PARALLEL_ENCODING_ENABLED = "orc_optimized_writer_parallel_encoding_enabled";
     private static final String ORC_USE_COLUMN_NAME = "orc_use_column_names";
     private static final String HIVE_STORAGE_FORMAT = "hive_storage_format";
     private static final String COMPRESSION_CODEC = "compression_codec";
@@ -75,14 +76,19 @@ public final class HiveSessionProperties
     private static final String PARQUET_MAX_READ_BLOCK_SIZE = "parquet_max_read_block_size";
     private static final String PARQUET_WRITER_BLOCK_SIZE = "parquet_writer_block_size";
     private static final String PARQUET_WRITER_PAGE_SIZE = "parquet_writer_page_size";
+    private static final String PARQUET_WRITER_DICTIONARY_PAGE_SIZE = "parquet_writer_dictionary_page_size";
+    private static final String PARQUET_WRITER_DICTIONARY_ENCODING_ENABLED = "parquet_writer_dictionary_encoding_enabled";
     private static final String MAX_SPLIT_SIZE = "max_split_size";
     private static final String MAX_INITIAL_SPLIT_SIZE = "max_initial_split_size";
+    private static final String INITIAL_OUTSTANDING_SPLITS = "initial_outstanding_splits";
+    private static final String COMBINED_SPLIT_TARGET_SIZE = "combined_split_target_size";
     private static final String RCFILE_OPTIMIZED_WRITER_VALIDATE = "rcfile_optimized_writer_validate";
     private static final String SORTED_WRITING_ENABLED = "sorted_writing_enabled";
     private static final String STATISTICS_ENABLED = "statistics_enabled";
     private static final String PARTITION_STATISTICS_SAMPLE_SIZE = "partition_statistics_sample_size";
     private static final String IGNORE_CORRUPTED_STATISTICS = "ignore_corrupted_statistics";
     private static final String COLLECT_COLUMN_STATISTICS_ON_WRITE = "collect_column_statistics_on_write";
+    private static final String COLLECT_DISTINCT_VALUES_SKETCHES = "collect_distinct_values_sketches";
     private static final String OPTIMIZE_MISMATCHED_BUCKET_COUNT = "optimize_mismatched_bucket_count";
     private static final String S3_SELECT_PUSHDOWN_ENABLED = "s3_select_pushdown_enabled";
     private static final String TEMPORARY_STAGING_DIRECTORY_ENABLED = "temporary_staging_directory_enabled";
@@ -93,6 +99,7 @@ public final class HiveSessionProperties
     private static final String TIMESTAMP_PRECISION = "timestamp_precision";
     private static final String PARQUET_OPTIMIZED_WRITER_ENABLED = "parquet_optimized_writer_enabled";
     private static final String DYNAMIC_FILTERING_PROBE_BLOCKING_TIMEOUT = "dynamic_filtering_probe_blocking_timeout";
+    private static final String ASYNC_READ_ENABLED = "async_read_enabled";
 
     private final List<PropertyMetadata<?>> sessionProperties;
 
@@ -237,6 +244,11 @@ public final class HiveSessionProperties
                         "ORC: Max dictionary memory",
                         orcWriterConfig.getDictionaryMaxMemory(),
                         false),
+                booleanProperty(
+                        ORC_OPTIMIZED_WRITER_PARALLEL_ENCODING_ENABLED,
+                        "Experimental: ORC: Encode columns in parallel and write stripes in the background",
+                        orcWriterConfig.isParallelEncodingEnabled(),
+                        false),
                 booleanProperty(
                         ORC_USE_COLUMN_NAME,
                         "Orc: Access ORC columns using names from the file",
@@ -294,6 +306,16 @@ public final class HiveSessionProperties
                         "Parquet: Writer page size",
                         parquetWriterConfig.getPageSize(),
                         false),
+                dataSizeProperty(
+                        PARQUET_WRITER_DICTIONARY_PAGE_SIZE,
+                        "Parquet: Writer dictionary page size, above which a column falls back to plain encoding",
+                        parquetWriterConfig.getDictionaryPageSize(),
+                        false),
+                booleanProperty(
+                        PARQUET_WRITER_DICTIONARY_ENCODING_ENABLED,
+                        "Parquet: Use dictionary encoding in the optimized writer",
+                        parquetWriterConfig.isDictionaryEncodingEnabled(),
+                        false),
                 dataSizeProperty(
                         MAX_SPLIT_SIZE,
                         "Max split size",
@@ -304,6 +326,16 @@ public final class HiveSessionProperties
                         "Max initial split size",
                         hiveConfig.getMaxInitialSplitSize(),
                         true),
+                integerProperty(
+                        INITIAL_OUTSTANDING_SPLITS,
+                        "Initial target number of buffered splits for each table scan, which grows while the splits are consumed",
+                        hiveConfig.getInitialOutstandingSplits(),
+                        false),
+                dataSizeProperty(
+                        COMBINED_SPLIT_TARGET_SIZE,
+                        "Target size of splits combining multiple small files, 0 disables combining",
+                        hiveConfig.getCombinedSplitTargetSize(),
+                        false),
                 booleanProperty(
                         RCFILE_OPTIMIZED_WRITER_VALIDATE,
                         "RCFile: Validate writer files",
@@ -334,6 +366,11 @@ public final class HiveSessionProperties
                         "Enables automatic column level statistics collection on write",
                         hiveConfig.isCollectColumnStatisticsOnWrite(),
                         false),
+                booleanProperty(
+                        COLLECT_DISTINCT_VALUES_SKETCHES,
+                        "Store mergeable sketches of column values with statistics to estimate the number of distinct values across partitions",
+                        hiveConfig.isCollectDistinctValuesSketches(),
+                        false),
                 booleanProperty(
                         OPTIMIZE_MISMATCHED_BUCKET_COUNT,
                         "Experimental: Enable optimization to avoid shuffle when bucket count is compatible but not the same",
@@ -384,6 +421,11 @@ public final class HiveSessionProperties
                         DYNAMIC_FILTERING_PROBE_BLOCKING_TIMEOUT,
                         "Duration to wait for completion of dynamic filters during split generation for probe side table",
                         hiveConfig.getDynamicFilteringProbeBlockingTimeout(),
+                        false),
+                booleanProperty(
+                        ASYNC_READ_ENABLED,
+                        "Experimental: Read small ORC and Parquet file segments concurrently",
+                        hiveConfig.isAsyncReadEnabled(),
                         false));
     }
 
@@ -494,6 +536,11 @@ public final class HiveSessionProperties
         return session.getProperty(ORC_OPTIMIZED_WRITER_MAX_DICTIONARY_MEMORY, DataSize.class);
     }
 
+    public static boolean isOrcOptimizedWriterParallelEncodingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ORC_OPTIMIZED_WRITER_PARALLEL_ENCODING_ENABLED, Boolean.class);
+    }
+
     public static boolean isUseOrcColumnNames(ConnectorSession session)
     {
         Boolean useOrcColumnNames = session.getProperty(ORC_USE_COLUMN_NAME, Boolean.class);
@@ -567,6 +614,16 @@ public final class HiveSessionProperties
         return session.getProperty(PARQUET_WRITER_PAGE_SIZE, DataSize.class);
     }
 
+    public static DataSize getParquetWriterDictionaryPageSize(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_WRITER_DICTIONARY_PAGE_SIZE, DataSize.class);
+    }
+
+    public static boolean isParquetWriterDictionaryEncodingEnabled(ConnectorSession session)
+    {
+        return session.getProperty(PARQUET_WRITER_DICTIONARY_ENCODING_ENABLED, Boolean.class);
+    }
+
     public static DataSize getMaxSplitSize(ConnectorSession session)
     {
         return session.getProperty(MAX_SPLIT_SIZE, DataSize.class);
@@ -577,6 +634,20 @@ public final class HiveSessionProperties
         return session.getProperty(MAX_INITIAL_SPLIT_SIZE, DataSize.class);
     }
 
+    public static int getInitialOutstandingSplits(ConnectorSession session)
+    {
+        int initialOutstandingSplits = session.getProperty(INITIAL_OUTSTANDING_SPLITS, Integer.class);
+        if (initialOutstandingSplits < 1) {
+            throw new PrestoException(INVALID_SESSION_PROPERTY, format("%s must be greater than 0: %s", INITIAL_OUTSTANDING_SPLITS, initialOutstandingSplits));
+        }
+        return initialOutstandingSplits;
+    }
+
+    public static DataSize getCombinedSplitTargetSize(ConnectorSession session)
+    {
+        return session.getProperty(COMBINED_SPLIT_TARGET_SIZE, DataSize.class);
+    }
+
     public static boolean isRcfileOptimizedWriterValidate(ConnectorSession session)
     {
         return session.getProperty(RCFILE_OPTIMIZED_WRITER_VALIDATE, Boolean.class);
@@ -616,6 +687,11 @@ public final class HiveSessionProperties
         return session.getProperty(COLLECT_COLUMN_STATISTICS_ON_WRITE, Boolean.class);
     }
 
+    public static boolean isCollectDistinctValuesSketches(ConnectorSession session)
+    {
+        return session.getProperty(COLLECT_DISTINCT_VALUES_SKETCHES, Boolean.class);
+    }
+
     public static boolean isOptimizedMismatchedBucketCount(ConnectorSession session)
     {
         return session.getProperty(OPTIMIZE_MISMATCHED_BUCKET_COUNT, Boolean.class);
@@ -660,4 +736,9 @@ public final class HiveSessionProperties
     {
         return session.getProperty(DYNAMIC_FILTERING_PROBE_BLOCKING_TIMEOUT, Duration.class);
     }
+
+    public static boolean isAsyncReadEnabled(ConnectorSession session)
+    {
+        return session.getProperty(ASYNC_READ_ENABLED, Boolean.class);
+    }
 }
@@ -51,6 +51,7 @@ public class HiveSplit
     private final Optional<BucketConversion> bucketConversion;
     private final boolean s3SelectPushdownEnabled;
     private final Optional<AcidInfo> acidInfo;
+    private final List<CombinedFile> combinedFiles;
 
     @JsonCreator
     public HiveSplit(
@@ -70,7 +71,8 @@ public class HiveSplit
             @JsonProperty("tableToPartitionMapping") TableToPartitionMapping tableToPartitionMapping,
             @JsonProperty("bucketConversion") Optional<BucketConversion> bucketConversion,
             @JsonProperty("s3SelectPushdownEnabled") boolean s3SelectPushdownEnabled,
-            @JsonProperty("acidInfo") Optional<AcidInfo> acidInfo)
+            @JsonProperty("acidInfo") Optional<AcidInfo> acidInfo,
+            @JsonProperty("combinedFiles") List<CombinedFile> combinedFiles)
     {
         checkArgument(start >= 0, "start must be positive");
         checkArgument(length >= 0, "length must be positive");
@@ -86,6 +88,8 @@ public class HiveSplit
         requireNonNull(tableToPartitionMapping, "tableToPartitionMapping is null");
         requireNonNull(bucketConversion, "bucketConversion is null");
         requireNonNull(acidInfo, "acidInfo is null");
+        requireNonNull(combinedFiles, "combinedFiles is null");
+        checkArgument(combinedFiles.isEmpty() || acidInfo.isEmpty(), "ACID splits cannot be combined");
 
         this.database = database;
         this.table = table;
@@ -104,6 +108,7 @@ public class HiveSplit
         this.bucketConversion = bucketConversion;
         this.s3SelectPushdownEnabled = s3SelectPushdownEnabled;
         this.acidInfo = acidInfo;
+        this.combinedFiles = ImmutableList.copyOf(combinedFiles);
     }
 
     @JsonProperty
@@ -215,6 +220,15 @@ public class HiveSplit
         return acidInfo;
     }
 
+    /**
+     * Whole files of the same partition and bucket that are read after the file of this split.
+     */
+    @JsonProperty
+    public List<CombinedFile> getCombinedFiles()
+    {
+        return combinedFiles;
+    }
+
     @Override
     public Object getInfo()
     {
@@ -229,6 +243,7 @@ public class HiveSplit
                 .put("forceLocalScheduling", forceLocalScheduling)
                 .put("partitionName", partitionName)
                 .put("s3SelectPushdownEnabled", s3SelectPushdownEnabled)
+                .put("combinedFiles", combinedFiles.size())
                 .build();
     }
 
@@ -240,9 +255,77 @@ public class HiveSplit
                 .addValue(start)
                 .addValue(length)
                 .addValue(estimatedFileSize)
+                .add("combinedFiles", combinedFiles.size())
                 .toString();
     }
 
+    public static class CombinedFile
+    {
+        private final String path;
+        private final long fileSize;
+        private final long fileModifiedTime;
+
+        @JsonCreator
+        public CombinedFile(
+                @JsonProperty("path") String path,
+                @JsonProperty("fileSize") long fileSize,
+                @JsonProperty("fileModifiedTime") long fileModifiedTime)
+        {
+            checkArgument(fileSize >= 0, "fileSize must be positive");
+            this.path = requireNonNull(path, "path is null");
+            this.fileSize = fileSize;
+            this.fileModifiedTime = fileModifiedTime;
+        }
+
+        @JsonProperty
+        public String getPath()
+        {
+            return path;
+        }
+
+        @JsonProperty
+        public long getFileSize()
+        {
+            return fileSize;
+        }
+
+        @JsonProperty
+        public long getFileModifiedTime()
+        {
+            return fileModifiedTime;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CombinedFile that = (CombinedFile) o;
+            return fileSize == that.fileSize &&
+                    fileModifiedTime == that.fileModifiedTime &&
+                    path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, fileModifiedTime);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .addValue(path)
+                    .addValue(fileSize)
+                    .toString();
+        }
+    }
+
     public static class BucketConversion
     {
         private final BucketingVersion bucketingVersion;
@@ -18,8 +18,10 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
+import com.google.common.collect.PeekingIterator;
 import io.airlift.concurrent.BoundedExecutor;
 import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.airlift.units.DataSize;
 import io.prestosql.plugin.hive.authentication.HiveIdentity;
 import io.prestosql.plugin.hive.metastore.Column;
@@ -58,8 +60,8 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Iterables.concat;
-import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterables.transform;
+import static com.google.common.collect.Iterators.peekingIterator;
 import static io.prestosql.plugin.hive.BackgroundHiveSplitLoader.BucketSplitInfo.createBucketSplitInfo;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_PARTITION_DROPPED_DURING_QUERY;
@@ -80,6 +82,7 @@ import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class HiveSplitManager
         implements ConnectorSplitManager
@@ -102,6 +105,7 @@ public class HiveSplitManager
     private final int maxSplitsPerSecond;
     private final boolean recursiveDfsWalkerEnabled;
     private final CounterStat highMemorySplitSourceCounter;
+    private final TimeStat splitWaitTime = new TimeStat(MILLISECONDS);
     private final TypeManager typeManager;
 
     @Inject
@@ -195,10 +199,18 @@ public class HiveSplitManager
         }
 
         // get partitions
-        List<HivePartition> partitions = partitionManager.getOrLoadPartitions(metastore, new HiveIdentity(session), hiveTable);
+        Iterator<HivePartition> partitions;
+        if (hiveTable.getPartitions().isPresent()) {
+            // sort partitions
+            partitions = Ordering.natural().onResultOf(HivePartition::getPartitionId).reverse().sortedCopy(hiveTable.getPartitions().get()).iterator();
+        }
+        else {
+            // partitions of large scans are not loaded during planning, so stream them in metastore order
+            partitions = partitionManager.getPartitions(metastore, new HiveIdentity(session), hiveTable);
+        }
 
         // short circuit if we don't have any partitions
-        if (partitions.isEmpty()) {
+        if (!partitions.hasNext()) {
             return new FixedSplitSource(ImmutableList.of());
         }
 
@@ -211,9 +223,6 @@ public class HiveSplitManager
             throw new PrestoException(GENERIC_INTERNAL_ERROR, "SchedulingPolicy is bucketed, but BucketHandle is not present");
         }
 
-        // sort partitions
-        partitions = Ordering.natural().onResultOf(HivePartition::getPartitionId).reverse().sortedCopy(partitions);
-
         Iterable<HivePartitionMetadata> hivePartitions = getPartitionMetadata(session, metastore, table, tableName, partitions, bucketHandle.map(HiveBucketHandle::toTableBucketProperty));
 
         HiveSplitLoader hiveSplitLoader = new BackgroundHiveSplitLoader(
@@ -248,7 +257,8 @@ public class HiveSplitManager
                         maxSplitsPerSecond,
                         hiveSplitLoader,
                         executor,
-                        highMemorySplitSourceCounter);
+                        highMemorySplitSourceCounter,
+                        splitWaitTime);
                 break;
             case GROUPED_SCHEDULING:
                 splitSource = HiveSplitSource.bucketed(
@@ -261,7 +271,8 @@ public class HiveSplitManager
                         maxSplitsPerSecond,
                         hiveSplitLoader,
                         executor,
-                        highMemorySplitSourceCounter);
+                        highMemorySplitSourceCounter,
+                        splitWaitTime);
                 break;
             default:
                 throw new IllegalArgumentException("Unknown splitSchedulingStrategy: " + splitSchedulingStrategy);
@@ -278,19 +289,29 @@ public class HiveSplitManager
         return highMemorySplitSourceCounter;
     }
 
-    private Iterable<HivePartitionMetadata> getPartitionMetadata(ConnectorSession session, SemiTransactionalHiveMetastore metastore, Table table, SchemaTableName tableName, List<HivePartition> hivePartitions, Optional<HiveBucketProperty> bucketProperty)
+    @Managed
+    @Nested
+    public TimeStat getSplitWaitTime()
     {
-        if (hivePartitions.isEmpty()) {
+        return splitWaitTime;
+    }
+
+    private Iterable<HivePartitionMetadata> getPartitionMetadata(ConnectorSession session, SemiTransactionalHiveMetastore metastore, Table table, SchemaTableName tableName, Iterator<HivePartition> partitions, Optional<HiveBucketProperty> bucketProperty)
+    {
+        PeekingIterator<HivePartition> hivePartitions = peekingIterator(partitions);
+        if (!hivePartitions.hasNext()) {
             return ImmutableList.of();
         }
 
-        if (hivePartitions.size() == 1) {
-            HivePartition firstPartition = getOnlyElement(hivePartitions);
-            if (firstPartition.getPartitionId().equals(UNPARTITIONED_ID)) {
-                return ImmutableList.of(new HivePartitionMetadata(firstPartition, Optional.empty(), TableToPartitionMapping.empty()));
-            }
+        HivePartition firstPartition = hivePartitions.peek();
+        if (firstPartition.getPartitionId().equals(UNPARTITIONED_ID)) {
+            hivePartitions.next();
+            checkArgument(!hivePartitions.hasNext(), "single partition is expected for unpartitioned table");
+            return ImmutableList.of(new HivePartitionMetadata(firstPartition, Optional.empty(), TableToPartitionMapping.empty()));
         }
 
+        // partition batches are fetched from the metastore on demand, while the
+        // split loader is already generating splits for the previous batches
         Iterable<List<HivePartition>> partitionNameBatches = partitionExponentially(hivePartitions, minPartitionBatchSize, maxPartitionBatchSize);
         Iterable<List<HivePartitionMetadata>> partitionBatches = transform(partitionNameBatches, partitionBatch -> {
             Map<String, Optional<Partition>> batch = metastore.getPartitionsByNames(
@@ -449,15 +470,35 @@ public class HiveSplitManager
         return Integer.bitCount(larger / smaller) == 1;
     }
 
+    /**
+     * Whether a table can be read with the given bucket count, whatever the bucket counts of its
+     * partitions are. Each partition bucket count is a power of two multiple or divisor of the table
+     * bucket count, and must in turn be a multiple or divisor of the reading bucket count.
+     */
+    static boolean isReadBucketCountCompatible(int tableBucketCount, int readBucketCount)
+    {
+        checkArgument(tableBucketCount > 0 && readBucketCount > 0);
+        if (tableBucketCount % readBucketCount != 0) {
+            return false;
+        }
+        if (Integer.bitCount(tableBucketCount / readBucketCount) == 1) {
+            // every partition bucket count is then a power of two multiple or divisor of the reading bucket count
+            return true;
+        }
+        // otherwise the reading bucket count must divide the smallest possible partition bucket count, the odd part of the table bucket count
+        int oddTableBucketCount = tableBucketCount >> Integer.numberOfTrailingZeros(tableBucketCount);
+        return oddTableBucketCount % readBucketCount == 0;
+    }
+
     /**
      * Partition the given list in exponentially (power of 2) increasing batch sizes starting at 1 up to maxBatchSize
      */
-    private static <T> Iterable<List<T>> partitionExponentially(List<T> values, int minBatchSize, int maxBatchSize)
+    private static <T> Iterable<List<T>> partitionExponentially(Iterator<T> values, int minBatchSize, int maxBatchSize)
     {
         return () -> new AbstractIterator<>()
         {
             private int currentSize = minBatchSize;
-            private final Iterator<T> iterator = values.iterator();
+            private final Iterator<T> iterator = values;
 
             @Override
             protected List<T> computeNext()
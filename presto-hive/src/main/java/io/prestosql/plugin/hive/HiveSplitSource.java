@@ -19,7 +19,9 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.log.Logger;
 import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.HiveSplit.CombinedFile;
 import io.prestosql.plugin.hive.InternalHiveSplit.InternalHiveBlock;
 import io.prestosql.plugin.hive.util.AsyncQueue;
 import io.prestosql.plugin.hive.util.AsyncQueue.BorrowResult;
@@ -54,6 +56,8 @@ import static io.airlift.units.DataSize.succinctBytes;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_EXCEEDED_SPLIT_BUFFERING_LIMIT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILE_NOT_FOUND;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_UNKNOWN_ERROR;
+import static io.prestosql.plugin.hive.HiveSessionProperties.getCombinedSplitTargetSize;
+import static io.prestosql.plugin.hive.HiveSessionProperties.getInitialOutstandingSplits;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getMaxInitialSplitSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getMaxSplitSize;
 import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.CLOSED;
@@ -61,8 +65,10 @@ import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.FAILED;
 import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.INITIAL;
 import static io.prestosql.plugin.hive.HiveSplitSource.StateKind.NO_MORE_SPLITS;
 import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 class HiveSplitSource
         implements ConnectorSplitSource
@@ -79,6 +85,7 @@ class HiveSplitSource
     private final DataSize maxSplitSize;
     private final DataSize maxInitialSplitSize;
     private final AtomicInteger remainingInitialSplits;
+    private final long combinedSplitTargetBytes;
 
     private final HiveSplitLoader splitLoader;
     private final AtomicReference<State> stateReference;
@@ -87,6 +94,7 @@ class HiveSplitSource
 
     private final CounterStat highMemorySplitSourceCounter;
     private final AtomicBoolean loggedHighMemoryWarning = new AtomicBoolean();
+    private final TimeStat splitWaitTime;
 
     private HiveSplitSource(
             ConnectorSession session,
@@ -97,7 +105,8 @@ class HiveSplitSource
             DataSize maxOutstandingSplitsSize,
             HiveSplitLoader splitLoader,
             AtomicReference<State> stateReference,
-            CounterStat highMemorySplitSourceCounter)
+            CounterStat highMemorySplitSourceCounter,
+            TimeStat splitWaitTime)
     {
         requireNonNull(session, "session is null");
         this.queryId = session.getQueryId();
@@ -108,10 +117,12 @@ class HiveSplitSource
         this.splitLoader = requireNonNull(splitLoader, "splitLoader is null");
         this.stateReference = requireNonNull(stateReference, "stateReference is null");
         this.highMemorySplitSourceCounter = requireNonNull(highMemorySplitSourceCounter, "highMemorySplitSourceCounter is null");
+        this.splitWaitTime = requireNonNull(splitWaitTime, "splitWaitTime is null");
 
         this.maxSplitSize = getMaxSplitSize(session);
         this.maxInitialSplitSize = getMaxInitialSplitSize(session);
         this.remainingInitialSplits = new AtomicInteger(maxInitialSplits);
+        this.combinedSplitTargetBytes = getCombinedSplitTargetSize(session).toBytes();
     }
 
     public static HiveSplitSource allAtOnce(
@@ -124,7 +135,8 @@ class HiveSplitSource
             int maxSplitsPerSecond,
             HiveSplitLoader splitLoader,
             Executor executor,
-            CounterStat highMemorySplitSourceCounter)
+            CounterStat highMemorySplitSourceCounter,
+            TimeStat splitWaitTime)
     {
         AtomicReference<State> stateReference = new AtomicReference<>(State.initial());
         return new HiveSplitSource(
@@ -133,7 +145,8 @@ class HiveSplitSource
                 tableName,
                 new PerBucket()
                 {
-                    private final AsyncQueue<InternalHiveSplit> queue = new ThrottledAsyncQueue<>(maxSplitsPerSecond, maxOutstandingSplits, executor);
+                    // the split loader starts with a small budget, which grows while the stage consumes the splits faster than it is allowed to buffer them
+                    private final AsyncQueue<InternalHiveSplit> queue = new ThrottledAsyncQueue<>(maxSplitsPerSecond, min(maxOutstandingSplits, getInitialOutstandingSplits(session)), executor);
 
                     @Override
                     public ListenableFuture<?> offer(OptionalInt bucketNumber, InternalHiveSplit connectorSplit)
@@ -146,6 +159,11 @@ class HiveSplitSource
                     public <O> ListenableFuture<O> borrowBatchAsync(OptionalInt bucketNumber, int maxSize, Function<List<InternalHiveSplit>, BorrowResult<InternalHiveSplit, O>> function)
                     {
                         checkArgument(bucketNumber.isEmpty());
+                        int targetQueueSize = queue.getTargetQueueSize();
+                        if (targetQueueSize < maxOutstandingSplits && queue.size() >= targetQueueSize) {
+                            // the split loader is blocked on the budget when the stage asks for more splits
+                            queue.increaseTargetQueueSize(min(maxOutstandingSplits, targetQueueSize * 2));
+                        }
                         return queue.borrowBatchAsync(maxSize, function);
                     }
 
@@ -166,7 +184,8 @@ class HiveSplitSource
                 maxOutstandingSplitsSize,
                 splitLoader,
                 stateReference,
-                highMemorySplitSourceCounter);
+                highMemorySplitSourceCounter,
+                splitWaitTime);
     }
 
     public static HiveSplitSource bucketed(
@@ -179,7 +198,8 @@ class HiveSplitSource
             int maxSplitsPerSecond,
             HiveSplitLoader splitLoader,
             Executor executor,
-            CounterStat highMemorySplitSourceCounter)
+            CounterStat highMemorySplitSourceCounter,
+            TimeStat splitWaitTime)
     {
         AtomicReference<State> stateReference = new AtomicReference<>(State.initial());
         return new HiveSplitSource(
@@ -241,7 +261,8 @@ class HiveSplitSource
                 maxOutstandingSplitsSize,
                 splitLoader,
                 stateReference,
-                highMemorySplitSourceCounter);
+                highMemorySplitSourceCounter,
+                splitWaitTime);
     }
 
     /**
@@ -334,7 +355,7 @@ class HiveSplitSource
         OptionalInt bucketNumber = toBucketNumber(partitionHandle);
         ListenableFuture<List<ConnectorSplit>> future = queues.borrowBatchAsync(bucketNumber, maxSize, internalSplits -> {
             ImmutableList.Builder<InternalHiveSplit> splitsToInsertBuilder = ImmutableList.builder();
-            ImmutableList.Builder<ConnectorSplit> resultBuilder = ImmutableList.builder();
+            ImmutableList.Builder<HiveSplit> resultBuilder = ImmutableList.builder();
             int removedEstimatedSizeInBytes = 0;
             for (InternalHiveSplit internalSplit : internalSplits) {
                 long maxSplitBytes = maxSplitSize.toBytes();
@@ -379,7 +400,8 @@ class HiveSplitSource
                         internalSplit.getTableToPartitionMapping(),
                         internalSplit.getBucketConversion(),
                         internalSplit.isS3SelectPushdownEnabled(),
-                        internalSplit.getAcidInfo()));
+                        internalSplit.getAcidInfo(),
+                        ImmutableList.of()));
 
                 internalSplit.increaseStart(splitBytes);
 
@@ -393,12 +415,18 @@ class HiveSplitSource
             estimatedSplitSizeInBytes.addAndGet(-removedEstimatedSizeInBytes);
 
             List<InternalHiveSplit> splitsToInsert = splitsToInsertBuilder.build();
-            List<ConnectorSplit> result = resultBuilder.build();
-            bufferedInternalSplitCount.addAndGet(splitsToInsert.size() - result.size());
+            List<ConnectorSplit> result = combineSmallFiles(resultBuilder.build());
+            bufferedInternalSplitCount.addAndGet(splitsToInsert.size() - internalSplits.size());
 
             return new AsyncQueue.BorrowResult<>(splitsToInsert, result);
         });
 
+        if (!future.isDone()) {
+            // no splits are buffered, so the stage waits for the split loader
+            long start = System.nanoTime();
+            future.addListener(() -> splitWaitTime.add(System.nanoTime() - start, NANOSECONDS), directExecutor());
+        }
+
         ListenableFuture<ConnectorSplitBatch> transform = Futures.transform(future, splits -> {
             requireNonNull(splits, "splits is null");
             if (noMoreSplits) {
@@ -422,6 +450,89 @@ class HiveSplitSource
         return toCompletableFuture(transform);
     }
 
+    /**
+     * Combines consecutive splits that each cover a whole small file of the same partition and bucket
+     * into a single split of about {@code combinedSplitTargetBytes}, so that tables with many tiny files
+     * do not pay the per-split scheduling and reader setup costs for each of them.
+     */
+    private List<ConnectorSplit> combineSmallFiles(List<HiveSplit> splits)
+    {
+        if (combinedSplitTargetBytes == 0) {
+            return ImmutableList.copyOf(splits);
+        }
+
+        ImmutableList.Builder<ConnectorSplit> result = ImmutableList.builder();
+        HiveSplit firstSplit = null;
+        ImmutableList.Builder<CombinedFile> combinedFiles = ImmutableList.builder();
+        long combinedBytes = 0;
+        for (HiveSplit split : splits) {
+            if (!isCombinable(split)) {
+                result.add(split);
+                continue;
+            }
+            if (firstSplit != null && (combinedBytes + split.getLength() > combinedSplitTargetBytes || !isSameFileGroup(firstSplit, split))) {
+                result.add(withCombinedFiles(firstSplit, combinedFiles.build()));
+                firstSplit = null;
+            }
+            if (firstSplit == null) {
+                firstSplit = split;
+                combinedFiles = ImmutableList.builder();
+                combinedBytes = split.getLength();
+            }
+            else {
+                combinedFiles.add(new CombinedFile(split.getPath(), split.getLength(), split.getFileModifiedTime()));
+                combinedBytes += split.getLength();
+            }
+        }
+        if (firstSplit != null) {
+            result.add(withCombinedFiles(firstSplit, combinedFiles.build()));
+        }
+        return result.build();
+    }
+
+    private boolean isCombinable(HiveSplit split)
+    {
+        return split.getStart() == 0 &&
+                split.getLength() == split.getEstimatedFileSize() &&
+                split.getLength() < combinedSplitTargetBytes &&
+                split.getAcidInfo().isEmpty() &&
+                !split.isForceLocalScheduling() &&
+                split.getCombinedFiles().isEmpty();
+    }
+
+    private static boolean isSameFileGroup(HiveSplit first, HiveSplit second)
+    {
+        return first.getPartitionName().equals(second.getPartitionName()) &&
+                first.getBucketNumber().equals(second.getBucketNumber()) &&
+                first.isS3SelectPushdownEnabled() == second.isS3SelectPushdownEnabled();
+    }
+
+    private static HiveSplit withCombinedFiles(HiveSplit split, List<CombinedFile> combinedFiles)
+    {
+        if (combinedFiles.isEmpty()) {
+            return split;
+        }
+        return new HiveSplit(
+                split.getDatabase(),
+                split.getTable(),
+                split.getPartitionName(),
+                split.getPath(),
+                split.getStart(),
+                split.getLength(),
+                split.getEstimatedFileSize(),
+                split.getFileModifiedTime(),
+                split.getSchema(),
+                split.getPartitionKeys(),
+                split.getAddresses(),
+                split.getBucketNumber(),
+                split.isForceLocalScheduling(),
+                split.getTableToPartitionMapping(),
+                split.getBucketConversion(),
+                split.isS3SelectPushdownEnabled(),
+                split.getAcidInfo(),
+                combinedFiles);
+    }
+
     @Override
     public boolean isFinished()
     {
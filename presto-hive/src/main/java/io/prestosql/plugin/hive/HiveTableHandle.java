@@ -23,6 +23,7 @@ import io.prestosql.plugin.hive.util.HiveBucketing.HiveBucketFilter;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 
 import java.util.List;
@@ -30,7 +31,9 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Predicate;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public class HiveTableHandle
@@ -48,6 +51,7 @@ public class HiveTableHandle
     private final Optional<List<List<String>>> analyzePartitionValues;
     private final Optional<Set<String>> analyzeColumnNames;
     private final Optional<Set<ColumnHandle>> constraintColumns;
+    private final Optional<Predicate<Map<ColumnHandle, NullableValue>>> streamedPartitionsPredicate;
 
     @JsonCreator
     public HiveTableHandle(
@@ -73,6 +77,7 @@ public class HiveTableHandle
                 bucketFilter,
                 analyzePartitionValues,
                 analyzeColumnNames,
+                Optional.empty(),
                 Optional.empty());
     }
 
@@ -95,6 +100,7 @@ public class HiveTableHandle
                 Optional.empty(),
                 Optional.empty(),
                 Optional.empty(),
+                Optional.empty(),
                 Optional.empty());
     }
 
@@ -110,7 +116,8 @@ public class HiveTableHandle
             Optional<HiveBucketFilter> bucketFilter,
             Optional<List<List<String>>> analyzePartitionValues,
             Optional<Set<String>> analyzeColumnNames,
-            Optional<Set<ColumnHandle>> constraintColumns)
+            Optional<Set<ColumnHandle>> constraintColumns,
+            Optional<Predicate<Map<ColumnHandle, NullableValue>>> streamedPartitionsPredicate)
     {
         this.schemaName = requireNonNull(schemaName, "schemaName is null");
         this.tableName = requireNonNull(tableName, "tableName is null");
@@ -124,6 +131,8 @@ public class HiveTableHandle
         this.analyzePartitionValues = requireNonNull(analyzePartitionValues, "analyzePartitionValues is null");
         this.analyzeColumnNames = requireNonNull(analyzeColumnNames, "analyzeColumnNames is null").map(ImmutableSet::copyOf);
         this.constraintColumns = requireNonNull(constraintColumns, "constraintColumns is null");
+        this.streamedPartitionsPredicate = requireNonNull(streamedPartitionsPredicate, "streamedPartitionsPredicate is null");
+        checkArgument(partitions.isEmpty() || streamedPartitionsPredicate.isEmpty(), "streamed partitions cannot be loaded");
     }
 
     public HiveTableHandle withAnalyzePartitionValues(List<List<String>> analyzePartitionValues)
@@ -140,7 +149,8 @@ public class HiveTableHandle
                 bucketFilter,
                 Optional.of(analyzePartitionValues),
                 analyzeColumnNames,
-                constraintColumns);
+                constraintColumns,
+                streamedPartitionsPredicate);
     }
 
     public HiveTableHandle withAnalyzeColumnNames(Set<String> analyzeColumnNames)
@@ -157,7 +167,8 @@ public class HiveTableHandle
                 bucketFilter,
                 analyzePartitionValues,
                 Optional.of(analyzeColumnNames),
-                constraintColumns);
+                constraintColumns,
+                streamedPartitionsPredicate);
     }
 
     @JsonProperty
@@ -235,6 +246,17 @@ public class HiveTableHandle
         return constraintColumns;
     }
 
+    /**
+     * Present when there are too many partitions to load them during planning. These partitions
+     * are enumerated during split generation, and filtered with the returned predicate in addition
+     * to the enforced constraint.
+     */
+    @JsonIgnore
+    public Optional<Predicate<Map<ColumnHandle, NullableValue>>> getStreamedPartitionsPredicate()
+    {
+        return streamedPartitionsPredicate;
+    }
+
     public SchemaTableName getSchemaTableName()
     {
         return new SchemaTableName(schemaName, tableName);
@@ -255,6 +277,7 @@ public class HiveTableHandle
                 Objects.equals(tableParameters, that.tableParameters) &&
                 Objects.equals(partitionColumns, that.partitionColumns) &&
                 Objects.equals(partitions, that.partitions) &&
+                Objects.equals(streamedPartitionsPredicate, that.streamedPartitionsPredicate) &&
                 Objects.equals(compactEffectivePredicate, that.compactEffectivePredicate) &&
                 Objects.equals(enforcedConstraint, that.enforcedConstraint) &&
                 Objects.equals(bucketHandle, that.bucketHandle) &&
@@ -271,6 +294,7 @@ public class HiveTableHandle
                 tableParameters,
                 partitionColumns,
                 partitions,
+                streamedPartitionsPredicate,
                 compactEffectivePredicate,
                 enforcedConstraint,
                 bucketHandle,
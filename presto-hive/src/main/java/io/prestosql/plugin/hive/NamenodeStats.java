@@ -25,6 +25,11 @@ public class NamenodeStats
 {
     private final CallStats listLocatedStatus = new CallStats();
     private final CallStats remoteIteratorNext = new CallStats();
+    private final CallStats directoryStatus = new CallStats();
+    private final CounterStat listingCacheHits = new CounterStat();
+    private final CounterStat listingCacheMisses = new CounterStat();
+    private final CounterStat listingCacheRevalidations = new CounterStat();
+    private final CounterStat listingCacheStaleListings = new CounterStat();
 
     @Managed
     @Nested
@@ -40,6 +45,41 @@ public class NamenodeStats
         return remoteIteratorNext;
     }
 
+    @Managed
+    @Nested
+    public CallStats getDirectoryStatus()
+    {
+        return directoryStatus;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getListingCacheHits()
+    {
+        return listingCacheHits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getListingCacheMisses()
+    {
+        return listingCacheMisses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getListingCacheRevalidations()
+    {
+        return listingCacheRevalidations;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getListingCacheStaleListings()
+    {
+        return listingCacheStaleListings;
+    }
+
     public static class CallStats
     {
         private final TimeStat time = new TimeStat(TimeUnit.MILLISECONDS);
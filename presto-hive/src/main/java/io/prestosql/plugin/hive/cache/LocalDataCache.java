@@ -0,0 +1,676 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.io.Closer;
+import io.airlift.log.Logger;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.stats.CounterStat;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.cache.LocalDataCacheConfig.EvictionPolicy;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Comparator.comparingLong;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Caches file data on local disk, independent of the file system implementation.
+ * <p>
+ * File data is cached in aligned blocks of a fixed size, so that reads of
+ * different ranges of the same file share cached data. File footers are cached
+ * separately in a pinned area, so that scanning data blocks never evicts them.
+ * Cached data is identified by file path and file size, so the cache must only
+ * be used for files that are not modified in place.
+ */
+public class LocalDataCache
+        implements Closeable
+{
+    private static final Logger log = Logger.get(LocalDataCache.class);
+
+    // ORC and Parquet readers read a 16kB tail first, so this fits the initial read and most complete footers
+    static final int FOOTER_SLOT_SIZE = toIntExact(DataSize.of(64, KILOBYTE).toBytes());
+
+    private final boolean enabled;
+    private final int blockSize;
+    private final SlotFile blocks;
+    private final SlotFile footers;
+
+    @GuardedBy("this")
+    private final Map<EntryKey, CacheEntry> entries = new HashMap<>();
+    @GuardedBy("this")
+    private long accessSequence;
+
+    private final CounterStat blockHits = new CounterStat();
+    private final CounterStat blockMisses = new CounterStat();
+    private final CounterStat footerHits = new CounterStat();
+    private final CounterStat footerMisses = new CounterStat();
+    private final CounterStat evictions = new CounterStat();
+    private final CounterStat cacheReadBytes = new CounterStat();
+    private final CounterStat sourceReadBytes = new CounterStat();
+    private final CounterStat cacheErrors = new CounterStat();
+
+    @Inject
+    public LocalDataCache(LocalDataCacheConfig config)
+    {
+        requireNonNull(config, "config is null");
+        this.enabled = config.isEnabled();
+        this.blockSize = toIntExact(config.getBlockSize().toBytes());
+        if (!enabled) {
+            this.blocks = null;
+            this.footers = null;
+            return;
+        }
+
+        checkArgument(config.getCacheLocation().isPresent(), "cache location is not set");
+        Comparator<CacheEntry> evictionOrder = evictionOrder(config.getEvictionPolicy());
+        Path directory = Paths.get(config.getCacheLocation().get());
+        try {
+            Files.createDirectories(directory);
+            this.blocks = new SlotFile(directory.resolve("blocks.data"), blockSize, slotCount(config.getMaxCacheSize(), blockSize), evictionOrder);
+            this.footers = new SlotFile(directory.resolve("footers.data"), FOOTER_SLOT_SIZE, slotCount(config.getMaxPinnedFooterSize(), FOOTER_SLOT_SIZE), evictionOrder);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Failed to create local data cache in " + directory, e);
+        }
+    }
+
+    private static int slotCount(DataSize size, int slotSize)
+    {
+        long slots = size.toBytes() / slotSize;
+        checkArgument(slots <= Integer.MAX_VALUE, "Too many cache slots of size %s for cache size %s", slotSize, size);
+        return toIntExact(slots);
+    }
+
+    private static Comparator<CacheEntry> evictionOrder(EvictionPolicy evictionPolicy)
+    {
+        // access sequence numbers are unique, so entries are totally ordered
+        switch (evictionPolicy) {
+            case LRU:
+                return comparingLong(entry -> entry.lastAccess);
+            case LFU:
+                return Comparator.<CacheEntry>comparingLong(entry -> entry.accessCount)
+                        .thenComparingLong(entry -> entry.lastAccess);
+        }
+        throw new IllegalArgumentException("Unsupported eviction policy: " + evictionPolicy);
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Reads {@code length} bytes at {@code position} of the file into the buffer,
+     * serving cached blocks from local disk and loading missing blocks from the source.
+     */
+    public void read(String path, long fileSize, long position, byte[] buffer, int bufferOffset, int length, RangeReader source)
+            throws IOException
+    {
+        checkState(enabled, "local data cache is not enabled");
+        requireNonNull(path, "path is null");
+        requireNonNull(source, "source is null");
+        if (length == 0) {
+            return;
+        }
+
+        long end = position + length;
+        if (position < 0 || end > fileSize) {
+            // the file size is not precise, so do not align reads to it
+            readFromSource(source, position, buffer, bufferOffset, length);
+            return;
+        }
+
+        long block = position / blockSize;
+        long lastBlock = (end - 1) / blockSize;
+        while (block <= lastBlock) {
+            if (readCachedBlock(new EntryKey(path, fileSize, false, block), position, buffer, bufferOffset, length)) {
+                block++;
+                continue;
+            }
+
+            // load all consecutive missing blocks with a single read
+            long missingEnd = block + 1;
+            while (missingEnd <= lastBlock && !isCached(new EntryKey(path, fileSize, false, missingEnd))) {
+                missingEnd++;
+            }
+            loadBlocks(path, fileSize, block, missingEnd, position, buffer, bufferOffset, length, source);
+            block = missingEnd;
+        }
+    }
+
+    /**
+     * Reads the last {@code length} bytes of the file, serving them from the pinned footer area if possible.
+     */
+    public Slice readTail(String path, long fileSize, int length, TailReader source)
+            throws IOException
+    {
+        checkState(enabled, "local data cache is not enabled");
+        requireNonNull(path, "path is null");
+        requireNonNull(source, "source is null");
+        if (length > FOOTER_SLOT_SIZE) {
+            Slice tail = source.readTail(length);
+            sourceReadBytes.update(tail.length());
+            return tail;
+        }
+
+        EntryKey key = new EntryKey(path, fileSize, true, length);
+        CacheEntry entry = acquire(key);
+        if (entry != null) {
+            try {
+                byte[] tail = new byte[entry.length];
+                footers.read(entry.slot, 0, tail, 0, tail.length);
+                footerHits.update(1);
+                cacheReadBytes.update(tail.length);
+                return Slices.wrappedBuffer(tail);
+            }
+            catch (IOException e) {
+                handleCacheError(entry, e);
+            }
+            finally {
+                release(entry);
+            }
+        }
+
+        Slice tail = source.readTail(length);
+        footerMisses.update(1);
+        sourceReadBytes.update(tail.length());
+        store(footers, key, tail.getBytes(), 0, tail.length());
+        return tail;
+    }
+
+    private boolean readCachedBlock(EntryKey key, long position, byte[] buffer, int bufferOffset, int length)
+    {
+        CacheEntry entry = acquire(key);
+        if (entry == null) {
+            return false;
+        }
+        try {
+            long blockStart = key.getIndex() * blockSize;
+            long start = max(position, blockStart);
+            long end = min(position + length, blockStart + entry.length);
+            if (end < min(position + length, blockStart + blockSize)) {
+                // cached block is shorter than the requested range
+                return false;
+            }
+            int copyLength = toIntExact(end - start);
+            blocks.read(entry.slot, toIntExact(start - blockStart), buffer, bufferOffset + toIntExact(start - position), copyLength);
+            blockHits.update(1);
+            cacheReadBytes.update(copyLength);
+            return true;
+        }
+        catch (IOException e) {
+            handleCacheError(entry, e);
+            return false;
+        }
+        finally {
+            release(entry);
+        }
+    }
+
+    private void loadBlocks(String path, long fileSize, long firstBlock, long endBlock, long position, byte[] buffer, int bufferOffset, int length, RangeReader source)
+            throws IOException
+    {
+        long loadStart = firstBlock * blockSize;
+        long loadEnd = min(endBlock * blockSize, fileSize);
+        byte[] data = new byte[toIntExact(loadEnd - loadStart)];
+        try {
+            readFromSource(source, loadStart, data, 0, data.length);
+        }
+        catch (EOFException e) {
+            // the file is shorter than reported, so read only the requested part of the blocks
+            long start = max(position, loadStart);
+            long end = min(position + length, loadEnd);
+            readFromSource(source, start, buffer, bufferOffset + toIntExact(start - position), toIntExact(end - start));
+            return;
+        }
+        blockMisses.update(endBlock - firstBlock);
+
+        long start = max(position, loadStart);
+        long end = min(position + length, loadEnd);
+        System.arraycopy(data, toIntExact(start - loadStart), buffer, bufferOffset + toIntExact(start - position), toIntExact(end - start));
+
+        for (long block = firstBlock; block < endBlock; block++) {
+            int offset = toIntExact((block - firstBlock) * blockSize);
+            store(blocks, new EntryKey(path, fileSize, false, block), data, offset, min(blockSize, data.length - offset));
+        }
+    }
+
+    private void readFromSource(RangeReader source, long position, byte[] buffer, int bufferOffset, int length)
+            throws IOException
+    {
+        source.readFully(position, buffer, bufferOffset, length);
+        sourceReadBytes.update(length);
+    }
+
+    private void store(SlotFile slotFile, EntryKey key, byte[] data, int offset, int length)
+    {
+        if (length > slotFile.getSlotSize()) {
+            return;
+        }
+
+        CacheEntry entry;
+        synchronized (this) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            int slot = allocateSlot(slotFile);
+            if (slot < 0) {
+                // all slots are in use by concurrent reads
+                return;
+            }
+            entry = new CacheEntry(key, slotFile, slot, length);
+        }
+
+        // the entry is not visible to readers until the data is written
+        try {
+            slotFile.write(entry.slot, data, offset, length);
+        }
+        catch (IOException e) {
+            cacheErrors.update(1);
+            log.warn(e, "Failed to write to local data cache");
+            synchronized (this) {
+                slotFile.freeSlot(entry.slot);
+            }
+            return;
+        }
+
+        synchronized (this) {
+            if (entries.containsKey(key)) {
+                // block was loaded concurrently
+                slotFile.freeSlot(entry.slot);
+                return;
+            }
+            entries.put(key, entry);
+            touch(entry);
+        }
+    }
+
+    @GuardedBy("this")
+    private int allocateSlot(SlotFile slotFile)
+    {
+        int slot = slotFile.allocateFreeSlot();
+        if (slot >= 0) {
+            return slot;
+        }
+        Iterator<CacheEntry> iterator = slotFile.getEvictionQueue().iterator();
+        while (iterator.hasNext()) {
+            CacheEntry victim = iterator.next();
+            if (victim.readers == 0) {
+                iterator.remove();
+                entries.remove(victim.key);
+                victim.removed = true;
+                evictions.update(1);
+                return victim.slot;
+            }
+        }
+        return -1;
+    }
+
+    private synchronized boolean isCached(EntryKey key)
+    {
+        return entries.containsKey(key);
+    }
+
+    private synchronized CacheEntry acquire(EntryKey key)
+    {
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            entry.readers++;
+            touch(entry);
+        }
+        return entry;
+    }
+
+    private synchronized void release(CacheEntry entry)
+    {
+        entry.readers--;
+        if (entry.removed && entry.readers == 0) {
+            entry.slotFile.freeSlot(entry.slot);
+        }
+    }
+
+    @GuardedBy("this")
+    private void touch(CacheEntry entry)
+    {
+        // eviction order depends on the access statistics, so the entry must be reinserted
+        NavigableSet<CacheEntry> evictionQueue = entry.slotFile.getEvictionQueue();
+        evictionQueue.remove(entry);
+        entry.accessCount++;
+        entry.lastAccess = ++accessSequence;
+        evictionQueue.add(entry);
+    }
+
+    private void handleCacheError(CacheEntry entry, IOException e)
+    {
+        cacheErrors.update(1);
+        log.warn(e, "Failed to read from local data cache");
+        remove(entry);
+    }
+
+    private synchronized void remove(CacheEntry entry)
+    {
+        if (entry.removed) {
+            return;
+        }
+        entries.remove(entry.key);
+        entry.slotFile.getEvictionQueue().remove(entry);
+        entry.removed = true;
+        if (entry.readers == 0) {
+            entry.slotFile.freeSlot(entry.slot);
+        }
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            for (CacheEntry entry : new ArrayList<>(entries.values())) {
+                remove(entry);
+            }
+        }
+    }
+
+    @PreDestroy
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (!enabled) {
+            return;
+        }
+        flushCache();
+        try (Closer closer = Closer.create()) {
+            closer.register(blocks);
+            closer.register(footers);
+        }
+    }
+
+    @Managed
+    public synchronized long getCachedBlockBytes()
+    {
+        return enabled ? blocks.getUsedBytes() : 0;
+    }
+
+    @Managed
+    public synchronized long getPinnedFooterBytes()
+    {
+        return enabled ? footers.getUsedBytes() : 0;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getBlockHits()
+    {
+        return blockHits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getBlockMisses()
+    {
+        return blockMisses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFooterHits()
+    {
+        return footerHits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getFooterMisses()
+    {
+        return footerMisses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getEvictions()
+    {
+        return evictions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCacheReadBytes()
+    {
+        return cacheReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getSourceReadBytes()
+    {
+        return sourceReadBytes;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getCacheErrors()
+    {
+        return cacheErrors;
+    }
+
+    public interface RangeReader
+    {
+        void readFully(long position, byte[] buffer, int bufferOffset, int length)
+                throws IOException;
+    }
+
+    public interface TailReader
+    {
+        Slice readTail(int length)
+                throws IOException;
+    }
+
+    private static final class SlotFile
+            implements Closeable
+    {
+        private final FileChannel channel;
+        private final int slotSize;
+        private final int slotCount;
+        private final IntArrayList freeSlots = new IntArrayList();
+        private final NavigableSet<CacheEntry> evictionQueue;
+        private int nextUnusedSlot;
+
+        public SlotFile(Path file, int slotSize, int slotCount, Comparator<CacheEntry> evictionOrder)
+                throws IOException
+        {
+            this.channel = FileChannel.open(file, CREATE, TRUNCATE_EXISTING, READ, WRITE);
+            this.slotSize = slotSize;
+            this.slotCount = slotCount;
+            this.evictionQueue = new TreeSet<>(evictionOrder);
+        }
+
+        public int getSlotSize()
+        {
+            return slotSize;
+        }
+
+        public NavigableSet<CacheEntry> getEvictionQueue()
+        {
+            return evictionQueue;
+        }
+
+        public long getUsedBytes()
+        {
+            return (long) (nextUnusedSlot - freeSlots.size()) * slotSize;
+        }
+
+        public int allocateFreeSlot()
+        {
+            if (!freeSlots.isEmpty()) {
+                return freeSlots.removeInt(freeSlots.size() - 1);
+            }
+            if (nextUnusedSlot < slotCount) {
+                return nextUnusedSlot++;
+            }
+            return -1;
+        }
+
+        public void freeSlot(int slot)
+        {
+            freeSlots.add(slot);
+        }
+
+        public void read(int slot, int slotOffset, byte[] buffer, int bufferOffset, int length)
+                throws IOException
+        {
+            ByteBuffer target = ByteBuffer.wrap(buffer, bufferOffset, length);
+            long position = (long) slot * slotSize + slotOffset;
+            while (target.hasRemaining()) {
+                int bytesRead = channel.read(target, position);
+                if (bytesRead < 0) {
+                    throw new EOFException("Unexpected end of local data cache file");
+                }
+                position += bytesRead;
+            }
+        }
+
+        public void write(int slot, byte[] data, int offset, int length)
+                throws IOException
+        {
+            ByteBuffer source = ByteBuffer.wrap(data, offset, length);
+            long position = (long) slot * slotSize;
+            while (source.hasRemaining()) {
+                position += channel.write(source, position);
+            }
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            channel.close();
+        }
+    }
+
+    private static final class CacheEntry
+    {
+        private final EntryKey key;
+        private final SlotFile slotFile;
+        private final int slot;
+        private final int length;
+
+        // all fields below are guarded by the cache
+        private long accessCount;
+        private long lastAccess;
+        private int readers;
+        private boolean removed;
+
+        public CacheEntry(EntryKey key, SlotFile slotFile, int slot, int length)
+        {
+            this.key = requireNonNull(key, "key is null");
+            this.slotFile = requireNonNull(slotFile, "slotFile is null");
+            this.slot = slot;
+            this.length = length;
+        }
+    }
+
+    private static final class EntryKey
+    {
+        private final String path;
+        private final long fileSize;
+        private final boolean footer;
+        // block number for data blocks, or tail length for footers
+        private final long index;
+
+        public EntryKey(String path, long fileSize, boolean footer, long index)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.fileSize = fileSize;
+            this.footer = footer;
+            this.index = index;
+        }
+
+        public long getIndex()
+        {
+            return index;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            EntryKey that = (EntryKey) o;
+            return fileSize == that.fileSize &&
+                    footer == that.footer &&
+                    index == that.index &&
+                    path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, footer, index);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("fileSize", fileSize)
+                    .add("footer", footer)
+                    .add("index", index)
+                    .toString();
+        }
+    }
+}
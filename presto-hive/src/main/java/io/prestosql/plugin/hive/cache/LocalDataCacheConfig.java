@@ -0,0 +1,142 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+
+import java.util.Optional;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class LocalDataCacheConfig
+{
+    public enum EvictionPolicy
+    {
+        LRU,
+        LFU,
+    }
+
+    private boolean enabled;
+    private Optional<String> cacheLocation = Optional.empty();
+    private DataSize maxCacheSize = DataSize.of(10, GIGABYTE);
+    private DataSize blockSize = DataSize.of(1, MEGABYTE);
+    private DataSize maxPinnedFooterSize = DataSize.of(512, MEGABYTE);
+    private EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("hive.local-data-cache.enabled")
+    @ConfigDescription("Cache ORC and Parquet file data on local disk of the worker")
+    public LocalDataCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    @NotNull
+    public Optional<String> getCacheLocation()
+    {
+        return cacheLocation;
+    }
+
+    @Config("hive.local-data-cache.location")
+    @ConfigDescription("Local directory used to store cached data; must not be shared with other catalogs or servers")
+    public LocalDataCacheConfig setCacheLocation(String cacheLocation)
+    {
+        this.cacheLocation = Optional.ofNullable(cacheLocation);
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("1MB")
+    public DataSize getMaxCacheSize()
+    {
+        return maxCacheSize;
+    }
+
+    @Config("hive.local-data-cache.max-size")
+    @ConfigDescription("Maximum size of file data blocks stored in the cache")
+    public LocalDataCacheConfig setMaxCacheSize(DataSize maxCacheSize)
+    {
+        this.maxCacheSize = maxCacheSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("64MB")
+    public DataSize getBlockSize()
+    {
+        return blockSize;
+    }
+
+    @Config("hive.local-data-cache.block-size")
+    @ConfigDescription("Size of the aligned file blocks stored in the cache")
+    public LocalDataCacheConfig setBlockSize(DataSize blockSize)
+    {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxPinnedFooterSize()
+    {
+        return maxPinnedFooterSize;
+    }
+
+    @Config("hive.local-data-cache.max-pinned-footer-size")
+    @ConfigDescription("Space reserved for file footers, which are never evicted by data blocks")
+    public LocalDataCacheConfig setMaxPinnedFooterSize(DataSize maxPinnedFooterSize)
+    {
+        this.maxPinnedFooterSize = maxPinnedFooterSize;
+        return this;
+    }
+
+    @NotNull
+    public EvictionPolicy getEvictionPolicy()
+    {
+        return evictionPolicy;
+    }
+
+    @Config("hive.local-data-cache.eviction-policy")
+    @ConfigDescription("Policy used to select data blocks for eviction")
+    public LocalDataCacheConfig setEvictionPolicy(EvictionPolicy evictionPolicy)
+    {
+        this.evictionPolicy = evictionPolicy;
+        return this;
+    }
+
+    @AssertTrue(message = "hive.local-data-cache.location must be set when the local data cache is enabled")
+    public boolean isCacheLocationValid()
+    {
+        return !enabled || cacheLocation.isPresent();
+    }
+
+    @AssertTrue(message = "hive.local-data-cache.max-size must be at least hive.local-data-cache.block-size")
+    public boolean isMaxCacheSizeValid()
+    {
+        return maxCacheSize == null || blockSize == null || maxCacheSize.toBytes() >= blockSize.toBytes();
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.slice.Slice;
+import io.airlift.stats.cardinality.HyperLogLog;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serialized HyperLogLog of the values of a column. Unlike the number of distinct values,
+ * sketches of different partitions can be merged to estimate the number of distinct values
+ * of any set of partitions.
+ */
+@Immutable
+public class DistinctValuesSketch
+{
+    private final byte[] hyperLogLog;
+
+    @JsonCreator
+    public DistinctValuesSketch(@JsonProperty("hyperLogLog") byte[] hyperLogLog)
+    {
+        requireNonNull(hyperLogLog, "hyperLogLog is null");
+        this.hyperLogLog = hyperLogLog.clone();
+    }
+
+    public static DistinctValuesSketch fromHyperLogLog(HyperLogLog hyperLogLog)
+    {
+        return fromSerialized(hyperLogLog.serialize());
+    }
+
+    public static DistinctValuesSketch fromSerialized(Slice serialized)
+    {
+        return new DistinctValuesSketch(serialized.getBytes());
+    }
+
+    public static Optional<DistinctValuesSketch> tryParse(String base64)
+    {
+        try {
+            DistinctValuesSketch sketch = new DistinctValuesSketch(Base64.getDecoder().decode(base64));
+            // validate the serialized form
+            sketch.toHyperLogLog();
+            return Optional.of(sketch);
+        }
+        catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    @JsonProperty
+    public byte[] getHyperLogLog()
+    {
+        return hyperLogLog.clone();
+    }
+
+    public HyperLogLog toHyperLogLog()
+    {
+        return HyperLogLog.newInstance(wrappedBuffer(hyperLogLog));
+    }
+
+    public long cardinality()
+    {
+        return toHyperLogLog().cardinality();
+    }
+
+    /**
+     * Returns empty if the sketches were created with a different number of buckets and cannot be merged.
+     */
+    public Optional<DistinctValuesSketch> mergeWith(DistinctValuesSketch other)
+    {
+        HyperLogLog merged = toHyperLogLog();
+        try {
+            merged.mergeWith(other.toHyperLogLog());
+        }
+        catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        return Optional.of(fromHyperLogLog(merged));
+    }
+
+    public String toBase64()
+    {
+        return Base64.getEncoder().encodeToString(hyperLogLog);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DistinctValuesSketch that = (DistinctValuesSketch) o;
+        return Arrays.equals(hyperLogLog, that.hyperLogLog);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(hyperLogLog);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("sizeInBytes", hyperLogLog.length)
+                .toString();
+    }
+}
@@ -45,6 +45,7 @@ public class HiveColumnStatistics
     private final OptionalLong totalSizeInBytes;
     private final OptionalLong nullsCount;
     private final OptionalLong distinctValuesCount;
+    private final Optional<DistinctValuesSketch> distinctValuesSketch;
 
     public static HiveColumnStatistics empty()
     {
@@ -61,7 +62,8 @@ public class HiveColumnStatistics
             @JsonProperty("maxValueSizeInBytes") OptionalLong maxValueSizeInBytes,
             @JsonProperty("totalSizeInBytes") OptionalLong totalSizeInBytes,
             @JsonProperty("nullsCount") OptionalLong nullsCount,
-            @JsonProperty("distinctValuesCount") OptionalLong distinctValuesCount)
+            @JsonProperty("distinctValuesCount") OptionalLong distinctValuesCount,
+            @JsonProperty("distinctValuesSketch") Optional<DistinctValuesSketch> distinctValuesSketch)
     {
         this.integerStatistics = requireNonNull(integerStatistics, "integerStatistics is null");
         this.doubleStatistics = requireNonNull(doubleStatistics, "doubleStatistics is null");
@@ -72,6 +74,7 @@ public class HiveColumnStatistics
         this.totalSizeInBytes = requireNonNull(totalSizeInBytes, "totalSizeInBytes is null");
         this.nullsCount = requireNonNull(nullsCount, "nullsCount is null");
         this.distinctValuesCount = requireNonNull(distinctValuesCount, "distinctValuesCount is null");
+        this.distinctValuesSketch = requireNonNull(distinctValuesSketch, "distinctValuesSketch is null");
 
         List<String> presentStatistics = new ArrayList<>();
         integerStatistics.ifPresent(s -> presentStatistics.add("integerStatistics"));
@@ -136,6 +139,12 @@ public class HiveColumnStatistics
         return distinctValuesCount;
     }
 
+    @JsonProperty
+    public Optional<DistinctValuesSketch> getDistinctValuesSketch()
+    {
+        return distinctValuesSketch;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -154,7 +163,8 @@ public class HiveColumnStatistics
                 Objects.equals(maxValueSizeInBytes, that.maxValueSizeInBytes) &&
                 Objects.equals(totalSizeInBytes, that.totalSizeInBytes) &&
                 Objects.equals(nullsCount, that.nullsCount) &&
-                Objects.equals(distinctValuesCount, that.distinctValuesCount);
+                Objects.equals(distinctValuesCount, that.distinctValuesCount) &&
+                Objects.equals(distinctValuesSketch, that.distinctValuesSketch);
     }
 
     @Override
@@ -169,7 +179,8 @@ public class HiveColumnStatistics
                 maxValueSizeInBytes,
                 totalSizeInBytes,
                 nullsCount,
-                distinctValuesCount);
+                distinctValuesCount,
+                distinctValuesSketch);
     }
 
     @Override
@@ -185,6 +196,7 @@ public class HiveColumnStatistics
                 .add("totalSizeInBytes", totalSizeInBytes)
                 .add("nullsCount", nullsCount)
                 .add("distinctValuesCount", distinctValuesCount)
+                .add("distinctValuesSketch", distinctValuesSketch)
                 .toString();
     }
 
@@ -276,6 +288,7 @@ public class HiveColumnStatistics
         private OptionalLong totalSizeInBytes = OptionalLong.empty();
         private OptionalLong nullsCount = OptionalLong.empty();
         private OptionalLong distinctValuesCount = OptionalLong.empty();
+        private Optional<DistinctValuesSketch> distinctValuesSketch = Optional.empty();
 
         private Builder() {}
 
@@ -290,6 +303,7 @@ public class HiveColumnStatistics
             this.totalSizeInBytes = other.getTotalSizeInBytes();
             this.nullsCount = other.getNullsCount();
             this.distinctValuesCount = other.getDistinctValuesCount();
+            this.distinctValuesSketch = other.getDistinctValuesSketch();
         }
 
         public Builder setIntegerStatistics(Optional<IntegerStatistics> integerStatistics)
@@ -400,6 +414,18 @@ public class HiveColumnStatistics
             return this;
         }
 
+        public Builder setDistinctValuesSketch(Optional<DistinctValuesSketch> distinctValuesSketch)
+        {
+            this.distinctValuesSketch = distinctValuesSketch;
+            return this;
+        }
+
+        public Builder setDistinctValuesSketch(DistinctValuesSketch distinctValuesSketch)
+        {
+            this.distinctValuesSketch = Optional.of(distinctValuesSketch);
+            return this;
+        }
+
         public HiveColumnStatistics build()
         {
             return new HiveColumnStatistics(
@@ -411,7 +437,8 @@ public class HiveColumnStatistics
                     maxValueSizeInBytes,
                     totalSizeInBytes,
                     nullsCount,
-                    distinctValuesCount);
+                    distinctValuesCount,
+                    distinctValuesSketch);
         }
     }
 }
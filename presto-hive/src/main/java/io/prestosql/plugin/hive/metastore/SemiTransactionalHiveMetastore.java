@@ -112,6 +112,7 @@ public class SemiTransactionalHiveMetastore
     private final HdfsEnvironment hdfsEnvironment;
     private final Executor renameExecutor;
     private final Executor dropExecutor;
+    private final Executor updateExecutor;
     private final boolean skipDeletionForAlter;
     private final boolean skipTargetCleanupOnRollback;
     private final ScheduledExecutorService heartbeatExecutor;
@@ -143,6 +144,7 @@ public class SemiTransactionalHiveMetastore
             HiveMetastoreClosure delegate,
             Executor renameExecutor,
             Executor dropExecutor,
+            Executor updateExecutor,
             boolean skipDeletionForAlter,
             boolean skipTargetCleanupOnRollback,
             Optional<Duration> hiveTransactionHeartbeatInterval,
@@ -152,6 +154,7 @@ public class SemiTransactionalHiveMetastore
         this.delegate = requireNonNull(delegate, "delegate is null");
         this.renameExecutor = requireNonNull(renameExecutor, "renameExecutor is null");
         this.dropExecutor = requireNonNull(dropExecutor, "dropExecutor is null");
+        this.updateExecutor = requireNonNull(updateExecutor, "updateExecutor is null");
         this.skipDeletionForAlter = skipDeletionForAlter;
         this.skipTargetCleanupOnRollback = skipTargetCleanupOnRollback;
         this.heartbeatExecutor = heartbeatService;
@@ -1138,20 +1141,27 @@ public class SemiTransactionalHiveMetastore
                 }
             }
 
-            // Wait for all renames submitted for "INSERT_EXISTING" action to finish
-            committer.waitForAsyncRenames();
-
-            // At this point, all file system operations, whether asynchronously issued or not, have completed successfully.
-            // We are moving on to metastore operations now.
+            // At this point, all synchronous file system operations have completed successfully. The renames submitted
+            // for "INSERT_EXISTING" actions may still be running. The metastore operations not depending on them are
+            // started right away, and the statistics of a table or partition are updated once its files are in place.
 
             committer.executeAddTableOperations();
             committer.executeAlterTableOperations();
             committer.executeAlterPartitionOperations();
-            committer.executeAddPartitionOperations();
-            committer.executeUpdateStatisticsOperations();
+            committer.startAddPartitionOperations();
+            committer.startUpdateStatisticsOperations();
+            committer.recordAsyncCompletionTimes();
+
+            committer.waitForAsyncRenames();
+            committer.waitForAsyncMetastoreUpdates();
+            committer.logCommitTimes();
         }
         catch (Throwable t) {
             committer.cancelUnstartedAsyncRenames();
+            committer.cancelUnstartedAsyncMetastoreUpdates();
+
+            // async metastore updates must all come back before they are undone
+            committer.waitForAsyncMetastoreUpdatesSuppressThrowables();
 
             committer.undoUpdateStatisticsOperations();
             committer.undoAddPartitionOperations();
@@ -1203,9 +1213,18 @@ public class SemiTransactionalHiveMetastore
 
     private class Committer
     {
+        private final long startNanos = System.nanoTime();
+
         private final AtomicBoolean fileRenameCancelled = new AtomicBoolean(false);
         private final List<CompletableFuture<?>> fileRenameFutures = new ArrayList<>();
 
+        private final AtomicBoolean metastoreUpdateCancelled = new AtomicBoolean(false);
+        private final List<CompletableFuture<?>> addPartitionFutures = new ArrayList<>();
+        private final List<CompletableFuture<?>> updateStatisticsFutures = new ArrayList<>();
+        private CompletableFuture<Duration> fileRenameTime;
+        private CompletableFuture<Duration> addPartitionTime;
+        private CompletableFuture<Duration> updateStatisticsTime;
+
         // File system
         // For file system changes, only operations outside of writing paths (as specified in declared intentions to write)
         // need to MOVE_BACKWARD tasks scheduled. Files in writing paths are handled by rollbackShared().
@@ -1219,6 +1238,8 @@ public class SemiTransactionalHiveMetastore
         private final Map<SchemaTableName, PartitionAdder> partitionAdders = new HashMap<>();
         private final List<AlterPartitionOperation> alterPartitionOperations = new ArrayList<>();
         private final List<UpdateStatisticsOperation> updateStatisticsOperations = new ArrayList<>();
+        // renames the statistics update of a table or partition must wait for
+        private final Map<UpdateStatisticsOperation, List<CompletableFuture<?>>> updateStatisticsFileRenames = new HashMap<>();
         private final List<IrreversibleMetastoreOperation> metastoreDeleteOperations = new ArrayList<>();
 
         // Flag for better error message
@@ -1356,15 +1377,19 @@ public class SemiTransactionalHiveMetastore
             Path targetPath = new Path(table.getStorage().getLocation());
             Path currentPath = tableAndMore.getCurrentLocation().get();
             cleanUpTasksForAbort.add(new DirectoryCleanUpTask(context, targetPath, false));
+            List<CompletableFuture<?>> tableRenameFutures = new ArrayList<>();
             if (!targetPath.equals(currentPath)) {
-                asyncRename(hdfsEnvironment, renameExecutor, fileRenameCancelled, fileRenameFutures, context, currentPath, targetPath, tableAndMore.getFileNames().get());
+                asyncRename(hdfsEnvironment, renameExecutor, fileRenameCancelled, tableRenameFutures, context, currentPath, targetPath, tableAndMore.getFileNames().get());
+                fileRenameFutures.addAll(tableRenameFutures);
             }
-            updateStatisticsOperations.add(new UpdateStatisticsOperation(
+            UpdateStatisticsOperation updateStatisticsOperation = new UpdateStatisticsOperation(
                     tableAndMore.getIdentity(),
                     table.getSchemaTableName(),
                     Optional.empty(),
                     tableAndMore.getStatisticsUpdate(),
-                    true));
+                    true);
+            updateStatisticsOperations.add(updateStatisticsOperation);
+            updateStatisticsFileRenames.put(updateStatisticsOperation, tableRenameFutures);
         }
 
         private void prepareDropPartition(HiveIdentity identity, SchemaTableName schemaTableName, List<String> partitionValues, boolean deleteData)
@@ -1500,15 +1525,19 @@ public class SemiTransactionalHiveMetastore
             Path targetPath = new Path(partition.getStorage().getLocation());
             Path currentPath = partitionAndMore.getCurrentLocation();
             cleanUpTasksForAbort.add(new DirectoryCleanUpTask(hdfsContext, targetPath, false));
+            List<CompletableFuture<?>> partitionRenameFutures = new ArrayList<>();
             if (!targetPath.equals(currentPath)) {
-                asyncRename(hdfsEnvironment, renameExecutor, fileRenameCancelled, fileRenameFutures, hdfsContext, currentPath, targetPath, partitionAndMore.getFileNames());
+                asyncRename(hdfsEnvironment, renameExecutor, fileRenameCancelled, partitionRenameFutures, hdfsContext, currentPath, targetPath, partitionAndMore.getFileNames());
+                fileRenameFutures.addAll(partitionRenameFutures);
             }
-            updateStatisticsOperations.add(new UpdateStatisticsOperation(
+            UpdateStatisticsOperation updateStatisticsOperation = new UpdateStatisticsOperation(
                     partitionAndMore.getIdentity(),
                     partition.getSchemaTableName(),
                     Optional.of(getPartitionName(identity, partition.getDatabaseName(), partition.getTableName(), partition.getValues())),
                     partitionAndMore.getStatisticsUpdate(),
-                    true));
+                    true);
+            updateStatisticsOperations.add(updateStatisticsOperation);
+            updateStatisticsFileRenames.put(updateStatisticsOperation, partitionRenameFutures);
         }
 
         private void executeCleanupTasksForAbort(Collection<DeclaredIntentionToWrite> declaredIntentionsToWrite)
@@ -1584,6 +1613,63 @@ public class SemiTransactionalHiveMetastore
             fileRenameCancelled.set(true);
         }
 
+        private void waitForAsyncMetastoreUpdates()
+        {
+            for (CompletableFuture<?> future : addPartitionFutures) {
+                getFutureValue(future, PrestoException.class);
+            }
+            for (CompletableFuture<?> future : updateStatisticsFutures) {
+                getFutureValue(future, PrestoException.class);
+            }
+        }
+
+        private void waitForAsyncMetastoreUpdatesSuppressThrowables()
+        {
+            for (CompletableFuture<?> future : Iterables.concat(addPartitionFutures, updateStatisticsFutures)) {
+                try {
+                    future.get();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                catch (Throwable t) {
+                    // ignore
+                }
+            }
+        }
+
+        private void cancelUnstartedAsyncMetastoreUpdates()
+        {
+            metastoreUpdateCancelled.set(true);
+        }
+
+        private void recordAsyncCompletionTimes()
+        {
+            fileRenameTime = timeSinceStartWhenCompleted(fileRenameFutures);
+            addPartitionTime = timeSinceStartWhenCompleted(addPartitionFutures);
+            updateStatisticsTime = timeSinceStartWhenCompleted(updateStatisticsFutures);
+        }
+
+        private CompletableFuture<Duration> timeSinceStartWhenCompleted(List<CompletableFuture<?>> futures)
+        {
+            return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .thenApply(ignored -> Duration.nanosSince(startNanos).convertToMostSuccinctTimeUnit());
+        }
+
+        private void logCommitTimes()
+        {
+            // the stages overlap, so the time of each stage is measured from the beginning of the commit
+            log.debug(
+                    "Commit finished in %s: %s file renames done after %s, %s add partitions batches done after %s, %s statistics updates done after %s",
+                    Duration.nanosSince(startNanos).convertToMostSuccinctTimeUnit(),
+                    fileRenameFutures.size(),
+                    fileRenameTime.join(),
+                    addPartitionFutures.size(),
+                    addPartitionTime.join(),
+                    updateStatisticsFutures.size(),
+                    updateStatisticsTime.join());
+        }
+
         private void executeAddTableOperations()
         {
             for (CreateTableOperation addTableOperation : addTableOperations) {
@@ -1605,17 +1691,23 @@ public class SemiTransactionalHiveMetastore
             }
         }
 
-        private void executeAddPartitionOperations()
+        private void startAddPartitionOperations()
         {
             for (PartitionAdder partitionAdder : partitionAdders.values()) {
-                partitionAdder.execute();
+                addPartitionFutures.addAll(partitionAdder.execute(updateExecutor, metastoreUpdateCancelled));
             }
         }
 
-        private void executeUpdateStatisticsOperations()
+        private void startUpdateStatisticsOperations()
         {
             for (UpdateStatisticsOperation operation : updateStatisticsOperations) {
-                operation.run(delegate);
+                List<CompletableFuture<?>> fileRenames = updateStatisticsFileRenames.getOrDefault(operation, ImmutableList.of());
+                updateStatisticsFutures.add(CompletableFuture.allOf(fileRenames.toArray(new CompletableFuture<?>[0]))
+                        .thenRunAsync(() -> {
+                            if (!metastoreUpdateCancelled.get()) {
+                                operation.run(delegate);
+                            }
+                        }, updateExecutor));
             }
         }
 
@@ -2775,7 +2867,7 @@ public class SemiTransactionalHiveMetastore
         private final PartitionStatistics statistics;
         private final boolean merge;
 
-        private boolean done;
+        private volatile boolean done;
 
         public UpdateStatisticsOperation(HiveIdentity identity, SchemaTableName tableName, Optional<String> partitionName, PartitionStatistics statistics, boolean merge)
         {
@@ -2837,6 +2929,7 @@ public class SemiTransactionalHiveMetastore
         private final HiveMetastoreClosure metastore;
         private final int batchSize;
         private final List<PartitionWithStatistics> partitions;
+        @GuardedBy("this")
         private List<List<String>> createdPartitionValues = new ArrayList<>();
 
         public PartitionAdder(HiveIdentity identity, String schemaName, String tableName, HiveMetastoreClosure metastore, int batchSize)
@@ -2865,54 +2958,74 @@ public class SemiTransactionalHiveMetastore
             partitions.add(partition);
         }
 
-        public void execute()
+        /**
+         * Adds the partitions in batches, running up to as many batches concurrently as the executor allows.
+         * The batches not started yet when {@code cancelled} is set are skipped.
+         */
+        public List<CompletableFuture<?>> execute(Executor executor, AtomicBoolean cancelled)
         {
-            List<List<PartitionWithStatistics>> batchedPartitions = Lists.partition(partitions, batchSize);
+            List<List<PartitionWithStatistics>> batchedPartitions = Lists.partition(ImmutableList.copyOf(partitions), batchSize);
+            partitions.clear();
+            ImmutableList.Builder<CompletableFuture<?>> futures = ImmutableList.builder();
             for (List<PartitionWithStatistics> batch : batchedPartitions) {
-                try {
-                    metastore.addPartitions(identity, schemaName, tableName, batch);
-                    for (PartitionWithStatistics partition : batch) {
-                        createdPartitionValues.add(partition.getPartition().getValues());
+                futures.add(CompletableFuture.runAsync(() -> {
+                    if (!cancelled.get()) {
+                        addPartitions(batch);
                     }
+                }, executor));
+            }
+            return futures.build();
+        }
+
+        private void addPartitions(List<PartitionWithStatistics> batch)
+        {
+            try {
+                metastore.addPartitions(identity, schemaName, tableName, batch);
+                for (PartitionWithStatistics partition : batch) {
+                    addCreatedPartition(partition.getPartition().getValues());
                 }
-                catch (Throwable t) {
-                    // Add partition to the created list conservatively.
-                    // Some metastore implementations are known to violate the "all or none" guarantee for add_partitions call.
-                    boolean batchCompletelyAdded = true;
-                    for (PartitionWithStatistics partition : batch) {
-                        try {
-                            Optional<Partition> remotePartition = metastore.getPartition(identity, schemaName, tableName, partition.getPartition().getValues());
-                            // getPrestoQueryId(partition) is guaranteed to be non-empty. It is asserted in PartitionAdder.addPartition.
-                            if (remotePartition.isPresent() && getPrestoQueryId(remotePartition.get()).equals(getPrestoQueryId(partition.getPartition()))) {
-                                createdPartitionValues.add(partition.getPartition().getValues());
-                            }
-                            else {
-                                batchCompletelyAdded = false;
-                            }
+            }
+            catch (Throwable t) {
+                // Add partition to the created list conservatively.
+                // Some metastore implementations are known to violate the "all or none" guarantee for add_partitions call.
+                boolean batchCompletelyAdded = true;
+                for (PartitionWithStatistics partition : batch) {
+                    try {
+                        Optional<Partition> remotePartition = metastore.getPartition(identity, schemaName, tableName, partition.getPartition().getValues());
+                        // getPrestoQueryId(partition) is guaranteed to be non-empty. It is asserted in PartitionAdder.addPartition.
+                        if (remotePartition.isPresent() && getPrestoQueryId(remotePartition.get()).equals(getPrestoQueryId(partition.getPartition()))) {
+                            addCreatedPartition(partition.getPartition().getValues());
                         }
-                        catch (Throwable ignored) {
-                            // When partition could not be fetched from metastore, it is not known whether the partition was added.
-                            // Deleting the partition when aborting commit has the risk of deleting partition not added in this transaction.
-                            // Not deleting the partition may leave garbage behind. The former is much more dangerous than the latter.
-                            // Therefore, the partition is not added to the createdPartitionValues list here.
+                        else {
                             batchCompletelyAdded = false;
                         }
                     }
-                    // If all the partitions were added successfully, the add_partition operation was actually successful.
-                    // For some reason, it threw an exception (communication failure, retry failure after communication failure, etc).
-                    // But we would consider it successful anyways.
-                    if (!batchCompletelyAdded) {
-                        if (t instanceof TableNotFoundException) {
-                            throw new PrestoException(HIVE_TABLE_DROPPED_DURING_QUERY, t);
-                        }
-                        throw t;
+                    catch (Throwable ignored) {
+                        // When partition could not be fetched from metastore, it is not known whether the partition was added.
+                        // Deleting the partition when aborting commit has the risk of deleting partition not added in this transaction.
+                        // Not deleting the partition may leave garbage behind. The former is much more dangerous than the latter.
+                        // Therefore, the partition is not added to the createdPartitionValues list here.
+                        batchCompletelyAdded = false;
+                    }
+                }
+                // If all the partitions were added successfully, the add_partition operation was actually successful.
+                // For some reason, it threw an exception (communication failure, retry failure after communication failure, etc).
+                // But we would consider it successful anyways.
+                if (!batchCompletelyAdded) {
+                    if (t instanceof TableNotFoundException) {
+                        throw new PrestoException(HIVE_TABLE_DROPPED_DURING_QUERY, t);
                     }
+                    throw t;
                 }
             }
-            partitions.clear();
         }
 
-        public List<List<String>> rollback()
+        private synchronized void addCreatedPartition(List<String> partitionValues)
+        {
+            createdPartitionValues.add(partitionValues);
+        }
+
+        public synchronized List<List<String>> rollback()
         {
             // drop created partitions
             List<List<String>> partitionsFailedToRollback = new ArrayList<>();
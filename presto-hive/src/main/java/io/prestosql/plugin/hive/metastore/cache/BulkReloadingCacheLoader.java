@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore.cache;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache loader which refreshes entries asynchronously like {@link CacheLoader#asyncReloading},
+ * but coalesces the refreshes requested while a refresh is pending into a single
+ * {@link CacheLoader#loadAll} call per batch key, as the keys the delegate can load together,
+ * such as the partitions of a single table, share the batch key.
+ * {@link com.google.common.cache.LoadingCache#getAll} triggers one refresh per stale key, so without
+ * batching a bulk lookup of many stale partitions results in as many metastore calls.
+ */
+@ThreadSafe
+class BulkReloadingCacheLoader<K, V>
+        extends CacheLoader<K, V>
+{
+    private final CacheLoader<K, V> delegate;
+    private final Function<? super K, ?> batchKey;
+    private final Executor executor;
+
+    @GuardedBy("this")
+    private Map<K, SettableFuture<V>> pendingReloads = new LinkedHashMap<>();
+
+    public static <K, V> CacheLoader<K, V> bulkReloading(CacheLoader<K, V> loader, Function<? super K, ?> batchKey, Executor executor)
+    {
+        return new BulkReloadingCacheLoader<>(loader, batchKey, executor);
+    }
+
+    private BulkReloadingCacheLoader(CacheLoader<K, V> delegate, Function<? super K, ?> batchKey, Executor executor)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.batchKey = requireNonNull(batchKey, "batchKey is null");
+        this.executor = requireNonNull(executor, "executor is null");
+    }
+
+    @Override
+    public V load(K key)
+            throws Exception
+    {
+        return delegate.load(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys)
+            throws Exception
+    {
+        return delegate.loadAll(keys);
+    }
+
+    @Override
+    public ListenableFuture<V> reload(K key, V oldValue)
+    {
+        SettableFuture<V> future;
+        boolean scheduleReload;
+        synchronized (this) {
+            future = pendingReloads.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = SettableFuture.create();
+            scheduleReload = pendingReloads.isEmpty();
+            pendingReloads.put(key, future);
+        }
+        if (scheduleReload) {
+            try {
+                executor.execute(this::reloadPending);
+            }
+            catch (RuntimeException e) {
+                failPending(e);
+            }
+        }
+        return future;
+    }
+
+    private void reloadPending()
+    {
+        Map<Object, Map<K, SettableFuture<V>>> batches = new LinkedHashMap<>();
+        takePending().forEach((key, future) -> batches.computeIfAbsent(batchKey.apply(key), ignored -> new LinkedHashMap<>()).put(key, future));
+        // a failed batch does not affect the others
+        batches.values().forEach(this::reload);
+    }
+
+    private void reload(Map<K, SettableFuture<V>> batch)
+    {
+        try {
+            Map<K, V> values = delegate.loadAll(batch.keySet());
+            batch.forEach((key, future) -> {
+                V value = values.get(key);
+                if (value == null) {
+                    future.setException(new InvalidCacheLoadException("loadAll failed to return a value for " + key));
+                }
+                else {
+                    future.set(value);
+                }
+            });
+        }
+        catch (Throwable t) {
+            batch.values().forEach(future -> future.setException(t));
+        }
+    }
+
+    private void failPending(Throwable t)
+    {
+        takePending().values().forEach(future -> future.setException(t));
+    }
+
+    private synchronized Map<K, SettableFuture<V>> takePending()
+    {
+        Map<K, SettableFuture<V>> batch = pendingReloads;
+        pendingReloads = new LinkedHashMap<>();
+        return batch;
+    }
+}
@@ -64,6 +64,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
@@ -82,6 +83,7 @@ import static io.prestosql.plugin.hive.metastore.HivePartitionName.hivePartition
 import static io.prestosql.plugin.hive.metastore.HiveTableName.hiveTableName;
 import static io.prestosql.plugin.hive.metastore.MetastoreUtil.makePartitionName;
 import static io.prestosql.plugin.hive.metastore.PartitionFilter.partitionFilter;
+import static io.prestosql.plugin.hive.metastore.cache.BulkReloadingCacheLoader.bulkReloading;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -176,7 +178,7 @@ public class CachingHiveMetastore
                 .build(asyncReloading(CacheLoader.from(this::loadTableColumnStatistics), executor));
 
         partitionStatisticsCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize, statsRecording)
-                .build(asyncReloading(new CacheLoader<>()
+                .build(bulkReloading(new CacheLoader<>()
                 {
                     @Override
                     public PartitionStatistics load(WithIdentity<HivePartitionName> key)
@@ -189,7 +191,7 @@ public class CachingHiveMetastore
                     {
                         return loadPartitionColumnStatistics(keys);
                     }
-                }, executor));
+                }, partitionName -> new WithIdentity<>(partitionName.getIdentity(), partitionName.getKey().getHiveTableName()), executor));
 
         tableCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize, statsRecording)
                 .build(asyncReloading(CacheLoader.from(this::loadTable), executor));
@@ -201,7 +203,7 @@ public class CachingHiveMetastore
                 .build(asyncReloading(CacheLoader.from(this::loadPartitionNamesByFilter), executor));
 
         partitionCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize, statsRecording)
-                .build(asyncReloading(new CacheLoader<>()
+                .build(bulkReloading(new CacheLoader<>()
                 {
                     @Override
                     public Optional<Partition> load(WithIdentity<HivePartitionName> partitionName)
@@ -214,7 +216,7 @@ public class CachingHiveMetastore
                     {
                         return loadPartitionsByNames(partitionNames);
                     }
-                }, executor));
+                }, partitionName -> new WithIdentity<>(partitionName.getIdentity(), partitionName.getKey().getHiveTableName()), executor));
 
         tablePrivilegesCache = newCacheBuilder(expiresAfterWriteMillis, refreshMills, maximumSize, statsRecording)
                 .build(asyncReloading(CacheLoader.from(key -> loadTablePrivileges(key.getDatabase(), key.getTable(), key.getOwner(), key.getPrincipal())), executor));
@@ -495,6 +497,28 @@ public class CachingHiveMetastore
         databaseNamesCache.invalidateAll();
     }
 
+    /**
+     * Invalidates the database and all cached objects of its tables, e.g. after the
+     * metastore was modified by another system.
+     */
+    @Managed
+    public void invalidateSchema(String databaseName)
+    {
+        invalidateDatabase(databaseName);
+        tableNamesCache.invalidate(databaseName);
+        viewNamesCache.invalidate(databaseName);
+        Stream.of(
+                tableCache.asMap().keySet().stream().map(WithIdentity::getKey),
+                tableStatisticsCache.asMap().keySet().stream().map(WithIdentity::getKey),
+                partitionCache.asMap().keySet().stream().map(partition -> partition.getKey().getHiveTableName()),
+                partitionFilterCache.asMap().keySet().stream().map(partitionFilter -> partitionFilter.getKey().getHiveTableName()))
+                .flatMap(Function.identity())
+                .filter(table -> table.getDatabaseName().equals(databaseName))
+                .distinct()
+                .collect(toImmutableList())
+                .forEach(table -> invalidateTable(databaseName, table.getTableName()));
+    }
+
     @Override
     public void createTable(HiveIdentity identity, Table table, PrincipalPrivileges principalPrivileges)
     {
@@ -605,7 +629,12 @@ public class CachingHiveMetastore
         }
     }
 
-    protected void invalidateTable(String databaseName, String tableName)
+    /**
+     * Invalidates the table and all cached objects derived from it, e.g. after the
+     * metastore was modified by another system.
+     */
+    @Managed
+    public void invalidateTable(String databaseName, String tableName)
     {
         invalidateTableCache(databaseName, tableName);
         tableNamesCache.invalidate(databaseName);
@@ -628,7 +657,7 @@ public class CachingHiveMetastore
     {
         tableStatisticsCache.asMap().keySet().stream()
                 .filter(table -> table.getKey().getDatabaseName().equals(databaseName) && table.getKey().getTableName().equals(tableName))
-                .forEach(tableCache::invalidate);
+                .forEach(tableStatisticsCache::invalidate);
     }
 
     private Partition getExistingPartition(HiveIdentity identity, Table table, List<String> partitionValues)
@@ -842,6 +871,25 @@ public class CachingHiveMetastore
         return delegate.listGrantedPrincipals(role);
     }
 
+    /**
+     * Invalidates a single partition, e.g. after the metastore was modified by another system.
+     * The cached partition names of the table are invalidated as well, as the partition may
+     * have been added or dropped.
+     */
+    public void invalidatePartition(String databaseName, String tableName, List<String> partitionValues)
+    {
+        HivePartitionName hivePartitionName = hivePartitionName(hiveTableName(databaseName, tableName), partitionValues);
+        partitionCache.asMap().keySet().stream()
+                .filter(partitionName -> partitionName.getKey().equals(hivePartitionName))
+                .forEach(partitionCache::invalidate);
+        partitionStatisticsCache.asMap().keySet().stream()
+                .filter(partitionName -> partitionName.getKey().equals(hivePartitionName))
+                .forEach(partitionStatisticsCache::invalidate);
+        partitionFilterCache.asMap().keySet().stream()
+                .filter(partitionFilter -> partitionFilter.getKey().getHiveTableName().equals(hivePartitionName.getHiveTableName()))
+                .forEach(partitionFilterCache::invalidate);
+    }
+
     private void invalidatePartitionCache(String databaseName, String tableName)
     {
         HiveTableName hiveTableName = hiveTableName(databaseName, tableName);
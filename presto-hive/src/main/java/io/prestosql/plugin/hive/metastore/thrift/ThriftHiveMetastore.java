@@ -133,7 +133,9 @@ import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.getH
 import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.isAvroTableWithSchemaSet;
 import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.parsePrivilege;
 import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.toMetastoreApiPartition;
+import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.updateDistinctValuesSketchParameters;
 import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.updateStatisticsParameters;
+import static io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreUtil.withDistinctValuesSketches;
 import static io.prestosql.plugin.hive.util.HiveUtil.PRESTO_VIEW_FLAG;
 import static io.prestosql.spi.StandardErrorCode.ALREADY_EXISTS;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
@@ -373,7 +375,7 @@ public class ThriftHiveMetastore
                 .collect(toImmutableList());
         HiveBasicStatistics basicStatistics = getHiveBasicStatistics(table.getParameters());
         Map<String, HiveColumnStatistics> columnStatistics = getTableColumnStatistics(identity, table.getDbName(), table.getTableName(), dataColumns, basicStatistics.getRowCount());
-        return new PartitionStatistics(basicStatistics, columnStatistics);
+        return new PartitionStatistics(basicStatistics, withDistinctValuesSketches(columnStatistics, table.getParameters()));
     }
 
     private Map<String, HiveColumnStatistics> getTableColumnStatistics(HiveIdentity identity, String databaseName, String tableName, List<String> columns, OptionalLong rowCount)
@@ -409,10 +411,12 @@ public class ThriftHiveMetastore
                 .map(FieldSchema::getName)
                 .collect(toImmutableList());
 
-        Map<String, HiveBasicStatistics> partitionBasicStatistics = partitions.stream()
+        Map<String, Map<String, String>> partitionParameters = partitions.stream()
                 .collect(toImmutableMap(
                         partition -> makePartName(partitionColumns, partition.getValues()),
-                        partition -> getHiveBasicStatistics(partition.getParameters())));
+                        Partition::getParameters));
+        Map<String, HiveBasicStatistics> partitionBasicStatistics = partitionParameters.entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getKey, entry -> getHiveBasicStatistics(entry.getValue())));
         Map<String, OptionalLong> partitionRowCounts = partitionBasicStatistics.entrySet().stream()
                 .collect(toImmutableMap(Map.Entry::getKey, entry -> entry.getValue().getRowCount()));
         Map<String, Map<String, HiveColumnStatistics>> partitionColumnStatistics = getPartitionColumnStatistics(
@@ -426,6 +430,7 @@ public class ThriftHiveMetastore
         for (String partitionName : partitionBasicStatistics.keySet()) {
             HiveBasicStatistics basicStatistics = partitionBasicStatistics.get(partitionName);
             Map<String, HiveColumnStatistics> columnStatistics = partitionColumnStatistics.getOrDefault(partitionName, ImmutableMap.of());
+            columnStatistics = withDistinctValuesSketches(columnStatistics, partitionParameters.get(partitionName));
             result.put(partitionName, new PartitionStatistics(basicStatistics, columnStatistics));
         }
 
@@ -511,7 +516,8 @@ public class ThriftHiveMetastore
 
         Table modifiedTable = originalTable.deepCopy();
         HiveBasicStatistics basicStatistics = updatedStatistics.getBasicStatistics();
-        modifiedTable.setParameters(updateStatisticsParameters(modifiedTable.getParameters(), basicStatistics));
+        Map<String, String> parameters = updateStatisticsParameters(modifiedTable.getParameters(), basicStatistics);
+        modifiedTable.setParameters(updateDistinctValuesSketchParameters(parameters, updatedStatistics.getColumnStatistics()));
         alterTable(identity, databaseName, tableName, modifiedTable);
 
         io.prestosql.plugin.hive.metastore.Table table = fromMetastoreApiTable(modifiedTable);
@@ -601,7 +607,8 @@ public class ThriftHiveMetastore
 
         Partition modifiedPartition = originalPartition.deepCopy();
         HiveBasicStatistics basicStatistics = updatedStatistics.getBasicStatistics();
-        modifiedPartition.setParameters(updateStatisticsParameters(modifiedPartition.getParameters(), basicStatistics));
+        Map<String, String> parameters = updateStatisticsParameters(modifiedPartition.getParameters(), basicStatistics);
+        modifiedPartition.setParameters(updateDistinctValuesSketchParameters(parameters, updatedStatistics.getColumnStatistics()));
         alterPartitionWithoutStatistics(identity, table.getDbName(), table.getTableName(), modifiedPartition);
 
         Map<String, HiveType> columns = modifiedPartition.getSd().getCols().stream()
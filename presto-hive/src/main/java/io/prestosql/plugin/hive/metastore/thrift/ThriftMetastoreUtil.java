@@ -25,6 +25,7 @@ import io.prestosql.plugin.hive.HiveType;
 import io.prestosql.plugin.hive.authentication.HiveIdentity;
 import io.prestosql.plugin.hive.metastore.Column;
 import io.prestosql.plugin.hive.metastore.Database;
+import io.prestosql.plugin.hive.metastore.DistinctValuesSketch;
 import io.prestosql.plugin.hive.metastore.HiveColumnStatistics;
 import io.prestosql.plugin.hive.metastore.HivePrincipal;
 import io.prestosql.plugin.hive.metastore.HivePrivilegeInfo;
@@ -94,6 +95,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.emptyToNull;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static io.prestosql.plugin.hive.HiveMetadata.AVRO_SCHEMA_URL_KEY;
@@ -117,6 +119,7 @@ import static io.prestosql.spi.statistics.ColumnStatisticType.MAX_VALUE;
 import static io.prestosql.spi.statistics.ColumnStatisticType.MAX_VALUE_SIZE_IN_BYTES;
 import static io.prestosql.spi.statistics.ColumnStatisticType.MIN_VALUE;
 import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES;
+import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES_SUMMARY;
 import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_NON_NULL_VALUES;
 import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_TRUE_VALUES;
 import static io.prestosql.spi.statistics.ColumnStatisticType.TOTAL_SIZE_IN_BYTES;
@@ -152,6 +155,9 @@ public final class ThriftMetastoreUtil
     private static final String RAW_DATA_SIZE = "rawDataSize";
     private static final String TOTAL_SIZE = "totalSize";
     private static final Set<String> STATS_PROPERTIES = ImmutableSet.of(NUM_FILES, NUM_ROWS, RAW_DATA_SIZE, TOTAL_SIZE);
+    private static final String DISTINCT_VALUES_SKETCH_PREFIX = "presto_distinct_values_sketch.";
+    // metastore databases commonly limit the length of parameter values to 4000 characters
+    private static final int MAX_DISTINCT_VALUES_SKETCH_LENGTH = 4000;
 
     private ThriftMetastoreUtil() {}
 
@@ -353,7 +359,8 @@ public final class ThriftMetastoreUtil
     public static org.apache.hadoop.hive.metastore.api.Partition toMetastoreApiPartition(PartitionWithStatistics partitionWithStatistics)
     {
         org.apache.hadoop.hive.metastore.api.Partition partition = toMetastoreApiPartition(partitionWithStatistics.getPartition());
-        partition.setParameters(updateStatisticsParameters(partition.getParameters(), partitionWithStatistics.getStatistics().getBasicStatistics()));
+        Map<String, String> parameters = updateStatisticsParameters(partition.getParameters(), partitionWithStatistics.getStatistics().getBasicStatistics());
+        partition.setParameters(updateDistinctValuesSketchParameters(parameters, partitionWithStatistics.getStatistics().getColumnStatistics()));
         return partition;
     }
 
@@ -817,6 +824,38 @@ public final class ThriftMetastoreUtil
         return result.build();
     }
 
+    /**
+     * The metastore has no place for mergeable statistics, so the column sketches are stored as parameters of the table or partition.
+     */
+    public static Map<String, String> updateDistinctValuesSketchParameters(Map<String, String> parameters, Map<String, HiveColumnStatistics> columnStatistics)
+    {
+        ImmutableMap.Builder<String, String> result = ImmutableMap.builder();
+        parameters.forEach((key, value) -> {
+            if (!key.startsWith(DISTINCT_VALUES_SKETCH_PREFIX)) {
+                result.put(key, value);
+            }
+        });
+        columnStatistics.forEach((column, statistics) -> statistics.getDistinctValuesSketch()
+                .map(DistinctValuesSketch::toBase64)
+                .filter(sketch -> sketch.length() <= MAX_DISTINCT_VALUES_SKETCH_LENGTH)
+                .ifPresent(sketch -> result.put(DISTINCT_VALUES_SKETCH_PREFIX + column, sketch)));
+        return result.build();
+    }
+
+    public static Map<String, HiveColumnStatistics> withDistinctValuesSketches(Map<String, HiveColumnStatistics> columnStatistics, Map<String, String> parameters)
+    {
+        return columnStatistics.entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getKey, entry -> {
+                    String sketch = parameters.get(DISTINCT_VALUES_SKETCH_PREFIX + entry.getKey());
+                    if (sketch == null) {
+                        return entry.getValue();
+                    }
+                    return HiveColumnStatistics.builder(entry.getValue())
+                            .setDistinctValuesSketch(DistinctValuesSketch.tryParse(sketch))
+                            .build();
+                }));
+    }
+
     public static ColumnStatisticsObj createMetastoreColumnStatistics(String columnName, HiveType columnType, HiveColumnStatistics statistics, OptionalLong rowCount)
     {
         TypeInfo typeInfo = columnType.getTypeInfo();
@@ -963,12 +1002,18 @@ public final class ThriftMetastoreUtil
         if (type.equals(BOOLEAN)) {
             return ImmutableSet.of(NUMBER_OF_NON_NULL_VALUES, NUMBER_OF_TRUE_VALUES);
         }
+        if (type.equals(BIGINT) || type.equals(DOUBLE)) {
+            return ImmutableSet.of(MIN_VALUE, MAX_VALUE, NUMBER_OF_DISTINCT_VALUES, NUMBER_OF_DISTINCT_VALUES_SUMMARY, NUMBER_OF_NON_NULL_VALUES);
+        }
         if (isNumericType(type) || type.equals(DATE) || type.equals(TIMESTAMP_MILLIS)) {
             // TODO https://github.com/prestosql/presto/issues/37 support non-legacy TIMESTAMP
             return ImmutableSet.of(MIN_VALUE, MAX_VALUE, NUMBER_OF_DISTINCT_VALUES, NUMBER_OF_NON_NULL_VALUES);
         }
-        if (type instanceof VarcharType || type instanceof CharType) {
+        if (type instanceof VarcharType) {
             // TODO Collect MIN,MAX once it is used by the optimizer
+            return ImmutableSet.of(NUMBER_OF_NON_NULL_VALUES, NUMBER_OF_DISTINCT_VALUES, NUMBER_OF_DISTINCT_VALUES_SUMMARY, TOTAL_SIZE_IN_BYTES, MAX_VALUE_SIZE_IN_BYTES);
+        }
+        if (type instanceof CharType) {
             return ImmutableSet.of(NUMBER_OF_NON_NULL_VALUES, NUMBER_OF_DISTINCT_VALUES, TOTAL_SIZE_IN_BYTES, MAX_VALUE_SIZE_IN_BYTES);
         }
         if (type.equals(VARBINARY)) {
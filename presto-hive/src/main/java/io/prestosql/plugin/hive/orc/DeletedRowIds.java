@@ -0,0 +1,263 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.orc;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static it.unimi.dsi.fastutil.Arrays.quickSort;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Row ids deleted by ACID delete deltas, sorted by original transaction and row id, and stored in
+ * two parallel arrays. Rows of ACID data files are sorted the same way, so a reader can merge its
+ * rows with the deleted row ids using {@link #seek}, instead of probing a hash set for each row.
+ */
+@Immutable
+public final class DeletedRowIds
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(DeletedRowIds.class).instanceSize();
+
+    public static final DeletedRowIds EMPTY = new DeletedRowIds(new long[0], new long[0], 0);
+
+    private final long[] originalTransactions;
+    private final long[] rowIds;
+    private final int size;
+
+    private DeletedRowIds(long[] originalTransactions, long[] rowIds, int size)
+    {
+        this.originalTransactions = requireNonNull(originalTransactions, "originalTransactions is null");
+        this.rowIds = requireNonNull(rowIds, "rowIds is null");
+        checkArgument(size <= originalTransactions.length && size <= rowIds.length, "size is larger than the arrays");
+        this.size = size;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(originalTransactions) + sizeOf(rowIds);
+    }
+
+    /**
+     * Returns the position of the first deleted row id not less than the given row id, or {@link #size()}
+     * if there is none. The search starts at {@code fromPosition}, so that rows read in order are merged
+     * with the deleted row ids in amortized constant time. Positions returned for preceding row ids are
+     * valid hints even if rows are not read in order.
+     */
+    public int seek(int fromPosition, long originalTransaction, long rowId)
+    {
+        if (fromPosition > 0 && compare(fromPosition - 1, originalTransaction, rowId) >= 0) {
+            // the row id is before the hint
+            return lowerBound(0, fromPosition, originalTransaction, rowId);
+        }
+
+        // gallop to find a range containing the row id, so that large gaps between rows are skipped quickly
+        int low = fromPosition;
+        int step = 1;
+        while (low < size && compare(low, originalTransaction, rowId) < 0) {
+            int high = low + step;
+            if (high >= size || compare(high, originalTransaction, rowId) >= 0) {
+                return lowerBound(low + 1, min(high, size), originalTransaction, rowId);
+            }
+            low = high;
+            step *= 2;
+        }
+        return low;
+    }
+
+    /**
+     * Returns true if the deleted row id at {@code position}, as returned by {@link #seek}, is the given row id.
+     */
+    public boolean isDeleted(int position, long originalTransaction, long rowId)
+    {
+        return position < size && originalTransactions[position] == originalTransaction && rowIds[position] == rowId;
+    }
+
+    public static DeletedRowIds union(List<DeletedRowIds> deletedRowIds)
+    {
+        DeletedRowIds result = EMPTY;
+        for (DeletedRowIds rowIds : deletedRowIds) {
+            result = result.union(rowIds);
+        }
+        return result;
+    }
+
+    private DeletedRowIds union(DeletedRowIds other)
+    {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+
+        Builder builder = new Builder(size + other.size);
+        int left = 0;
+        int right = 0;
+        while (left < size && right < other.size) {
+            int comparison = compare(left, other.originalTransactions[right], other.rowIds[right]);
+            if (comparison <= 0) {
+                builder.add(originalTransactions[left], rowIds[left]);
+                left++;
+                if (comparison == 0) {
+                    right++;
+                }
+            }
+            else {
+                builder.add(other.originalTransactions[right], other.rowIds[right]);
+                right++;
+            }
+        }
+        for (; left < size; left++) {
+            builder.add(originalTransactions[left], rowIds[left]);
+        }
+        for (; right < other.size; right++) {
+            builder.add(other.originalTransactions[right], other.rowIds[right]);
+        }
+        return builder.build();
+    }
+
+    private int lowerBound(int from, int to, long originalTransaction, long rowId)
+    {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, originalTransaction, rowId) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compare(int position, long originalTransaction, long rowId)
+    {
+        int comparison = Long.compare(originalTransactions[position], originalTransaction);
+        if (comparison != 0) {
+            return comparison;
+        }
+        return Long.compare(rowIds[position], rowId);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("size", size)
+                .toString();
+    }
+
+    public static Builder builder()
+    {
+        return new Builder(16);
+    }
+
+    public static class Builder
+    {
+        private long[] originalTransactions;
+        private long[] rowIds;
+        private int size;
+        private boolean sorted = true;
+
+        private Builder(int expectedSize)
+        {
+            originalTransactions = new long[max(expectedSize, 1)];
+            rowIds = new long[max(expectedSize, 1)];
+        }
+
+        public Builder add(long originalTransaction, long rowId)
+        {
+            if (size == originalTransactions.length) {
+                int newLength = size * 2;
+                originalTransactions = Arrays.copyOf(originalTransactions, newLength);
+                rowIds = Arrays.copyOf(rowIds, newLength);
+            }
+            if (sorted && size > 0) {
+                // delete delta files are sorted, so sorting is usually not needed
+                int comparison = Long.compare(originalTransactions[size - 1], originalTransaction);
+                sorted = comparison < 0 || (comparison == 0 && rowIds[size - 1] <= rowId);
+            }
+            originalTransactions[size] = originalTransaction;
+            rowIds[size] = rowId;
+            size++;
+            return this;
+        }
+
+        public DeletedRowIds build()
+        {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (!sorted) {
+                quickSort(0, size, this::compare, this::swap);
+            }
+
+            // remove duplicates
+            int distinct = 1;
+            for (int i = 1; i < size; i++) {
+                if (originalTransactions[i] != originalTransactions[distinct - 1] || rowIds[i] != rowIds[distinct - 1]) {
+                    originalTransactions[distinct] = originalTransactions[i];
+                    rowIds[distinct] = rowIds[i];
+                    distinct++;
+                }
+            }
+
+            // trim the arrays, as the row ids may be retained in a cache for a long time
+            return new DeletedRowIds(
+                    Arrays.copyOf(originalTransactions, distinct),
+                    Arrays.copyOf(rowIds, distinct),
+                    distinct);
+        }
+
+        private int compare(int left, int right)
+        {
+            int comparison = Long.compare(originalTransactions[left], originalTransactions[right]);
+            if (comparison != 0) {
+                return comparison;
+            }
+            return Long.compare(rowIds[left], rowIds[right]);
+        }
+
+        private void swap(int left, int right)
+        {
+            long originalTransaction = originalTransactions[left];
+            originalTransactions[left] = originalTransactions[right];
+            originalTransactions[right] = originalTransaction;
+            long rowId = rowIds[left];
+            rowIds[left] = rowIds[right];
+            rowIds[right] = rowId;
+        }
+    }
+}
@@ -18,12 +18,15 @@ import io.prestosql.orc.AbstractOrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
 import io.prestosql.orc.OrcReaderOptions;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.cache.LocalDataCache;
 import io.prestosql.plugin.hive.util.FSDataInputStreamTail;
 import io.prestosql.spi.PrestoException;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.hdfs.BlockMissingException;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.Executor;
 
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_MISSING_DATA;
@@ -36,6 +39,7 @@ public class HdfsOrcDataSource
 {
     private final FSDataInputStream inputStream;
     private final FileFormatDataSourceStats stats;
+    private final Optional<LocalDataCache> localDataCache;
 
     public HdfsOrcDataSource(
             OrcDataSourceId id,
@@ -44,21 +48,44 @@ public class HdfsOrcDataSource
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats)
     {
-        super(id, size, options);
+        this(id, size, options, inputStream, stats, Optional.empty(), Optional.empty());
+    }
+
+    public HdfsOrcDataSource(
+            OrcDataSourceId id,
+            long size,
+            OrcReaderOptions options,
+            FSDataInputStream inputStream,
+            FileFormatDataSourceStats stats,
+            Optional<LocalDataCache> localDataCache,
+            Optional<Executor> readExecutor)
+    {
+        super(id, size, options, readExecutor);
         this.inputStream = requireNonNull(inputStream, "inputStream is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.localDataCache = requireNonNull(localDataCache, "localDataCache is null");
     }
 
     @Override
     public void close()
             throws IOException
     {
+        cancelReadAhead();
         inputStream.close();
     }
 
     @Override
     public Slice readTail(int length)
             throws IOException
+    {
+        if (localDataCache.isPresent()) {
+            return localDataCache.get().readTail(getId().toString(), getEstimatedSize(), length, this::readTailFromFile);
+        }
+        return readTailFromFile(length);
+    }
+
+    private Slice readTailFromFile(int length)
+            throws IOException
     {
         //  Handle potentially imprecise file lengths by reading the footer
         long readStart = System.nanoTime();
@@ -72,9 +99,12 @@ public class HdfsOrcDataSource
     protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
         try {
-            long readStart = System.nanoTime();
-            inputStream.readFully(position, buffer, bufferOffset, bufferLength);
-            stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - readStart);
+            if (localDataCache.isPresent()) {
+                localDataCache.get().read(getId().toString(), getEstimatedSize(), position, buffer, bufferOffset, bufferLength, this::readFromFile);
+            }
+            else {
+                readFromFile(position, buffer, bufferOffset, bufferLength);
+            }
         }
         catch (PrestoException e) {
             // just in case there is a Presto wrapper or hook
@@ -91,4 +121,12 @@ public class HdfsOrcDataSource
             throw new PrestoException(HIVE_UNKNOWN_ERROR, message, e);
         }
     }
+
+    private void readFromFile(long position, byte[] buffer, int bufferOffset, int bufferLength)
+            throws IOException
+    {
+        long readStart = System.nanoTime();
+        inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+        stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - readStart);
+    }
 }
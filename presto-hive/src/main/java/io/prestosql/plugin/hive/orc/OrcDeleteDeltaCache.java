@@ -0,0 +1,149 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.orc;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.HiveConfig;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker-wide cache of the row ids deleted by ACID delete delta files. All splits of a bucket
+ * read the same delete delta files, which are named after the write ids of the delete delta and
+ * the bucket. The files are identified by their length and modification time as well as their
+ * path, so a file rewritten in place, e.g. after the table is dropped and recreated, is not
+ * served from the cache. The cache is bounded by the retained size of the cached row ids.
+ */
+public class OrcDeleteDeltaCache
+{
+    private final boolean enabled;
+    private final Cache<DeleteDeltaFile, DeletedRowIds> cache;
+
+    @Inject
+    public OrcDeleteDeltaCache(HiveConfig config)
+    {
+        this(config.getDeleteDeltaCacheMaxSize());
+    }
+
+    public OrcDeleteDeltaCache(DataSize maxSize)
+    {
+        requireNonNull(maxSize, "maxSize is null");
+        this.enabled = maxSize.toBytes() > 0;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((DeleteDeltaFile file, DeletedRowIds rowIds) -> (int) min(rowIds.getRetainedSizeInBytes(), Integer.MAX_VALUE))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Whether the returned row ids may be shared with other splits
+     */
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public DeletedRowIds get(FileStatus deleteDeltaFile, Callable<DeletedRowIds> loader)
+    {
+        try {
+            return cache.get(new DeleteDeltaFile(deleteDeltaFile.getPath(), deleteDeltaFile.getLen(), deleteDeltaFile.getModificationTime()), loader);
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getEntryCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public long getRetainedSizeInBytes()
+    {
+        return cache.asMap().values().stream()
+                .mapToLong(DeletedRowIds::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    private static final class DeleteDeltaFile
+    {
+        private final Path path;
+        private final long length;
+        private final long modificationTime;
+
+        public DeleteDeltaFile(Path path, long length, long modificationTime)
+        {
+            this.path = requireNonNull(path, "path is null");
+            this.length = length;
+            this.modificationTime = modificationTime;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DeleteDeltaFile that = (DeleteDeltaFile) o;
+            return length == that.length &&
+                    modificationTime == that.modificationTime &&
+                    path.equals(that.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, length, modificationTime);
+        }
+    }
+}
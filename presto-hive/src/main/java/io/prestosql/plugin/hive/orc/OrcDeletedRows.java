@@ -13,7 +13,9 @@
  */
 package io.prestosql.plugin.hive.orc;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.orc.OrcCorruptionException;
 import io.prestosql.plugin.hive.AcidInfo;
 import io.prestosql.plugin.hive.HdfsEnvironment;
@@ -34,11 +36,10 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.Objects;
+import java.util.List;
+import java.util.Optional;
 import java.util.OptionalLong;
-import java.util.Set;
 
-import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Verify.verify;
 import static io.prestosql.plugin.hive.BackgroundHiveSplitLoader.hasAttemptId;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_BAD_DATA;
@@ -58,9 +59,13 @@ public class OrcDeletedRows
     private final Configuration configuration;
     private final HdfsEnvironment hdfsEnvironment;
     private final AcidInfo acidInfo;
+    private final OrcDeleteDeltaCache deleteDeltaCache;
+    private final LocalMemoryContext memoryContext;
 
     @Nullable
-    private Set<RowId> deletedRows;
+    private DeletedRowIds deletedRows;
+    // position in deletedRows of the last row read, rows are usually read in the order of the deleted row ids
+    private int deletedRowsPosition;
 
     public OrcDeletedRows(
             String sourceFileName,
@@ -68,7 +73,9 @@ public class OrcDeletedRows
             String sessionUser,
             Configuration configuration,
             HdfsEnvironment hdfsEnvironment,
-            AcidInfo acidInfo)
+            AcidInfo acidInfo,
+            OrcDeleteDeltaCache deleteDeltaCache,
+            LocalMemoryContext memoryContext)
     {
         this.sourceFileName = requireNonNull(sourceFileName, "sourceFileName is null");
         this.pageSourceFactory = requireNonNull(pageSourceFactory, "pageSourceFactory is null");
@@ -76,6 +83,8 @@ public class OrcDeletedRows
         this.configuration = requireNonNull(configuration, "configuration is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.acidInfo = requireNonNull(acidInfo, "acidInfo is null");
+        this.deleteDeltaCache = requireNonNull(deleteDeltaCache, "deleteDeltaCache is null");
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
     }
 
     public MaskDeletedRowsFunction getMaskDeletedRowsFunction(Page sourcePage, OptionalLong startRowId)
@@ -158,87 +167,114 @@ public class OrcDeletedRows
         private void loadValidPositions()
         {
             verify(sourcePage != null, "sourcePage is null");
-            Set<RowId> deletedRows = getDeletedRows();
+            DeletedRowIds deletedRows = getDeletedRows();
             if (deletedRows.isEmpty()) {
                 this.positionCount = sourcePage.getPositionCount();
                 this.sourcePage = null;
                 return;
             }
 
+            Block originalTransactionBlock = startRowId.isPresent() ? null : sourcePage.getBlock(ORIGINAL_TRANSACTION_INDEX);
+            Block rowIdBlock = startRowId.isPresent() ? null : sourcePage.getBlock(ROW_ID_INDEX);
+
+            // merge the rows with the sorted deleted row ids
+            int deletedPosition = deletedRowsPosition;
             int[] validPositions = new int[sourcePage.getPositionCount()];
             int validPositionsIndex = 0;
             for (int position = 0; position < sourcePage.getPositionCount(); position++) {
-                RowId rowId = getRowId(position);
-                if (!deletedRows.contains(rowId)) {
+                long originalTransaction;
+                long row;
+                if (startRowId.isPresent()) {
+                    // original transaction ID is always 0 for original file row delete delta.
+                    originalTransaction = 0;
+                    // In case of original files, calculate row ID is start row ID of the page + current position in the page
+                    row = startRowId.getAsLong() + position;
+                }
+                else {
+                    originalTransaction = BIGINT.getLong(originalTransactionBlock, position);
+                    row = BIGINT.getLong(rowIdBlock, position);
+                }
+                deletedPosition = deletedRows.seek(deletedPosition, originalTransaction, row);
+                if (!deletedRows.isDeleted(deletedPosition, originalTransaction, row)) {
                     validPositions[validPositionsIndex] = position;
                     validPositionsIndex++;
                 }
             }
+            deletedRowsPosition = deletedPosition;
             this.positionCount = validPositionsIndex;
             this.validPositions = validPositions;
             this.sourcePage = null;
         }
-
-        private RowId getRowId(int position)
-        {
-            long originalTransaction;
-            long row;
-            if (startRowId.isPresent()) {
-                // original transaction ID is always 0 for original file row delete delta.
-                originalTransaction = 0;
-                // In case of original files, calculate row ID is start row ID of the page + current position in the page
-                row = startRowId.getAsLong() + position;
-            }
-            else {
-                originalTransaction = BIGINT.getLong(sourcePage.getBlock(ORIGINAL_TRANSACTION_INDEX), position);
-                row = BIGINT.getLong(sourcePage.getBlock(ROW_ID_INDEX), position);
-            }
-            return new RowId(originalTransaction, row);
-        }
     }
 
-    private Set<RowId> getDeletedRows()
+    private DeletedRowIds getDeletedRows()
     {
         if (deletedRows != null) {
             return deletedRows;
         }
 
-        ImmutableSet.Builder<RowId> deletedRowsBuilder = ImmutableSet.builder();
+        ImmutableList.Builder<DeletedRowIds> deleteDeltas = ImmutableList.builder();
         for (AcidInfo.DeleteDeltaInfo deleteDeltaInfo : acidInfo.getDeleteDeltas()) {
             Path path = createPath(acidInfo, deleteDeltaInfo, sourceFileName);
+            Optional<FileStatus> fileStatus = getFileStatus(path);
+            if (fileStatus.isPresent()) {
+                deleteDeltas.add(deleteDeltaCache.get(fileStatus.get(), () -> loadDeletedRowIds(fileStatus.get())));
+            }
+        }
+        List<DeletedRowIds> deleteDeltaRowIds = deleteDeltas.build();
+        DeletedRowIds deletedRowIds = DeletedRowIds.union(deleteDeltaRowIds);
+        // the row ids of a single delete delta are shared with the other splits through the cache, which is bounded on its own
+        boolean shared = deleteDeltaCache.isEnabled() && deleteDeltaRowIds.stream().anyMatch(rowIds -> rowIds == deletedRowIds);
+        memoryContext.setBytes(shared ? 0 : deletedRowIds.getRetainedSizeInBytes());
+        deletedRows = deletedRowIds;
+        return deletedRows;
+    }
 
-            try {
-                FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
-                FileStatus fileStatus = hdfsEnvironment.doAs(sessionUser, () -> fileSystem.getFileStatus(path));
+    private Optional<FileStatus> getFileStatus(Path path)
+    {
+        try {
+            FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
+            return Optional.of(hdfsEnvironment.doAs(sessionUser, () -> fileSystem.getFileStatus(path)));
+        }
+        catch (FileNotFoundException ignored) {
+            // source file does not have a delete delta file in this location
+            return Optional.empty();
+        }
+        catch (IOException e) {
+            throw new PrestoException(HIVE_CURSOR_ERROR, "Failed to read ORC delete delta file: " + path, e);
+        }
+    }
 
-                try (ConnectorPageSource pageSource = pageSourceFactory.createPageSource(fileStatus.getPath(), fileStatus.getLen()).orElseGet(() -> new FixedPageSource(ImmutableSet.of()))) {
-                    while (!pageSource.isFinished()) {
-                        Page page = pageSource.getNextPage();
-                        if (page != null) {
-                            for (int i = 0; i < page.getPositionCount(); i++) {
-                                long originalTransaction = BIGINT.getLong(page.getBlock(ORIGINAL_TRANSACTION_INDEX), i);
-                                long row = BIGINT.getLong(page.getBlock(ROW_ID_INDEX), i);
-                                deletedRowsBuilder.add(new RowId(originalTransaction, row));
-                            }
-                        }
+    private DeletedRowIds loadDeletedRowIds(FileStatus fileStatus)
+    {
+        DeletedRowIds.Builder deletedRowIds = DeletedRowIds.builder();
+        Path path = fileStatus.getPath();
+        try (ConnectorPageSource pageSource = pageSourceFactory.createPageSource(path, fileStatus.getLen()).orElseGet(() -> new FixedPageSource(ImmutableSet.of()))) {
+            while (!pageSource.isFinished()) {
+                Page page = pageSource.getNextPage();
+                if (page != null) {
+                    for (int i = 0; i < page.getPositionCount(); i++) {
+                        long originalTransaction = BIGINT.getLong(page.getBlock(ORIGINAL_TRANSACTION_INDEX), i);
+                        long row = BIGINT.getLong(page.getBlock(ROW_ID_INDEX), i);
+                        deletedRowIds.add(originalTransaction, row);
                     }
                 }
             }
-            catch (FileNotFoundException ignored) {
-                // source file does not have a delete delta file in this location
-            }
-            catch (PrestoException e) {
-                throw e;
-            }
-            catch (OrcCorruptionException e) {
-                throw new PrestoException(HIVE_BAD_DATA, "Failed to read ORC delete delta file: " + path, e);
-            }
-            catch (RuntimeException | IOException e) {
-                throw new PrestoException(HIVE_CURSOR_ERROR, "Failed to read ORC delete delta file: " + path, e);
-            }
         }
-        deletedRows = deletedRowsBuilder.build();
-        return deletedRows;
+        catch (FileNotFoundException ignored) {
+            // the delete delta file was removed after it was listed
+            return DeletedRowIds.EMPTY;
+        }
+        catch (PrestoException e) {
+            throw e;
+        }
+        catch (OrcCorruptionException e) {
+            throw new PrestoException(HIVE_BAD_DATA, "Failed to read ORC delete delta file: " + path, e);
+        }
+        catch (RuntimeException | IOException e) {
+            throw new PrestoException(HIVE_CURSOR_ERROR, "Failed to read ORC delete delta file: " + path, e);
+        }
+        return deletedRowIds.build();
     }
 
     private static Path createPath(AcidInfo acidInfo, AcidInfo.DeleteDeltaInfo deleteDeltaInfo, String fileName)
@@ -257,47 +293,4 @@ public class OrcDeletedRows
         }
         return new Path(directory, fileName);
     }
-
-    private static class RowId
-    {
-        private final long originalTransaction;
-        private final long rowId;
-
-        public RowId(long originalTransaction, long rowId)
-        {
-            this.originalTransaction = originalTransaction;
-            this.rowId = rowId;
-        }
-
-        @Override
-        public boolean equals(Object o)
-        {
-            if (this == o) {
-                return true;
-            }
-
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-
-            RowId other = (RowId) o;
-            return originalTransaction == other.originalTransaction &&
-                    rowId == other.rowId;
-        }
-
-        @Override
-        public int hashCode()
-        {
-            return Objects.hash(originalTransaction, rowId);
-        }
-
-        @Override
-        public String toString()
-        {
-            return toStringHelper(this)
-                    .add("originalTransaction", originalTransaction)
-                    .add("rowId", rowId)
-                    .toString();
-        }
-    }
 }
@@ -40,6 +40,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -76,6 +77,39 @@ public class OrcFileWriter
             Optional<Supplier<OrcDataSource>> validationInputFactory,
             OrcWriteValidationMode validationMode,
             OrcWriterStats stats)
+    {
+        this(
+                orcDataSink,
+                rollbackAction,
+                columnNames,
+                fileColumnTypes,
+                fileColumnOrcTypes,
+                compression,
+                options,
+                writeLegacyVersion,
+                fileInputColumnIndexes,
+                metadata,
+                validationInputFactory,
+                validationMode,
+                stats,
+                Optional.empty());
+    }
+
+    public OrcFileWriter(
+            OrcDataSink orcDataSink,
+            Callable<Void> rollbackAction,
+            List<String> columnNames,
+            List<Type> fileColumnTypes,
+            ColumnMetadata<OrcType> fileColumnOrcTypes,
+            CompressionKind compression,
+            OrcWriterOptions options,
+            boolean writeLegacyVersion,
+            int[] fileInputColumnIndexes,
+            Map<String, String> metadata,
+            Optional<Supplier<OrcDataSource>> validationInputFactory,
+            OrcWriteValidationMode validationMode,
+            OrcWriterStats stats,
+            Optional<Executor> writerExecutor)
     {
         requireNonNull(orcDataSink, "orcDataSink is null");
 
@@ -90,7 +124,8 @@ public class OrcFileWriter
                 metadata,
                 validationInputFactory.isPresent(),
                 validationMode,
-                stats);
+                stats,
+                writerExecutor);
         this.rollbackAction = requireNonNull(rollbackAction, "rollbackAction is null");
 
         this.fileInputColumnIndexes = requireNonNull(fileInputColumnIndexes, "outputColumnInputIndexes is null");
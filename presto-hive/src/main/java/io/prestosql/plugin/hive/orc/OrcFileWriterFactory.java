@@ -24,6 +24,7 @@ import io.prestosql.orc.OutputStreamOrcDataSink;
 import io.prestosql.orc.metadata.CompressionKind;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
 import io.prestosql.plugin.hive.FileWriter;
+import io.prestosql.plugin.hive.ForHiveOrcWriter;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveFileWriterFactory;
 import io.prestosql.plugin.hive.NodeVersion;
@@ -47,8 +48,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.prestosql.orc.metadata.OrcType.createRootOrcType;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
@@ -61,6 +64,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcOptimizedWrit
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcOptimizedWriterMinStripeSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcOptimizedWriterValidateMode;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStringStatisticsLimit;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcOptimizedWriterParallelEncodingEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcOptimizedWriterValidate;
 import static io.prestosql.plugin.hive.util.HiveUtil.getColumnNames;
 import static io.prestosql.plugin.hive.util.HiveUtil.getColumnTypes;
@@ -79,6 +83,7 @@ public class OrcFileWriterFactory
     private final OrcWriterStats stats = new OrcWriterStats();
     private final OrcWriterOptions orcWriterOptions;
     private final boolean writeLegacyVersion;
+    private final Executor writerExecutor;
 
     @Inject
     public OrcFileWriterFactory(
@@ -87,7 +92,8 @@ public class OrcFileWriterFactory
             NodeVersion nodeVersion,
             OrcWriterConfig orcWriterConfig,
             FileFormatDataSourceStats readStats,
-            OrcWriterConfig config)
+            OrcWriterConfig config,
+            @ForHiveOrcWriter Executor writerExecutor)
     {
         this(
                 hdfsEnvironment,
@@ -95,7 +101,19 @@ public class OrcFileWriterFactory
                 nodeVersion,
                 requireNonNull(orcWriterConfig, "orcWriterConfig is null").isUseLegacyVersion(),
                 readStats,
-                requireNonNull(config, "config is null").toOrcWriterOptions());
+                requireNonNull(config, "config is null").toOrcWriterOptions(),
+                writerExecutor);
+    }
+
+    public OrcFileWriterFactory(
+            HdfsEnvironment hdfsEnvironment,
+            TypeManager typeManager,
+            NodeVersion nodeVersion,
+            OrcWriterConfig orcWriterConfig,
+            FileFormatDataSourceStats readStats,
+            OrcWriterConfig config)
+    {
+        this(hdfsEnvironment, typeManager, nodeVersion, orcWriterConfig, readStats, config, directExecutor());
     }
 
     public OrcFileWriterFactory(
@@ -105,6 +123,18 @@ public class OrcFileWriterFactory
             boolean writeLegacyVersion,
             FileFormatDataSourceStats readStats,
             OrcWriterOptions orcWriterOptions)
+    {
+        this(hdfsEnvironment, typeManager, nodeVersion, writeLegacyVersion, readStats, orcWriterOptions, directExecutor());
+    }
+
+    public OrcFileWriterFactory(
+            HdfsEnvironment hdfsEnvironment,
+            TypeManager typeManager,
+            NodeVersion nodeVersion,
+            boolean writeLegacyVersion,
+            FileFormatDataSourceStats readStats,
+            OrcWriterOptions orcWriterOptions,
+            Executor writerExecutor)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
@@ -112,6 +142,7 @@ public class OrcFileWriterFactory
         this.writeLegacyVersion = writeLegacyVersion;
         this.readStats = requireNonNull(readStats, "stats is null");
         this.orcWriterOptions = requireNonNull(orcWriterOptions, "orcWriterOptions is null");
+        this.writerExecutor = requireNonNull(writerExecutor, "writerExecutor is null");
     }
 
     @Managed
@@ -194,7 +225,8 @@ public class OrcFileWriterFactory
                             .build(),
                     validationInputFactory,
                     getOrcOptimizedWriterValidateMode(session),
-                    stats));
+                    stats,
+                    isOrcOptimizedWriterParallelEncodingEnabled(session) ? Optional.of(writerExecutor) : Optional.empty()));
         }
         catch (IOException e) {
             throw new PrestoException(HIVE_WRITER_OPEN_ERROR, "Error creating ORC file", e);
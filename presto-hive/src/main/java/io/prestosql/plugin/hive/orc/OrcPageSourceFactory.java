@@ -16,6 +16,7 @@ package io.prestosql.plugin.hive.orc;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import io.airlift.units.DataSize;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.OrcColumn;
 import io.prestosql.orc.OrcDataSource;
@@ -28,12 +29,15 @@ import io.prestosql.orc.TupleDomainOrcPredicate.TupleDomainOrcPredicateBuilder;
 import io.prestosql.orc.metadata.OrcType.OrcTypeKind;
 import io.prestosql.plugin.hive.AcidInfo;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.ForHiveAsyncRead;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveColumnProjectionInfo;
 import io.prestosql.plugin.hive.HiveConfig;
 import io.prestosql.plugin.hive.HivePageSourceFactory;
 import io.prestosql.plugin.hive.ReaderProjections;
+import io.prestosql.plugin.hive.cache.LocalDataCache;
+import io.prestosql.plugin.hive.cache.LocalDataCacheConfig;
 import io.prestosql.plugin.hive.orc.OrcPageSource.ColumnAdaptation;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPageSource;
@@ -59,6 +63,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -66,6 +71,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Maps.uniqueIndex;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.orc.OrcReader.ProjectedLayout.createProjectedLayout;
@@ -85,6 +91,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxMergeDista
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxReadBlockSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcTinyStripeThreshold;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isAsyncReadEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcBloomFiltersEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcNestedLazy;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isUseOrcColumnNames;
@@ -115,11 +122,33 @@ public class OrcPageSourceFactory
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
     private final DateTimeZone legacyTimeZone;
+    private final Optional<LocalDataCache> localDataCache;
+    private final Executor asyncReadExecutor;
+    private final OrcDeleteDeltaCache deleteDeltaCache;
 
     @Inject
+    public OrcPageSourceFactory(
+            OrcReaderConfig config,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            HiveConfig hiveConfig,
+            LocalDataCache localDataCache,
+            @ForHiveAsyncRead Executor asyncReadExecutor,
+            OrcDeleteDeltaCache deleteDeltaCache)
+    {
+        this(
+                config.toOrcReaderOptions(),
+                hdfsEnvironment,
+                stats,
+                requireNonNull(hiveConfig, "hiveConfig is null").getOrcLegacyDateTimeZone(),
+                Optional.of(localDataCache).filter(LocalDataCache::isEnabled),
+                asyncReadExecutor,
+                deleteDeltaCache);
+    }
+
     public OrcPageSourceFactory(OrcReaderConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, HiveConfig hiveConfig)
     {
-        this(config.toOrcReaderOptions(), hdfsEnvironment, stats, requireNonNull(hiveConfig, "hiveConfig is null").getOrcLegacyDateTimeZone());
+        this(config, hdfsEnvironment, stats, hiveConfig, new LocalDataCache(new LocalDataCacheConfig()), directExecutor(), new OrcDeleteDeltaCache(hiveConfig));
     }
 
     public OrcPageSourceFactory(
@@ -127,11 +156,26 @@ public class OrcPageSourceFactory
             HdfsEnvironment hdfsEnvironment,
             FileFormatDataSourceStats stats,
             DateTimeZone legacyTimeZone)
+    {
+        this(orcReaderOptions, hdfsEnvironment, stats, legacyTimeZone, Optional.empty(), directExecutor(), new OrcDeleteDeltaCache(DataSize.ofBytes(0)));
+    }
+
+    public OrcPageSourceFactory(
+            OrcReaderOptions orcReaderOptions,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            DateTimeZone legacyTimeZone,
+            Optional<LocalDataCache> localDataCache,
+            Executor asyncReadExecutor,
+            OrcDeleteDeltaCache deleteDeltaCache)
     {
         this.orcReaderOptions = requireNonNull(orcReaderOptions, "orcReaderOptions is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
         this.legacyTimeZone = legacyTimeZone;
+        this.localDataCache = requireNonNull(localDataCache, "localDataCache is null");
+        this.asyncReadExecutor = requireNonNull(asyncReadExecutor, "asyncReadExecutor is null");
+        this.deleteDeltaCache = requireNonNull(deleteDeltaCache, "deleteDeltaCache is null");
     }
 
     @Override
@@ -185,7 +229,10 @@ public class OrcPageSourceFactory
                         .withNestedLazy(isOrcNestedLazy(session))
                         .withBloomFiltersEnabled(isOrcBloomFiltersEnabled(session)),
                 acidInfo,
-                stats);
+                stats,
+                localDataCache,
+                isAsyncReadEnabled(session) ? Optional.of(asyncReadExecutor) : Optional.empty(),
+                deleteDeltaCache);
 
         return Optional.of(new ReaderPageSourceWithProjections(orcPageSource, projectedReaderColumns));
     }
@@ -206,7 +253,10 @@ public class OrcPageSourceFactory
             DateTimeZone legacyFileTimeZone,
             OrcReaderOptions options,
             Optional<AcidInfo> acidInfo,
-            FileFormatDataSourceStats stats)
+            FileFormatDataSourceStats stats,
+            Optional<LocalDataCache> localDataCache,
+            Optional<Executor> asyncReadExecutor,
+            OrcDeleteDeltaCache deleteDeltaCache)
     {
         for (HiveColumnHandle column : columns) {
             checkArgument(column.getColumnType() == REGULAR, "column type must be regular: %s", column);
@@ -224,7 +274,9 @@ public class OrcPageSourceFactory
                     estimatedFileSize,
                     options,
                     inputStream,
-                    stats);
+                    stats,
+                    localDataCache,
+                    asyncReadExecutor);
         }
         catch (Exception e) {
             if (nullToEmpty(e.getMessage()).trim().equals("Filesystem closed") ||
@@ -357,7 +409,9 @@ public class OrcPageSourceFactory
                             sessionUser,
                             configuration,
                             hdfsEnvironment,
-                            info));
+                            info,
+                            deleteDeltaCache,
+                            systemMemoryUsage.newLocalMemoryContext(OrcDeletedRows.class.getSimpleName())));
 
             Optional<Long> originalFileRowId = acidInfo
                     .filter(OrcPageSourceFactory::hasOriginalFilesAndDeleteDeltas)
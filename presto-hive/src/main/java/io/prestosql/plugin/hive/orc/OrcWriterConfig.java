@@ -22,6 +22,7 @@ import io.prestosql.orc.OrcWriterOptions;
 
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 @DefunctConfig("hive.orc.optimized-writer.enabled")
@@ -34,6 +35,8 @@ public class OrcWriterConfig
     private boolean useLegacyVersion;
     private double validationPercentage;
     private OrcWriteValidationMode validationMode = OrcWriteValidationMode.BOTH;
+    private boolean parallelEncodingEnabled;
+    private int maxEncodingThreads = Runtime.getRuntime().availableProcessors();
 
     public OrcWriterOptions toOrcWriterOptions()
     {
@@ -178,4 +181,31 @@ public class OrcWriterConfig
         this.validationMode = validationMode;
         return this;
     }
+
+    public boolean isParallelEncodingEnabled()
+    {
+        return parallelEncodingEnabled;
+    }
+
+    @Config("hive.orc.writer.parallel-encoding-enabled")
+    @ConfigDescription("Encode the columns of a file in parallel and write finished stripes in the background")
+    public OrcWriterConfig setParallelEncodingEnabled(boolean parallelEncodingEnabled)
+    {
+        this.parallelEncodingEnabled = parallelEncodingEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getMaxEncodingThreads()
+    {
+        return maxEncodingThreads;
+    }
+
+    @Config("hive.orc.writer.max-encoding-threads")
+    @ConfigDescription("Maximum number of threads shared by all ORC writers for parallel encoding")
+    public OrcWriterConfig setMaxEncodingThreads(int maxEncodingThreads)
+    {
+        this.maxEncodingThreads = maxEncodingThreads;
+        return this;
+    }
 }
@@ -15,6 +15,7 @@ package io.prestosql.plugin.hive.parquet;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
@@ -24,6 +25,7 @@ import io.prestosql.parquet.ParquetDataSource;
 import io.prestosql.parquet.ParquetDataSourceId;
 import io.prestosql.parquet.ParquetReaderOptions;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.cache.LocalDataCache;
 import io.prestosql.plugin.hive.util.FSDataInputStreamTail;
 import io.prestosql.spi.PrestoException;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -31,11 +33,17 @@ import org.apache.hadoop.fs.FSDataInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILESYSTEM_ERROR;
 import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
@@ -48,10 +56,15 @@ public class HdfsParquetDataSource
     private final ParquetDataSourceId id;
     private final long estimatedSize;
     private final FSDataInputStream inputStream;
-    private long readTimeNanos;
-    private long readBytes;
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
     private final FileFormatDataSourceStats stats;
     private final ParquetReaderOptions options;
+    private final Optional<LocalDataCache> localDataCache;
+    private final Optional<Executor> readExecutor;
+    // the ranges read ahead on the read executor which have not been used yet
+    private final Set<ReferenceCountedReader> readAheadReaders = new HashSet<>();
+    private final AtomicLong readAheadBytes = new AtomicLong();
 
     public HdfsParquetDataSource(
             ParquetDataSourceId id,
@@ -59,12 +72,26 @@ public class HdfsParquetDataSource
             FSDataInputStream inputStream,
             FileFormatDataSourceStats stats,
             ParquetReaderOptions options)
+    {
+        this(id, estimatedSize, inputStream, stats, options, Optional.empty(), Optional.empty());
+    }
+
+    public HdfsParquetDataSource(
+            ParquetDataSourceId id,
+            long estimatedSize,
+            FSDataInputStream inputStream,
+            FileFormatDataSourceStats stats,
+            ParquetReaderOptions options,
+            Optional<LocalDataCache> localDataCache,
+            Optional<Executor> readExecutor)
     {
         this.id = requireNonNull(id, "id is null");
         this.estimatedSize = estimatedSize;
         this.inputStream = inputStream;
         this.stats = stats;
         this.options = requireNonNull(options, "options is null");
+        this.localDataCache = requireNonNull(localDataCache, "localDataCache is null");
+        this.readExecutor = requireNonNull(readExecutor, "readExecutor is null");
     }
 
     @Override
@@ -76,13 +103,13 @@ public class HdfsParquetDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
     public long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
     }
 
     @Override
@@ -91,10 +118,19 @@ public class HdfsParquetDataSource
         return estimatedSize;
     }
 
+    @Override
+    public long getRetainedSize()
+    {
+        return readAheadBytes.get();
+    }
+
     @Override
     public void close()
             throws IOException
     {
+        for (ReferenceCountedReader reader : ImmutableList.copyOf(readAheadReaders)) {
+            reader.cancelReadAhead();
+        }
         inputStream.close();
     }
 
@@ -104,20 +140,31 @@ public class HdfsParquetDataSource
         long start = System.nanoTime();
         Slice tailSlice;
         try {
-            //  Handle potentially imprecise file lengths by reading the footer
-            FSDataInputStreamTail fileTail = FSDataInputStreamTail.readTail(getId().toString(), getEstimatedSize(), inputStream, length);
-            tailSlice = fileTail.getTailSlice();
+            if (localDataCache.isPresent()) {
+                tailSlice = localDataCache.get().readTail(id.toString(), estimatedSize, length, this::readTailFromFile);
+            }
+            else {
+                tailSlice = readTailFromFile(length);
+            }
         }
         catch (IOException e) {
             throw new PrestoException(HIVE_FILESYSTEM_ERROR, format("Error reading tail from %s with length %s", id, length), e);
         }
         long currentReadTimeNanos = System.nanoTime() - start;
 
-        readTimeNanos += currentReadTimeNanos;
-        readBytes += tailSlice.length();
+        readTimeNanos.addAndGet(currentReadTimeNanos);
+        readBytes.addAndGet(tailSlice.length());
         return tailSlice;
     }
 
+    private Slice readTailFromFile(int length)
+            throws IOException
+    {
+        //  Handle potentially imprecise file lengths by reading the footer
+        FSDataInputStreamTail fileTail = FSDataInputStreamTail.readTail(getId().toString(), getEstimatedSize(), inputStream, length);
+        return fileTail.getTailSlice();
+    }
+
     @Override
     public final Slice readFully(long position, int length)
     {
@@ -128,11 +175,16 @@ public class HdfsParquetDataSource
 
     private void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
     {
-        readBytes += bufferLength;
+        readBytes.addAndGet(bufferLength);
 
         long start = System.nanoTime();
         try {
-            inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+            if (localDataCache.isPresent()) {
+                localDataCache.get().read(id.toString(), estimatedSize, position, buffer, bufferOffset, bufferLength, this::readFromFile);
+            }
+            else {
+                readFromFile(position, buffer, bufferOffset, bufferLength);
+            }
         }
         catch (PrestoException e) {
             // just in case there is a Presto wrapper or hook
@@ -141,10 +193,15 @@ public class HdfsParquetDataSource
         catch (Exception e) {
             throw new PrestoException(HIVE_FILESYSTEM_ERROR, format("Error reading from %s at position %s", id, position), e);
         }
-        long currentReadTimeNanos = System.nanoTime() - start;
+        readTimeNanos.addAndGet(System.nanoTime() - start);
+    }
 
-        readTimeNanos += currentReadTimeNanos;
-        stats.readDataBytesPerSecond(bufferLength, currentReadTimeNanos);
+    private void readFromFile(long position, byte[] buffer, int bufferOffset, int bufferLength)
+            throws IOException
+    {
+        long start = System.nanoTime();
+        inputStream.readFully(position, buffer, bufferOffset, bufferLength);
+        stats.readDataBytesPerSecond(bufferLength, System.nanoTime() - start);
     }
 
     @Override
@@ -191,8 +248,10 @@ public class HdfsParquetDataSource
         Iterable<DiskRange> mergedRanges = mergeAdjacentDiskRanges(diskRanges.values(), options.getMaxMergeDistance(), options.getMaxBufferSize());
 
         ImmutableMap.Builder<K, ChunkReader> slices = ImmutableMap.builder();
+        List<ReferenceCountedReader> mergedRangeLoaders = new ArrayList<>();
         for (DiskRange mergedRange : mergedRanges) {
-            ReferenceCountedReader mergedRangeLoader = new ReferenceCountedReader(mergedRange);
+            ReferenceCountedReader mergedRangeLoader = new ReferenceCountedReader(mergedRange, mergedRangeLoaders, mergedRangeLoaders.size());
+            mergedRangeLoaders.add(mergedRangeLoader);
 
             for (Map.Entry<K, DiskRange> diskRangeEntry : diskRanges.entrySet()) {
                 DiskRange diskRange = diskRangeEntry.getValue();
@@ -233,7 +292,7 @@ public class HdfsParquetDataSource
 
         ImmutableMap.Builder<K, ChunkReader> slices = ImmutableMap.builder();
         for (Map.Entry<K, DiskRange> entry : diskRanges.entrySet()) {
-            slices.put(entry.getKey(), new ReferenceCountedReader(entry.getValue()));
+            slices.put(entry.getKey(), new ReferenceCountedReader(entry.getValue(), ImmutableList.of(), 0));
         }
         return slices.build();
     }
@@ -277,12 +336,18 @@ public class HdfsParquetDataSource
             implements ChunkReader
     {
         private final DiskRange range;
+        // the merged ranges planned together, in file order, which are read ahead of this one
+        private final List<ReferenceCountedReader> plannedReaders;
+        private final int plannedIndex;
         private Slice data;
+        private ListenableFutureTask<Slice> pendingRead;
         private int referenceCount = 1;
 
-        public ReferenceCountedReader(DiskRange range)
+        public ReferenceCountedReader(DiskRange range, List<ReferenceCountedReader> plannedReaders, int plannedIndex)
         {
             this.range = range;
+            this.plannedReaders = plannedReaders;
+            this.plannedIndex = plannedIndex;
         }
 
         public void addReference()
@@ -297,14 +362,64 @@ public class HdfsParquetDataSource
             checkState(referenceCount > 0, "Chunk reader is already closed");
 
             if (data == null) {
-                byte[] buffer = new byte[range.getLength()];
-                readFully(range.getOffset(), buffer, 0, buffer.length);
-                data = Slices.wrappedBuffer(buffer);
+                // reads start when a range is first used, so the ranges of columns that are never
+                // read are skipped, and only the following ranges up to the buffer size are read ahead
+                readExecutor.ifPresent(this::startReadAhead);
+                if (pendingRead != null) {
+                    // run the read in the calling thread if the executor has not picked it up yet
+                    pendingRead.run();
+                    data = getFutureValue(pendingRead);
+                    finishReadAhead();
+                }
+                else {
+                    data = readRange();
+                }
             }
 
             return data;
         }
 
+        private void startReadAhead(Executor executor)
+        {
+            long readAheadBudget = options.getMaxBufferSize().toBytes();
+            for (int index = plannedIndex + 1; index < plannedReaders.size(); index++) {
+                ReferenceCountedReader reader = plannedReaders.get(index);
+                readAheadBudget -= reader.range.getLength();
+                if (readAheadBudget < 0) {
+                    break;
+                }
+                if (reader.referenceCount > 0 && reader.data == null && reader.pendingRead == null) {
+                    reader.pendingRead = ListenableFutureTask.create(reader::readRange);
+                    readAheadReaders.add(reader);
+                    readAheadBytes.addAndGet(reader.range.getLength());
+                    executor.execute(reader.pendingRead);
+                }
+            }
+        }
+
+        private void finishReadAhead()
+        {
+            pendingRead = null;
+            if (readAheadReaders.remove(this)) {
+                readAheadBytes.addAndGet(-range.getLength());
+            }
+        }
+
+        private void cancelReadAhead()
+        {
+            if (pendingRead != null) {
+                pendingRead.cancel(false);
+                finishReadAhead();
+            }
+        }
+
+        private Slice readRange()
+        {
+            byte[] buffer = new byte[range.getLength()];
+            readFully(range.getOffset(), buffer, 0, buffer.length);
+            return Slices.wrappedBuffer(buffer);
+        }
+
         @Override
         public void free()
         {
@@ -313,6 +428,7 @@ public class HdfsParquetDataSource
             referenceCount--;
             if (referenceCount == 0) {
                 data = null;
+                cancelReadAhead();
             }
         }
     }
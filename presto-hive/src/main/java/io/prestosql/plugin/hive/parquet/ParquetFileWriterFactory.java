@@ -80,6 +80,8 @@ public class ParquetFileWriterFactory
         ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
                 .setMaxPageSize(HiveSessionProperties.getParquetWriterPageSize(session))
                 .setMaxBlockSize(HiveSessionProperties.getParquetWriterBlockSize(session))
+                .setMaxDictionaryPageSize(HiveSessionProperties.getParquetWriterDictionaryPageSize(session))
+                .setDictionaryEncodingEnabled(HiveSessionProperties.isParquetWriterDictionaryEncodingEnabled(session))
                 .build();
 
         CompressionCodecName compressionCodecName = getCompression(conf);
@@ -25,6 +25,8 @@ public class ParquetWriterConfig
 
     private DataSize blockSize = DataSize.ofBytes(ParquetWriter.DEFAULT_BLOCK_SIZE);
     private DataSize pageSize = DataSize.ofBytes(ParquetWriter.DEFAULT_PAGE_SIZE);
+    private DataSize dictionaryPageSize = DataSize.ofBytes(ParquetWriter.DEFAULT_PAGE_SIZE);
+    private boolean dictionaryEncodingEnabled = true;
 
     public DataSize getBlockSize()
     {
@@ -50,6 +52,32 @@ public class ParquetWriterConfig
         return this;
     }
 
+    public DataSize getDictionaryPageSize()
+    {
+        return dictionaryPageSize;
+    }
+
+    @Config("hive.parquet.writer.dictionary-page-size")
+    @ConfigDescription("Maximum size of a column dictionary, above which the column falls back to plain encoding")
+    public ParquetWriterConfig setDictionaryPageSize(DataSize dictionaryPageSize)
+    {
+        this.dictionaryPageSize = dictionaryPageSize;
+        return this;
+    }
+
+    public boolean isDictionaryEncodingEnabled()
+    {
+        return dictionaryEncodingEnabled;
+    }
+
+    @Config("hive.parquet.writer.dictionary-encoding-enabled")
+    @ConfigDescription("Use dictionary encoding for the columns written by the optimized Parquet writer")
+    public ParquetWriterConfig setDictionaryEncodingEnabled(boolean dictionaryEncodingEnabled)
+    {
+        this.dictionaryEncodingEnabled = dictionaryEncodingEnabled;
+        return this;
+    }
+
     public boolean isParquetOptimizedWriterEnabled()
     {
         return parquetOptimizedWriterEnabled;
@@ -68,6 +96,8 @@ public class ParquetWriterConfig
         return ParquetWriterOptions.builder()
                 .setMaxBlockSize(getBlockSize())
                 .setMaxPageSize(getPageSize())
+                .setMaxDictionaryPageSize(getDictionaryPageSize())
+                .setDictionaryEncodingEnabled(isDictionaryEncodingEnabled())
                 .build();
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.procedure;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.plugin.hive.metastore.HiveMetastore;
+import io.prestosql.plugin.hive.metastore.cache.CachingHiveMetastore;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.classloader.ThreadContextClassLoader;
+import io.prestosql.spi.procedure.Procedure;
+import io.prestosql.spi.procedure.Procedure.Argument;
+import io.prestosql.spi.type.ArrayType;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.Optional;
+
+import static io.prestosql.spi.StandardErrorCode.INVALID_PROCEDURE_ARGUMENT;
+import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
+import static io.prestosql.spi.block.MethodHandleUtil.methodHandle;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A procedure that invalidates the metastore cache, e.g. when the metastore is modified by another
+ * system. It can be invoked for the entire cache ({@code CALL system.flush_metadata_cache()}), a schema
+ * ({@code CALL system.flush_metadata_cache('web')}), a table
+ * ({@code CALL system.flush_metadata_cache('web', 'page_views')}) or a single partition
+ * ({@code CALL system.flush_metadata_cache('web', 'page_views', ARRAY['2020-01-01'])}).
+ */
+public class FlushMetadataCacheProcedure
+        implements Provider<Procedure>
+{
+    private static final MethodHandle FLUSH_METADATA_CACHE = methodHandle(
+            FlushMetadataCacheProcedure.class,
+            "flushMetadataCache",
+            String.class,
+            String.class,
+            List.class);
+
+    private final Optional<CachingHiveMetastore> cachingMetastore;
+
+    @Inject
+    public FlushMetadataCacheProcedure(HiveMetastore metastore)
+    {
+        requireNonNull(metastore, "metastore is null");
+        this.cachingMetastore = metastore instanceof CachingHiveMetastore ? Optional.of((CachingHiveMetastore) metastore) : Optional.empty();
+    }
+
+    @Override
+    public Procedure get()
+    {
+        return new Procedure(
+                "system",
+                "flush_metadata_cache",
+                ImmutableList.of(
+                        new Argument("schema_name", VARCHAR, false, null),
+                        new Argument("table_name", VARCHAR, false, null),
+                        new Argument("partition_values", new ArrayType(VARCHAR), false, null)),
+                FLUSH_METADATA_CACHE.bindTo(this));
+    }
+
+    public void flushMetadataCache(String schemaName, String tableName, List<String> partitionValues)
+    {
+        try (ThreadContextClassLoader ignored = new ThreadContextClassLoader(getClass().getClassLoader())) {
+            doFlushMetadataCache(schemaName, tableName, partitionValues);
+        }
+    }
+
+    private void doFlushMetadataCache(String schemaName, String tableName, List<String> partitionValues)
+    {
+        CachingHiveMetastore metastore = cachingMetastore.orElseThrow(() ->
+                new PrestoException(NOT_SUPPORTED, "Metastore cache is not enabled"));
+
+        if (schemaName == null) {
+            if (tableName != null || partitionValues != null) {
+                throw new PrestoException(INVALID_PROCEDURE_ARGUMENT, "Schema name must be provided with table name or partition values");
+            }
+            metastore.flushCache();
+            return;
+        }
+
+        if (tableName == null) {
+            if (partitionValues != null) {
+                throw new PrestoException(INVALID_PROCEDURE_ARGUMENT, "Table name must be provided with partition values");
+            }
+            metastore.invalidateSchema(schemaName);
+            return;
+        }
+
+        if (partitionValues == null) {
+            metastore.invalidateTable(schemaName, tableName);
+            return;
+        }
+
+        if (partitionValues.isEmpty()) {
+            throw new PrestoException(INVALID_PROCEDURE_ARGUMENT, "Partition values must not be empty");
+        }
+        metastore.invalidatePartition(schemaName, tableName, partitionValues);
+    }
+}
@@ -30,6 +30,7 @@ import io.prestosql.plugin.hive.PartitionStatistics;
 import io.prestosql.plugin.hive.authentication.HiveIdentity;
 import io.prestosql.plugin.hive.metastore.DateStatistics;
 import io.prestosql.plugin.hive.metastore.DecimalStatistics;
+import io.prestosql.plugin.hive.metastore.DistinctValuesSketch;
 import io.prestosql.plugin.hive.metastore.DoubleStatistics;
 import io.prestosql.plugin.hive.metastore.HiveColumnStatistics;
 import io.prestosql.plugin.hive.metastore.IntegerStatistics;
@@ -635,14 +636,40 @@ public class MetastoreHiveStatisticsProvider
     @VisibleForTesting
     static Estimate calculateDistinctValuesCount(List<HiveColumnStatistics> columnStatistics)
     {
-        return columnStatistics.stream()
+        OptionalLong maxDistinctValuesCount = columnStatistics.stream()
                 .map(MetastoreHiveStatisticsProvider::getDistinctValuesCount)
                 .filter(OptionalLong::isPresent)
-                .map(OptionalLong::getAsLong)
+                .mapToLong(OptionalLong::getAsLong)
                 .peek(distinctValuesCount -> verify(distinctValuesCount >= 0, "distinctValuesCount must be greater than or equal to zero"))
-                .max(Long::compare)
-                .map(Estimate::of)
-                .orElse(Estimate.unknown());
+                .max();
+        if (maxDistinctValuesCount.isEmpty()) {
+            return Estimate.unknown();
+        }
+        // the maximum is a lower bound, sketches of the partitions give a better estimate when values differ between partitions
+        long distinctValuesCount = Math.max(maxDistinctValuesCount.getAsLong(), mergeDistinctValuesSketches(columnStatistics).orElse(0));
+        return Estimate.of(distinctValuesCount);
+    }
+
+    private static OptionalLong mergeDistinctValuesSketches(List<HiveColumnStatistics> columnStatistics)
+    {
+        Optional<DistinctValuesSketch> merged = Optional.empty();
+        for (HiveColumnStatistics statistics : columnStatistics) {
+            if (statistics.getDistinctValuesSketch().isEmpty()) {
+                continue;
+            }
+            DistinctValuesSketch sketch = statistics.getDistinctValuesSketch().get();
+            if (merged.isEmpty()) {
+                merged = Optional.of(sketch);
+                continue;
+            }
+            merged = merged.get().mergeWith(sketch);
+            if (merged.isEmpty()) {
+                // sketches with a different precision cannot be merged
+                return OptionalLong.empty();
+            }
+        }
+        return merged.map(sketch -> OptionalLong.of(sketch.cardinality()))
+                .orElse(OptionalLong.empty());
     }
 
     private static OptionalLong getDistinctValuesCount(HiveColumnStatistics statistics)
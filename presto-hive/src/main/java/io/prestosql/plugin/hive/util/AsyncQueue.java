@@ -36,8 +36,8 @@ import static java.util.Objects.requireNonNull;
 @ThreadSafe
 public class AsyncQueue<T>
 {
-    private final int targetQueueSize;
-
+    @GuardedBy("this")
+    private int targetQueueSize;
     @GuardedBy("this")
     private Queue<T> elements;
     // This future is completed when the queue transitions from full to not. But it will be replaced by a new instance of future immediately.
@@ -120,6 +120,30 @@ public class AsyncQueue<T>
         return elements.size();
     }
 
+    public synchronized int getTargetQueueSize()
+    {
+        return targetQueueSize;
+    }
+
+    /**
+     * Increases the number of elements the queue accepts before {@link #offer} returns a blocked future.
+     * Producers blocked on the queue being full are released if the queue is no longer full.
+     * Smaller values than the current target size are ignored.
+     */
+    public synchronized void increaseTargetQueueSize(int newTargetQueueSize)
+    {
+        if (newTargetQueueSize <= targetQueueSize) {
+            return;
+        }
+        int size = elements.size();
+        boolean wasFull = size >= targetQueueSize;
+        targetQueueSize = newTargetQueueSize;
+        if (wasFull && size < targetQueueSize) {
+            completeAsync(executor, notFullSignal);
+            notFullSignal = SettableFuture.create();
+        }
+    }
+
     private synchronized List<T> getBatch(int maxSize)
     {
         int oldSize = elements.size();
@@ -20,6 +20,7 @@ import io.prestosql.plugin.hive.PartitionStatistics;
 import io.prestosql.plugin.hive.metastore.BooleanStatistics;
 import io.prestosql.plugin.hive.metastore.DateStatistics;
 import io.prestosql.plugin.hive.metastore.DecimalStatistics;
+import io.prestosql.plugin.hive.metastore.DistinctValuesSketch;
 import io.prestosql.plugin.hive.metastore.DoubleStatistics;
 import io.prestosql.plugin.hive.metastore.HiveColumnStatistics;
 import io.prestosql.plugin.hive.metastore.IntegerStatistics;
@@ -62,12 +63,14 @@ import static io.prestosql.spi.statistics.ColumnStatisticType.MAX_VALUE;
 import static io.prestosql.spi.statistics.ColumnStatisticType.MAX_VALUE_SIZE_IN_BYTES;
 import static io.prestosql.spi.statistics.ColumnStatisticType.MIN_VALUE;
 import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES;
+import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_DISTINCT_VALUES_SUMMARY;
 import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_NON_NULL_VALUES;
 import static io.prestosql.spi.statistics.ColumnStatisticType.NUMBER_OF_TRUE_VALUES;
 import static io.prestosql.spi.statistics.ColumnStatisticType.TOTAL_SIZE_IN_BYTES;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.DateType.DATE;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.HyperLogLogType.HYPER_LOG_LOG;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
 import static io.prestosql.spi.type.RealType.REAL;
 import static io.prestosql.spi.type.SmallintType.SMALLINT;
@@ -125,7 +128,17 @@ public final class Statistics
                 reduce(first.getMaxValueSizeInBytes(), second.getMaxValueSizeInBytes(), MAX, true),
                 reduce(first.getTotalSizeInBytes(), second.getTotalSizeInBytes(), ADD, true),
                 reduce(first.getNullsCount(), second.getNullsCount(), ADD, false),
-                reduce(first.getDistinctValuesCount(), second.getDistinctValuesCount(), MAX, false));
+                reduce(first.getDistinctValuesCount(), second.getDistinctValuesCount(), MAX, false),
+                mergeDistinctValuesSketches(first.getDistinctValuesSketch(), second.getDistinctValuesSketch()));
+    }
+
+    private static Optional<DistinctValuesSketch> mergeDistinctValuesSketches(Optional<DistinctValuesSketch> first, Optional<DistinctValuesSketch> second)
+    {
+        // a sketch that does not cover all the values of the partition would underestimate the number of distinct values
+        if (first.isPresent() && second.isPresent()) {
+            return first.get().mergeWith(second.get());
+        }
+        return Optional.empty();
     }
 
     private static Optional<IntegerStatistics> mergeIntegerStatistics(Optional<IntegerStatistics> first, Optional<IntegerStatistics> second)
@@ -278,6 +291,9 @@ public final class Statistics
                 case NUMBER_OF_DISTINCT_VALUES:
                     result.setDistinctValuesCount(0);
                     break;
+                case NUMBER_OF_DISTINCT_VALUES_SUMMARY:
+                    // an empty partition does not contribute any values
+                    break;
                 case NUMBER_OF_NON_NULL_VALUES:
                     result.setNullsCount(0);
                     break;
@@ -404,6 +420,14 @@ public final class Statistics
             }
         }
 
+        // NDV SUMMARY
+        if (computedStatistics.containsKey(NUMBER_OF_DISTINCT_VALUES_SUMMARY)) {
+            Block block = computedStatistics.get(NUMBER_OF_DISTINCT_VALUES_SUMMARY);
+            if (!block.isNull(0)) {
+                result.setDistinctValuesSketch(DistinctValuesSketch.fromSerialized(HYPER_LOG_LOG.getSlice(block, 0)));
+            }
+        }
+
         // NUMBER OF FALSE, NUMBER OF TRUE
         if (computedStatistics.containsKey(NUMBER_OF_TRUE_VALUES) && computedStatistics.containsKey(NUMBER_OF_NON_NULL_VALUES)) {
             long numberOfTrue = BIGINT.getLong(computedStatistics.get(NUMBER_OF_TRUE_VALUES), 0);
@@ -143,6 +143,7 @@ public final class HiveQueryRunner
                         .put("hive.rcfile.time-zone", TIME_ZONE.getID())
                         .put("hive.parquet.time-zone", TIME_ZONE.getID())
                         .put("hive.max-partitions-per-scan", "1000")
+                        .put("hive.max-partitions-for-eager-load", "100") // so that partitions of large scans are streamed
                         .build();
 
                 hiveProperties = new HashMap<>(hiveProperties);
@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
+import io.airlift.units.Duration;
+import io.prestosql.plugin.hive.metastore.Column;
+import io.prestosql.plugin.hive.metastore.StorageFormat;
+import io.prestosql.plugin.hive.metastore.Table;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.fs.RawLocalFileSystem;
+import org.apache.hadoop.fs.RemoteIterator;
+import org.apache.hadoop.hive.metastore.TableType;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.plugin.hive.HiveType.HIVE_STRING;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestCachingDirectoryLister
+{
+    private static final Table TABLE = Table.builder()
+            .setDatabaseName("test_dbname")
+            .setTableName("test_table")
+            .setOwner("testOwner")
+            .setTableType(TableType.MANAGED_TABLE.toString())
+            .setDataColumns(ImmutableList.of(new Column("col1", HIVE_STRING, Optional.empty())))
+            .withStorage(storage -> storage
+                    .setStorageFormat(StorageFormat.fromHiveStorageFormat(HiveStorageFormat.ORC))
+                    .setLocation("/tmp"))
+            .build();
+
+    private java.nio.file.Path tempDirectory;
+    private RawLocalFileSystem fs;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        tempDirectory = Files.createTempDirectory("test_caching_directory_lister");
+        fs = new RawLocalFileSystem();
+        fs.initialize(fs.getUri(), new Configuration(false));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        fs.close();
+        deleteRecursively(tempDirectory, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testRevalidation()
+            throws Exception
+    {
+        Path directory = createDirectory("revalidation", "a", "b");
+        NamenodeStats stats = new NamenodeStats();
+        CachingDirectoryLister lister = createLister(stats, Optional.empty());
+
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b"));
+        assertEquals(stats.getListingCacheMisses().getTotalCount(), 1);
+
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b"));
+        assertEquals(stats.getListingCacheHits().getTotalCount(), 1);
+        assertEquals(stats.getListingCacheRevalidations().getTotalCount(), 1);
+
+        // a new file changes the modification time of the directory
+        addFile(directory, "c");
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b", "c"));
+        assertEquals(stats.getListingCacheStaleListings().getTotalCount(), 1);
+        assertEquals(stats.getListingCacheMisses().getTotalCount(), 2);
+
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b", "c"));
+        assertEquals(stats.getListingCacheHits().getTotalCount(), 2);
+    }
+
+    @Test
+    public void testPersistence()
+            throws Exception
+    {
+        Path directory = createDirectory("persistence", "a", "b");
+        java.nio.file.Path location = tempDirectory.resolve("listings");
+
+        NamenodeStats stats = new NamenodeStats();
+        CachingDirectoryLister lister = createLister(stats, Optional.of(location));
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b"));
+        lister.saveListings();
+
+        NamenodeStats restartedStats = new NamenodeStats();
+        CachingDirectoryLister restartedLister = createLister(restartedStats, Optional.of(location));
+        assertEquals(restartedLister.getCachedDirectories(), 1);
+        assertEquals(listFileNames(restartedLister, directory), ImmutableSet.of("a", "b"));
+        assertEquals(restartedStats.getListingCacheHits().getTotalCount(), 1);
+        assertEquals(restartedStats.getListingCacheMisses().getTotalCount(), 0);
+
+        // persisted listings are revalidated as well
+        addFile(directory, "c");
+        restartedLister = createLister(restartedStats, Optional.of(location));
+        assertEquals(listFileNames(restartedLister, directory), ImmutableSet.of("a", "b", "c"));
+        assertEquals(restartedStats.getListingCacheStaleListings().getTotalCount(), 1);
+    }
+
+    @Test
+    public void testRetainedSizeLimit()
+            throws Exception
+    {
+        Path directory = createDirectory("size_limit", "a", "b");
+        CachingDirectoryLister lister = new CachingDirectoryLister(
+                new Duration(5, MINUTES),
+                1000,
+                DataSize.ofBytes(100),
+                ImmutableList.of(),
+                true,
+                Optional.empty(),
+                new NamenodeStats(),
+                Ticker.systemTicker());
+
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b"));
+        assertEquals(lister.getCachedDirectories(), 0);
+    }
+
+    @Test
+    public void testFileCountLimit()
+            throws Exception
+    {
+        Path directory = createDirectory("count_limit", "a", "b");
+        CachingDirectoryLister lister = createLister(1, new NamenodeStats(), Optional.empty());
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b"));
+        assertEquals(lister.getCachedDirectories(), 0);
+
+        lister = createLister(2, new NamenodeStats(), Optional.empty());
+        assertEquals(listFileNames(lister, directory), ImmutableSet.of("a", "b"));
+        assertEquals(lister.getCachedDirectories(), 1);
+    }
+
+    private static CachingDirectoryLister createLister(NamenodeStats stats, Optional<java.nio.file.Path> location)
+    {
+        return createLister(1000, stats, location);
+    }
+
+    private static CachingDirectoryLister createLister(long maxSize, NamenodeStats stats, Optional<java.nio.file.Path> location)
+    {
+        return new CachingDirectoryLister(new Duration(5, MINUTES), maxSize, DataSize.of(1, MEGABYTE), ImmutableList.of(), true, location, stats, Ticker.systemTicker());
+    }
+
+    private Path createDirectory(String name, String... files)
+            throws IOException
+    {
+        Path directory = new Path(tempDirectory.resolve(name).toUri());
+        fs.mkdirs(directory);
+        for (String file : files) {
+            fs.create(new Path(directory, file)).close();
+        }
+        fs.setTimes(directory, 1_000_000, -1);
+        return directory;
+    }
+
+    private void addFile(Path directory, String name)
+            throws IOException
+    {
+        fs.create(new Path(directory, name)).close();
+        // do not depend on the resolution of the local file system timestamps
+        fs.setTimes(directory, fs.getFileStatus(directory).getModificationTime() + 1_000_000, -1);
+    }
+
+    private Set<String> listFileNames(CachingDirectoryLister lister, Path directory)
+            throws IOException
+    {
+        ImmutableSet.Builder<String> names = ImmutableSet.builder();
+        RemoteIterator<LocatedFileStatus> iterator = lister.list(fs, TABLE, directory);
+        while (iterator.hasNext()) {
+            String name = iterator.next().getPath().getName();
+            if (!name.startsWith(".")) {
+                names.add(name);
+            }
+        }
+        return names.build();
+    }
+}
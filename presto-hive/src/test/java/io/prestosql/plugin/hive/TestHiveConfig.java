@@ -38,7 +38,9 @@ public class TestHiveConfig
         assertRecordedDefaults(recordDefaults(HiveConfig.class)
                 .setMaxSplitSize(DataSize.of(64, Unit.MEGABYTE))
                 .setMaxPartitionsPerScan(100_000)
+                .setMaxPartitionsForEagerLoad(10_000)
                 .setMaxOutstandingSplits(1_000)
+                .setInitialOutstandingSplits(100)
                 .setMaxOutstandingSplitsSize(DataSize.of(256, Unit.MEGABYTE))
                 .setMaxSplitIteratorThreads(1_000)
                 .setAllowCorruptWritesForTesting(false)
@@ -47,6 +49,7 @@ public class TestHiveConfig
                 .setMaxPartitionBatchSize(100)
                 .setMaxInitialSplits(200)
                 .setMaxInitialSplitSize(DataSize.of(32, Unit.MEGABYTE))
+                .setCombinedSplitTargetSize(DataSize.ofBytes(0))
                 .setSplitLoaderConcurrency(4)
                 .setMaxSplitsPerSecond(null)
                 .setDomainCompactionThreshold(100)
@@ -54,6 +57,7 @@ public class TestHiveConfig
                 .setForceLocalScheduling(false)
                 .setMaxConcurrentFileRenames(20)
                 .setMaxConcurrentMetastoreDrops(20)
+                .setMaxConcurrentMetastoreUpdates(20)
                 .setRecursiveDirWalkerEnabled(false)
                 .setIgnoreAbsentPartitions(false)
                 .setHiveStorageFormat(HiveStorageFormat.ORC)
@@ -85,16 +89,23 @@ public class TestHiveConfig
                 .setRecordingDuration(new Duration(10, TimeUnit.MINUTES))
                 .setReplay(false)
                 .setCollectColumnStatisticsOnWrite(true)
+                .setCollectDistinctValuesSketches(false)
                 .setS3SelectPushdownEnabled(false)
                 .setS3SelectPushdownMaxConnections(500)
                 .setTemporaryStagingDirectoryEnabled(true)
                 .setTemporaryStagingDirectoryPath("/tmp/presto-${USER}")
                 .setFileStatusCacheExpireAfterWrite(new Duration(1, TimeUnit.MINUTES))
                 .setFileStatusCacheMaxSize(1000 * 1000)
+                .setFileStatusCacheMaxRetainedSize(DataSize.of(1, Unit.GIGABYTE))
                 .setFileStatusCacheTables("")
+                .setFileStatusCacheRevalidationEnabled(false)
+                .setFileStatusCacheLocation(null)
                 .setTranslateHiveViews(false)
                 .setHiveTransactionHeartbeatInterval(null)
                 .setHiveTransactionHeartbeatThreads(5)
+                .setDeleteDeltaCacheMaxSize(DataSize.of(256, Unit.MEGABYTE))
+                .setAsyncReadEnabled(false)
+                .setMaxAsyncReadThreads(64)
                 .setAllowRegisterPartition(false)
                 .setQueryPartitionFilterRequired(false)
                 .setPartitionUseColumnNames(false)
@@ -109,7 +120,9 @@ public class TestHiveConfig
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("hive.max-split-size", "256MB")
                 .put("hive.max-partitions-per-scan", "123")
+                .put("hive.max-partitions-for-eager-load", "122")
                 .put("hive.max-outstanding-splits", "10")
+                .put("hive.initial-outstanding-splits", "5")
                 .put("hive.max-outstanding-splits-size", "32MB")
                 .put("hive.max-split-iterator-threads", "10")
                 .put("hive.allow-corrupt-writes-for-testing", "true")
@@ -118,6 +131,7 @@ public class TestHiveConfig
                 .put("hive.metastore.partition-batch-size.max", "1000")
                 .put("hive.max-initial-splits", "10")
                 .put("hive.max-initial-split-size", "16MB")
+                .put("hive.combined-split-target-size", "48MB")
                 .put("hive.split-loader-concurrency", "1")
                 .put("hive.max-splits-per-second", "1")
                 .put("hive.domain-compaction-threshold", "42")
@@ -136,6 +150,7 @@ public class TestHiveConfig
                 .put("hive.force-local-scheduling", "true")
                 .put("hive.max-concurrent-file-renames", "100")
                 .put("hive.max-concurrent-metastore-drops", "100")
+                .put("hive.max-concurrent-metastore-updates", "30")
                 .put("hive.text.max-line-length", "13MB")
                 .put("hive.orc.time-zone", nonDefaultTimeZone().getID())
                 .put("hive.parquet.time-zone", nonDefaultTimeZone().getID())
@@ -156,16 +171,23 @@ public class TestHiveConfig
                 .put("hive.metastore-recording-duration", "42s")
                 .put("hive.replay-metastore-recording", "true")
                 .put("hive.collect-column-statistics-on-write", "false")
+                .put("hive.collect-distinct-values-sketches", "true")
                 .put("hive.s3select-pushdown.enabled", "true")
                 .put("hive.s3select-pushdown.max-connections", "1234")
                 .put("hive.temporary-staging-directory-enabled", "false")
                 .put("hive.temporary-staging-directory-path", "updated")
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
+                .put("hive.file-status-cache.max-retained-size", "1000B")
+                .put("hive.file-status-cache.revalidation-enabled", "true")
+                .put("hive.file-status-cache.location", "/tmp/listings")
                 .put("hive.file-status-cache-expire-time", "30m")
                 .put("hive.translate-hive-views", "true")
                 .put("hive.transaction-heartbeat-interval", "10s")
                 .put("hive.transaction-heartbeat-threads", "10")
+                .put("hive.delete-delta-cache.max-size", "64MB")
+                .put("hive.async-read.enabled", "true")
+                .put("hive.async-read.max-threads", "16")
                 .put("hive.allow-register-partition-procedure", "true")
                 .put("hive.query-partition-filter-required", "true")
                 .put("hive.partition-use-column-names", "true")
@@ -177,7 +199,9 @@ public class TestHiveConfig
         HiveConfig expected = new HiveConfig()
                 .setMaxSplitSize(DataSize.of(256, Unit.MEGABYTE))
                 .setMaxPartitionsPerScan(123)
+                .setMaxPartitionsForEagerLoad(122)
                 .setMaxOutstandingSplits(10)
+                .setInitialOutstandingSplits(5)
                 .setMaxOutstandingSplitsSize(DataSize.of(32, Unit.MEGABYTE))
                 .setMaxSplitIteratorThreads(10)
                 .setAllowCorruptWritesForTesting(true)
@@ -186,6 +210,7 @@ public class TestHiveConfig
                 .setMaxPartitionBatchSize(1000)
                 .setMaxInitialSplits(10)
                 .setMaxInitialSplitSize(DataSize.of(16, Unit.MEGABYTE))
+                .setCombinedSplitTargetSize(DataSize.of(48, Unit.MEGABYTE))
                 .setSplitLoaderConcurrency(1)
                 .setMaxSplitsPerSecond(1)
                 .setDomainCompactionThreshold(42)
@@ -193,6 +218,7 @@ public class TestHiveConfig
                 .setForceLocalScheduling(true)
                 .setMaxConcurrentFileRenames(100)
                 .setMaxConcurrentMetastoreDrops(100)
+                .setMaxConcurrentMetastoreUpdates(30)
                 .setRecursiveDirWalkerEnabled(true)
                 .setIgnoreAbsentPartitions(true)
                 .setHiveStorageFormat(HiveStorageFormat.SEQUENCEFILE)
@@ -224,16 +250,23 @@ public class TestHiveConfig
                 .setRecordingDuration(new Duration(42, TimeUnit.SECONDS))
                 .setReplay(true)
                 .setCollectColumnStatisticsOnWrite(false)
+                .setCollectDistinctValuesSketches(true)
                 .setS3SelectPushdownEnabled(true)
                 .setS3SelectPushdownMaxConnections(1234)
                 .setTemporaryStagingDirectoryEnabled(false)
                 .setTemporaryStagingDirectoryPath("updated")
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
+                .setFileStatusCacheMaxRetainedSize(DataSize.of(1000, Unit.BYTE))
+                .setFileStatusCacheRevalidationEnabled(true)
+                .setFileStatusCacheLocation("/tmp/listings")
                 .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
                 .setTranslateHiveViews(true)
                 .setHiveTransactionHeartbeatInterval(new Duration(10, TimeUnit.SECONDS))
                 .setHiveTransactionHeartbeatThreads(10)
+                .setDeleteDeltaCacheMaxSize(DataSize.of(64, Unit.MEGABYTE))
+                .setAsyncReadEnabled(true)
+                .setMaxAsyncReadThreads(16)
                 .setAllowRegisterPartition(true)
                 .setQueryPartitionFilterRequired(true)
                 .setPartitionUseColumnNames(true)
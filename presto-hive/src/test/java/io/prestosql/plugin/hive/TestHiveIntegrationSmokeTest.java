@@ -2698,6 +2698,18 @@ public class TestHiveIntegrationSmokeTest
                 "SELECT count(foo) FROM " + tableName + " WHERE part < 1000",
                 "SELECT 1000");
 
+        // verify partitions which are not loaded during planning are pruned during split generation
+        assertQuery(
+                session,
+                "SELECT count(foo), min(part), max(part) FROM " + tableName + " WHERE part BETWEEN 100 AND 350",
+                "SELECT 251, 100, 350");
+
+        // verify streamed partitions are pruned by predicates which are not tuple domains, so fewer than 1000 partitions are read
+        assertQuery(
+                session,
+                "SELECT count(foo) FROM " + tableName + " WHERE part % 2 = 0",
+                "SELECT 600");
+
         // verify the rest 200 partitions are successfully inserted
         assertQuery(
                 session,
@@ -4732,6 +4744,60 @@ public class TestHiveIntegrationSmokeTest
         }
     }
 
+    @Test
+    public void testMismatchedBucketCountWithCommonDivisor()
+    {
+        try {
+            assertUpdate(
+                    "CREATE TABLE test_mismatch_bucketing12\n" +
+                            "WITH (bucket_count = 12, bucketed_by = ARRAY['key12']) AS\n" +
+                            "SELECT orderkey key12, custkey value12 FROM orders",
+                    15000);
+            assertUpdate(
+                    "CREATE TABLE test_mismatch_bucketing9\n" +
+                            "WITH (bucket_count = 9, bucketed_by = ARRAY['key9']) AS\n" +
+                            "SELECT orderkey key9, custkey value9 FROM orders",
+                    15000);
+            assertUpdate(
+                    "CREATE TABLE test_mismatch_bucketing8\n" +
+                            "WITH (bucket_count = 8, bucketed_by = ARRAY['key8']) AS\n" +
+                            "SELECT orderkey key8, custkey value8 FROM orders",
+                    15000);
+
+            Session withMismatchOptimization = Session.builder(getSession())
+                    .setSystemProperty(COLOCATED_JOIN, "true")
+                    .setSystemProperty(ENABLE_DYNAMIC_FILTERING, "false")
+                    .setCatalogSessionProperty(catalog, "optimize_mismatched_bucket_count", "true")
+                    .build();
+            Session withoutMismatchOptimization = Session.builder(getSession())
+                    .setSystemProperty(COLOCATED_JOIN, "true")
+                    .setSystemProperty(ENABLE_DYNAMIC_FILTERING, "false")
+                    .setCatalogSessionProperty(catalog, "optimize_mismatched_bucket_count", "false")
+                    .build();
+            @Language("SQL") String expected = "SELECT orderkey, 1, custkey FROM orders";
+
+            // 12 and 9 buckets are read as 3 buckets, so neither the join nor the aggregation on the bucket column requires an exchange
+            @Language("SQL") String joinAndAggregate = "SELECT key12, count(*), sum(value9)\n" +
+                    "FROM test_mismatch_bucketing12\n" +
+                    "JOIN test_mismatch_bucketing9 ON key12 = key9\n" +
+                    "GROUP BY key12";
+            assertQuery(withoutMismatchOptimization, joinAndAggregate, expected);
+            assertQuery(withMismatchOptimization, joinAndAggregate, expected, assertRemoteExchangesCount(1));
+
+            // 12 and 8 buckets are not read as 4 buckets, since a partition of the first table could have 6 buckets
+            @Language("SQL") String joinWithoutCommonBucketing = "SELECT key12, count(*), sum(value8)\n" +
+                    "FROM test_mismatch_bucketing12\n" +
+                    "JOIN test_mismatch_bucketing8 ON key12 = key8\n" +
+                    "GROUP BY key12";
+            assertQuery(withMismatchOptimization, joinWithoutCommonBucketing, expected);
+        }
+        finally {
+            assertUpdate("DROP TABLE IF EXISTS test_mismatch_bucketing12");
+            assertUpdate("DROP TABLE IF EXISTS test_mismatch_bucketing9");
+            assertUpdate("DROP TABLE IF EXISTS test_mismatch_bucketing8");
+        }
+    }
+
     @Test
     public void testGroupedExecution()
     {
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import io.prestosql.plugin.base.CatalogName;
+import io.prestosql.plugin.hive.authentication.HiveIdentity;
+import io.prestosql.plugin.hive.metastore.thrift.BridgingHiveMetastore;
+import io.prestosql.plugin.hive.metastore.thrift.MockThriftMetastoreClient;
+import io.prestosql.plugin.hive.metastore.thrift.ThriftHiveMetastore;
+import io.prestosql.plugin.hive.metastore.thrift.ThriftMetastoreConfig;
+import io.prestosql.plugin.hive.security.SqlStandardAccessControlMetadata;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.statistics.TableStatistics;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+import static io.prestosql.plugin.hive.HiveTestUtils.HDFS_ENVIRONMENT;
+import static io.prestosql.plugin.hive.HiveTestUtils.SESSION;
+import static io.prestosql.plugin.hive.HiveTestUtils.TYPE_MANAGER;
+import static io.prestosql.plugin.hive.metastore.thrift.MockThriftMetastoreClient.TEST_DATABASE;
+import static io.prestosql.plugin.hive.metastore.thrift.MockThriftMetastoreClient.TEST_PARTITION1;
+import static io.prestosql.plugin.hive.metastore.thrift.MockThriftMetastoreClient.TEST_PARTITION2;
+import static io.prestosql.plugin.hive.metastore.thrift.MockThriftMetastoreClient.TEST_TABLE;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestHiveMetadataStreamedPartitions
+{
+    private MockThriftMetastoreClient mockClient;
+    private ScheduledExecutorService heartbeatService;
+    private HivePartitionManager partitionManager;
+    private HiveMetadata metadata;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        mockClient = new MockThriftMetastoreClient();
+        heartbeatService = newScheduledThreadPool(1);
+        // the test table has two partitions, so only one of them can be loaded during planning
+        partitionManager = new HivePartitionManager(100, 1, 100);
+        ThriftHiveMetastore thriftMetastore = new ThriftHiveMetastore(
+                delegationToken -> mockClient,
+                new HiveConfig(),
+                new ThriftMetastoreConfig(),
+                HDFS_ENVIRONMENT,
+                false);
+        HiveMetadataFactory metadataFactory = new HiveMetadataFactory(
+                new CatalogName("hive"),
+                new BridgingHiveMetastore(thriftMetastore),
+                HDFS_ENVIRONMENT,
+                partitionManager,
+                10,
+                10,
+                10,
+                false,
+                false,
+                false,
+                true,
+                false,
+                1000,
+                Optional.empty(),
+                TYPE_MANAGER,
+                new HiveLocationService(HDFS_ENVIRONMENT),
+                JsonCodec.jsonCodec(PartitionUpdate.class),
+                newDirectExecutorService(),
+                heartbeatService,
+                "test_version",
+                SqlStandardAccessControlMetadata::new);
+        metadata = (HiveMetadata) metadataFactory.create();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        heartbeatService.shutdownNow();
+    }
+
+    @Test
+    public void testTableStatisticsDoNotListPartitions()
+    {
+        HiveTableHandle tableHandle = getStreamedTableHandle();
+
+        int accessCount = mockClient.getAccessCount();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(metadata.getTableStatistics(SESSION, tableHandle, Constraint.alwaysTrue()), TableStatistics.empty());
+        }
+        assertEquals(mockClient.getAccessCount(), accessCount);
+    }
+
+    @Test
+    public void testStreamedPartitionsPredicateEquality()
+    {
+        HiveTableHandle tableHandle = getStreamedTableHandle();
+
+        // filtering without a predicate keeps the predicate of the handle
+        HiveTableHandle refilteredTableHandle = partitionManager.applyPartitionResult(
+                tableHandle,
+                partitionManager.getPartitions(metadata.getMetastore(), new HiveIdentity(SESSION), tableHandle, Constraint.alwaysTrue()),
+                Constraint.alwaysTrue());
+        assertEquals(refilteredTableHandle, tableHandle);
+        assertEquals(refilteredTableHandle.hashCode(), tableHandle.hashCode());
+        assertEquals(metadata.applyFilter(SESSION, tableHandle, Constraint.alwaysTrue()), Optional.empty());
+
+        // the partitions of handles filtered with different predicates may differ
+        HiveTableHandle filteredTableHandle = (HiveTableHandle) metadata.applyFilter(SESSION, getTableHandle(), new Constraint(TupleDomain.all(), partition -> true))
+                .orElseThrow()
+                .getHandle();
+        assertTrue(filteredTableHandle.getStreamedPartitionsPredicate().isPresent());
+        assertNotEquals(filteredTableHandle, tableHandle);
+    }
+
+    @Test
+    public void testInfoListsStreamedPartitions()
+    {
+        HiveInputInfo inputInfo = (HiveInputInfo) metadata.getInfo(SESSION, getStreamedTableHandle()).orElseThrow();
+        assertEquals(inputInfo.getPartitionIds(), ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2));
+        assertFalse(inputInfo.isTruncated());
+    }
+
+    private HiveTableHandle getTableHandle()
+    {
+        return metadata.getTableHandle(SESSION, new SchemaTableName(TEST_DATABASE, TEST_TABLE));
+    }
+
+    private HiveTableHandle getStreamedTableHandle()
+    {
+        HiveTableHandle streamedTableHandle = (HiveTableHandle) metadata.applyFilter(SESSION, getTableHandle(), Constraint.alwaysTrue())
+                .orElseThrow()
+                .getHandle();
+        assertTrue(streamedTableHandle.getStreamedPartitionsPredicate().isPresent());
+        return streamedTableHandle;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import org.testng.annotations.Test;
+
+import java.util.stream.IntStream;
+
+import static io.prestosql.plugin.hive.HiveSplitManager.isBucketCountCompatible;
+import static io.prestosql.plugin.hive.HiveSplitManager.isReadBucketCountCompatible;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestHiveSplitManager
+{
+    @Test
+    public void testReadBucketCountCompatible()
+    {
+        assertTrue(isReadBucketCountCompatible(12, 12));
+        assertTrue(isReadBucketCountCompatible(12, 3));
+        assertTrue(isReadBucketCountCompatible(9, 3));
+        assertTrue(isReadBucketCountCompatible(8, 2));
+        // a partition of the table could have 6 or 3 buckets
+        assertFalse(isReadBucketCountCompatible(12, 4));
+        assertFalse(isReadBucketCountCompatible(12, 5));
+        assertFalse(isReadBucketCountCompatible(8, 16));
+
+        for (int tableBucketCount = 1; tableBucketCount <= 64; tableBucketCount++) {
+            for (int readBucketCount = 1; readBucketCount <= 64; readBucketCount++) {
+                assertEquals(
+                        isReadBucketCountCompatible(tableBucketCount, readBucketCount),
+                        tableBucketCount % readBucketCount == 0 && isCompatibleWithAllPartitions(tableBucketCount, readBucketCount),
+                        "table bucket count " + tableBucketCount + ", read bucket count " + readBucketCount);
+            }
+        }
+    }
+
+    private static boolean isCompatibleWithAllPartitions(int tableBucketCount, int readBucketCount)
+    {
+        return IntStream.rangeClosed(1, tableBucketCount * 4)
+                .filter(partitionBucketCount -> isBucketCountCompatible(tableBucketCount, partitionBucketCount))
+                .allMatch(partitionBucketCount -> partitionBucketCount % readBucketCount == 0 || readBucketCount % partitionBucketCount == 0);
+    }
+}
@@ -16,7 +16,9 @@ package io.prestosql.plugin.hive;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.HiveSplit.CombinedFile;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitSource;
@@ -31,14 +33,17 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.testing.Assertions.assertContains;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getMaxInitialSplitSize;
 import static io.prestosql.plugin.hive.HiveTestUtils.SESSION;
+import static io.prestosql.plugin.hive.HiveTestUtils.getHiveSession;
 import static io.prestosql.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static java.lang.Math.toIntExact;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -57,7 +62,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                new TimeStat());
 
         // add 10 splits
         for (int i = 0; i < 10; i++) {
@@ -92,7 +98,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newSingleThreadExecutor(),
-                new CounterStat());
+                new CounterStat(),
+                new TimeStat());
 
         // One byte larger than the initial split max size
         DataSize fileSize = DataSize.ofBytes(initialSplitSize.toBytes() + 1);
@@ -106,6 +113,38 @@ public class TestHiveSplitSource
         assertEquals(second.getLength(), fileSize.toBytes() - halfOfSize);
     }
 
+    @Test
+    public void testCombineSmallFiles()
+    {
+        HiveSplitSource hiveSplitSource = HiveSplitSource.allAtOnce(
+                getHiveSession(new HiveConfig().setCombinedSplitTargetSize(DataSize.ofBytes(250))),
+                "database",
+                "table",
+                10,
+                10,
+                DataSize.of(1, MEGABYTE),
+                Integer.MAX_VALUE,
+                new TestingHiveSplitLoader(),
+                Executors.newSingleThreadExecutor(),
+                new CounterStat(),
+                new TimeStat());
+
+        // splits of different buckets are never combined
+        for (int i = 0; i < 5; i++) {
+            hiveSplitSource.addToQueue(new TestSplit(i, OptionalInt.of(0)));
+        }
+        hiveSplitSource.addToQueue(new TestSplit(5, OptionalInt.of(1)));
+        hiveSplitSource.noMoreSplits();
+
+        List<ConnectorSplit> splits = getSplits(hiveSplitSource, 10);
+        assertEquals(hiveSplitSource.getBufferedInternalSplitCount(), 0);
+        assertEquals(splits.stream().map(split -> ((HiveSplit) split).getCombinedFiles().size()).collect(toImmutableList()), ImmutableList.of(1, 1, 0, 0));
+        CombinedFile combinedFile = ((HiveSplit) splits.get(0)).getCombinedFiles().get(0);
+        assertEquals(combinedFile.getPath(), "path");
+        assertEquals(combinedFile.getFileSize(), 100);
+        assertEquals(((HiveSplit) splits.get(3)).getBucketNumber(), OptionalInt.of(1));
+    }
+
     @Test
     public void testFail()
     {
@@ -119,7 +158,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                new TimeStat());
 
         // add some splits
         for (int i = 0; i < 5; i++) {
@@ -163,10 +203,43 @@ public class TestHiveSplitSource
         }
     }
 
+    @Test
+    public void testOutstandingSplitBudgetGrows()
+    {
+        HiveSplitSource hiveSplitSource = HiveSplitSource.allAtOnce(
+                getHiveSession(new HiveConfig().setInitialOutstandingSplits(10)),
+                "database",
+                "table",
+                10,
+                100,
+                DataSize.of(1, MEGABYTE),
+                Integer.MAX_VALUE,
+                new TestingHiveSplitLoader(),
+                Executors.newFixedThreadPool(5),
+                new CounterStat(),
+                new TimeStat());
+
+        int bufferedSplits = 0;
+        for (int budget : new int[] {10, 20, 40, 80, 100, 100}) {
+            // the split loader is blocked once the budget is used
+            while (bufferedSplits < budget - 1) {
+                assertTrue(hiveSplitSource.addToQueue(new TestSplit(bufferedSplits)).isDone());
+                bufferedSplits++;
+            }
+            assertFalse(hiveSplitSource.addToQueue(new TestSplit(bufferedSplits)).isDone());
+            bufferedSplits++;
+
+            // the stage asks for splits while the split loader is blocked, so the budget doubles up to the maximum
+            assertEquals(getSplits(hiveSplitSource, 1).size(), 1);
+            bufferedSplits--;
+        }
+    }
+
     @Test
     public void testReaderWaitsForSplits()
             throws Exception
     {
+        TimeStat splitWaitTime = new TimeStat();
         HiveSplitSource hiveSplitSource = HiveSplitSource.allAtOnce(
                 SESSION,
                 "database",
@@ -177,7 +250,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                splitWaitTime);
 
         SettableFuture<ConnectorSplit> splits = SettableFuture.create();
 
@@ -210,6 +284,7 @@ public class TestHiveSplitSource
             // wait for thread to get the split
             ConnectorSplit split = splits.get(800, TimeUnit.MILLISECONDS);
             assertEquals(((HiveSplit) split).getSchema().getProperty("id"), "33");
+            assertEquals(splitWaitTime.getAllTime().getCount(), 1.0);
         }
         finally {
             // make sure the thread exits
@@ -231,7 +306,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                new TimeStat());
         int testSplitSizeInBytes = new TestSplit(0).getEstimatedSizeInBytes();
 
         int maxSplitCount = toIntExact(maxOutstandingSplitsSize.toBytes()) / testSplitSizeInBytes;
@@ -268,7 +344,8 @@ public class TestHiveSplitSource
                 Integer.MAX_VALUE,
                 new TestingHiveSplitLoader(),
                 Executors.newFixedThreadPool(5),
-                new CounterStat());
+                new CounterStat(),
+                new TimeStat());
         hiveSplitSource.addToQueue(new TestSplit(0, OptionalInt.of(2)));
         hiveSplitSource.noMoreSplits();
         assertEquals(getSplits(hiveSplitSource, OptionalInt.of(0), 10).size(), 0);
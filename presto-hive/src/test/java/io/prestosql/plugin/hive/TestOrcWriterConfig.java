@@ -43,7 +43,9 @@ public class TestOrcWriterConfig
                 .setDefaultBloomFilterFpp(0.05)
                 .setUseLegacyVersion(false)
                 .setValidationPercentage(0.0)
-                .setValidationMode(OrcWriteValidationMode.BOTH));
+                .setValidationMode(OrcWriteValidationMode.BOTH)
+                .setParallelEncodingEnabled(false)
+                .setMaxEncodingThreads(Runtime.getRuntime().availableProcessors()));
     }
 
     @Test
@@ -61,6 +63,8 @@ public class TestOrcWriterConfig
                 .put("hive.orc.writer.use-legacy-version-number", "true")
                 .put("hive.orc.writer.validation-percentage", "0.16")
                 .put("hive.orc.writer.validation-mode", "DETAILED")
+                .put("hive.orc.writer.parallel-encoding-enabled", "true")
+                .put("hive.orc.writer.max-encoding-threads", "3")
                 .build();
 
         OrcWriterConfig expected = new OrcWriterConfig()
@@ -74,7 +78,9 @@ public class TestOrcWriterConfig
                 .setDefaultBloomFilterFpp(0.96)
                 .setUseLegacyVersion(true)
                 .setValidationPercentage(0.16)
-                .setValidationMode(OrcWriteValidationMode.DETAILED);
+                .setValidationMode(OrcWriteValidationMode.DETAILED)
+                .setParallelEncodingEnabled(true)
+                .setMaxEncodingThreads(3);
 
         assertFullMapping(properties, expected);
     }
@@ -0,0 +1,299 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.cache.LocalDataCacheConfig.EvictionPolicy;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static org.testng.Assert.assertEquals;
+
+public class TestLocalDataCache
+{
+    private static final int BLOCK_SIZE = 4096;
+    private static final int FILE_SIZE = 20 * BLOCK_SIZE + 123;
+
+    private File tempDir;
+    private File dataFile;
+    private byte[] fileContents;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        tempDir = Files.createTempDirectory("test_local_data_cache").toFile();
+        dataFile = new File(tempDir, "data");
+        fileContents = new byte[FILE_SIZE];
+        new Random(42).nextBytes(fileContents);
+        Files.write(dataFile.toPath(), fileContents);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(tempDir.toPath(), ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testReadThrough()
+            throws IOException
+    {
+        try (LocalDataCache cache = createCache(DataSize.of(1, DataSize.Unit.MEGABYTE), EvictionPolicy.LRU);
+                LocalFileSource source = new LocalFileSource(dataFile)) {
+            assertRead(cache, source, 100, 10);
+            assertEquals(source.getReadCount(), 1);
+            assertEquals(source.getReadBytes(), BLOCK_SIZE);
+
+            // same block is served from the cache
+            assertRead(cache, source, 200, 300);
+            assertEquals(source.getReadCount(), 1);
+            assertEquals(cache.getBlockHits().getTotalCount(), 1);
+
+            // consecutive missing blocks are loaded with a single read
+            assertRead(cache, source, BLOCK_SIZE - 10, 2 * BLOCK_SIZE);
+            assertEquals(source.getReadCount(), 2);
+            assertEquals(source.getReadBytes(), 3 * BLOCK_SIZE);
+
+            // unaligned last block of the file
+            assertRead(cache, source, FILE_SIZE - 200, 200);
+            assertEquals(source.getReadCount(), 3);
+            assertEquals(source.getReadBytes(), 4 * BLOCK_SIZE + 123);
+            assertRead(cache, source, FILE_SIZE - 100, 100);
+            assertEquals(source.getReadCount(), 3);
+
+            // whole file
+            assertRead(cache, source, 0, FILE_SIZE);
+            assertEquals(source.getReadBytes(), FILE_SIZE);
+            assertRead(cache, source, 0, FILE_SIZE);
+            assertEquals(source.getReadBytes(), FILE_SIZE);
+            assertEquals(cache.getBlockMisses().getTotalCount(), 21);
+            assertEquals(cache.getCachedBlockBytes(), 21 * BLOCK_SIZE);
+        }
+    }
+
+    @Test
+    public void testReadBeyondFileSize()
+            throws IOException
+    {
+        try (LocalDataCache cache = createCache(DataSize.of(1, DataSize.Unit.MEGABYTE), EvictionPolicy.LRU);
+                LocalFileSource source = new LocalFileSource(dataFile)) {
+            // reported file size is smaller than the actual size, so the read is not cached
+            byte[] buffer = new byte[100];
+            cache.read(dataFile.getPath(), FILE_SIZE - 50, FILE_SIZE - 100, buffer, 0, buffer.length, source);
+            assertEquals(buffer, Arrays.copyOfRange(fileContents, FILE_SIZE - 100, FILE_SIZE));
+            assertEquals(cache.getCachedBlockBytes(), 0);
+
+            // reported file size is larger than the actual size, so only the requested range is read
+            cache.read(dataFile.getPath(), FILE_SIZE + 50, FILE_SIZE - 100, buffer, 0, buffer.length, source);
+            assertEquals(buffer, Arrays.copyOfRange(fileContents, FILE_SIZE - 100, FILE_SIZE));
+            assertEquals(cache.getCachedBlockBytes(), 0);
+        }
+    }
+
+    @Test
+    public void testLruEviction()
+            throws IOException
+    {
+        try (LocalDataCache cache = createCache(DataSize.of(2 * BLOCK_SIZE, DataSize.Unit.BYTE), EvictionPolicy.LRU);
+                LocalFileSource source = new LocalFileSource(dataFile)) {
+            readBlock(cache, source, 0);
+            readBlock(cache, source, 0);
+            readBlock(cache, source, 0);
+            readBlock(cache, source, 1);
+            readBlock(cache, source, 2);
+            assertEquals(cache.getEvictions().getTotalCount(), 1);
+
+            // block 0 was least recently used
+            assertEquals(source.getReadCount(), 3);
+            readBlock(cache, source, 1);
+            assertEquals(source.getReadCount(), 3);
+            readBlock(cache, source, 0);
+            assertEquals(source.getReadCount(), 4);
+        }
+    }
+
+    @Test
+    public void testLfuEviction()
+            throws IOException
+    {
+        try (LocalDataCache cache = createCache(DataSize.of(2 * BLOCK_SIZE, DataSize.Unit.BYTE), EvictionPolicy.LFU);
+                LocalFileSource source = new LocalFileSource(dataFile)) {
+            readBlock(cache, source, 0);
+            readBlock(cache, source, 0);
+            readBlock(cache, source, 0);
+            readBlock(cache, source, 1);
+            readBlock(cache, source, 2);
+            assertEquals(cache.getEvictions().getTotalCount(), 1);
+
+            // block 1 was least frequently used
+            assertEquals(source.getReadCount(), 3);
+            readBlock(cache, source, 0);
+            assertEquals(source.getReadCount(), 3);
+            readBlock(cache, source, 1);
+            assertEquals(source.getReadCount(), 4);
+        }
+    }
+
+    @Test
+    public void testFootersArePinned()
+            throws IOException
+    {
+        try (LocalDataCache cache = createCache(DataSize.of(BLOCK_SIZE, DataSize.Unit.BYTE), EvictionPolicy.LRU);
+                LocalFileSource source = new LocalFileSource(dataFile)) {
+            assertEquals(cache.readTail(dataFile.getPath(), FILE_SIZE, 1000, source), tail(1000));
+            assertEquals(cache.getFooterMisses().getTotalCount(), 1);
+
+            // data blocks evict each other, but not the footer
+            for (int block = 0; block < 10; block++) {
+                readBlock(cache, source, block);
+            }
+            assertEquals(cache.getEvictions().getTotalCount(), 9);
+
+            assertEquals(cache.readTail(dataFile.getPath(), FILE_SIZE, 1000, source), tail(1000));
+            assertEquals(cache.getFooterHits().getTotalCount(), 1);
+            assertEquals(source.getTailReadCount(), 1);
+
+            // tails of different length are cached separately
+            assertEquals(cache.readTail(dataFile.getPath(), FILE_SIZE, 2000, source), tail(2000));
+            assertEquals(source.getTailReadCount(), 2);
+
+            // tails larger than a footer slot are not cached
+            int largeTail = LocalDataCache.FOOTER_SLOT_SIZE + 1;
+            assertEquals(cache.readTail(dataFile.getPath(), FILE_SIZE, largeTail, source), tail(largeTail));
+            assertEquals(cache.readTail(dataFile.getPath(), FILE_SIZE, largeTail, source), tail(largeTail));
+            assertEquals(source.getTailReadCount(), 4);
+            assertEquals(cache.getPinnedFooterBytes(), 2 * LocalDataCache.FOOTER_SLOT_SIZE);
+        }
+    }
+
+    @Test
+    public void testFlushCache()
+            throws IOException
+    {
+        try (LocalDataCache cache = createCache(DataSize.of(1, DataSize.Unit.MEGABYTE), EvictionPolicy.LRU);
+                LocalFileSource source = new LocalFileSource(dataFile)) {
+            readBlock(cache, source, 0);
+            cache.readTail(dataFile.getPath(), FILE_SIZE, 100, source);
+            cache.flushCache();
+            assertEquals(cache.getCachedBlockBytes(), 0);
+            assertEquals(cache.getPinnedFooterBytes(), 0);
+
+            readBlock(cache, source, 0);
+            assertEquals(source.getReadCount(), 2);
+        }
+    }
+
+    private LocalDataCache createCache(DataSize maxSize, EvictionPolicy evictionPolicy)
+    {
+        return new LocalDataCache(new LocalDataCacheConfig()
+                .setEnabled(true)
+                .setCacheLocation(new File(tempDir, "cache").getPath())
+                .setBlockSize(DataSize.of(BLOCK_SIZE, DataSize.Unit.BYTE))
+                .setMaxCacheSize(maxSize)
+                .setMaxPinnedFooterSize(DataSize.of(1, DataSize.Unit.MEGABYTE))
+                .setEvictionPolicy(evictionPolicy));
+    }
+
+    private void readBlock(LocalDataCache cache, LocalFileSource source, int block)
+            throws IOException
+    {
+        assertRead(cache, source, block * BLOCK_SIZE + 1, BLOCK_SIZE - 2);
+    }
+
+    private void assertRead(LocalDataCache cache, LocalFileSource source, int position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length + 20];
+        cache.read(dataFile.getPath(), FILE_SIZE, position, buffer, 10, length, source);
+        assertEquals(Arrays.copyOfRange(buffer, 10, 10 + length), Arrays.copyOfRange(fileContents, position, position + length));
+    }
+
+    private Slice tail(int length)
+    {
+        return Slices.wrappedBuffer(Arrays.copyOfRange(fileContents, FILE_SIZE - length, FILE_SIZE));
+    }
+
+    private static class LocalFileSource
+            implements LocalDataCache.RangeReader, LocalDataCache.TailReader, AutoCloseable
+    {
+        private final RandomAccessFile file;
+        private int readCount;
+        private long readBytes;
+        private int tailReadCount;
+
+        public LocalFileSource(File file)
+                throws IOException
+        {
+            this.file = new RandomAccessFile(file, "r");
+        }
+
+        @Override
+        public void readFully(long position, byte[] buffer, int bufferOffset, int length)
+                throws IOException
+        {
+            readCount++;
+            readBytes += length;
+            file.seek(position);
+            file.readFully(buffer, bufferOffset, length);
+        }
+
+        @Override
+        public Slice readTail(int length)
+                throws IOException
+        {
+            tailReadCount++;
+            byte[] buffer = new byte[length];
+            file.seek(file.length() - length);
+            file.readFully(buffer);
+            return Slices.wrappedBuffer(buffer);
+        }
+
+        public int getReadCount()
+        {
+            return readCount;
+        }
+
+        public long getReadBytes()
+        {
+            return readBytes;
+        }
+
+        public int getTailReadCount()
+        {
+            return tailReadCount;
+        }
+
+        @Override
+        public void close()
+                throws IOException
+        {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.cache.LocalDataCacheConfig.EvictionPolicy;
+import org.testng.annotations.Test;
+
+import javax.validation.constraints.AssertTrue;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.testing.ValidationAssertions.assertFailsValidation;
+import static io.airlift.testing.ValidationAssertions.assertValidates;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TestLocalDataCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(LocalDataCacheConfig.class)
+                .setEnabled(false)
+                .setCacheLocation(null)
+                .setMaxCacheSize(DataSize.of(10, GIGABYTE))
+                .setBlockSize(DataSize.of(1, MEGABYTE))
+                .setMaxPinnedFooterSize(DataSize.of(512, MEGABYTE))
+                .setEvictionPolicy(EvictionPolicy.LRU));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("hive.local-data-cache.enabled", "true")
+                .put("hive.local-data-cache.location", "/some-directory")
+                .put("hive.local-data-cache.max-size", "100GB")
+                .put("hive.local-data-cache.block-size", "256kB")
+                .put("hive.local-data-cache.max-pinned-footer-size", "2GB")
+                .put("hive.local-data-cache.eviction-policy", "LFU")
+                .build();
+
+        LocalDataCacheConfig expected = new LocalDataCacheConfig()
+                .setEnabled(true)
+                .setCacheLocation("/some-directory")
+                .setMaxCacheSize(DataSize.of(100, GIGABYTE))
+                .setBlockSize(DataSize.of(256, KILOBYTE))
+                .setMaxPinnedFooterSize(DataSize.of(2, GIGABYTE))
+                .setEvictionPolicy(EvictionPolicy.LFU);
+
+        assertFullMapping(properties, expected);
+    }
+
+    @Test
+    public void testValidation()
+    {
+        assertValidates(new LocalDataCacheConfig()
+                .setEnabled(true)
+                .setCacheLocation("/some-directory"));
+
+        assertFailsValidation(
+                new LocalDataCacheConfig()
+                        .setEnabled(true),
+                "cacheLocationValid",
+                "hive.local-data-cache.location must be set when the local data cache is enabled",
+                AssertTrue.class);
+
+        assertFailsValidation(
+                new LocalDataCacheConfig()
+                        .setMaxCacheSize(DataSize.of(1, MEGABYTE))
+                        .setBlockSize(DataSize.of(2, MEGABYTE)),
+                "maxCacheSizeValid",
+                "hive.local-data-cache.max-size must be at least hive.local-data-cache.block-size",
+                AssertTrue.class);
+    }
+}
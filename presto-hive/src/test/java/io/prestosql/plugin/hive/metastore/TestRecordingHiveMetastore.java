@@ -111,7 +111,8 @@ public class TestRecordingHiveMetastore
                     OptionalLong.of(1234),
                     OptionalLong.of(1235),
                     OptionalLong.of(1),
-                    OptionalLong.of(8))));
+                    OptionalLong.of(8),
+                    Optional.empty())));
     private static final HivePrivilegeInfo PRIVILEGE_INFO = new HivePrivilegeInfo(HivePrivilege.SELECT, true, new HivePrincipal(USER, "grantor"), new HivePrincipal(USER, "grantee"));
     private static final RoleGrant ROLE_GRANT = new RoleGrant(new PrestoPrincipal(USER, "grantee"), "role", true);
     private static final HiveIdentity HIVE_CONTEXT = new HiveIdentity(SESSION);
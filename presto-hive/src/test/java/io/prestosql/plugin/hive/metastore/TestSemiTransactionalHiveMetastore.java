@@ -14,10 +14,15 @@
 package io.prestosql.plugin.hive.metastore;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.prestosql.plugin.hive.HiveMetastoreClosure;
+import io.prestosql.plugin.hive.HiveType;
+import io.prestosql.plugin.hive.PartitionStatistics;
 import io.prestosql.plugin.hive.authentication.HiveIdentity;
+import org.apache.hadoop.fs.Path;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CountDownLatch;
@@ -25,16 +30,24 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.prestosql.plugin.hive.HiveMetadata.PRESTO_QUERY_ID_NAME;
 import static io.prestosql.plugin.hive.HiveTestUtils.HDFS_ENVIRONMENT;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.nio.file.Files.createTempDirectory;
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertTrue;
 
 public class TestSemiTransactionalHiveMetastore
 {
+    private static final StorageFormat STORAGE_FORMAT = StorageFormat.create("serde", "input", "output");
+    private static final Column PARTITION_COLUMN = new Column("part", HiveType.HIVE_STRING, Optional.empty());
+
     private static CountDownLatch countDownLatch;
+    private static CountDownLatch addPartitionsCountDownLatch;
 
     @Test
     public void testParallelPartitionDrops()
@@ -53,21 +66,101 @@ public class TestSemiTransactionalHiveMetastore
         });
     }
 
+    @Test
+    public void testParallelPartitionAdds()
+            throws IOException
+    {
+        // two batches of partitions
+        int partitionsToAdd = 16;
+        java.nio.file.Path tempDirectory = createTempDirectory("test_parallel_partition_adds");
+        String location = tempDirectory.toUri().toString();
+        try {
+            IntStream updateThreadsConfig = IntStream.of(1, 2);
+            updateThreadsConfig.forEach(updateThreads -> {
+                addPartitionsCountDownLatch = new CountDownLatch(updateThreads);
+                SemiTransactionalHiveMetastore semiTransactionalHiveMetastore = getSemiTransactionalHiveMetastoreWithUpdateExecutor(newFixedThreadPool(updateThreads));
+                IntStream.range(0, partitionsToAdd).forEach(i -> semiTransactionalHiveMetastore.addPartition(SESSION,
+                        "test",
+                        "test",
+                        createPartition(location, String.valueOf(i)),
+                        new Path(location),
+                        PartitionStatistics.empty()));
+                semiTransactionalHiveMetastore.commit();
+            });
+        }
+        finally {
+            deleteRecursively(tempDirectory, ALLOW_INSECURE);
+        }
+    }
+
     private SemiTransactionalHiveMetastore getSemiTransactionalHiveMetastoreWithDropExecutor(Executor dropExecutor)
     {
         return new SemiTransactionalHiveMetastore(HDFS_ENVIRONMENT,
                 new HiveMetastoreClosure(new TestingHiveMetastore()),
                 directExecutor(),
                 dropExecutor,
+                directExecutor(),
                 false,
                 false,
                 Optional.empty(),
                 newScheduledThreadPool(1));
     }
 
+    private SemiTransactionalHiveMetastore getSemiTransactionalHiveMetastoreWithUpdateExecutor(Executor updateExecutor)
+    {
+        return new SemiTransactionalHiveMetastore(HDFS_ENVIRONMENT,
+                new HiveMetastoreClosure(new TestingHiveMetastore()),
+                directExecutor(),
+                directExecutor(),
+                updateExecutor,
+                false,
+                false,
+                Optional.empty(),
+                newScheduledThreadPool(1));
+    }
+
+    private static Partition createPartition(String location, String value)
+    {
+        return new Partition(
+                "test",
+                "test",
+                ImmutableList.of(value),
+                new Storage(STORAGE_FORMAT, location, Optional.empty(), false, ImmutableMap.of()),
+                ImmutableList.of(),
+                ImmutableMap.of(PRESTO_QUERY_ID_NAME, "test_query"));
+    }
+
     private static class TestingHiveMetastore
             extends UnimplementedHiveMetastore
     {
+        @Override
+        public Optional<Table> getTable(HiveIdentity identity, String databaseName, String tableName)
+        {
+            return Optional.of(new Table(
+                    databaseName,
+                    tableName,
+                    "owner",
+                    "MANAGED_TABLE",
+                    new Storage(STORAGE_FORMAT, "location", Optional.empty(), false, ImmutableMap.of()),
+                    ImmutableList.of(),
+                    ImmutableList.of(PARTITION_COLUMN),
+                    ImmutableMap.of(),
+                    Optional.empty(),
+                    Optional.empty()));
+        }
+
+        @Override
+        public void addPartitions(HiveIdentity identity, String databaseName, String tableName, List<PartitionWithStatistics> partitions)
+        {
+            try {
+                addPartitionsCountDownLatch.countDown();
+                assertTrue(addPartitionsCountDownLatch.await(10, TimeUnit.SECONDS)); //all other batches launched should count down within 10 seconds
+            }
+            catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
         @Override
         public void dropPartition(HiveIdentity identity, String databaseName, String tableName, List<String> parts, boolean deleteData)
         {
@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.metastore.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.testing.TestingTicker;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.plugin.hive.metastore.cache.BulkReloadingCacheLoader.bulkReloading;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.testng.Assert.assertEquals;
+
+public class TestBulkReloadingCacheLoader
+{
+    @Test
+    public void testReloadsBatchedPerBatchKey()
+            throws Exception
+    {
+        TestingTicker ticker = new TestingTicker();
+        List<Runnable> refreshTasks = new ArrayList<>();
+        PartitionLoader partitionLoader = new PartitionLoader();
+        LoadingCache<String, String> cache = CacheBuilder.newBuilder()
+                .ticker(ticker)
+                .refreshAfterWrite(1, MINUTES)
+                .build(bulkReloading(partitionLoader, TestBulkReloadingCacheLoader::tableName, refreshTasks::add));
+
+        List<String> firstTablePartitions = ImmutableList.of("first/p1", "first/p2");
+        List<String> secondTablePartitions = ImmutableList.of("second/p1", "second/p2", "second/p3");
+        assertEquals(cache.getAll(firstTablePartitions), ImmutableMap.of("first/p1", "first/p1@1", "first/p2", "first/p2@1"));
+        cache.getAll(secondTablePartitions);
+        assertEquals(partitionLoader.getLoadedBatches(), ImmutableList.of(firstTablePartitions, secondTablePartitions));
+
+        // the partitions of both tables become stale in the same window, and are returned while they are refreshed
+        partitionLoader.incrementVersion();
+        ticker.increment(2, MINUTES);
+        assertEquals(cache.getAll(firstTablePartitions), ImmutableMap.of("first/p1", "first/p1@1", "first/p2", "first/p2@1"));
+        cache.getAll(secondTablePartitions);
+        assertEquals(refreshTasks.size(), 1);
+
+        // the pending refreshes are loaded with one call per table
+        refreshTasks.get(0).run();
+        assertEquals(partitionLoader.getLoadedBatches(), ImmutableList.of(firstTablePartitions, secondTablePartitions, firstTablePartitions, secondTablePartitions));
+        assertEquals(cache.getAll(firstTablePartitions), ImmutableMap.of("first/p1", "first/p1@2", "first/p2", "first/p2@2"));
+        assertEquals(cache.get("second/p3"), "second/p3@2");
+    }
+
+    @Test
+    public void testFailedBatchDoesNotAffectOtherBatches()
+            throws Exception
+    {
+        TestingTicker ticker = new TestingTicker();
+        List<Runnable> refreshTasks = new ArrayList<>();
+        PartitionLoader partitionLoader = new PartitionLoader();
+        LoadingCache<String, String> cache = CacheBuilder.newBuilder()
+                .ticker(ticker)
+                .refreshAfterWrite(1, MINUTES)
+                .build(bulkReloading(partitionLoader, TestBulkReloadingCacheLoader::tableName, refreshTasks::add));
+
+        cache.get("failing/p1");
+        cache.get("second/p1");
+
+        partitionLoader.incrementVersion();
+        partitionLoader.failTable("failing");
+        ticker.increment(2, MINUTES);
+        cache.get("failing/p1");
+        cache.get("second/p1");
+        assertEquals(refreshTasks.size(), 1);
+        refreshTasks.get(0).run();
+
+        // the failed refresh keeps the stale value, and is retried on the next access
+        assertEquals(cache.get("failing/p1"), "failing/p1@1");
+        assertEquals(cache.get("second/p1"), "second/p1@2");
+    }
+
+    private static String tableName(String partitionName)
+    {
+        return partitionName.substring(0, partitionName.indexOf('/'));
+    }
+
+    private static class PartitionLoader
+            extends CacheLoader<String, String>
+    {
+        private final List<List<String>> loadedBatches = new ArrayList<>();
+        private int version = 1;
+        private String failingTable;
+
+        @Override
+        public String load(String partitionName)
+        {
+            return loadAll(ImmutableList.of(partitionName)).get(partitionName);
+        }
+
+        @Override
+        public Map<String, String> loadAll(Iterable<? extends String> partitionNames)
+        {
+            List<String> batch = ImmutableList.copyOf(partitionNames);
+            // like the metastore, partitions can only be loaded together when they belong to the same table
+            String tableName = tableName(batch.get(0));
+            checkArgument(batch.stream().allMatch(partitionName -> tableName(partitionName).equals(tableName)), "partitions of multiple tables: %s", batch);
+            if (tableName.equals(failingTable)) {
+                throw new IllegalStateException("failing table");
+            }
+            loadedBatches.add(batch);
+            return batch.stream()
+                    .collect(toImmutableMap(partitionName -> partitionName, partitionName -> partitionName + "@" + version));
+        }
+
+        public List<List<String>> getLoadedBatches()
+        {
+            return loadedBatches;
+        }
+
+        public void incrementVersion()
+        {
+            version++;
+        }
+
+        public void failTable(String tableName)
+        {
+            failingTable = tableName;
+        }
+    }
+}
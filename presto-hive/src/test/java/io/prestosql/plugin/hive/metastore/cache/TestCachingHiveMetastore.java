@@ -35,6 +35,8 @@ import io.prestosql.spi.predicate.TupleDomain;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
@@ -249,6 +251,65 @@ public class TestCachingHiveMetastore
         assertEquals(mockClient.getAccessCount(), 5);
     }
 
+    @Test
+    public void testPartitionsRefreshedInBatch()
+            throws Exception
+    {
+        List<Runnable> refreshTasks = new ArrayList<>();
+        metastore = (CachingHiveMetastore) cachingHiveMetastore(
+                new BridgingHiveMetastore(createThriftHiveMetastore()),
+                refreshTasks::add,
+                new Duration(5, TimeUnit.MINUTES),
+                Optional.of(new Duration(1, TimeUnit.MILLISECONDS)),
+                1000);
+
+        Table table = metastore.getTable(IDENTITY, TEST_DATABASE, TEST_TABLE).get();
+        assertEquals(metastore.getPartitionsByNames(IDENTITY, table, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 2);
+        // ignore a refresh of the table, which may already be eligible for refresh
+        refreshTasks.clear();
+
+        // make the cached partitions eligible for refresh
+        Thread.sleep(10);
+
+        // stale partitions are returned while they are refreshed in the background
+        assertEquals(metastore.getPartitionsByNames(IDENTITY, table, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 2);
+
+        // both partitions are refreshed with a single call
+        assertEquals(refreshTasks.size(), 1);
+        ImmutableList.copyOf(refreshTasks).forEach(Runnable::run);
+        assertEquals(mockClient.getAccessCount(), 3);
+    }
+
+    @Test
+    public void testInvalidatePartition()
+    {
+        Table table = metastore.getTable(IDENTITY, TEST_DATABASE, TEST_TABLE).get();
+        assertEquals(metastore.getPartitionsByNames(IDENTITY, table, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 2);
+
+        metastore.invalidatePartition(TEST_DATABASE, TEST_TABLE, TEST_PARTITION_VALUES1);
+
+        // only the invalidated partition is loaded again
+        assertEquals(metastore.getPartitionsByNames(IDENTITY, table, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 3);
+        assertEquals(metastore.getTable(IDENTITY, TEST_DATABASE, TEST_TABLE), Optional.of(table));
+        assertEquals(mockClient.getAccessCount(), 3);
+
+        metastore.invalidateTable(TEST_DATABASE, TEST_TABLE);
+
+        assertEquals(metastore.getTable(IDENTITY, TEST_DATABASE, TEST_TABLE), Optional.of(table));
+        assertEquals(mockClient.getAccessCount(), 4);
+        assertEquals(metastore.getPartitionsByNames(IDENTITY, table, ImmutableList.of(TEST_PARTITION1, TEST_PARTITION2)).size(), 2);
+        assertEquals(mockClient.getAccessCount(), 5);
+
+        metastore.invalidateSchema(TEST_DATABASE);
+
+        assertEquals(metastore.getTable(IDENTITY, TEST_DATABASE, TEST_TABLE), Optional.of(table));
+        assertEquals(mockClient.getAccessCount(), 6);
+    }
+
     @Test
     public void testListRoles()
     {
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.orc;
+
+import com.google.common.collect.ImmutableList;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TestDeletedRowIds
+{
+    @Test
+    public void testBuilderSortsAndRemovesDuplicates()
+    {
+        DeletedRowIds deletedRowIds = DeletedRowIds.builder()
+                .add(2, 5)
+                .add(1, 7)
+                .add(2, 1)
+                .add(1, 7)
+                .add(1, 3)
+                .build();
+
+        assertEquals(deletedRowIds.size(), 4);
+        assertDeleted(deletedRowIds, 1, 3);
+        assertDeleted(deletedRowIds, 1, 7);
+        assertDeleted(deletedRowIds, 2, 1);
+        assertDeleted(deletedRowIds, 2, 5);
+        assertNotDeleted(deletedRowIds, 1, 5);
+        assertNotDeleted(deletedRowIds, 2, 3);
+        assertNotDeleted(deletedRowIds, 3, 0);
+
+        assertSame(DeletedRowIds.builder().build(), DeletedRowIds.EMPTY);
+    }
+
+    @Test
+    public void testSeek()
+    {
+        DeletedRowIds.Builder builder = DeletedRowIds.builder();
+        for (long rowId = 0; rowId < 1000; rowId += 10) {
+            builder.add(0, rowId);
+        }
+        DeletedRowIds deletedRowIds = builder.build();
+
+        // rows read in order
+        int position = 0;
+        int deleted = 0;
+        for (long rowId = 0; rowId < 1100; rowId++) {
+            position = deletedRowIds.seek(position, 0, rowId);
+            if (deletedRowIds.isDeleted(position, 0, rowId)) {
+                deleted++;
+            }
+        }
+        assertEquals(deleted, 100);
+        assertEquals(position, deletedRowIds.size());
+
+        // rows read before the hint
+        position = deletedRowIds.seek(position, 0, 20);
+        assertEquals(position, 2);
+        assertTrue(deletedRowIds.isDeleted(position, 0, 20));
+        position = deletedRowIds.seek(position, 0, 15);
+        assertEquals(position, 2);
+        assertFalse(deletedRowIds.isDeleted(position, 0, 15));
+    }
+
+    @Test
+    public void testUnion()
+    {
+        DeletedRowIds first = DeletedRowIds.builder()
+                .add(1, 1)
+                .add(1, 3)
+                .add(4, 0)
+                .build();
+        DeletedRowIds second = DeletedRowIds.builder()
+                .add(1, 2)
+                .add(1, 3)
+                .add(5, 0)
+                .build();
+
+        DeletedRowIds union = DeletedRowIds.union(ImmutableList.of(first, DeletedRowIds.EMPTY, second));
+        assertEquals(union.size(), 5);
+        assertDeleted(union, 1, 1);
+        assertDeleted(union, 1, 2);
+        assertDeleted(union, 1, 3);
+        assertDeleted(union, 4, 0);
+        assertDeleted(union, 5, 0);
+
+        assertSame(DeletedRowIds.union(ImmutableList.of(DeletedRowIds.EMPTY, first)), first);
+        assertSame(DeletedRowIds.union(ImmutableList.of()), DeletedRowIds.EMPTY);
+    }
+
+    private static void assertDeleted(DeletedRowIds deletedRowIds, long originalTransaction, long rowId)
+    {
+        assertTrue(deletedRowIds.isDeleted(deletedRowIds.seek(0, originalTransaction, rowId), originalTransaction, rowId));
+    }
+
+    private static void assertNotDeleted(DeletedRowIds deletedRowIds, long originalTransaction, long rowId)
+    {
+        assertFalse(deletedRowIds.isDeleted(deletedRowIds.seek(0, originalTransaction, rowId), originalTransaction, rowId));
+    }
+}
@@ -14,6 +14,8 @@
 package io.prestosql.plugin.hive.orc;
 
 import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
+import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.orc.OrcReaderOptions;
 import io.prestosql.plugin.hive.AcidInfo;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
@@ -28,15 +30,29 @@ import org.apache.hadoop.mapred.JobConf;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Set;
 
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.plugin.hive.HiveTestUtils.HDFS_ENVIRONMENT;
 import static io.prestosql.plugin.hive.HiveTestUtils.SESSION;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
+import static java.nio.file.Files.copy;
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.createTempDirectory;
+import static java.nio.file.Files.getLastModifiedTime;
+import static java.nio.file.Files.setLastModifiedTime;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestOrcDeletedRows
 {
@@ -132,6 +148,88 @@ public class TestOrcDeletedRows
         assertEquals(block.getPositionCount(), 10);
     }
 
+    @Test
+    public void testDeleteDeltaCache()
+    {
+        AcidInfo.Builder acidInfoBuilder = AcidInfo.builder(partitionDirectory);
+        addDeleteDelta(acidInfoBuilder, 4L, 4L, OptionalInt.of(0), partitionDirectory);
+        addDeleteDelta(acidInfoBuilder, 7L, 7L, OptionalInt.of(0), partitionDirectory);
+        AcidInfo acidInfo = acidInfoBuilder.build().orElseThrow();
+
+        OrcDeleteDeltaCache deleteDeltaCache = new OrcDeleteDeltaCache(DataSize.of(1, MEGABYTE));
+        for (int split = 0; split < 3; split++) {
+            AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+            OrcDeletedRows deletedRows = createOrcDeletedRows(acidInfo, "bucket_00000", deleteDeltaCache, memoryContext);
+
+            Page testPage = createTestPage(0, 10);
+            assertEquals(deletedRows.getMaskDeletedRowsFunction(testPage, OptionalLong.empty()).getPositionCount(), 8);
+            assertTrue(memoryContext.getBytes() > 0);
+        }
+
+        // each delete delta file is read once, and shared by all splits
+        assertEquals(deleteDeltaCache.getMissCount(), 2);
+        assertEquals(deleteDeltaCache.getHitCount(), 4);
+        assertEquals(deleteDeltaCache.getEntryCount(), 2);
+    }
+
+    @Test
+    public void testDeleteDeltaCacheWithRewrittenFile()
+            throws Exception
+    {
+        java.nio.file.Path tempDirectory = createTempDirectory("delete_delta_cache");
+        try {
+            java.nio.file.Path deleteDeltaFile = tempDirectory.resolve("delete_delta_0000004_0000004_0000").resolve("bucket_00000");
+            createDirectories(deleteDeltaFile.getParent());
+            copy(getResourcePath("fullacid_delete_delta_test/delete_delta_0000004_0000004_0000/bucket_00000"), deleteDeltaFile);
+
+            Path partition = new Path(tempDirectory.toUri());
+            AcidInfo.Builder acidInfoBuilder = AcidInfo.builder(partition);
+            addDeleteDelta(acidInfoBuilder, 4L, 4L, OptionalInt.of(0), partition);
+            AcidInfo acidInfo = acidInfoBuilder.build().orElseThrow();
+            OrcDeleteDeltaCache deleteDeltaCache = new OrcDeleteDeltaCache(DataSize.of(1, MEGABYTE));
+
+            AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+            assertEquals(getValidRows(createOrcDeletedRows(acidInfo, "bucket_00000", deleteDeltaCache, memoryContext)), getValidRowsWithDeleteDelta(4L));
+            // the row ids of the only delete delta are owned by the cache
+            assertEquals(memoryContext.getBytes(), 0);
+
+            // the file is replaced with the rows of another delete delta
+            assertNotEquals(getValidRowsWithDeleteDelta(7L), getValidRowsWithDeleteDelta(4L));
+            FileTime modificationTime = getLastModifiedTime(deleteDeltaFile);
+            copy(getResourcePath("fullacid_delete_delta_test/delete_delta_0000007_0000007_0000/bucket_00000"), deleteDeltaFile, REPLACE_EXISTING);
+            setLastModifiedTime(deleteDeltaFile, FileTime.fromMillis(modificationTime.toMillis() + 10_000));
+
+            assertEquals(getValidRows(createOrcDeletedRows(acidInfo, "bucket_00000", deleteDeltaCache, newSimpleAggregatedMemoryContext())), getValidRowsWithDeleteDelta(7L));
+            assertEquals(deleteDeltaCache.getMissCount(), 2);
+        }
+        finally {
+            deleteRecursively(tempDirectory, ALLOW_INSECURE);
+        }
+    }
+
+    private Set<Object> getValidRowsWithDeleteDelta(long writeId)
+    {
+        AcidInfo.Builder acidInfoBuilder = AcidInfo.builder(partitionDirectory);
+        addDeleteDelta(acidInfoBuilder, writeId, writeId, OptionalInt.of(0), partitionDirectory);
+        return getValidRows(createOrcDeletedRows(acidInfoBuilder.build().orElseThrow(), "bucket_00000"));
+    }
+
+    private Set<Object> getValidRows(OrcDeletedRows deletedRows)
+    {
+        Page testPage = createTestPage(0, 10);
+        Block block = deletedRows.getMaskDeletedRowsFunction(testPage, OptionalLong.empty()).apply(testPage.getBlock(0));
+        return resultBuilder(SESSION, BIGINT)
+                .page(new Page(block))
+                .build()
+                .getOnlyColumnAsSet();
+    }
+
+    private static java.nio.file.Path getResourcePath(String resourceName)
+            throws Exception
+    {
+        return Paths.get(TestOrcDeletedRows.class.getClassLoader().getResource(resourceName).toURI());
+    }
+
     private void addDeleteDelta(AcidInfo.Builder acidInfoBuilder, long minWriteId, long maxWriteId, OptionalInt statementId, Path path)
     {
         Path deleteDeltaPath;
@@ -145,6 +243,11 @@ public class TestOrcDeletedRows
     }
 
     private static OrcDeletedRows createOrcDeletedRows(AcidInfo acidInfo, String sourceFileName)
+    {
+        return createOrcDeletedRows(acidInfo, sourceFileName, new OrcDeleteDeltaCache(DataSize.ofBytes(0)), newSimpleAggregatedMemoryContext());
+    }
+
+    private static OrcDeletedRows createOrcDeletedRows(AcidInfo acidInfo, String sourceFileName, OrcDeleteDeltaCache deleteDeltaCache, AggregatedMemoryContext memoryContext)
     {
         JobConf configuration = new JobConf(new Configuration(false));
         OrcDeleteDeltaPageSourceFactory pageSourceFactory = new OrcDeleteDeltaPageSourceFactory(
@@ -160,7 +263,9 @@ public class TestOrcDeletedRows
                 "test",
                 configuration,
                 HDFS_ENVIRONMENT,
-                acidInfo);
+                acidInfo,
+                deleteDeltaCache,
+                memoryContext.newLocalMemoryContext(OrcDeletedRows.class.getSimpleName()));
     }
 
     private Page createTestPage(int originalTransactionStart, int originalTransactionEnd)
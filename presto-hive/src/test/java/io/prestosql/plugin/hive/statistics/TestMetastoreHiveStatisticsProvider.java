@@ -15,6 +15,7 @@ package io.prestosql.plugin.hive.statistics;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.airlift.stats.cardinality.HyperLogLog;
 import io.prestosql.plugin.hive.HiveBasicStatistics;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HiveConfig;
@@ -22,6 +23,7 @@ import io.prestosql.plugin.hive.HivePartition;
 import io.prestosql.plugin.hive.PartitionStatistics;
 import io.prestosql.plugin.hive.metastore.DateStatistics;
 import io.prestosql.plugin.hive.metastore.DecimalStatistics;
+import io.prestosql.plugin.hive.metastore.DistinctValuesSketch;
 import io.prestosql.plugin.hive.metastore.DoubleStatistics;
 import io.prestosql.plugin.hive.metastore.HiveColumnStatistics;
 import io.prestosql.plugin.hive.metastore.IntegerStatistics;
@@ -85,6 +87,7 @@ import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestMetastoreHiveStatisticsProvider
 {
@@ -514,6 +517,26 @@ public class TestMetastoreHiveStatisticsProvider
                 Estimate.of(2));
     }
 
+    @Test
+    public void testCalculateDistinctValuesCountWithSketches()
+    {
+        // sketches of partitions with the same values do not increase the estimate
+        assertEquals(
+                calculateDistinctValuesCount(ImmutableList.of(distinctValuesCountAndSketch(1000, 0, 1000), distinctValuesCountAndSketch(1000, 0, 1000))),
+                Estimate.of(calculateDistinctValuesCount(ImmutableList.of(distinctValuesCountAndSketch(1000, 0, 1000))).getValue()));
+        // sketches of partitions with disjoint values give a better estimate than the maximum of the partitions
+        double estimate = calculateDistinctValuesCount(ImmutableList.of(distinctValuesCountAndSketch(1000, 0, 1000), distinctValuesCountAndSketch(1000, 1000, 2000))).getValue();
+        assertTrue(estimate > 1900 && estimate < 2100, "unexpected estimate: " + estimate);
+        // the partitions without a sketch only contribute their number of distinct values
+        assertEquals(
+                calculateDistinctValuesCount(ImmutableList.of(distinctValuesCountAndSketch(10, 0, 10), distinctValuesCount(1000))),
+                Estimate.of(1000));
+        // the sketch is only used with the number of distinct values
+        assertEquals(
+                calculateDistinctValuesCount(ImmutableList.of(HiveColumnStatistics.builder().setDistinctValuesSketch(sketch(0, 1000)).build())),
+                Estimate.unknown());
+    }
+
     @Test
     public void testCalculateNullsFraction()
     {
@@ -799,6 +822,23 @@ public class TestMetastoreHiveStatisticsProvider
                 .build();
     }
 
+    private static HiveColumnStatistics distinctValuesCountAndSketch(long count, long firstValue, long lastValue)
+    {
+        return HiveColumnStatistics.builder()
+                .setDistinctValuesCount(count)
+                .setDistinctValuesSketch(sketch(firstValue, lastValue))
+                .build();
+    }
+
+    private static DistinctValuesSketch sketch(long firstValue, long lastValue)
+    {
+        HyperLogLog hyperLogLog = HyperLogLog.newInstance(4096);
+        for (long value = firstValue; value < lastValue; value++) {
+            hyperLogLog.add(value);
+        }
+        return DistinctValuesSketch.fromHyperLogLog(hyperLogLog);
+    }
+
     private static HiveColumnStatistics integerRange(long min, long max)
     {
         return integerRange(OptionalLong.of(min), OptionalLong.of(max));
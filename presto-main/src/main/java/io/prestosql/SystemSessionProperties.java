@@ -113,6 +113,7 @@ public final class SystemSessionProperties
     public static final String MAX_DRIVERS_PER_TASK = "max_drivers_per_task";
     public static final String DEFAULT_FILTER_FACTOR_ENABLED = "default_filter_factor_enabled";
     public static final String UNWRAP_CASTS = "unwrap_casts";
+    public static final String MERGE_JSON_EXTRACT_CALLS = "merge_json_extract_calls";
     public static final String SKIP_REDUNDANT_SORT = "skip_redundant_sort";
     public static final String ALLOW_PUSHDOWN_INTO_CONNECTORS = "allow_pushdown_into_connectors";
     public static final String PREDICATE_PUSHDOWN_USE_TABLE_PROPERTIES = "predicate_pushdown_use_table_properties";
@@ -503,6 +504,11 @@ public final class SystemSessionProperties
                         "Enable optimization to unwrap CAST expression",
                         featuresConfig.isUnwrapCasts(),
                         false),
+                booleanProperty(
+                        MERGE_JSON_EXTRACT_CALLS,
+                        "Extract the paths of json_extract and json_extract_scalar calls on the same value in a single pass",
+                        featuresConfig.isMergeJsonExtractCalls(),
+                        false),
                 booleanProperty(
                         SKIP_REDUNDANT_SORT,
                         "Skip redundant sort operations",
@@ -957,6 +963,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(UNWRAP_CASTS, Boolean.class);
     }
 
+    public static boolean isMergeJsonExtractCalls(Session session)
+    {
+        return session.getSystemProperty(MERGE_JSON_EXTRACT_CALLS, Boolean.class);
+    }
+
     public static boolean isSkipRedundantSort(Session session)
     {
         return session.getSystemProperty(SKIP_REDUNDANT_SORT, Boolean.class);
@@ -573,6 +573,7 @@ public class QueryStateMachine
                 queryStateTimer.getAnalysisTime(),
                 queryStateTimer.getPlanningTime(),
                 queryStateTimer.getFinishingTime(),
+                queryStateTimer.getCommitTime(),
 
                 totalTasks,
                 runningTasks,
@@ -837,18 +838,21 @@ public class QueryStateMachine
 
         Optional<TransactionId> transactionId = session.getTransactionId();
         if (transactionId.isPresent() && transactionManager.transactionExists(transactionId.get()) && transactionManager.isAutoCommit(transactionId.get())) {
+            queryStateTimer.beginCommit();
             ListenableFuture<?> commitFuture = transactionManager.asyncCommit(transactionId.get());
             Futures.addCallback(commitFuture, new FutureCallback<Object>()
             {
                 @Override
                 public void onSuccess(@Nullable Object result)
                 {
+                    queryStateTimer.endCommit();
                     transitionToFinished();
                 }
 
                 @Override
                 public void onFailure(Throwable throwable)
                 {
+                    queryStateTimer.endCommit();
                     transitionToFailed(throwable);
                 }
             }, directExecutor());
@@ -1120,6 +1124,7 @@ public class QueryStateMachine
                 queryStats.getAnalysisTime(),
                 queryStats.getPlanningTime(),
                 queryStats.getFinishingTime(),
+                queryStats.getCommitTime(),
                 queryStats.getTotalTasks(),
                 queryStats.getRunningTasks(),
                 queryStats.getCompletedTasks(),
@@ -49,6 +49,9 @@ class QueryStateTimer
     private final AtomicReference<Long> beginAnalysisNanos = new AtomicReference<>();
     private final AtomicReference<Duration> analysisTime = new AtomicReference<>();
 
+    private final AtomicReference<Long> beginCommitNanos = new AtomicReference<>();
+    private final AtomicReference<Duration> commitTime = new AtomicReference<>();
+
     private final AtomicReference<Long> lastHeartbeatNanos;
 
     public QueryStateTimer(Ticker ticker)
@@ -149,6 +152,11 @@ class QueryStateTimer
         else {
             endAnalysis(now);
         }
+
+        // commit is cut short when the query fails or is canceled while committing
+        if (beginCommitNanos.get() != null) {
+            endCommit(now);
+        }
     }
 
     //
@@ -170,6 +178,21 @@ class QueryStateTimer
         analysisTime.compareAndSet(null, nanosSince(beginAnalysisNanos, now));
     }
 
+    public void beginCommit()
+    {
+        beginCommitNanos.compareAndSet(null, tickerNanos());
+    }
+
+    public void endCommit()
+    {
+        endCommit(tickerNanos());
+    }
+
+    private void endCommit(long now)
+    {
+        commitTime.compareAndSet(null, nanosSince(beginCommitNanos, now));
+    }
+
     public void recordHeartbeat()
     {
         lastHeartbeatNanos.set(tickerNanos());
@@ -228,6 +251,11 @@ class QueryStateTimer
         return getDuration(finishingTime, beginFinishingNanos);
     }
 
+    public Duration getCommitTime()
+    {
+        return getDuration(commitTime, beginCommitNanos);
+    }
+
     public Duration getExecutionTime()
     {
         return getDuration(executionTime, beginPlanningNanos);
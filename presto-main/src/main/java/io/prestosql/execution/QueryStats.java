@@ -53,6 +53,7 @@ public class QueryStats
     private final Duration analysisTime;
     private final Duration planningTime;
     private final Duration finishingTime;
+    private final Duration commitTime;
 
     private final int totalTasks;
     private final int runningTasks;
@@ -122,6 +123,7 @@ public class QueryStats
             @JsonProperty("analysisTime") Duration analysisTime,
             @JsonProperty("planningTime") Duration planningTime,
             @JsonProperty("finishingTime") Duration finishingTime,
+            @JsonProperty("commitTime") Duration commitTime,
 
             @JsonProperty("totalTasks") int totalTasks,
             @JsonProperty("runningTasks") int runningTasks,
@@ -189,6 +191,7 @@ public class QueryStats
         this.analysisTime = requireNonNull(analysisTime, "analysisTime is null");
         this.planningTime = requireNonNull(planningTime, "planningTime is null");
         this.finishingTime = requireNonNull(finishingTime, "finishingTime is null");
+        this.commitTime = requireNonNull(commitTime, "commitTime is null");
 
         checkArgument(totalTasks >= 0, "totalTasks is negative");
         this.totalTasks = totalTasks;
@@ -329,6 +332,16 @@ public class QueryStats
         return finishingTime;
     }
 
+    /**
+     * Time spent committing the transaction of the query, e.g. moving the written files
+     * and registering the new partitions. It is part of the finishing time.
+     */
+    @JsonProperty
+    public Duration getCommitTime()
+    {
+        return commitTime;
+    }
+
     @JsonProperty
     public int getTotalTasks()
     {
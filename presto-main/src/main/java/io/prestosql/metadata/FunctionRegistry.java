@@ -112,6 +112,7 @@ import io.prestosql.operator.scalar.HyperLogLogFunctions;
 import io.prestosql.operator.scalar.JoniRegexpCasts;
 import io.prestosql.operator.scalar.JoniRegexpFunctions;
 import io.prestosql.operator.scalar.JoniRegexpReplaceLambdaFunction;
+import io.prestosql.operator.scalar.JsonExtractPathsFunctions;
 import io.prestosql.operator.scalar.JsonFunctions;
 import io.prestosql.operator.scalar.JsonOperators;
 import io.prestosql.operator.scalar.LuhnCheckFunction;
@@ -485,6 +486,8 @@ public class FunctionRegistry
                 .scalars(BitwiseFunctions.class)
                 .scalars(DateTimeFunctions.class)
                 .scalars(JsonFunctions.class)
+                .scalar(JsonExtractPathsFunctions.JsonExtractScalarPaths.class)
+                .scalar(JsonExtractPathsFunctions.JsonExtractPaths.class)
                 .scalars(ColorFunctions.class)
                 .scalars(ColorOperators.class)
                 .scalar(ColorOperators.ColorDistinctFromOperator.class)
@@ -504,7 +504,7 @@ public final class MetadataManager
             return metadata.getInfo(layoutHandle);
         }
 
-        return metadata.getInfo(handle.getConnectorHandle());
+        return metadata.getInfo(session.toConnectorSession(catalogName), handle.getConnectorHandle());
     }
 
     @Override
@@ -0,0 +1,80 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.prestosql.util.Mergeable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Lookups into, and hits in, the caches of the memoized projections of an operator.
+ */
+public class MemoizedCallsInfo
+        implements Mergeable<MemoizedCallsInfo>, OperatorInfo
+{
+    private final long lookups;
+    private final long hits;
+
+    @JsonCreator
+    public MemoizedCallsInfo(
+            @JsonProperty("lookups") long lookups,
+            @JsonProperty("hits") long hits)
+    {
+        this.lookups = lookups;
+        this.hits = hits;
+    }
+
+    @JsonProperty
+    public long getLookups()
+    {
+        return lookups;
+    }
+
+    @JsonProperty
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public double getHitRate()
+    {
+        if (lookups == 0) {
+            return 0;
+        }
+        return (double) hits / lookups;
+    }
+
+    @Override
+    public MemoizedCallsInfo mergeWith(MemoizedCallsInfo other)
+    {
+        return new MemoizedCallsInfo(lookups + other.getLookups(), hits + other.getHits());
+    }
+
+    @Override
+    public boolean isFinal()
+    {
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("lookups", lookups)
+                .add("hits", hits)
+                .toString();
+    }
+}
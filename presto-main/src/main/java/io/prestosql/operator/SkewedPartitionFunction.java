@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.prestosql.spi.Page;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Partitions rows for table writers. Rows are assigned to the partition chosen by the
+ * delegate hash function, so that all rows of a table partition go to a single writer
+ * and writers only open files for the table partitions hashed to them. When the rows
+ * of a partition exceed their fair share of the observed rows, they are spread
+ * round-robin over additional writers (the partitions following it), so that a skewed
+ * table partition does not bottleneck the write on a single writer.
+ * <p>
+ * Rows are counted rather than bytes, as the pages seen by this function may only hold
+ * the partitioning columns, whose size says little about the size of the written data.
+ * Like {@code RoundRobinBucketFunction}, the statistics are not synchronized, so concurrent
+ * callers may lose updates, which only affects the accuracy of the balancing.
+ */
+public class SkewedPartitionFunction
+        implements PartitionFunction
+{
+    public static final long DEFAULT_MIN_ROWS_PER_WRITER = 100_000;
+
+    // a partition gets an additional writer when its rows per writer exceed this multiple of the average rows per partition
+    private static final int SKEW_FACTOR = 2;
+
+    private final PartitionFunction delegate;
+    private final int partitionCount;
+    private final long minRowsPerWriter;
+
+    private final long[] partitionRows;
+    private final int[] writerCounts;
+    private final int[] nextWriters;
+    private long totalRows;
+
+    public SkewedPartitionFunction(PartitionFunction delegate)
+    {
+        this(delegate, DEFAULT_MIN_ROWS_PER_WRITER);
+    }
+
+    public SkewedPartitionFunction(PartitionFunction delegate, long minRowsPerWriter)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.partitionCount = delegate.getPartitionCount();
+        checkArgument(partitionCount > 0, "partitionCount must be at least 1");
+        checkArgument(minRowsPerWriter > 0, "minRowsPerWriter must be at least 1");
+        this.minRowsPerWriter = minRowsPerWriter;
+
+        this.partitionRows = new long[partitionCount];
+        this.writerCounts = new int[partitionCount];
+        this.nextWriters = new int[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            writerCounts[partition] = 1;
+        }
+    }
+
+    @Override
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    @Override
+    public int getPartition(Page page, int position)
+    {
+        int partition = delegate.getPartition(page, position);
+
+        partitionRows[partition]++;
+        totalRows++;
+
+        int writerCount = writerCounts[partition];
+        if (writerCount < partitionCount) {
+            // compare rows per writer to the thresholds without dividing, so that the comparison does not round down
+            long rows = partitionRows[partition];
+            if (rows >= minRowsPerWriter * writerCount && rows * partitionCount > SKEW_FACTOR * totalRows * writerCount) {
+                writerCount++;
+                writerCounts[partition] = writerCount;
+            }
+        }
+        if (writerCount == 1) {
+            return partition;
+        }
+
+        int writer = nextWriters[partition];
+        nextWriters[partition] = (writer + 1) % writerCount;
+        return (partition + writer) % partitionCount;
+    }
+
+    public int getWriterCount(int partition)
+    {
+        return writerCounts[partition];
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("delegate", delegate)
+                .add("partitionCount", partitionCount)
+                .add("minRowsPerWriter", minRowsPerWriter)
+                .toString();
+    }
+}
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.units.DataSize;
 import io.prestosql.execution.Lifespan;
 import io.prestosql.operator.PipelineExecutionStrategy;
+import io.prestosql.operator.SkewedPartitionFunction;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.planner.PartitioningHandle;
 
@@ -42,10 +43,12 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.operator.PipelineExecutionStrategy.UNGROUPED_EXECUTION;
 import static io.prestosql.operator.exchange.LocalExchangeSink.finishedLocalExchangeSink;
+import static io.prestosql.operator.exchange.PartitioningExchanger.createLocalPartitionGenerator;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_PASSTHROUGH_DISTRIBUTION;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static java.util.Objects.requireNonNull;
 
@@ -114,6 +117,12 @@ public class LocalExchange
         else if (partitioning.equals(FIXED_HASH_DISTRIBUTION)) {
             exchangerSupplier = () -> new PartitioningExchanger(buffers, memoryManager, types, partitionChannels, partitionHashChannel);
         }
+        else if (partitioning.equals(SCALED_WRITER_HASH_DISTRIBUTION)) {
+            exchangerSupplier = () -> new PartitioningExchanger(
+                    buffers,
+                    memoryManager,
+                    new SkewedPartitionFunction(createLocalPartitionGenerator(types, partitionChannels, partitionHashChannel, buffers.size())));
+        }
         else if (partitioning.equals(FIXED_PASSTHROUGH_DISTRIBUTION)) {
             Iterator<LocalExchangeSource> sourceIterator = this.sources.iterator();
             exchangerSupplier = () -> {
@@ -357,7 +366,7 @@ public class LocalExchange
             bufferCount = defaultConcurrency;
             checkArgument(partitionChannels.isEmpty(), "Arbitrary exchange must not have partition channels");
         }
-        else if (partitioning.equals(FIXED_HASH_DISTRIBUTION)) {
+        else if (partitioning.equals(FIXED_HASH_DISTRIBUTION) || partitioning.equals(SCALED_WRITER_HASH_DISTRIBUTION)) {
             bufferCount = defaultConcurrency;
             checkArgument(!partitionChannels.isEmpty(), "Partitioned exchange must have partition channels");
         }
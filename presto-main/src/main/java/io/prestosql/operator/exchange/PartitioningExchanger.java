@@ -18,6 +18,7 @@ import com.google.common.primitives.Ints;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.operator.HashGenerator;
 import io.prestosql.operator.InterpretedHashGenerator;
+import io.prestosql.operator.PartitionFunction;
 import io.prestosql.operator.PrecomputedHashGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.Type;
@@ -28,6 +29,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
@@ -36,7 +38,7 @@ class PartitioningExchanger
 {
     private final List<Consumer<PageReference>> buffers;
     private final LocalExchangeMemoryManager memoryManager;
-    private final LocalPartitionGenerator partitionGenerator;
+    private final PartitionFunction partitionGenerator;
     private final IntArrayList[] partitionAssignments;
 
     public PartitioningExchanger(
@@ -45,10 +47,32 @@ class PartitioningExchanger
             List<? extends Type> types,
             List<Integer> partitionChannels,
             Optional<Integer> hashChannel)
+    {
+        this(partitions, memoryManager, createLocalPartitionGenerator(types, partitionChannels, hashChannel, partitions.size()));
+    }
+
+    public PartitioningExchanger(
+            List<Consumer<PageReference>> partitions,
+            LocalExchangeMemoryManager memoryManager,
+            PartitionFunction partitionGenerator)
     {
         this.buffers = ImmutableList.copyOf(requireNonNull(partitions, "partitions is null"));
         this.memoryManager = requireNonNull(memoryManager, "memoryManager is null");
+        this.partitionGenerator = requireNonNull(partitionGenerator, "partitionGenerator is null");
+        checkArgument(partitionGenerator.getPartitionCount() == buffers.size(), "partitionGenerator and buffers have different partition counts");
+
+        partitionAssignments = new IntArrayList[partitions.size()];
+        for (int i = 0; i < partitionAssignments.length; i++) {
+            partitionAssignments[i] = new IntArrayList();
+        }
+    }
 
+    static LocalPartitionGenerator createLocalPartitionGenerator(
+            List<? extends Type> types,
+            List<Integer> partitionChannels,
+            Optional<Integer> hashChannel,
+            int partitionCount)
+    {
         HashGenerator hashGenerator;
         if (hashChannel.isPresent()) {
             hashGenerator = new PrecomputedHashGenerator(hashChannel.get());
@@ -59,12 +83,7 @@ class PartitioningExchanger
                     .collect(toImmutableList());
             hashGenerator = new InterpretedHashGenerator(partitionChannelTypes, Ints.toArray(partitionChannels));
         }
-        partitionGenerator = new LocalPartitionGenerator(hashGenerator, buffers.size());
-
-        partitionAssignments = new IntArrayList[partitions.size()];
-        for (int i = 0; i < partitionAssignments.length; i++) {
-            partitionAssignments[i] = new IntArrayList();
-        }
+        return new LocalPartitionGenerator(hashGenerator, partitionCount);
     }
 
     @Override
@@ -0,0 +1,32 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+
+/**
+ * Implementation of a scalar function call that is invoked once per page instead of once per
+ * position, so that the function can run a tight loop over the values of its input blocks.
+ * Implementations must be stateless, as they are shared by all the projections of the call.
+ */
+public interface BatchFunction
+{
+    /**
+     * Evaluates the call for the selected positions of the page, which contains the input
+     * channels of the call. Failures are raised for the first failing position, in position
+     * order, as the generated projections do.
+     */
+    Block evaluate(Page page, SelectedPositions selectedPositions);
+}
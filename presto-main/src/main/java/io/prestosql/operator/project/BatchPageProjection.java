@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import io.prestosql.operator.CompletedWork;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public class BatchPageProjection
+        implements PageProjection
+{
+    private final BatchFunction function;
+    private final Type type;
+    private final InputChannels inputChannels;
+
+    public BatchPageProjection(BatchFunction function, Type type, InputChannels inputChannels)
+    {
+        this.function = requireNonNull(function, "function is null");
+        this.type = requireNonNull(type, "type is null");
+        this.inputChannels = requireNonNull(inputChannels, "inputChannels is null");
+    }
+
+    @Override
+    public Type getType()
+    {
+        return type;
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+    {
+        requireNonNull(page, "page is null");
+        requireNonNull(selectedPositions, "selectedPositions is null");
+        return new CompletedWork<>(function.evaluate(page, selectedPositions));
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("function", function)
+                .add("inputChannels", inputChannels)
+                .toString();
+    }
+}
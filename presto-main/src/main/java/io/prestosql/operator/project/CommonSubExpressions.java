@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Subexpressions shared by the filter and projections of a {@link PageProcessor}. The processor
+ * appends their values to the input page, as channels starting at {@code inputChannelCount}:
+ * first the values of the filter subexpressions for all positions of the page, and then the values
+ * of the projection subexpressions for each batch of the positions selected by the filter. Each
+ * subexpression may read the channels of the subexpressions preceding it.
+ */
+public class CommonSubExpressions
+{
+    private final int inputChannelCount;
+    private final List<PageProjection> filterSubExpressions;
+    private final List<PageProjection> projectionSubExpressions;
+
+    public static CommonSubExpressions none()
+    {
+        return new CommonSubExpressions(0, ImmutableList.of(), ImmutableList.of());
+    }
+
+    public CommonSubExpressions(int inputChannelCount, List<? extends PageProjection> filterSubExpressions, List<? extends PageProjection> projectionSubExpressions)
+    {
+        checkArgument(inputChannelCount >= 0, "inputChannelCount is negative");
+        this.inputChannelCount = inputChannelCount;
+        this.filterSubExpressions = ImmutableList.copyOf(requireNonNull(filterSubExpressions, "filterSubExpressions is null"));
+        this.projectionSubExpressions = ImmutableList.copyOf(requireNonNull(projectionSubExpressions, "projectionSubExpressions is null"));
+    }
+
+    public int getInputChannelCount()
+    {
+        return inputChannelCount;
+    }
+
+    public List<PageProjection> getFilterSubExpressions()
+    {
+        return filterSubExpressions;
+    }
+
+    public List<PageProjection> getProjectionSubExpressions()
+    {
+        return projectionSubExpressions;
+    }
+
+    public boolean isEmpty()
+    {
+        return filterSubExpressions.isEmpty() && projectionSubExpressions.isEmpty();
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ConnectorSession;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
+import static io.prestosql.operator.project.SelectedPositions.positionsRange;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filter evaluating the conjuncts of a conjunction one after another, each one only over the
+ * positions selected by the conjuncts evaluated before it. The conjuncts are ordered by the cost
+ * and selectivity observed over the recently filtered pages, so that cheap conjuncts rejecting
+ * most positions are evaluated first, and expensive ones only see the remaining positions.
+ * <p>
+ * A conjunct may fail on a position that a preceding conjunct of the original order rejects
+ * (e.g. {@code x <> 0 AND y / x > 1}). When a conjunct fails while the conjuncts are evaluated
+ * in a different order, the page is filtered again in the original order, which is then used
+ * for the rest of the pages.
+ */
+@NotThreadSafe
+public class ConjunctionPageFilter
+        implements PageFilter
+{
+    // the statistics are halved, and the conjuncts reordered, after this many pages
+    @VisibleForTesting
+    static final int STATISTICS_WINDOW_PAGES = 16;
+
+    private final List<PageFilter> conjuncts;
+    private final InputChannels inputChannels;
+    // channels read by each conjunct, as indexes into the input channels of the conjunction
+    private final int[][] conjunctChannels;
+    private final ConjunctStatistics[] statistics;
+    private final boolean deterministic;
+
+    private int[] order;
+    private boolean reorderingEnabled = true;
+    private int pageCount;
+
+    public ConjunctionPageFilter(List<? extends PageFilter> conjuncts)
+    {
+        requireNonNull(conjuncts, "conjuncts is null");
+        checkArgument(conjuncts.size() >= 2, "conjunction must have at least two conjuncts");
+
+        this.conjuncts = conjuncts.stream()
+                .map(conjunct -> {
+                    if (conjunct.getInputChannels().size() == 1 && conjunct.isDeterministic()) {
+                        return new DictionaryAwarePageFilter(conjunct);
+                    }
+                    return conjunct;
+                })
+                .collect(toImmutableList());
+
+        SortedSet<Integer> channels = new TreeSet<>();
+        for (PageFilter conjunct : conjuncts) {
+            channels.addAll(conjunct.getInputChannels().getInputChannels());
+        }
+        List<Integer> sortedChannels = ImmutableList.copyOf(channels);
+        this.inputChannels = new InputChannels(sortedChannels);
+        this.conjunctChannels = conjuncts.stream()
+                .map(conjunct -> conjunct.getInputChannels().getInputChannels().stream()
+                        .mapToInt(sortedChannels::indexOf)
+                        .toArray())
+                .toArray(int[][]::new);
+
+        this.statistics = new ConjunctStatistics[conjuncts.size()];
+        Arrays.setAll(statistics, index -> new ConjunctStatistics());
+        this.deterministic = conjuncts.stream().allMatch(PageFilter::isDeterministic);
+        this.order = IntStream.range(0, conjuncts.size()).toArray();
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return deterministic;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return inputChannels;
+    }
+
+    @Override
+    public SelectedPositions filter(ConnectorSession session, Page page)
+    {
+        if (!reorderingEnabled) {
+            return filter(session, page, order, false);
+        }
+
+        SelectedPositions selectedPositions;
+        if (isOriginalOrder(order)) {
+            selectedPositions = filter(session, page, order, true);
+        }
+        else {
+            try {
+                selectedPositions = filter(session, page, order, true);
+            }
+            catch (RuntimeException e) {
+                // the failing conjunct may be guarded by a conjunct that was moved after it,
+                // so filter again in the original order, which fails only if the conjunction does
+                reorderingEnabled = false;
+                order = IntStream.range(0, conjuncts.size()).toArray();
+                return filter(session, page, order, false);
+            }
+        }
+
+        pageCount++;
+        if (pageCount == STATISTICS_WINDOW_PAGES) {
+            pageCount = 0;
+            order = computeOrder();
+            for (ConjunctStatistics conjunctStatistics : statistics) {
+                conjunctStatistics.decay();
+            }
+        }
+        return selectedPositions;
+    }
+
+    private SelectedPositions filter(ConnectorSession session, Page page, int[] order, boolean recordStatistics)
+    {
+        SelectedPositions selectedPositions = positionsRange(0, page.getPositionCount());
+        for (int conjunct : order) {
+            Page conjunctPage = getSelectedPositions(page.getColumns(conjunctChannels[conjunct]), selectedPositions);
+
+            long start = System.nanoTime();
+            SelectedPositions conjunctPositions = conjuncts.get(conjunct).filter(session, conjunctPage);
+            if (recordStatistics) {
+                statistics[conjunct].record(selectedPositions.size(), conjunctPositions.size(), System.nanoTime() - start);
+            }
+
+            selectedPositions = composePositions(selectedPositions, conjunctPositions);
+            if (selectedPositions.isEmpty()) {
+                break;
+            }
+        }
+        return selectedPositions;
+    }
+
+    private static Page getSelectedPositions(Page page, SelectedPositions selectedPositions)
+    {
+        if (selectedPositions.isList()) {
+            return page.getPositions(selectedPositions.getPositions(), selectedPositions.getOffset(), selectedPositions.size());
+        }
+        if (selectedPositions.getOffset() == 0 && selectedPositions.size() == page.getPositionCount()) {
+            return page;
+        }
+        return page.getRegion(selectedPositions.getOffset(), selectedPositions.size());
+    }
+
+    /**
+     * Maps the positions selected by a conjunct, which are indexes into the positions the conjunct
+     * was evaluated on, to the positions of the page.
+     */
+    private static SelectedPositions composePositions(SelectedPositions outer, SelectedPositions inner)
+    {
+        if (!inner.isList()) {
+            if (outer.isList()) {
+                return positionsList(outer.getPositions(), outer.getOffset() + inner.getOffset(), inner.size());
+            }
+            return positionsRange(outer.getOffset() + inner.getOffset(), inner.size());
+        }
+
+        int[] innerPositions = inner.getPositions();
+        int innerOffset = inner.getOffset();
+        int[] positions = new int[inner.size()];
+        if (outer.isList()) {
+            int[] outerPositions = outer.getPositions();
+            int outerOffset = outer.getOffset();
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = outerPositions[outerOffset + innerPositions[innerOffset + i]];
+            }
+        }
+        else {
+            int outerOffset = outer.getOffset();
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = outerOffset + innerPositions[innerOffset + i];
+            }
+        }
+        return positionsList(positions, 0, positions.length);
+    }
+
+    private int[] computeOrder()
+    {
+        // order by the cost of rejecting a position, keeping the current order for equal ranks
+        Integer[] newOrder = Ints.asList(order).toArray(new Integer[0]);
+        Arrays.sort(newOrder, Comparator.comparingDouble(conjunct -> statistics[conjunct].getRank()));
+        return Arrays.stream(newOrder).mapToInt(Integer::intValue).toArray();
+    }
+
+    private static boolean isOriginalOrder(int[] order)
+    {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] != i) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @VisibleForTesting
+    List<Integer> getOrder()
+    {
+        return Ints.asList(order.clone());
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("conjuncts", conjuncts)
+                .add("order", Arrays.toString(order))
+                .toString();
+    }
+
+    private static class ConjunctStatistics
+    {
+        private double inputPositions;
+        private double selectedPositions;
+        private double nanos;
+
+        public void record(int inputPositions, int selectedPositions, long nanos)
+        {
+            this.inputPositions += inputPositions;
+            this.selectedPositions += selectedPositions;
+            this.nanos += nanos;
+        }
+
+        public void decay()
+        {
+            inputPositions /= 2;
+            selectedPositions /= 2;
+            nanos /= 2;
+        }
+
+        /**
+         * Expected time spent per position rejected by the conjunct. Conjuncts that have not been
+         * evaluated recently have the lowest rank, so they are evaluated first and get measured.
+         */
+        public double getRank()
+        {
+            if (inputPositions < 1) {
+                return 0;
+            }
+            double costPerPosition = nanos / inputPositions;
+            double rejectedFraction = 1 - (selectedPositions / inputPositions);
+            return costPerPosition / Math.max(rejectedFraction, 1e-6);
+        }
+    }
+}
@@ -34,6 +34,14 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Evaluates a deterministic projection once per dictionary entry instead of once per position.
+ * This applies when one input block is a dictionary or run length encoded block, and the other
+ * input blocks, if any, are run length encoded: the projection is evaluated over the dictionary,
+ * with the run length encoded values repeated for each entry, and the result references the
+ * output dictionary with the ids of the input block. The output dictionary is reused while the
+ * inputs have the same dictionary and values.
+ */
 public class DictionaryAwarePageProjection
         implements PageProjection
 {
@@ -43,7 +51,9 @@ public class DictionaryAwarePageProjection
     private final Function<DictionaryBlock, DictionaryId> sourceIdFunction;
     private final boolean produceLazyBlock;
 
-    private Block lastInputDictionary;
+    // the dictionary of the dictionary block, and the values of the run length encoded blocks
+    private Block[] lastInputDictionary;
+    private int lastInputDictionarySize;
     private Optional<Block> lastOutputDictionary;
     private long lastDictionaryUsageCount;
 
@@ -53,7 +63,8 @@ public class DictionaryAwarePageProjection
         this.sourceIdFunction = sourceIdFunction;
         this.produceLazyBlock = produceLazyBlock;
         verify(projection.isDeterministic(), "projection must be deterministic");
-        verify(projection.getInputChannels().size() == 1, "projection must have only one input");
+        verify(projection.getInputChannels().size() >= 1, "projection must have inputs");
+        verify(!produceLazyBlock || projection.getInputChannels().size() == 1, "lazy projection must have only one input");
     }
 
     @Override
@@ -88,7 +99,9 @@ public class DictionaryAwarePageProjection
         private final SelectedPositions selectedPositions;
         private final boolean produceLazyBlock;
 
-        private Block block;
+        private Block[] blocks;
+        // the dictionary or run length encoded block, or null if dictionary processing does not apply
+        private Block dictionarySourceBlock;
         private Block result;
         // if the block is RLE or dictionary block, we may use dictionary processing
         private Work<Block> dictionaryProcessingProjectionWork;
@@ -98,9 +111,13 @@ public class DictionaryAwarePageProjection
         public DictionaryAwarePageProjectionWork(@Nullable ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
         {
             this.session = session;
-            this.block = requireNonNull(page, "page is null").getBlock(0);
+            requireNonNull(page, "page is null");
+            this.blocks = new Block[page.getChannelCount()];
+            for (int channel = 0; channel < blocks.length; channel++) {
+                blocks[channel] = page.getBlock(channel);
+            }
             this.selectedPositions = requireNonNull(selectedPositions, "selectedPositions is null");
-            this.produceLazyBlock = DictionaryAwarePageProjection.this.produceLazyBlock && !block.isLoaded();
+            this.produceLazyBlock = DictionaryAwarePageProjection.this.produceLazyBlock && !blocks[0].isLoaded();
 
             if (produceLazyBlock) {
                 this.yieldSignal = NON_YIELDING_SIGNAL;
@@ -153,35 +170,35 @@ public class DictionaryAwarePageProjection
                 }
             }
 
-            if (block instanceof DictionaryBlock) {
+            if (dictionarySourceBlock instanceof DictionaryBlock) {
                 // Record the usage count regardless of dictionary processing choice, so we have stats for next time.
                 // This guarantees recording will happen once and only once regardless of whether dictionary processing was attempted and whether it succeeded.
                 lastDictionaryUsageCount += selectedPositions.size();
             }
 
             if (dictionaryOutput.isPresent()) {
-                if (block instanceof RunLengthEncodedBlock) {
+                if (dictionarySourceBlock instanceof RunLengthEncodedBlock) {
                     // single value block is always considered effective, but the processing could have thrown
                     // in that case we fallback and process again so the correct error message sent
                     result = new RunLengthEncodedBlock(dictionaryOutput.get(), selectedPositions.size());
                     return true;
                 }
 
-                if (block instanceof DictionaryBlock) {
-                    DictionaryBlock dictionaryBlock = (DictionaryBlock) block;
+                if (dictionarySourceBlock instanceof DictionaryBlock) {
+                    DictionaryBlock dictionaryBlock = (DictionaryBlock) dictionarySourceBlock;
                     // if dictionary was processed, produce a dictionary block; otherwise do normal processing
                     int[] outputIds = filterDictionaryIds(dictionaryBlock, selectedPositions);
                     result = new DictionaryBlock(selectedPositions.size(), dictionaryOutput.get(), outputIds, false, sourceIdFunction.apply(dictionaryBlock));
                     return true;
                 }
 
-                throw new UnsupportedOperationException("unexpected block type " + block.getClass());
+                throw new UnsupportedOperationException("unexpected block type " + dictionarySourceBlock.getClass());
             }
 
             // there is no dictionary handling or dictionary handling failed; fall back to general projection
             verify(dictionaryProcessingProjectionWork == null);
             verify(fallbackProcessingProjectionWork == null);
-            fallbackProcessingProjectionWork = projection.project(session, yieldSignal, new Page(block), selectedPositions);
+            fallbackProcessingProjectionWork = projection.project(session, yieldSignal, new Page(blocks), selectedPositions);
             if (fallbackProcessingProjectionWork.process()) {
                 result = fallbackProcessingProjectionWork.getResult();
                 return true;
@@ -208,50 +225,114 @@ public class DictionaryAwarePageProjection
 
         private void setupDictionaryBlockProjection()
         {
-            block = block.getLoadedBlock();
+            dictionarySourceBlock = null;
+            if (blocks.length == 1) {
+                blocks[0] = blocks[0].getLoadedBlock();
+            }
+            else {
+                for (Block block : blocks) {
+                    if (!block.isLoaded()) {
+                        // the projection may not read all of its inputs, so they are not loaded to check their encoding,
+                        // and the last dictionary is kept together with its output for the next page
+                        dictionaryProcessingProjectionWork = null;
+                        return;
+                    }
+                }
+                for (int channel = 0; channel < blocks.length; channel++) {
+                    blocks[channel] = blocks[channel].getLoadedBlock();
+                }
+            }
 
-            Optional<Block> dictionary = Optional.empty();
-            if (block instanceof RunLengthEncodedBlock) {
-                dictionary = Optional.of(((RunLengthEncodedBlock) block).getValue());
+            // a single block may vary per position, and the other ones must be run length encoded
+            for (Block block : blocks) {
+                if (block instanceof DictionaryBlock) {
+                    if (dictionarySourceBlock instanceof DictionaryBlock) {
+                        dictionarySourceBlock = null;
+                        break;
+                    }
+                    dictionarySourceBlock = block;
+                }
+                else if (block instanceof RunLengthEncodedBlock) {
+                    if (dictionarySourceBlock == null) {
+                        dictionarySourceBlock = block;
+                    }
+                }
+                else {
+                    dictionarySourceBlock = null;
+                    break;
+                }
             }
-            else if (block instanceof DictionaryBlock) {
-                dictionary = Optional.of(((DictionaryBlock) block).getDictionary());
+
+            Optional<Block[]> dictionary = Optional.empty();
+            if (dictionarySourceBlock != null) {
+                Block[] dictionaryBlocks = new Block[blocks.length];
+                for (int channel = 0; channel < blocks.length; channel++) {
+                    if (blocks[channel] instanceof DictionaryBlock) {
+                        dictionaryBlocks[channel] = ((DictionaryBlock) blocks[channel]).getDictionary();
+                    }
+                    else {
+                        dictionaryBlocks[channel] = ((RunLengthEncodedBlock) blocks[channel]).getValue();
+                    }
+                }
+                dictionary = Optional.of(dictionaryBlocks);
             }
 
             // Try use dictionary processing first; if it fails, fall back to the generic case
             dictionaryProcessingProjectionWork = createDictionaryBlockProjection(dictionary);
         }
 
-        private Work<Block> createDictionaryBlockProjection(Optional<Block> dictionary)
+        private Work<Block> createDictionaryBlockProjection(Optional<Block[]> dictionary)
         {
             if (dictionary.isEmpty()) {
                 lastOutputDictionary = Optional.empty();
                 return null;
             }
 
-            if (lastInputDictionary == dictionary.get()) {
+            if (isLastInputDictionary(dictionary.get())) {
                 // we must have fallen back last time if lastOutputDictionary is null
                 return lastOutputDictionary.map(CompletedWork::new).orElse(null);
             }
 
+            int dictionarySize = dictionarySourceBlock instanceof DictionaryBlock ? ((DictionaryBlock) dictionarySourceBlock).getDictionary().getPositionCount() : 1;
+
             // Process dictionary if:
             //   there is only one entry in the dictionary
             //   this is the first block
             //   the last dictionary was used for more positions than were in the dictionary
-            boolean shouldProcessDictionary = dictionary.get().getPositionCount() == 1 || lastInputDictionary == null || lastDictionaryUsageCount >= lastInputDictionary.getPositionCount();
+            boolean shouldProcessDictionary = dictionarySize == 1 || lastInputDictionary == null || lastDictionaryUsageCount >= lastInputDictionarySize;
 
             // record the usage count regardless of dictionary processing choice, so we have stats for next time
             lastDictionaryUsageCount = 0;
             lastInputDictionary = dictionary.get();
+            lastInputDictionarySize = dictionarySize;
             lastOutputDictionary = Optional.empty();
 
             if (shouldProcessDictionary) {
-                return projection.project(session, yieldSignal, new Page(lastInputDictionary), SelectedPositions.positionsRange(0, lastInputDictionary.getPositionCount()));
+                Block[] dictionaryBlocks = new Block[lastInputDictionary.length];
+                for (int channel = 0; channel < dictionaryBlocks.length; channel++) {
+                    Block block = lastInputDictionary[channel];
+                    // repeat the values of the run length encoded blocks for each dictionary entry
+                    dictionaryBlocks[channel] = block.getPositionCount() == dictionarySize ? block : new RunLengthEncodedBlock(block, dictionarySize);
+                }
+                return projection.project(session, yieldSignal, new Page(dictionarySize, dictionaryBlocks), SelectedPositions.positionsRange(0, dictionarySize));
             }
             return null;
         }
     }
 
+    private boolean isLastInputDictionary(Block[] dictionary)
+    {
+        if (lastInputDictionary == null || lastInputDictionary.length != dictionary.length) {
+            return false;
+        }
+        for (int channel = 0; channel < dictionary.length; channel++) {
+            if (lastInputDictionary[channel] != dictionary[channel]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static int[] filterDictionaryIds(DictionaryBlock dictionaryBlock, SelectedPositions selectedPositions)
     {
         int[] outputIds = new int[selectedPositions.size()];
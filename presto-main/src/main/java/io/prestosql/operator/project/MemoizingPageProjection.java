@@ -0,0 +1,290 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.slice.XxHash64;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+import org.openjdk.jol.info.ClassLayout;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.Arrays;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Projection caching the results of an expensive deterministic projection of a single variable
+ * width channel, such as {@code url_extract_host(url)}, for the values recently seen by the driver.
+ * Only the positions with values missing from the cache are evaluated by the delegate projection,
+ * so columns with few distinct values that are not dictionary encoded are evaluated once per value.
+ * <p>
+ * The cache is an open addressed hash table of at most {@link #CACHE_CAPACITY} values, which is
+ * cleared once full. Memoization is disabled for the rest of the driver when the hit rate is low.
+ * The memory retained by the cache is reported by {@link PageProcessor}.
+ */
+@NotThreadSafe
+public class MemoizingPageProjection
+        implements PageProjection
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(MemoizingPageProjection.class).instanceSize();
+
+    @VisibleForTesting
+    static final int CACHE_CAPACITY = 1024;
+    @VisibleForTesting
+    static final int MIN_LOOKUPS_FOR_HIT_RATE = 16 * 1024;
+    private static final double MIN_HIT_RATE = 0.25;
+    // longer values are rarely repeated, and would make the cache retain too much memory
+    private static final int MAX_KEY_LENGTH = 256;
+    private static final long MAX_RESULTS_RETAINED_BYTES = 1024 * 1024;
+
+    // the slot of a selected position that is evaluated without caching its result
+    private static final int NOT_CACHED = -1;
+
+    private final PageProjection delegate;
+    private final Type type;
+
+    private final Slice[] keys = new Slice[CACHE_CAPACITY * 2];
+    private final long[] keyHashes = new long[CACHE_CAPACITY * 2];
+    private final int[] resultPositions = new int[CACHE_CAPACITY * 2];
+    private final int mask = CACHE_CAPACITY * 2 - 1;
+    private int entryCount;
+    private long keysRetainedSizeInBytes;
+    private BlockBuilder results;
+
+    private boolean memoizationEnabled = true;
+    private volatile long lookups;
+    private volatile long hits;
+
+    public MemoizingPageProjection(PageProjection delegate)
+    {
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        checkArgument(delegate.getInputChannels().size() == 1, "delegate must have a single input channel");
+        checkArgument(delegate.isDeterministic(), "delegate must be deterministic");
+        this.type = delegate.getType();
+        this.results = type.createBlockBuilder(null, CACHE_CAPACITY);
+    }
+
+    @Override
+    public Type getType()
+    {
+        return type;
+    }
+
+    @Override
+    public boolean isDeterministic()
+    {
+        return true;
+    }
+
+    @Override
+    public InputChannels getInputChannels()
+    {
+        return delegate.getInputChannels();
+    }
+
+    @Override
+    public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+    {
+        if (!memoizationEnabled) {
+            return delegate.project(session, yieldSignal, page, selectedPositions);
+        }
+        return new MemoizingWork(session, yieldSignal, page, selectedPositions);
+    }
+
+    public long getLookups()
+    {
+        return lookups;
+    }
+
+    public long getHits()
+    {
+        return hits;
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(keys) + sizeOf(keyHashes) + sizeOf(resultPositions) + keysRetainedSizeInBytes + results.getRetainedSizeInBytes();
+    }
+
+    @VisibleForTesting
+    boolean isMemoizationEnabled()
+    {
+        return memoizationEnabled;
+    }
+
+    private int findSlot(Slice value, long hash)
+    {
+        int slot = (int) hash & mask;
+        while (keys[slot] != null && (keyHashes[slot] != hash || !keys[slot].equals(value))) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void clearCache()
+    {
+        Arrays.fill(keys, null);
+        entryCount = 0;
+        keysRetainedSizeInBytes = 0;
+        results = results.newBlockBuilderLike(null);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("delegate", delegate)
+                .add("memoizationEnabled", memoizationEnabled)
+                .toString();
+    }
+
+    private class MemoizingWork
+            implements Work<Block>
+    {
+        private final ConnectorSession session;
+        private final DriverYieldSignal yieldSignal;
+        private final Page page;
+        private final SelectedPositions selectedPositions;
+
+        // for each selected position, the cache slot holding its result, or the slot to store its
+        // result into once evaluated, encoded as -(slot + 2), or NOT_CACHED if it is evaluated only
+        private int[] slots;
+        private Work<Block> delegateWork;
+        private Block result;
+
+        public MemoizingWork(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+        {
+            this.session = session;
+            this.yieldSignal = requireNonNull(yieldSignal, "yieldSignal is null");
+            this.page = requireNonNull(page, "page is null");
+            this.selectedPositions = requireNonNull(selectedPositions, "selectedPositions is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(result == null, "result has been generated");
+            try {
+                if (delegateWork == null) {
+                    delegateWork = delegate.project(session, yieldSignal, page, lookup());
+                }
+                if (!delegateWork.process()) {
+                    return false;
+                }
+                result = buildResult(delegateWork.getResult());
+            }
+            catch (RuntimeException e) {
+                // the values looked up by this page have no results
+                clearCache();
+                throw e;
+            }
+
+            if (lookups >= MIN_LOOKUPS_FOR_HIT_RATE && hits < lookups * MIN_HIT_RATE) {
+                memoizationEnabled = false;
+                clearCache();
+            }
+            return true;
+        }
+
+        @Override
+        public Block getResult()
+        {
+            checkState(result != null, "result has not been generated");
+            return result;
+        }
+
+        /**
+         * Finds the cached values, reserving cache slots for the new values, and returns the
+         * positions to evaluate.
+         */
+        private SelectedPositions lookup()
+        {
+            if (entryCount >= CACHE_CAPACITY || results.getRetainedSizeInBytes() > MAX_RESULTS_RETAINED_BYTES) {
+                clearCache();
+            }
+
+            Block block = page.getBlock(0);
+            int positionCount = selectedPositions.size();
+            slots = new int[positionCount];
+            int[] evaluatedPositions = new int[positionCount];
+            int evaluatedCount = 0;
+            long pageHits = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = selectedPositions.isList() ? selectedPositions.getPositions()[selectedPositions.getOffset() + i] : selectedPositions.getOffset() + i;
+                int slot = NOT_CACHED;
+                if (!block.isNull(position) && block.getSliceLength(position) <= MAX_KEY_LENGTH) {
+                    Slice value = block.getSlice(position, 0, block.getSliceLength(position));
+                    long hash = XxHash64.hash(value);
+                    slot = findSlot(value, hash);
+                    if (keys[slot] != null) {
+                        // the result is cached, or is evaluated for a preceding position of the page
+                        slots[i] = slot;
+                        pageHits++;
+                        continue;
+                    }
+                    if (entryCount < CACHE_CAPACITY) {
+                        keys[slot] = Slices.copyOf(value);
+                        keysRetainedSizeInBytes += keys[slot].getRetainedSize();
+                        keyHashes[slot] = hash;
+                        entryCount++;
+                        slot = -(slot + 2);
+                    }
+                    else {
+                        slot = NOT_CACHED;
+                    }
+                }
+                slots[i] = slot;
+                evaluatedPositions[evaluatedCount] = position;
+                evaluatedCount++;
+            }
+
+            lookups += positionCount;
+            hits += pageHits;
+            return positionsList(evaluatedPositions, 0, evaluatedCount);
+        }
+
+        private Block buildResult(Block evaluated)
+        {
+            BlockBuilder output = type.createBlockBuilder(null, slots.length);
+            int evaluatedIndex = 0;
+            for (int slot : slots) {
+                if (slot >= 0) {
+                    type.appendTo(results, resultPositions[slot], output);
+                    continue;
+                }
+                if (slot != NOT_CACHED) {
+                    resultPositions[-(slot + 2)] = results.getPositionCount();
+                    type.appendTo(evaluated, evaluatedIndex, results);
+                }
+                type.appendTo(evaluated, evaluatedIndex, output);
+                evaluatedIndex++;
+            }
+            return output.build();
+        }
+    }
+}
@@ -14,10 +14,12 @@
 package io.prestosql.operator.project;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Iterables;
 import io.airlift.slice.SizeOf;
 import io.prestosql.array.ReferenceCountMap;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.MemoizedCallsInfo;
 import io.prestosql.operator.Work;
 import io.prestosql.operator.WorkProcessor;
 import io.prestosql.operator.WorkProcessor.ProcessState;
@@ -30,6 +32,7 @@ import io.prestosql.sql.gen.ExpressionProfiler;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -37,6 +40,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
@@ -46,6 +51,7 @@ import static io.prestosql.operator.PageUtils.recordMaterializedBytes;
 import static io.prestosql.operator.WorkProcessor.ProcessState.finished;
 import static io.prestosql.operator.WorkProcessor.ProcessState.ofResult;
 import static io.prestosql.operator.WorkProcessor.ProcessState.yield;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
 import static io.prestosql.operator.project.SelectedPositions.positionsRange;
 import static io.prestosql.spi.block.DictionaryId.randomDictionaryId;
 import static java.util.Objects.requireNonNull;
@@ -56,11 +62,16 @@ public class PageProcessor
     public static final int MAX_BATCH_SIZE = 8 * 1024;
     static final int MAX_PAGE_SIZE_IN_BYTES = 4 * 1024 * 1024;
     static final int MIN_PAGE_SIZE_IN_BYTES = 1024 * 1024;
+    private static final DriverYieldSignal NON_YIELDING_SIGNAL = new DriverYieldSignal();
 
     private final ExpressionProfiler expressionProfiler;
     private final DictionarySourceIdFunction dictionarySourceIdFunction = new DictionarySourceIdFunction();
     private final Optional<PageFilter> filter;
     private final List<PageProjection> projections;
+    private final int inputChannelCount;
+    private final List<PageProjection> filterSubExpressions;
+    private final List<PageProjection> projectionSubExpressions;
+    private final List<MemoizingPageProjection> memoizingProjections;
 
     private int projectBatchSize;
 
@@ -72,6 +83,22 @@ public class PageProcessor
 
     @VisibleForTesting
     public PageProcessor(Optional<PageFilter> filter, List<? extends PageProjection> projections, OptionalInt initialBatchSize, ExpressionProfiler expressionProfiler)
+    {
+        this(filter, projections, initialBatchSize, expressionProfiler, CommonSubExpressions.none());
+    }
+
+    public PageProcessor(Optional<PageFilter> filter, List<? extends PageProjection> projections, OptionalInt initialBatchSize, CommonSubExpressions commonSubExpressions)
+    {
+        this(filter, projections, initialBatchSize, new ExpressionProfiler(), commonSubExpressions);
+    }
+
+    @VisibleForTesting
+    public PageProcessor(
+            Optional<PageFilter> filter,
+            List<? extends PageProjection> projections,
+            OptionalInt initialBatchSize,
+            ExpressionProfiler expressionProfiler,
+            CommonSubExpressions commonSubExpressions)
     {
         this.filter = requireNonNull(filter, "filter is null")
                 .map(pageFilter -> {
@@ -81,12 +108,20 @@ public class PageProcessor
                     return pageFilter;
                 });
         this.projections = requireNonNull(projections, "projections is null").stream()
-                .map(projection -> {
-                    if (projection.getInputChannels().size() == 1 && projection.isDeterministic()) {
-                        return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction, projection instanceof InputPageProjection);
-                    }
-                    return projection;
-                })
+                .map(this::toDictionaryAwareProjection)
+                .collect(toImmutableList());
+        requireNonNull(commonSubExpressions, "commonSubExpressions is null");
+        this.memoizingProjections = Stream.<List<? extends PageProjection>>of(projections, commonSubExpressions.getFilterSubExpressions(), commonSubExpressions.getProjectionSubExpressions())
+                .flatMap(List::stream)
+                .filter(MemoizingPageProjection.class::isInstance)
+                .map(MemoizingPageProjection.class::cast)
+                .collect(toImmutableList());
+        this.inputChannelCount = commonSubExpressions.getInputChannelCount();
+        this.filterSubExpressions = commonSubExpressions.getFilterSubExpressions().stream()
+                .map(this::toDictionaryAwareProjection)
+                .collect(toImmutableList());
+        this.projectionSubExpressions = commonSubExpressions.getProjectionSubExpressions().stream()
+                .map(this::toDictionaryAwareProjection)
                 .collect(toImmutableList());
         this.projectBatchSize = initialBatchSize.orElse(1);
         this.expressionProfiler = requireNonNull(expressionProfiler, "expressionProfiler is null");
@@ -97,6 +132,14 @@ public class PageProcessor
         this(filter, projections, OptionalInt.of(1));
     }
 
+    private PageProjection toDictionaryAwareProjection(PageProjection projection)
+    {
+        if (projection.getInputChannels().size() >= 1 && projection.isDeterministic()) {
+            return new DictionaryAwarePageProjection(projection, dictionarySourceIdFunction, projection instanceof InputPageProjection);
+        }
+        return projection;
+    }
+
     public Iterator<Optional<Page>> process(ConnectorSession session, DriverYieldSignal yieldSignal, LocalMemoryContext memoryContext, Page page)
     {
         return process(session, yieldSignal, memoryContext, page, false);
@@ -117,6 +160,14 @@ public class PageProcessor
             return WorkProcessor.of();
         }
 
+        if (!filterSubExpressions.isEmpty() || !projectionSubExpressions.isEmpty()) {
+            // the subexpressions are appended after the channels used by the expressions
+            if (page.getChannelCount() > inputChannelCount) {
+                page = page.getColumns(IntStream.range(0, inputChannelCount).toArray());
+            }
+            page = appendFilterSubExpressions(session, page);
+        }
+
         if (filter.isPresent()) {
             SelectedPositions selectedPositions = filter.get().filter(session, filter.get().getInputChannels().getInputChannels(page));
             if (selectedPositions.isEmpty()) {
@@ -136,6 +187,20 @@ public class PageProcessor
         return WorkProcessor.create(new ProjectSelectedPositions(session, yieldSignal, memoryContext, page, positionsRange(0, page.getPositionCount()), avoidPageMaterialization));
     }
 
+    /**
+     * Evaluates the subexpressions used by the filter for all positions of the page, like the filter
+     * itself, and appends their values to the page.
+     */
+    private Page appendFilterSubExpressions(ConnectorSession session, Page page)
+    {
+        for (PageProjection subExpression : filterSubExpressions) {
+            Work<Block> work = subExpression.project(session, NON_YIELDING_SIGNAL, subExpression.getInputChannels().getInputChannels(page), positionsRange(0, page.getPositionCount()));
+            verify(work.process(), "subexpression evaluation yielded without a yield signal");
+            page = page.appendColumn(work.getResult());
+        }
+        return page;
+    }
+
     private class ProjectSelectedPositions
             implements WorkProcessor.Process<Page>
     {
@@ -145,6 +210,7 @@ public class PageProcessor
         private final boolean avoidPageMaterialization;
 
         private Page page;
+        private Block[] previouslyComputedSubExpressions;
         private Block[] previouslyComputedResults;
         private SelectedPositions selectedPositions;
         private long retainedSizeInBytes;
@@ -152,6 +218,7 @@ public class PageProcessor
         // remember if we need to re-use the same batch size if we yield last time
         private boolean lastComputeYielded;
         private int lastComputeBatchSize;
+        private Work<Block> subExpressionWork;
         private Work<Block> pageProjectWork;
 
         private int outputPagePositions = -1;
@@ -173,6 +240,7 @@ public class PageProcessor
             this.memoryContext = memoryContext;
             this.avoidPageMaterialization = avoidPageMaterialization;
             this.selectedPositions = selectedPositions;
+            this.previouslyComputedSubExpressions = new Block[projectionSubExpressions.size()];
             this.previouslyComputedResults = new Block[projections.size()];
         }
 
@@ -235,16 +303,10 @@ public class PageProcessor
                     recordMaterializedBytes(resultPage, sizeInBytes -> outputPageSizeInBytes += sizeInBytes);
                 }
 
-                // remove batch from selectedPositions and previouslyComputedResults
+                // remove batch from selectedPositions, previouslyComputedSubExpressions and previouslyComputedResults
                 selectedPositions = selectedPositions.subRange(batchSize, selectedPositions.size());
-                for (int i = 0; i < previouslyComputedResults.length; i++) {
-                    if (previouslyComputedResults[i] != null && previouslyComputedResults[i].getPositionCount() > batchSize) {
-                        previouslyComputedResults[i] = previouslyComputedResults[i].getRegion(batchSize, previouslyComputedResults[i].getPositionCount() - batchSize);
-                    }
-                    else {
-                        previouslyComputedResults[i] = null;
-                    }
-                }
+                removeBatch(previouslyComputedSubExpressions, batchSize);
+                removeBatch(previouslyComputedResults, batchSize);
 
                 if (!selectedPositions.isEmpty()) {
                     // there are still some positions to process therefore we need to retain page and account its memory
@@ -252,16 +314,28 @@ public class PageProcessor
                 }
                 else {
                     page = null;
-                    for (int i = 0; i < previouslyComputedResults.length; i++) {
-                        previouslyComputedResults[i] = null;
-                    }
-                    memoryContext.setBytes(0);
+                    Arrays.fill(previouslyComputedSubExpressions, null);
+                    Arrays.fill(previouslyComputedResults, null);
+                    // the memoized results are retained across pages
+                    memoryContext.setBytes(getMemoizedRetainedSizeInBytes());
                 }
 
                 return ofResult(resultPage);
             }
         }
 
+        private void removeBatch(Block[] previouslyComputedBlocks, int batchSize)
+        {
+            for (int i = 0; i < previouslyComputedBlocks.length; i++) {
+                if (previouslyComputedBlocks[i] != null && previouslyComputedBlocks[i].getPositionCount() > batchSize) {
+                    previouslyComputedBlocks[i] = previouslyComputedBlocks[i].getRegion(batchSize, previouslyComputedBlocks[i].getPositionCount() - batchSize);
+                }
+                else {
+                    previouslyComputedBlocks[i] = null;
+                }
+            }
+        }
+
         private void updateBatchSize(int positionCount, long pageSize)
         {
             // if we produced a large page or if the expression is expensive, halve the batch size for the next call
@@ -291,7 +365,7 @@ public class PageProcessor
                     });
                 }
             }
-            for (Block previouslyComputedResult : previouslyComputedResults) {
+            for (Block previouslyComputedResult : Iterables.concat(Arrays.asList(previouslyComputedSubExpressions), Arrays.asList(previouslyComputedResults))) {
                 if (previouslyComputedResult != null) {
                     previouslyComputedResult.retainedBytesForEachPart((object, size) -> {
                         if (referenceCountMap.incrementAndGet(object) == 1) {
@@ -301,6 +375,8 @@ public class PageProcessor
                 }
             }
 
+            retainedSizeInBytes += getMemoizedRetainedSizeInBytes();
+
             memoryContext.setBytes(retainedSizeInBytes);
         }
 
@@ -310,6 +386,46 @@ public class PageProcessor
 
             int pageSize = 0;
             SelectedPositions positionsBatch = selectedPositions.subRange(0, batchSize);
+            Page batchPage = page;
+            SelectedPositions pagePositions = positionsBatch;
+            if (!projectionSubExpressions.isEmpty()) {
+                // the subexpressions are evaluated for the positions of the batch only, and appended to the region of the page spanned by the batch
+                int regionOffset = positionsBatch.isList() ? positionsBatch.getPositions()[positionsBatch.getOffset()] : positionsBatch.getOffset();
+                int regionLength = positionsBatch.isList() ? positionsBatch.getPositions()[positionsBatch.getOffset() + batchSize - 1] - regionOffset + 1 : batchSize;
+                batchPage = page.getRegion(regionOffset, regionLength);
+                pagePositions = positionsBatch.isList() ? positionsList(getRegionPositions(positionsBatch, regionOffset), 0, batchSize) : positionsRange(0, batchSize);
+                int[] regionPositionIds = positionsBatch.isList() ? getRegionPositionIds(pagePositions, regionLength) : null;
+
+                for (int i = 0; i < projectionSubExpressions.size(); i++) {
+                    if (yieldSignal.isSet()) {
+                        return ProcessBatchResult.processBatchYield();
+                    }
+
+                    Block block;
+                    PageProjection subExpression = projectionSubExpressions.get(i);
+                    if (previouslyComputedSubExpressions[i] != null && previouslyComputedSubExpressions[i].getPositionCount() >= batchSize) {
+                        block = previouslyComputedSubExpressions[i].getRegion(0, batchSize);
+                    }
+                    else {
+                        if (subExpressionWork == null) {
+                            subExpressionWork = subExpression.project(session, yieldSignal, subExpression.getInputChannels().getInputChannels(batchPage), pagePositions);
+                        }
+                        if (!subExpressionWork.process()) {
+                            return ProcessBatchResult.processBatchYield();
+                        }
+                        previouslyComputedSubExpressions[i] = subExpressionWork.getResult();
+                        subExpressionWork = null;
+                        block = previouslyComputedSubExpressions[i];
+                    }
+
+                    if (regionPositionIds != null) {
+                        // map the positions of the region to the values computed for the positions of the batch
+                        block = new DictionaryBlock(regionLength, block, regionPositionIds);
+                    }
+                    batchPage = batchPage.appendColumn(block);
+                }
+            }
+
             for (int i = 0; i < projections.size(); i++) {
                 if (yieldSignal.isSet()) {
                     return ProcessBatchResult.processBatchYield();
@@ -327,7 +443,7 @@ public class PageProcessor
                 else {
                     if (pageProjectWork == null) {
                         expressionProfiler.start();
-                        pageProjectWork = projection.project(session, yieldSignal, projection.getInputChannels().getInputChannels(page), positionsBatch);
+                        pageProjectWork = projection.project(session, yieldSignal, projection.getInputChannels().getInputChannels(batchPage), pagePositions);
                         expressionProfiler.stop(positionsBatch.size());
                     }
                     if (!pageProjectWork.process()) {
@@ -347,12 +463,57 @@ public class PageProcessor
         }
     }
 
+    private static int[] getRegionPositions(SelectedPositions selectedPositions, int regionOffset)
+    {
+        int[] positions = new int[selectedPositions.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = selectedPositions.getPositions()[selectedPositions.getOffset() + i] - regionOffset;
+        }
+        return positions;
+    }
+
+    private static int[] getRegionPositionIds(SelectedPositions selectedPositions, int regionLength)
+    {
+        // positions that are not selected reference the first value
+        int[] ids = new int[regionLength];
+        for (int i = 0; i < selectedPositions.size(); i++) {
+            ids[selectedPositions.getPositions()[selectedPositions.getOffset() + i]] = i;
+        }
+        return ids;
+    }
+
     @VisibleForTesting
     public List<PageProjection> getProjections()
     {
         return projections;
     }
 
+    /**
+     * Returns the lookups into, and hits in, the caches of the memoized projections, if there are any.
+     */
+    public Optional<MemoizedCallsInfo> getMemoizedCallsInfo()
+    {
+        if (memoizingProjections.isEmpty()) {
+            return Optional.empty();
+        }
+        long lookups = 0;
+        long hits = 0;
+        for (MemoizingPageProjection projection : memoizingProjections) {
+            lookups += projection.getLookups();
+            hits += projection.getHits();
+        }
+        return Optional.of(new MemoizedCallsInfo(lookups, hits));
+    }
+
+    private long getMemoizedRetainedSizeInBytes()
+    {
+        long retainedSizeInBytes = 0;
+        for (MemoizingPageProjection projection : memoizingProjections) {
+            retainedSizeInBytes += projection.getRetainedSizeInBytes();
+        }
+        return retainedSizeInBytes;
+    }
+
     @NotThreadSafe
     private static class DictionarySourceIdFunction
             implements Function<DictionaryBlock, DictionaryId>
@@ -0,0 +1,429 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.metadata.BoundSignature;
+import io.prestosql.operator.project.BatchFunction;
+import io.prestosql.operator.project.SelectedPositions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.IntArrayBlock;
+import io.prestosql.spi.block.LongArrayBlock;
+import io.prestosql.spi.block.VariableWidthBlock;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.InputReferenceExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.type.BigintOperators;
+import org.joda.time.DateTimeField;
+import org.joda.time.chrono.ISOChronology;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongBinaryOperator;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.airlift.slice.SliceUtf8.toLowerCase;
+import static io.prestosql.metadata.Signature.mangleOperatorName;
+import static io.prestosql.operator.scalar.DateTimeFunctions.getDateField;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.function.OperatorType.SUBTRACT;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Block at a time implementations of frequently projected scalar functions, used in place of
+ * the generated projections when all the arguments of the call are input channels or non-null
+ * constants. The constant arguments are decoded once, and the results are written directly into
+ * the arrays of the output block instead of through a block builder.
+ */
+public final class BatchScalarFunctions
+{
+    private static final ISOChronology UTC_CHRONOLOGY = ISOChronology.getInstanceUTC();
+
+    private BatchScalarFunctions() {}
+
+    /**
+     * Returns the batch implementation of a call, which must have its input channels rewritten
+     * to input parameters, as the channels of the page passed to the implementation.
+     */
+    public static Optional<BatchFunction> getBatchFunction(RowExpression expression)
+    {
+        if (!(expression instanceof CallExpression)) {
+            return Optional.empty();
+        }
+        CallExpression call = (CallExpression) expression;
+        List<RowExpression> arguments = call.getArguments();
+        if (arguments.stream().noneMatch(InputReferenceExpression.class::isInstance) ||
+                !arguments.stream().allMatch(argument -> argument instanceof InputReferenceExpression || isNonNullConstant(argument))) {
+            return Optional.empty();
+        }
+
+        BoundSignature signature = call.getResolvedFunction().getSignature();
+        List<Type> argumentTypes = signature.getArgumentTypes();
+        switch (signature.getName()) {
+            case "lower":
+                if (argumentTypes.get(0) instanceof VarcharType) {
+                    return Optional.of(new Lower(getChannel(arguments.get(0))));
+                }
+                return Optional.empty();
+            case "substr":
+            case "substring":
+                if (argumentTypes.get(0) instanceof VarcharType && arguments.get(0) instanceof InputReferenceExpression &&
+                        arguments.stream().skip(1).allMatch(ConstantExpression.class::isInstance)) {
+                    long start = (long) getConstant(arguments.get(1));
+                    if (arguments.size() == 2) {
+                        return Optional.of(new Substring(getChannel(arguments.get(0)), start, Optional.empty()));
+                    }
+                    return Optional.of(new Substring(getChannel(arguments.get(0)), start, Optional.of((long) getConstant(arguments.get(2)))));
+                }
+                return Optional.empty();
+            case "date_trunc":
+                if (argumentTypes.size() == 2 && argumentTypes.get(0) instanceof VarcharType && argumentTypes.get(1).equals(DATE) &&
+                        arguments.get(0) instanceof ConstantExpression) {
+                    return Optional.of(new DateTrunc((Slice) getConstant(arguments.get(0)), getChannel(arguments.get(1))));
+                }
+                return Optional.empty();
+        }
+
+        if (argumentTypes.equals(ImmutableList.of(BIGINT, BIGINT)) && signature.getReturnType().equals(BIGINT)) {
+            if (signature.getName().equals(mangleOperatorName(ADD))) {
+                return Optional.of(new BigintArithmetic(ADD, BigintOperators::add, arguments.get(0), arguments.get(1)));
+            }
+            if (signature.getName().equals(mangleOperatorName(SUBTRACT))) {
+                return Optional.of(new BigintArithmetic(SUBTRACT, BigintOperators::subtract, arguments.get(0), arguments.get(1)));
+            }
+            if (signature.getName().equals(mangleOperatorName(MULTIPLY))) {
+                return Optional.of(new BigintArithmetic(MULTIPLY, BigintOperators::multiply, arguments.get(0), arguments.get(1)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isNonNullConstant(RowExpression expression)
+    {
+        return expression instanceof ConstantExpression && ((ConstantExpression) expression).getValue() != null;
+    }
+
+    private static int getChannel(RowExpression expression)
+    {
+        return ((InputReferenceExpression) expression).getField();
+    }
+
+    private static Object getConstant(RowExpression expression)
+    {
+        return ((ConstantExpression) expression).getValue();
+    }
+
+    private static int getPosition(SelectedPositions selectedPositions, int index)
+    {
+        if (selectedPositions.isList()) {
+            return selectedPositions.getPositions()[selectedPositions.getOffset() + index];
+        }
+        return selectedPositions.getOffset() + index;
+    }
+
+    private static Slice getSlice(Block block, int position)
+    {
+        return block.getSlice(position, 0, block.getSliceLength(position));
+    }
+
+    private static final class BigintArithmetic
+            implements BatchFunction
+    {
+        private final OperatorType operatorType;
+        private final LongBinaryOperator operator;
+        // the channel of each argument, or -1 for a constant argument
+        private final int leftChannel;
+        private final long leftConstant;
+        private final int rightChannel;
+        private final long rightConstant;
+
+        public BigintArithmetic(OperatorType operatorType, LongBinaryOperator operator, RowExpression left, RowExpression right)
+        {
+            this.operatorType = requireNonNull(operatorType, "operatorType is null");
+            this.operator = requireNonNull(operator, "operator is null");
+            this.leftChannel = left instanceof InputReferenceExpression ? getChannel(left) : -1;
+            this.leftConstant = left instanceof ConstantExpression ? (long) getConstant(left) : 0;
+            this.rightChannel = right instanceof InputReferenceExpression ? getChannel(right) : -1;
+            this.rightConstant = right instanceof ConstantExpression ? (long) getConstant(right) : 0;
+        }
+
+        @Override
+        public Block evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Block left = leftChannel < 0 ? null : page.getBlock(leftChannel);
+            Block right = rightChannel < 0 ? null : page.getBlock(rightChannel);
+
+            int positionCount = selectedPositions.size();
+            long[] values = new long[positionCount];
+            boolean[] valueIsNull = null;
+            for (int i = 0; i < positionCount; i++) {
+                int position = getPosition(selectedPositions, i);
+                if ((left != null && left.isNull(position)) || (right != null && right.isNull(position))) {
+                    if (valueIsNull == null) {
+                        valueIsNull = new boolean[positionCount];
+                    }
+                    valueIsNull[i] = true;
+                    continue;
+                }
+                long leftValue = left == null ? leftConstant : BIGINT.getLong(left, position);
+                long rightValue = right == null ? rightConstant : BIGINT.getLong(right, position);
+                values[i] = operator.applyAsLong(leftValue, rightValue);
+            }
+            return new LongArrayBlock(positionCount, Optional.ofNullable(valueIsNull), values);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("operatorType", operatorType)
+                    .add("leftChannel", leftChannel)
+                    .add("rightChannel", rightChannel)
+                    .toString();
+        }
+    }
+
+    private static final class DateTrunc
+            implements BatchFunction
+    {
+        private final Slice unit;
+        private final int channel;
+
+        public DateTrunc(Slice unit, int channel)
+        {
+            this.unit = requireNonNull(unit, "unit is null");
+            this.channel = channel;
+        }
+
+        @Override
+        public Block evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Block block = page.getBlock(channel);
+
+            int positionCount = selectedPositions.size();
+            int[] values = new int[positionCount];
+            boolean[] valueIsNull = null;
+            // the unit is only resolved for a non-null value, as an invalid unit fails on such values only
+            DateTimeField field = null;
+            // the values of a column are often clustered, so consecutive dates often have the same result
+            long previousDate = 0;
+            int previousResult = 0;
+            for (int i = 0; i < positionCount; i++) {
+                int position = getPosition(selectedPositions, i);
+                if (block.isNull(position)) {
+                    if (valueIsNull == null) {
+                        valueIsNull = new boolean[positionCount];
+                    }
+                    valueIsNull[i] = true;
+                    continue;
+                }
+                long date = DATE.getLong(block, position);
+                if (field == null || date != previousDate) {
+                    if (field == null) {
+                        field = getDateField(UTC_CHRONOLOGY, unit);
+                    }
+                    previousDate = date;
+                    previousResult = toIntExact(MILLISECONDS.toDays(field.roundFloor(DAYS.toMillis(date))));
+                }
+                values[i] = previousResult;
+            }
+            return new IntArrayBlock(positionCount, Optional.ofNullable(valueIsNull), values);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("unit", unit.toStringUtf8())
+                    .add("channel", channel)
+                    .toString();
+        }
+    }
+
+    private static final class Lower
+            implements BatchFunction
+    {
+        private final int channel;
+
+        public Lower(int channel)
+        {
+            this.channel = channel;
+        }
+
+        @Override
+        public Block evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Block block = page.getBlock(channel);
+
+            VarcharOutput output = new VarcharOutput(selectedPositions.size());
+            for (int i = 0; i < selectedPositions.size(); i++) {
+                int position = getPosition(selectedPositions, i);
+                if (block.isNull(position)) {
+                    output.appendNull();
+                }
+                else {
+                    output.appendLowerCase(getSlice(block, position));
+                }
+            }
+            return output.build();
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .toString();
+        }
+    }
+
+    private static final class Substring
+            implements BatchFunction
+    {
+        private final int channel;
+        private final long start;
+        private final Optional<Long> length;
+
+        public Substring(int channel, long start, Optional<Long> length)
+        {
+            this.channel = channel;
+            this.start = start;
+            this.length = requireNonNull(length, "length is null");
+        }
+
+        @Override
+        public Block evaluate(Page page, SelectedPositions selectedPositions)
+        {
+            Block block = page.getBlock(channel);
+
+            VarcharOutput output = new VarcharOutput(selectedPositions.size());
+            boolean hasLength = length.isPresent();
+            long lengthValue = length.orElse(0L);
+            for (int i = 0; i < selectedPositions.size(); i++) {
+                int position = getPosition(selectedPositions, i);
+                if (block.isNull(position)) {
+                    output.appendNull();
+                }
+                else if (hasLength) {
+                    output.append(StringFunctions.substring(getSlice(block, position), start, lengthValue));
+                }
+                else {
+                    output.append(StringFunctions.substring(getSlice(block, position), start));
+                }
+            }
+            return output.build();
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("channel", channel)
+                    .add("start", start)
+                    .add("length", length)
+                    .toString();
+        }
+    }
+
+    /**
+     * Writes the values of a varchar block into a single byte array.
+     */
+    private static final class VarcharOutput
+    {
+        private static final int EXPECTED_BYTES_PER_VALUE = 16;
+
+        private final int positionCount;
+        private final int[] offsets;
+        private boolean[] valueIsNull;
+        private byte[] bytes;
+        private int size;
+        private int position;
+
+        public VarcharOutput(int positionCount)
+        {
+            this.positionCount = positionCount;
+            this.offsets = new int[positionCount + 1];
+            this.bytes = new byte[positionCount * EXPECTED_BYTES_PER_VALUE];
+        }
+
+        public void appendNull()
+        {
+            if (valueIsNull == null) {
+                valueIsNull = new boolean[positionCount];
+            }
+            valueIsNull[position] = true;
+            closeEntry();
+        }
+
+        public void append(Slice value)
+        {
+            ensureCapacity(value.length());
+            value.getBytes(0, bytes, size, value.length());
+            size += value.length();
+            closeEntry();
+        }
+
+        public void appendLowerCase(Slice value)
+        {
+            int length = value.length();
+            ensureCapacity(length);
+            value.getBytes(0, bytes, size, length);
+            for (int i = size; i < size + length; i++) {
+                byte currentByte = bytes[i];
+                if (currentByte < 0) {
+                    // not ASCII, so lower the code points of the value
+                    append(toLowerCase(value));
+                    return;
+                }
+                if (currentByte >= 'A' && currentByte <= 'Z') {
+                    bytes[i] = (byte) (currentByte | 0x20);
+                }
+            }
+            size += length;
+            closeEntry();
+        }
+
+        public Block build()
+        {
+            return new VariableWidthBlock(positionCount, Slices.wrappedBuffer(bytes, 0, size), offsets, Optional.ofNullable(valueIsNull));
+        }
+
+        private void closeEntry()
+        {
+            position++;
+            offsets[position] = size;
+        }
+
+        private void ensureCapacity(int length)
+        {
+            if (size + length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(size + length, bytes.length * 2));
+            }
+        }
+    }
+}
@@ -54,17 +54,7 @@ public final class JoniRegexpFunctions
     @SqlType(StandardTypes.BOOLEAN)
     public static boolean regexpLike(@SqlType("varchar(x)") Slice source, @SqlType(JoniRegexpType.NAME) JoniRegexp pattern)
     {
-        Matcher matcher;
-        int offset;
-        if (source.hasByteArray()) {
-            offset = source.byteArrayOffset();
-            matcher = pattern.regex().matcher(source.byteArray(), offset, offset + source.length());
-        }
-        else {
-            offset = 0;
-            matcher = pattern.matcher(source.getBytes());
-        }
-        return matcher.search(offset, offset + source.length(), Option.DEFAULT) != -1;
+        return pattern.search(source);
     }
 
     private static int getNextStart(Slice source, Matcher matcher)
@@ -23,9 +23,14 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.PrestoException;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static com.fasterxml.jackson.core.JsonFactory.Feature.CANONICALIZE_FIELD_NAMES;
 import static com.fasterxml.jackson.core.JsonToken.END_ARRAY;
@@ -34,6 +39,7 @@ import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
 import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
 import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
 import static com.fasterxml.jackson.core.JsonToken.VALUE_NULL;
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static io.prestosql.util.JsonUtil.createJsonGenerator;
@@ -160,6 +166,11 @@ public final class JsonExtract
         return jsonExtractor;
     }
 
+    public static MultiPathJsonExtractor generateMultiPathExtractor(List<String> paths, boolean scalarValues)
+    {
+        return new MultiPathJsonExtractor(paths, scalarValues);
+    }
+
     public interface JsonExtractor<T>
     {
         /**
@@ -347,6 +358,211 @@ public final class JsonExtract
         }
     }
 
+    /**
+     * Extracts the values of several JSON paths in a single pass over the document. The paths are
+     * merged into a tree of path tokens, so that a nested structure is only parsed once, however
+     * many of the paths go through it. The values are the same as the ones extracted separately
+     * for each path with {@link ScalarValueJsonExtractor} or {@link JsonValueJsonExtractor}.
+     */
+    public static class MultiPathJsonExtractor
+    {
+        private static final JsonExtractor<Slice> SCALAR_VALUE_EXTRACTOR = new ScalarValueJsonExtractor();
+        private static final JsonExtractor<Slice> JSON_VALUE_EXTRACTOR = new JsonValueJsonExtractor();
+
+        private final PathNode root = new PathNode();
+        private final int pathCount;
+        private final int terminalNodeCount;
+        private final boolean scalarValues;
+
+        public MultiPathJsonExtractor(List<String> paths, boolean scalarValues)
+        {
+            requireNonNull(paths, "paths is null");
+            checkArgument(!paths.isEmpty(), "paths is empty");
+            int terminalNodeCount = 0;
+            for (int i = 0; i < paths.size(); i++) {
+                PathNode node = root;
+                for (String token : ImmutableList.copyOf(new JsonPathTokenizer(paths.get(i)))) {
+                    node = node.getOrAddChild(token);
+                }
+                if (node.outputs.isEmpty()) {
+                    terminalNodeCount++;
+                }
+                node.outputs.add(i);
+            }
+            this.pathCount = paths.size();
+            this.terminalNodeCount = terminalNodeCount;
+            this.scalarValues = scalarValues;
+        }
+
+        /**
+         * @return the value of each path, in the order of the paths, with null for the paths that do not match
+         */
+        public Slice[] extract(Slice jsonInput)
+        {
+            requireNonNull(jsonInput, "jsonInput is null");
+            ExtractionState state = new ExtractionState(pathCount, terminalNodeCount);
+            try {
+                try (JsonParser jsonParser = createJsonParser(JSON_FACTORY, jsonInput)) {
+                    if (jsonParser.nextToken() != null) {
+                        extractValue(jsonParser, root, state);
+                    }
+                }
+            }
+            catch (JsonParseException e) {
+                // Keep the values found before the malformed part of the document, like the single path extraction
+                // which stops parsing as soon as it finds the value
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return state.values;
+        }
+
+        private void extractValue(JsonParser jsonParser, PathNode node, ExtractionState state)
+                throws IOException
+        {
+            JsonToken token = jsonParser.getCurrentToken();
+            if (!node.outputs.isEmpty()) {
+                if (!scalarValues) {
+                    Slice value = JSON_VALUE_EXTRACTOR.extract(jsonParser);
+                    state.setValue(node, value);
+                    if (!node.hasChildren() || state.isDone() || (token != START_OBJECT && token != START_ARRAY)) {
+                        return;
+                    }
+                    // the value has been consumed while copying it, so parse the copy for the nested paths
+                    try (JsonParser valueParser = createJsonParser(JSON_FACTORY, value)) {
+                        valueParser.nextToken();
+                        extractChildren(valueParser, node, state);
+                    }
+                    return;
+                }
+                state.setValue(node, SCALAR_VALUE_EXTRACTOR.extract(jsonParser));
+                if (state.isDone()) {
+                    return;
+                }
+            }
+            extractChildren(jsonParser, node, state);
+        }
+
+        private void extractChildren(JsonParser jsonParser, PathNode node, ExtractionState state)
+                throws IOException
+        {
+            JsonToken token = jsonParser.getCurrentToken();
+            if (token == START_OBJECT && node.hasChildren()) {
+                boolean[] visited = new boolean[node.fields.size()];
+                while (true) {
+                    token = jsonParser.nextToken();
+                    if (token == null) {
+                        throw new JsonParseException(jsonParser, "Unexpected end of object");
+                    }
+                    if (token == END_OBJECT) {
+                        return;
+                    }
+                    PathNode child = node.fields.get(jsonParser.getCurrentName());
+                    jsonParser.nextToken(); // Shift to first token of the value
+                    // Like the single path extraction, only the first of duplicate fields is matched
+                    if (child == null || visited[child.ordinal]) {
+                        jsonParser.skipChildren();
+                        continue;
+                    }
+                    visited[child.ordinal] = true;
+                    extractValue(jsonParser, child, state);
+                    if (state.isDone()) {
+                        return;
+                    }
+                }
+            }
+
+            if (token == START_ARRAY && !node.elements.isEmpty()) {
+                int currentIndex = 0;
+                while (true) {
+                    token = jsonParser.nextToken();
+                    if (token == null) {
+                        throw new JsonParseException(jsonParser, "Unexpected end of array");
+                    }
+                    if (token == END_ARRAY) {
+                        return;
+                    }
+                    PathNode child = node.elements.get(currentIndex);
+                    currentIndex++;
+                    if (child == null) {
+                        jsonParser.skipChildren();
+                        continue;
+                    }
+                    extractValue(jsonParser, child, state);
+                    if (state.isDone()) {
+                        return;
+                    }
+                }
+            }
+
+            jsonParser.skipChildren(); // Skip nested structure if currently at the start of one
+        }
+
+        private static class PathNode
+        {
+            private final int ordinal;
+            private final Map<String, PathNode> fields = new HashMap<>();
+            private final Int2ObjectOpenHashMap<PathNode> elements = new Int2ObjectOpenHashMap<>();
+            private final IntArrayList outputs = new IntArrayList();
+
+            public PathNode()
+            {
+                this(0);
+            }
+
+            private PathNode(int ordinal)
+            {
+                this.ordinal = ordinal;
+            }
+
+            public PathNode getOrAddChild(String token)
+            {
+                PathNode child = fields.get(token);
+                if (child == null) {
+                    child = new PathNode(fields.size());
+                    fields.put(token, child);
+                    // A numeric token also matches the element of an array, see ObjectFieldJsonExtractor
+                    int index = tryParseInt(token, -1);
+                    if (index >= 0) {
+                        elements.put(index, child);
+                    }
+                }
+                return child;
+            }
+
+            public boolean hasChildren()
+            {
+                return !fields.isEmpty();
+            }
+        }
+
+        private static class ExtractionState
+        {
+            private final Slice[] values;
+            private int remainingNodes;
+
+            public ExtractionState(int pathCount, int terminalNodeCount)
+            {
+                this.values = new Slice[pathCount];
+                this.remainingNodes = terminalNodeCount;
+            }
+
+            public void setValue(PathNode node, Slice value)
+            {
+                for (int i = 0; i < node.outputs.size(); i++) {
+                    values[node.outputs.getInt(i)] = value;
+                }
+                remainingNodes--;
+            }
+
+            public boolean isDone()
+            {
+                return remainingNodes == 0;
+            }
+        }
+    }
+
     private static int tryParseInt(String fieldName, int defaultValue)
     {
         int index = defaultValue;
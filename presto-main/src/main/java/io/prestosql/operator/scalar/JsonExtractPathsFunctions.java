@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.prestosql.operator.scalar.JsonExtract.MultiPathJsonExtractor;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.function.Description;
+import io.prestosql.spi.function.LiteralParameters;
+import io.prestosql.spi.function.ScalarFunction;
+import io.prestosql.spi.function.SqlType;
+import io.prestosql.spi.type.StandardTypes;
+import io.prestosql.spi.type.Type;
+
+import static io.prestosql.operator.scalar.JsonExtract.generateMultiPathExtractor;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.type.JsonType.JSON;
+
+/**
+ * Multi path versions of {@code json_extract_scalar} and {@code json_extract}, which the planner
+ * uses in place of several calls extracting different paths from the same JSON value. The values
+ * of all the paths are extracted in a single pass over the JSON value, and returned as an array
+ * in the order of the paths.
+ */
+public final class JsonExtractPathsFunctions
+{
+    public static final String JSON_EXTRACT_SCALAR_PATHS = "$json_extract_scalar_paths";
+    public static final String JSON_EXTRACT_PATHS = "$json_extract_paths";
+
+    private JsonExtractPathsFunctions() {}
+
+    @ScalarFunction(value = JSON_EXTRACT_SCALAR_PATHS, hidden = true)
+    @Description("Extracts the scalar values of several JSON paths")
+    public static final class JsonExtractScalarPaths
+    {
+        private final PathsExtractor extractor = new PathsExtractor(VARCHAR, true);
+
+        @LiteralParameters("x")
+        @SqlType("array(varchar)")
+        public Block varcharJsonExtractScalarPaths(@SqlType("varchar(x)") Slice json, @SqlType("array(varchar)") Block paths)
+        {
+            return extractor.extract(json, paths);
+        }
+
+        @SqlType("array(varchar)")
+        public Block jsonExtractScalarPaths(@SqlType(StandardTypes.JSON) Slice json, @SqlType("array(varchar)") Block paths)
+        {
+            return extractor.extract(json, paths);
+        }
+    }
+
+    @ScalarFunction(value = JSON_EXTRACT_PATHS, hidden = true)
+    @Description("Extracts the JSON values of several JSON paths")
+    public static final class JsonExtractPaths
+    {
+        private final PathsExtractor extractor = new PathsExtractor(JSON, false);
+
+        @LiteralParameters("x")
+        @SqlType("array(json)")
+        public Block varcharJsonExtractPaths(@SqlType("varchar(x)") Slice json, @SqlType("array(varchar)") Block paths)
+        {
+            return extractor.extract(json, paths);
+        }
+
+        @SqlType("array(json)")
+        public Block jsonExtractPaths(@SqlType(StandardTypes.JSON) Slice json, @SqlType("array(varchar)") Block paths)
+        {
+            return extractor.extract(json, paths);
+        }
+    }
+
+    private static class PathsExtractor
+    {
+        private final Type valueType;
+        private final boolean scalarValues;
+        private final PageBuilder pageBuilder;
+
+        // The paths are a constant of the expression, so the extractor is only built once
+        private Block cachedPaths;
+        private MultiPathJsonExtractor cachedExtractor;
+
+        public PathsExtractor(Type valueType, boolean scalarValues)
+        {
+            this.valueType = valueType;
+            this.scalarValues = scalarValues;
+            this.pageBuilder = new PageBuilder(ImmutableList.of(valueType));
+        }
+
+        public Block extract(Slice json, Block paths)
+        {
+            Slice[] values = getExtractor(paths).extract(json);
+
+            if (pageBuilder.isFull()) {
+                pageBuilder.reset();
+            }
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(0);
+            for (Slice value : values) {
+                if (value == null) {
+                    blockBuilder.appendNull();
+                }
+                else {
+                    valueType.writeSlice(blockBuilder, value);
+                }
+            }
+            pageBuilder.declarePositions(values.length);
+            return blockBuilder.getRegion(blockBuilder.getPositionCount() - values.length, values.length);
+        }
+
+        private MultiPathJsonExtractor getExtractor(Block paths)
+        {
+            if (paths != cachedPaths) {
+                ImmutableList.Builder<String> patterns = ImmutableList.builder();
+                for (int i = 0; i < paths.getPositionCount(); i++) {
+                    patterns.add(VARCHAR.getSlice(paths, i).toStringUtf8());
+                }
+                cachedExtractor = generateMultiPathExtractor(patterns.build(), scalarValues);
+                cachedPaths = paths;
+            }
+            return cachedExtractor;
+        }
+    }
+}
@@ -23,22 +23,38 @@ import io.prestosql.spi.connector.ConnectorPartitionHandle;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Buffers splits until at least {@code bufferSize} splits are available, to avoid scheduling tiny batches.
+ * When an initial buffer size is given, the first batches only wait for that many splits, and the
+ * number of splits waited for doubles with each batch up to {@code bufferSize}. This allows queries
+ * that only need a few splits to start without waiting for the enumeration of a full batch.
+ */
 public class BufferingSplitSource
         implements SplitSource
 {
     private final int bufferSize;
     private final SplitSource source;
+    private final AtomicInteger currentBufferSize;
 
     public BufferingSplitSource(SplitSource source, int bufferSize)
+    {
+        this(source, bufferSize, bufferSize);
+    }
+
+    public BufferingSplitSource(SplitSource source, int initialBufferSize, int bufferSize)
     {
         this.source = requireNonNull(source, "source is null");
+        checkArgument(initialBufferSize > 0, "initialBufferSize must be positive");
+        checkArgument(initialBufferSize <= bufferSize, "initialBufferSize is greater than bufferSize");
         this.bufferSize = bufferSize;
+        this.currentBufferSize = new AtomicInteger(initialBufferSize);
     }
 
     @Override
@@ -51,7 +67,8 @@ public class BufferingSplitSource
     public ListenableFuture<SplitBatch> getNextBatch(ConnectorPartitionHandle partitionHandle, Lifespan lifespan, int maxSize)
     {
         checkArgument(maxSize > 0, "Cannot fetch a batch of zero size");
-        return GetNextBatch.fetchNextBatchAsync(source, Math.min(bufferSize, maxSize), maxSize, partitionHandle, lifespan);
+        int minSize = currentBufferSize.getAndUpdate(size -> Math.min(bufferSize, size * 2));
+        return GetNextBatch.fetchNextBatchAsync(source, Math.min(minSize, maxSize), maxSize, partitionHandle, lifespan);
     }
 
     @Override
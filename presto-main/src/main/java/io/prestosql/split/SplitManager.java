@@ -67,6 +67,15 @@ public class SplitManager
     }
 
     public SplitSource getSplits(Session session, TableHandle table, SplitSchedulingStrategy splitSchedulingStrategy, DynamicFilter dynamicFilter)
+    {
+        return getSplits(session, table, splitSchedulingStrategy, dynamicFilter, false);
+    }
+
+    /**
+     * @param limited whether the scan may only need a few splits, in which case the first splits are scheduled
+     * as soon as they are available, rather than once a full batch of splits is available
+     */
+    public SplitSource getSplits(Session session, TableHandle table, SplitSchedulingStrategy splitSchedulingStrategy, DynamicFilter dynamicFilter, boolean limited)
     {
         CatalogName catalogName = table.getCatalogName();
         ConnectorSplitManager splitManager = getConnectorSplitManager(catalogName);
@@ -98,7 +107,7 @@ public class SplitManager
             minScheduleSplitBatchSize = min(minScheduleSplitBatchSize, splitSource.getMinScheduleSplitBatchSize().get());
         }
         if (minScheduleSplitBatchSize > 1) {
-            splitSource = new BufferingSplitSource(splitSource, minScheduleSplitBatchSize);
+            splitSource = new BufferingSplitSource(splitSource, limited ? 1 : minScheduleSplitBatchSize, minScheduleSplitBatchSize);
         }
         return splitSource;
     }
@@ -90,6 +90,7 @@ public class FeaturesConfig
     private boolean exchangeCompressionEnabled;
     private boolean optimizeMixedDistinctAggregations;
     private boolean unwrapCasts = true;
+    private boolean mergeJsonExtractCalls = true;
     private boolean forceSingleNodeOutput = true;
     private boolean pagesIndexEagerCompactionEnabled;
     private boolean distributedSort = true;
@@ -758,6 +759,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isMergeJsonExtractCalls()
+    {
+        return mergeJsonExtractCalls;
+    }
+
+    @Config("optimizer.merge-json-extract-calls")
+    @ConfigDescription("Extract the paths of json_extract and json_extract_scalar calls on the same value in a single pass")
+    public FeaturesConfig setMergeJsonExtractCalls(boolean mergeJsonExtractCalls)
+    {
+        this.mergeJsonExtractCalls = mergeJsonExtractCalls;
+        return this;
+    }
+
     public boolean isExchangeCompressionEnabled()
     {
         return exchangeCompressionEnabled;
@@ -0,0 +1,430 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.LinkedHashMultiset;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Sets;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.ConstantExpression;
+import io.prestosql.sql.relational.DeterminismEvaluator;
+import io.prestosql.sql.relational.InputReferenceExpression;
+import io.prestosql.sql.relational.LambdaDefinitionExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.RowExpressionVisitor;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.relational.VariableReferenceExpression;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.metadata.Signature.isOperatorName;
+import static io.prestosql.metadata.Signature.unmangleOperator;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.CAST;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.function.OperatorType.NEGATION;
+import static io.prestosql.spi.function.OperatorType.SUBTRACT;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.Expressions.subExpressions;
+import static io.prestosql.sql.relational.SpecialForm.Form.ROW_CONSTRUCTOR;
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Extracts the subexpressions that occur more than once in the filter and projections of a page
+ * processor, so that they are evaluated once per position instead of once per occurrence. The
+ * occurrences are replaced with references to channels following the channels of the input page,
+ * to which the page processor appends the values of the subexpressions.
+ * <p>
+ * Subexpressions are evaluated eagerly, so only deterministic subexpressions that the filter or a
+ * projection evaluates for every position are extracted, and casts and cheap arithmetic of the input
+ * channels are not worth extracting. Subexpressions evaluated for every position by the filter are
+ * evaluated for all positions of the page before the filter. The others are evaluated for each batch
+ * of the positions selected by the filter, and are not used by the filter.
+ */
+public final class CommonSubExpressionRewriter
+{
+    private static final Set<OperatorType> TRIVIAL_OPERATORS = Sets.immutableEnumSet(CAST, ADD, SUBTRACT, MULTIPLY, NEGATION);
+
+    private CommonSubExpressionRewriter() {}
+
+    public static Result extractCommonSubExpressions(DeterminismEvaluator determinismEvaluator, Optional<RowExpression> filter, List<? extends RowExpression> projections)
+    {
+        requireNonNull(determinismEvaluator, "determinismEvaluator is null");
+        requireNonNull(filter, "filter is null");
+        requireNonNull(projections, "projections is null");
+
+        SubExpressionCollector filterCollector = new SubExpressionCollector();
+        filter.ifPresent(expression -> expression.accept(filterCollector, true));
+        SubExpressionCollector projectionCollector = new SubExpressionCollector();
+        projections.forEach(expression -> expression.accept(projectionCollector, true));
+
+        Multiset<RowExpression> occurrences = LinkedHashMultiset.create(filterCollector.getOccurrences());
+        occurrences.addAll(projectionCollector.getOccurrences());
+
+        List<RowExpression> candidates = occurrences.entrySet().stream()
+                .filter(entry -> entry.getCount() > 1)
+                .map(Multiset.Entry::getElement)
+                .filter(expression -> filterCollector.isUnconditional(expression) || projectionCollector.isUnconditional(expression))
+                .filter(expression -> !isTrivial(expression))
+                .filter(determinismEvaluator::isDeterministic)
+                // extract the largest subexpressions first, so that a subexpression nested in an extracted one is only extracted if it is also used elsewhere
+                .sorted(Comparator.comparingInt((RowExpression expression) -> subExpressions(ImmutableList.of(expression)).size()).reversed())
+                .collect(toImmutableList());
+        if (candidates.isEmpty()) {
+            return new Result(filter, ImmutableList.copyOf(projections), 0, ImmutableList.of(), ImmutableList.of());
+        }
+
+        int inputChannelCount = getInputChannelCount(filter, projections);
+
+        Optional<RowExpression> rewrittenFilter = filter;
+        List<RowExpression> rewrittenProjections = new ArrayList<>(projections);
+        List<SubExpression> extracted = new ArrayList<>();
+        for (RowExpression candidate : candidates) {
+            boolean evaluatedBeforeFilter = filterCollector.isUnconditional(candidate);
+
+            int count = 0;
+            if (evaluatedBeforeFilter && rewrittenFilter.isPresent()) {
+                count += countOccurrences(rewrittenFilter.get(), candidate);
+            }
+            for (RowExpression projection : rewrittenProjections) {
+                count += countOccurrences(projection, candidate);
+            }
+            for (SubExpression subExpression : extracted) {
+                if (evaluatedBeforeFilter || !subExpression.isEvaluatedBeforeFilter()) {
+                    count += countOccurrences(subExpression.getExpression(), candidate);
+                }
+            }
+            if (count < 2) {
+                continue;
+            }
+
+            RowExpression reference = field(inputChannelCount + extracted.size(), candidate.getType());
+            if (evaluatedBeforeFilter) {
+                rewrittenFilter = rewrittenFilter.map(expression -> replace(expression, candidate, reference));
+            }
+            rewrittenProjections.replaceAll(projection -> replace(projection, candidate, reference));
+            for (SubExpression subExpression : extracted) {
+                if (evaluatedBeforeFilter || !subExpression.isEvaluatedBeforeFilter()) {
+                    subExpression.setExpression(replace(subExpression.getExpression(), candidate, reference));
+                }
+            }
+            extracted.add(new SubExpression(candidate, evaluatedBeforeFilter, reference));
+        }
+
+        if (extracted.isEmpty()) {
+            return new Result(filter, ImmutableList.copyOf(projections), 0, ImmutableList.of(), ImmutableList.of());
+        }
+
+        // subexpressions may only reference subexpressions extracted after them, so evaluate them in the reverse order,
+        // and evaluate the subexpressions used by the filter before the others
+        List<SubExpression> evaluationOrder = new ArrayList<>();
+        for (int i = extracted.size() - 1; i >= 0; i--) {
+            if (extracted.get(i).isEvaluatedBeforeFilter()) {
+                evaluationOrder.add(extracted.get(i));
+            }
+        }
+        for (int i = extracted.size() - 1; i >= 0; i--) {
+            if (!extracted.get(i).isEvaluatedBeforeFilter()) {
+                evaluationOrder.add(extracted.get(i));
+            }
+        }
+
+        ImmutableMap.Builder<RowExpression, RowExpression> channels = ImmutableMap.builder();
+        for (int i = 0; i < evaluationOrder.size(); i++) {
+            RowExpression reference = evaluationOrder.get(i).getReference();
+            channels.put(reference, field(inputChannelCount + i, reference.getType()));
+        }
+        Map<RowExpression, RowExpression> channelMapping = channels.build();
+
+        return new Result(
+                rewrittenFilter.map(expression -> replace(expression, channelMapping)),
+                rewrittenProjections.stream()
+                        .map(expression -> replace(expression, channelMapping))
+                        .collect(toImmutableList()),
+                inputChannelCount,
+                evaluationOrder.stream()
+                        .filter(SubExpression::isEvaluatedBeforeFilter)
+                        .map(subExpression -> replace(subExpression.getExpression(), channelMapping))
+                        .collect(toImmutableList()),
+                evaluationOrder.stream()
+                        .filter(subExpression -> !subExpression.isEvaluatedBeforeFilter())
+                        .map(subExpression -> replace(subExpression.getExpression(), channelMapping))
+                        .collect(toImmutableList()));
+    }
+
+    /**
+     * Casts and cheap arithmetic of the input channels and constants are cheaper to evaluate again
+     * than to evaluate separately and read back from an appended channel.
+     */
+    private static boolean isTrivial(RowExpression expression)
+    {
+        if (expression instanceof InputReferenceExpression || expression instanceof ConstantExpression) {
+            return true;
+        }
+        if (!(expression instanceof CallExpression)) {
+            return false;
+        }
+        CallExpression call = (CallExpression) expression;
+        String name = call.getResolvedFunction().getSignature().getName();
+        return isOperatorName(name) &&
+                TRIVIAL_OPERATORS.contains(unmangleOperator(name)) &&
+                call.getArguments().stream().allMatch(CommonSubExpressionRewriter::isTrivial);
+    }
+
+    private static int getInputChannelCount(Optional<RowExpression> filter, List<? extends RowExpression> projections)
+    {
+        ImmutableList.Builder<RowExpression> expressions = ImmutableList.builder();
+        filter.ifPresent(expressions::add);
+        expressions.addAll(projections);
+
+        int inputChannelCount = 0;
+        for (RowExpression expression : subExpressions(expressions.build())) {
+            if (expression instanceof InputReferenceExpression) {
+                inputChannelCount = max(inputChannelCount, ((InputReferenceExpression) expression).getField() + 1);
+            }
+        }
+        return inputChannelCount;
+    }
+
+    private static int countOccurrences(RowExpression expression, RowExpression target)
+    {
+        if (expression.equals(target)) {
+            return 1;
+        }
+        int count = 0;
+        for (RowExpression argument : getArguments(expression)) {
+            count += countOccurrences(argument, target);
+        }
+        return count;
+    }
+
+    private static RowExpression replace(RowExpression expression, RowExpression target, RowExpression replacement)
+    {
+        return replace(expression, ImmutableMap.of(target, replacement));
+    }
+
+    private static RowExpression replace(RowExpression expression, Map<RowExpression, RowExpression> replacements)
+    {
+        RowExpression replacement = replacements.get(expression);
+        if (replacement != null) {
+            return replacement;
+        }
+        if (expression instanceof CallExpression) {
+            CallExpression call = (CallExpression) expression;
+            return new CallExpression(
+                    call.getResolvedFunction(),
+                    call.getArguments().stream()
+                            .map(argument -> replace(argument, replacements))
+                            .collect(toImmutableList()));
+        }
+        if (expression instanceof SpecialForm) {
+            SpecialForm specialForm = (SpecialForm) expression;
+            return new SpecialForm(
+                    specialForm.getForm(),
+                    specialForm.getType(),
+                    specialForm.getArguments().stream()
+                            .map(argument -> replace(argument, replacements))
+                            .collect(toImmutableList()),
+                    specialForm.getFunctionDependencies());
+        }
+        // lambda bodies are not rewritten, as subexpressions are not extracted from them
+        return expression;
+    }
+
+    private static List<RowExpression> getArguments(RowExpression expression)
+    {
+        if (expression instanceof CallExpression) {
+            return ((CallExpression) expression).getArguments();
+        }
+        if (expression instanceof SpecialForm) {
+            return ((SpecialForm) expression).getArguments();
+        }
+        return ImmutableList.of();
+    }
+
+    /**
+     * Collects the calls and special forms outside of lambda expressions, and whether they are evaluated for every position.
+     */
+    private static class SubExpressionCollector
+            implements RowExpressionVisitor<Void, Boolean>
+    {
+        private final Multiset<RowExpression> occurrences = LinkedHashMultiset.create();
+        private final Set<RowExpression> unconditional = new HashSet<>();
+
+        public Multiset<RowExpression> getOccurrences()
+        {
+            return occurrences;
+        }
+
+        public boolean isUnconditional(RowExpression expression)
+        {
+            return unconditional.contains(expression);
+        }
+
+        @Override
+        public Void visitCall(CallExpression call, Boolean evaluated)
+        {
+            add(call, evaluated);
+            boolean argumentEvaluated = evaluated;
+            for (RowExpression argument : call.getArguments()) {
+                argument.accept(this, argumentEvaluated);
+                // functions returning null on null input do not evaluate the arguments following a null argument
+                argumentEvaluated = argumentEvaluated && argument instanceof ConstantExpression && ((ConstantExpression) argument).getValue() != null;
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitSpecialForm(SpecialForm specialForm, Boolean evaluated)
+        {
+            add(specialForm, evaluated);
+            List<RowExpression> arguments = specialForm.getArguments();
+            for (int i = 0; i < arguments.size(); i++) {
+                // special forms other than row constructors only evaluate the first argument for every position
+                arguments.get(i).accept(this, evaluated && (i == 0 || specialForm.getForm() == ROW_CONSTRUCTOR));
+            }
+            return null;
+        }
+
+        @Override
+        public Void visitInputReference(InputReferenceExpression reference, Boolean evaluated)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitConstant(ConstantExpression literal, Boolean evaluated)
+        {
+            return null;
+        }
+
+        @Override
+        public Void visitLambda(LambdaDefinitionExpression lambda, Boolean evaluated)
+        {
+            // the body of a lambda expression may reference its arguments, and is evaluated as part of the enclosing call
+            return null;
+        }
+
+        @Override
+        public Void visitVariableReference(VariableReferenceExpression reference, Boolean evaluated)
+        {
+            return null;
+        }
+
+        private void add(RowExpression expression, boolean evaluated)
+        {
+            occurrences.add(expression);
+            if (evaluated) {
+                unconditional.add(expression);
+            }
+        }
+    }
+
+    private static class SubExpression
+    {
+        private RowExpression expression;
+        private final boolean evaluatedBeforeFilter;
+        private final RowExpression reference;
+
+        public SubExpression(RowExpression expression, boolean evaluatedBeforeFilter, RowExpression reference)
+        {
+            this.expression = requireNonNull(expression, "expression is null");
+            this.evaluatedBeforeFilter = evaluatedBeforeFilter;
+            this.reference = requireNonNull(reference, "reference is null");
+        }
+
+        public RowExpression getExpression()
+        {
+            return expression;
+        }
+
+        public void setExpression(RowExpression expression)
+        {
+            this.expression = requireNonNull(expression, "expression is null");
+        }
+
+        public boolean isEvaluatedBeforeFilter()
+        {
+            return evaluatedBeforeFilter;
+        }
+
+        public RowExpression getReference()
+        {
+            return reference;
+        }
+    }
+
+    public static class Result
+    {
+        private final Optional<RowExpression> filter;
+        private final List<RowExpression> projections;
+        private final int inputChannelCount;
+        private final List<RowExpression> filterSubExpressions;
+        private final List<RowExpression> projectionSubExpressions;
+
+        public Result(
+                Optional<RowExpression> filter,
+                List<RowExpression> projections,
+                int inputChannelCount,
+                List<RowExpression> filterSubExpressions,
+                List<RowExpression> projectionSubExpressions)
+        {
+            this.filter = requireNonNull(filter, "filter is null");
+            this.projections = ImmutableList.copyOf(requireNonNull(projections, "projections is null"));
+            this.inputChannelCount = inputChannelCount;
+            this.filterSubExpressions = ImmutableList.copyOf(requireNonNull(filterSubExpressions, "filterSubExpressions is null"));
+            this.projectionSubExpressions = ImmutableList.copyOf(requireNonNull(projectionSubExpressions, "projectionSubExpressions is null"));
+        }
+
+        public Optional<RowExpression> getFilter()
+        {
+            return filter;
+        }
+
+        public List<RowExpression> getProjections()
+        {
+            return projections;
+        }
+
+        /**
+         * Number of channels of the input page used by the expressions. Subexpressions are appended to the
+         * input page starting at this channel: first the filter subexpressions, then the projection subexpressions.
+         */
+        public int getInputChannelCount()
+        {
+            return inputChannelCount;
+        }
+
+        public List<RowExpression> getFilterSubExpressions()
+        {
+            return filterSubExpressions;
+        }
+
+        public List<RowExpression> getProjectionSubExpressions()
+        {
+            return projectionSubExpressions;
+        }
+    }
+}
@@ -21,13 +21,19 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.bytecode.ClassDefinition;
 import io.airlift.bytecode.CompilationException;
 import io.airlift.jmx.CacheStatsMBean;
+import io.airlift.stats.TimeStat;
 import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.project.CommonSubExpressions;
+import io.prestosql.operator.project.ConjunctionPageFilter;
 import io.prestosql.operator.project.CursorProcessor;
 import io.prestosql.operator.project.PageFilter;
 import io.prestosql.operator.project.PageProcessor;
 import io.prestosql.operator.project.PageProjection;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.sql.planner.CompilerConfig;
+import io.prestosql.sql.relational.DeterminismEvaluator;
 import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
 import org.weakref.jmx.Managed;
 import org.weakref.jmx.Nested;
 
@@ -48,26 +54,44 @@ import static io.airlift.bytecode.ParameterizedType.type;
 import static io.prestosql.spi.StandardErrorCode.COMPILER_ERROR;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.sql.gen.BytecodeUtils.invoke;
+import static io.prestosql.sql.gen.CommonSubExpressionRewriter.extractCommonSubExpressions;
 import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
 import static io.prestosql.util.CompilerUtils.defineClass;
 import static io.prestosql.util.CompilerUtils.makeClassName;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class ExpressionCompiler
 {
     private final PageFunctionCompiler pageFunctionCompiler;
+    private final DeterminismEvaluator determinismEvaluator;
+    private final boolean filterConjunctReorderingEnabled;
     private final LoadingCache<CacheKey, Class<? extends CursorProcessor>> cursorProcessors;
     private final CacheStatsMBean cacheStatsMBean;
+    private final TimeStat cursorProcessorCompilationTime = new TimeStat(MILLISECONDS);
 
     @Inject
+    public ExpressionCompiler(Metadata metadata, PageFunctionCompiler pageFunctionCompiler, CompilerConfig config)
+    {
+        this(metadata, pageFunctionCompiler, requireNonNull(config, "config is null").isFilterConjunctReorderingEnabled());
+    }
+
     public ExpressionCompiler(Metadata metadata, PageFunctionCompiler pageFunctionCompiler)
+    {
+        this(metadata, pageFunctionCompiler, true);
+    }
+
+    public ExpressionCompiler(Metadata metadata, PageFunctionCompiler pageFunctionCompiler, boolean filterConjunctReorderingEnabled)
     {
         requireNonNull(metadata, "metadata is null");
         this.pageFunctionCompiler = requireNonNull(pageFunctionCompiler, "pageFunctionCompiler is null");
+        this.determinismEvaluator = new DeterminismEvaluator(metadata);
+        this.filterConjunctReorderingEnabled = filterConjunctReorderingEnabled;
         this.cursorProcessors = CacheBuilder.newBuilder()
                 .recordStats()
                 .maximumSize(1000)
-                .build(CacheLoader.from(key -> compile(key.getFilter(), key.getProjections(), new CursorProcessorCompiler(metadata), CursorProcessor.class)));
+                .build(CacheLoader.from(key -> compileCursorProcessor(metadata, key)));
         this.cacheStatsMBean = new CacheStatsMBean(cursorProcessors);
     }
 
@@ -78,6 +102,13 @@ public class ExpressionCompiler
         return cacheStatsMBean;
     }
 
+    @Managed
+    @Nested
+    public TimeStat getCursorProcessorCompilationTime()
+    {
+        return cursorProcessorCompilationTime;
+    }
+
     public Supplier<CursorProcessor> compileCursorProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections, Object uniqueKey)
     {
         Class<? extends CursorProcessor> cursorProcessor = cursorProcessors.getUnchecked(new CacheKey(filter, projections, uniqueKey));
@@ -91,6 +122,13 @@ public class ExpressionCompiler
         };
     }
 
+    private Class<? extends CursorProcessor> compileCursorProcessor(Metadata metadata, CacheKey key)
+    {
+        try (TimeStat.BlockTimer ignored = cursorProcessorCompilationTime.time()) {
+            return compile(key.getFilter(), key.getProjections(), new CursorProcessorCompiler(metadata), CursorProcessor.class);
+        }
+    }
+
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections, Optional<String> classNameSuffix)
     {
         return compilePageProcessor(filter, projections, classNameSuffix, OptionalInt.empty());
@@ -102,20 +140,68 @@ public class ExpressionCompiler
             Optional<String> classNameSuffix,
             OptionalInt initialBatchSize)
     {
-        Optional<Supplier<PageFilter>> filterFunctionSupplier = filter.map(expression -> pageFunctionCompiler.compileFilter(expression, classNameSuffix));
-        List<Supplier<PageProjection>> pageProjectionSuppliers = projections.stream()
-                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
-                .collect(toImmutableList());
+        // evaluate the subexpressions shared by the filter and projections once
+        CommonSubExpressionRewriter.Result rewritten = extractCommonSubExpressions(determinismEvaluator, filter, projections);
+
+        Optional<Supplier<PageFilter>> filterFunctionSupplier = rewritten.getFilter().map(expression -> compileFilter(expression, classNameSuffix));
+        List<Supplier<PageProjection>> pageProjectionSuppliers = compileProjections(rewritten.getProjections(), classNameSuffix);
+        List<Supplier<PageProjection>> filterSubExpressionSuppliers = compileProjections(rewritten.getFilterSubExpressions(), classNameSuffix);
+        List<Supplier<PageProjection>> projectionSubExpressionSuppliers = compileProjections(rewritten.getProjectionSubExpressions(), classNameSuffix);
+        int inputChannelCount = rewritten.getInputChannelCount();
 
         return () -> {
             Optional<PageFilter> filterFunction = filterFunctionSupplier.map(Supplier::get);
-            List<PageProjection> pageProjections = pageProjectionSuppliers.stream()
-                    .map(Supplier::get)
-                    .collect(toImmutableList());
-            return new PageProcessor(filterFunction, pageProjections, initialBatchSize);
+            List<PageProjection> pageProjections = getProjections(pageProjectionSuppliers);
+            CommonSubExpressions commonSubExpressions = new CommonSubExpressions(
+                    inputChannelCount,
+                    getProjections(filterSubExpressionSuppliers),
+                    getProjections(projectionSubExpressionSuppliers));
+            return new PageProcessor(filterFunction, pageProjections, initialBatchSize, commonSubExpressions);
         };
     }
 
+    private Supplier<PageFilter> compileFilter(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        List<RowExpression> conjuncts = extractConjuncts(filter);
+        if (!filterConjunctReorderingEnabled || conjuncts.size() < 2 || !determinismEvaluator.isDeterministic(filter)) {
+            return pageFunctionCompiler.compileFilter(filter, classNameSuffix);
+        }
+
+        // compile the conjuncts separately, so they can be evaluated in the order of their observed cost and selectivity
+        List<Supplier<PageFilter>> conjunctSuppliers = conjuncts.stream()
+                .map(conjunct -> pageFunctionCompiler.compileFilter(conjunct, classNameSuffix))
+                .collect(toImmutableList());
+        return () -> new ConjunctionPageFilter(conjunctSuppliers.stream()
+                .map(Supplier::get)
+                .collect(toImmutableList()));
+    }
+
+    private static List<RowExpression> extractConjuncts(RowExpression expression)
+    {
+        if (expression instanceof SpecialForm && ((SpecialForm) expression).getForm() == AND) {
+            ImmutableList.Builder<RowExpression> conjuncts = ImmutableList.builder();
+            for (RowExpression argument : ((SpecialForm) expression).getArguments()) {
+                conjuncts.addAll(extractConjuncts(argument));
+            }
+            return conjuncts.build();
+        }
+        return ImmutableList.of(expression);
+    }
+
+    private List<Supplier<PageProjection>> compileProjections(List<RowExpression> projections, Optional<String> classNameSuffix)
+    {
+        return projections.stream()
+                .map(projection -> pageFunctionCompiler.compileProjection(projection, classNameSuffix))
+                .collect(toImmutableList());
+    }
+
+    private static List<PageProjection> getProjections(List<Supplier<PageProjection>> projectionSuppliers)
+    {
+        return projectionSuppliers.stream()
+                .map(Supplier::get)
+                .collect(toImmutableList());
+    }
+
     public Supplier<PageProcessor> compilePageProcessor(Optional<RowExpression> filter, List<? extends RowExpression> projections)
     {
         return compilePageProcessor(filter, projections, Optional.empty());
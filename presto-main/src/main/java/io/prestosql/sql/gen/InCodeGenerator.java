@@ -24,6 +24,7 @@ import io.airlift.bytecode.Variable;
 import io.airlift.bytecode.control.IfStatement;
 import io.airlift.bytecode.control.SwitchStatement.SwitchBuilder;
 import io.airlift.bytecode.instruction.LabelNode;
+import io.airlift.slice.Slice;
 import io.prestosql.metadata.FunctionInvoker;
 import io.prestosql.metadata.ResolvedFunction;
 import io.prestosql.spi.function.InvocationConvention;
@@ -31,10 +32,14 @@ import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.DateType;
 import io.prestosql.spi.type.IntegerType;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarbinaryType;
+import io.prestosql.spi.type.VarcharType;
 import io.prestosql.sql.relational.ConstantExpression;
 import io.prestosql.sql.relational.RowExpression;
 import io.prestosql.sql.relational.SpecialForm;
 import io.prestosql.util.FastutilSetHelper;
+import io.prestosql.util.InListSets;
+import io.prestosql.util.InListSets.SliceSet;
 
 import java.lang.invoke.MethodHandle;
 import java.util.Collection;
@@ -99,7 +104,7 @@ public class InCodeGenerator
             return SwitchGenerationCase.SET_CONTAINS;
         }
 
-        if (!(type instanceof IntegerType || type instanceof BigintType || type instanceof DateType)) {
+        if (!isNativelyComparedInteger(type)) {
             return SwitchGenerationCase.HASH_SWITCH;
         }
         for (RowExpression expression : values) {
@@ -227,19 +232,31 @@ public class InCodeGenerator
                         .append(switchBuilder.build());
                 break;
             case SET_CONTAINS:
-                Set<?> constantValuesSet = toFastutilHashSet(constantValues, type, hashCodeInvoker, equalsInvoker);
+                Object constantValuesSet = createInListSet(type, constantValues, hashCodeInvoker, equalsInvoker);
                 Binding constant = generatorContext.getCallSiteBinder().bind(constantValuesSet, constantValuesSet.getClass());
 
+                BytecodeBlock contains;
+                if (constantValuesSet instanceof Set) {
+                    contains = new BytecodeBlock()
+                            .comment("value")
+                            .getVariable(value)
+                            .comment("set")
+                            .append(loadConstant(constant))
+                            // TODO: use invokeVirtual on the set instead. This requires swapping the two elements in the stack
+                            .invokeStatic(FastutilSetHelper.class, "in", boolean.class, javaType.isPrimitive() ? javaType : Object.class, constantValuesSet.getClass());
+                }
+                else {
+                    contains = new BytecodeBlock()
+                            .comment("set")
+                            .append(loadConstant(constant))
+                            .comment("value")
+                            .getVariable(value)
+                            .invokeVirtual(constantValuesSet.getClass(), "contains", boolean.class, javaType);
+                }
                 switchBlock = new BytecodeBlock()
                         .comment("inListSet.contains(<stackValue>)")
                         .append(new IfStatement()
-                                .condition(new BytecodeBlock()
-                                        .comment("value")
-                                        .getVariable(value)
-                                        .comment("set")
-                                        .append(loadConstant(constant))
-                                        // TODO: use invokeVirtual on the set instead. This requires swapping the two elements in the stack
-                                        .invokeStatic(FastutilSetHelper.class, "in", boolean.class, javaType.isPrimitive() ? javaType : Object.class, constantValuesSet.getClass()))
+                                .condition(contains)
                                 .ifTrue(jump(match)));
                 break;
             default:
@@ -287,6 +304,30 @@ public class InCodeGenerator
         return block;
     }
 
+    /**
+     * Creates the set of the constants of the IN list. The values of integral and variable width
+     * types which are equal only when their native representations are equal are looked up in
+     * specialized sets, and the values of other types in sets using the HASH_CODE and EQUAL operators.
+     */
+    @VisibleForTesting
+    @SuppressWarnings("unchecked")
+    static Object createInListSet(Type type, Set<?> values, FunctionInvoker hashCodeInvoker, FunctionInvoker equalsInvoker)
+    {
+        if (isNativelyComparedInteger(type)) {
+            return InListSets.createLongSet((Collection<Long>) values);
+        }
+        if (type instanceof VarcharType || type instanceof VarbinaryType) {
+            return new SliceSet((Collection<Slice>) values);
+        }
+        return toFastutilHashSet(values, type, hashCodeInvoker, equalsInvoker);
+    }
+
+    private static boolean isNativelyComparedInteger(Type type)
+    {
+        // A white-list is used to select the types for which it's safe to not use presto HASH_CODE and EQUAL operator.
+        return type instanceof IntegerType || type instanceof BigintType || type instanceof DateType;
+    }
+
     public static boolean isInteger(long value)
     {
         return value == (int) value;
@@ -32,12 +32,17 @@ import io.airlift.bytecode.Variable;
 import io.airlift.bytecode.control.ForLoop;
 import io.airlift.bytecode.control.IfStatement;
 import io.airlift.jmx.CacheStatsMBean;
+import io.airlift.slice.Slice;
+import io.airlift.stats.TimeStat;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.operator.Work;
+import io.prestosql.operator.project.BatchFunction;
+import io.prestosql.operator.project.BatchPageProjection;
 import io.prestosql.operator.project.ConstantPageProjection;
 import io.prestosql.operator.project.GeneratedPageProjection;
 import io.prestosql.operator.project.InputChannels;
 import io.prestosql.operator.project.InputPageProjection;
+import io.prestosql.operator.project.MemoizingPageProjection;
 import io.prestosql.operator.project.PageFieldsToInputParametersRewriter;
 import io.prestosql.operator.project.PageFilter;
 import io.prestosql.operator.project.PageProjection;
@@ -49,6 +54,7 @@ import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.sql.gen.LambdaBytecodeGenerator.CompiledLambda;
 import io.prestosql.sql.planner.CompilerConfig;
+import io.prestosql.sql.relational.CallExpression;
 import io.prestosql.sql.relational.ConstantExpression;
 import io.prestosql.sql.relational.DeterminismEvaluator;
 import io.prestosql.sql.relational.Expressions;
@@ -63,6 +69,7 @@ import org.weakref.jmx.Nested;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -72,6 +79,7 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.bytecode.Access.FINAL;
 import static io.airlift.bytecode.Access.PRIVATE;
 import static io.airlift.bytecode.Access.PUBLIC;
@@ -89,6 +97,7 @@ import static io.airlift.bytecode.expression.BytecodeExpressions.lessThan;
 import static io.airlift.bytecode.expression.BytecodeExpressions.newArray;
 import static io.airlift.bytecode.expression.BytecodeExpressions.not;
 import static io.prestosql.operator.project.PageFieldsToInputParametersRewriter.rewritePageFieldsToInputParameters;
+import static io.prestosql.operator.scalar.BatchScalarFunctions.getBatchFunction;
 import static io.prestosql.spi.StandardErrorCode.COMPILER_ERROR;
 import static io.prestosql.sql.gen.BytecodeUtils.generateWrite;
 import static io.prestosql.sql.gen.BytecodeUtils.invoke;
@@ -97,28 +106,76 @@ import static io.prestosql.util.CompilerUtils.defineClass;
 import static io.prestosql.util.CompilerUtils.makeClassName;
 import static io.prestosql.util.Reflection.constructorMethodHandle;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 public class PageFunctionCompiler
 {
+    // deterministic functions parsing their argument, which are worth memoizing for repeated arguments
+    private static final Set<String> EXPENSIVE_FUNCTIONS = ImmutableSet.of(
+            "date_parse",
+            "from_iso8601_date",
+            "from_iso8601_timestamp",
+            "from_iso8601_timestamp_nanos",
+            "json_extract",
+            "json_extract_scalar",
+            "json_parse",
+            "parse_datetime",
+            "url_decode",
+            "url_extract_fragment",
+            "url_extract_host",
+            "url_extract_parameter",
+            "url_extract_path",
+            "url_extract_port",
+            "url_extract_protocol",
+            "url_extract_query");
+
     private final Metadata metadata;
     private final DeterminismEvaluator determinismEvaluator;
+    private final boolean batchFunctionsEnabled;
+    private final boolean memoizationEnabled;
 
     private final LoadingCache<RowExpression, Supplier<PageProjection>> projectionCache;
     private final LoadingCache<RowExpression, Supplier<PageFilter>> filterCache;
 
+    // The generated classes are cached by the expressions with input parameters in place of the page channels,
+    // so that the same expression over different channels of the input page reuses the generated class
+    private final LoadingCache<RowExpression, CompiledProjection> projectionClassCache;
+    private final LoadingCache<RowExpression, Class<? extends PageFilter>> filterClassCache;
+
     private final CacheStatsMBean projectionCacheStats;
     private final CacheStatsMBean filterCacheStats;
+    private final CacheStatsMBean projectionClassCacheStats;
+    private final CacheStatsMBean filterClassCacheStats;
+
+    private final TimeStat projectionCompilationTime = new TimeStat(MILLISECONDS);
+    private final TimeStat filterCompilationTime = new TimeStat(MILLISECONDS);
 
     @Inject
     public PageFunctionCompiler(Metadata metadata, CompilerConfig config)
     {
-        this(metadata, requireNonNull(config, "config is null").getExpressionCacheSize());
+        this(
+                metadata,
+                requireNonNull(config, "config is null").getExpressionCacheSize(),
+                config.isBatchFunctionsEnabled(),
+                config.isMemoizeExpensiveFunctions());
     }
 
     public PageFunctionCompiler(Metadata metadata, int expressionCacheSize)
+    {
+        this(metadata, expressionCacheSize, true);
+    }
+
+    public PageFunctionCompiler(Metadata metadata, int expressionCacheSize, boolean batchFunctionsEnabled)
+    {
+        this(metadata, expressionCacheSize, batchFunctionsEnabled, false);
+    }
+
+    public PageFunctionCompiler(Metadata metadata, int expressionCacheSize, boolean batchFunctionsEnabled, boolean memoizationEnabled)
     {
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.determinismEvaluator = new DeterminismEvaluator(metadata);
+        this.batchFunctionsEnabled = batchFunctionsEnabled;
+        this.memoizationEnabled = memoizationEnabled;
 
         if (expressionCacheSize > 0) {
             projectionCache = CacheBuilder.newBuilder()
@@ -126,10 +183,17 @@ public class PageFunctionCompiler
                     .maximumSize(expressionCacheSize)
                     .build(CacheLoader.from(projection -> compileProjectionInternal(projection, Optional.empty())));
             projectionCacheStats = new CacheStatsMBean(projectionCache);
+            projectionClassCache = CacheBuilder.newBuilder()
+                    .recordStats()
+                    .maximumSize(expressionCacheSize)
+                    .build(CacheLoader.from(projection -> compileProjectionClass(projection, Optional.empty())));
+            projectionClassCacheStats = new CacheStatsMBean(projectionClassCache);
         }
         else {
             projectionCache = null;
             projectionCacheStats = null;
+            projectionClassCache = null;
+            projectionClassCacheStats = null;
         }
 
         if (expressionCacheSize > 0) {
@@ -138,10 +202,17 @@ public class PageFunctionCompiler
                     .maximumSize(expressionCacheSize)
                     .build(CacheLoader.from(filter -> compileFilterInternal(filter, Optional.empty())));
             filterCacheStats = new CacheStatsMBean(filterCache);
+            filterClassCache = CacheBuilder.newBuilder()
+                    .recordStats()
+                    .maximumSize(expressionCacheSize)
+                    .build(CacheLoader.from(filter -> compileFilterClass(filter, Optional.empty())));
+            filterClassCacheStats = new CacheStatsMBean(filterClassCache);
         }
         else {
             filterCache = null;
             filterCacheStats = null;
+            filterClassCache = null;
+            filterClassCacheStats = null;
         }
     }
 
@@ -161,6 +232,36 @@ public class PageFunctionCompiler
         return filterCacheStats;
     }
 
+    @Nullable
+    @Managed
+    @Nested
+    public CacheStatsMBean getProjectionClassCache()
+    {
+        return projectionClassCacheStats;
+    }
+
+    @Nullable
+    @Managed
+    @Nested
+    public CacheStatsMBean getFilterClassCache()
+    {
+        return filterClassCacheStats;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getProjectionCompilationTime()
+    {
+        return projectionCompilationTime;
+    }
+
+    @Managed
+    @Nested
+    public TimeStat getFilterCompilationTime()
+    {
+        return filterCompilationTime;
+    }
+
     public Supplier<PageProjection> compileProjection(RowExpression projection, Optional<String> classNameSuffix)
     {
         if (projectionCache == null) {
@@ -187,28 +288,79 @@ public class PageFunctionCompiler
 
         PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(projection);
 
-        CallSiteBinder callSiteBinder = new CallSiteBinder();
-
-        // generate Work
-        ClassDefinition pageProjectionWorkDefinition = definePageProjectWorkClass(result.getRewrittenExpression(), callSiteBinder, classNameSuffix);
+        if (batchFunctionsEnabled) {
+            Optional<BatchFunction> batchFunction = getBatchFunction(result.getRewrittenExpression());
+            if (batchFunction.isPresent()) {
+                BatchPageProjection projectionFunction = new BatchPageProjection(batchFunction.get(), projection.getType(), result.getInputChannels());
+                return () -> projectionFunction;
+            }
+        }
 
-        Class<?> pageProjectionWorkClass;
-        try {
-            pageProjectionWorkClass = defineClass(pageProjectionWorkDefinition, Work.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+        CompiledProjection compiledProjection;
+        if (projectionClassCache == null) {
+            compiledProjection = compileProjectionClass(result.getRewrittenExpression(), classNameSuffix);
         }
-        catch (Exception e) {
-            if (Throwables.getRootCause(e) instanceof MethodTooLargeException) {
-                throw new PrestoException(COMPILER_ERROR,
-                        "Query exceeded maximum columns. Please reduce the number of columns referenced and re-run the query.", e);
-            }
-            throw new PrestoException(COMPILER_ERROR, e);
+        else {
+            compiledProjection = projectionClassCache.getUnchecked(result.getRewrittenExpression());
         }
 
-        return () -> new GeneratedPageProjection(
+        Supplier<PageProjection> generatedProjection = () -> new GeneratedPageProjection(
                 result.getRewrittenExpression(),
-                determinismEvaluator.isDeterministic(result.getRewrittenExpression()),
+                compiledProjection.isDeterministic(),
                 result.getInputChannels(),
-                constructorMethodHandle(pageProjectionWorkClass, BlockBuilder.class, ConnectorSession.class, Page.class, SelectedPositions.class));
+                compiledProjection.getWorkFactory());
+        if (memoizationEnabled && isMemoizable(result.getRewrittenExpression())) {
+            // the memoized results are kept by each projection, so they are not shared across drivers
+            return () -> new MemoizingPageProjection(generatedProjection.get());
+        }
+        return generatedProjection;
+    }
+
+    /**
+     * Checks whether the projection is a deterministic call to an expensive function, with a
+     * single variable width input channel and constants as arguments.
+     */
+    private boolean isMemoizable(RowExpression projection)
+    {
+        if (!(projection instanceof CallExpression) || !determinismEvaluator.isDeterministic(projection)) {
+            return false;
+        }
+        CallExpression call = (CallExpression) projection;
+        if (!EXPENSIVE_FUNCTIONS.contains(call.getResolvedFunction().getSignature().getName())) {
+            return false;
+        }
+        List<RowExpression> inputs = call.getArguments().stream()
+                .filter(argument -> !(argument instanceof ConstantExpression))
+                .collect(toImmutableList());
+        return inputs.size() == 1 &&
+                inputs.get(0) instanceof InputReferenceExpression &&
+                inputs.get(0).getType().getJavaType() == Slice.class;
+    }
+
+    private CompiledProjection compileProjectionClass(RowExpression projection, Optional<String> classNameSuffix)
+    {
+        try (TimeStat.BlockTimer ignored = projectionCompilationTime.time()) {
+            CallSiteBinder callSiteBinder = new CallSiteBinder();
+
+            // generate Work
+            ClassDefinition pageProjectionWorkDefinition = definePageProjectWorkClass(projection, callSiteBinder, classNameSuffix);
+
+            Class<?> pageProjectionWorkClass;
+            try {
+                pageProjectionWorkClass = defineClass(pageProjectionWorkDefinition, Work.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+            }
+            catch (Exception e) {
+                if (Throwables.getRootCause(e) instanceof MethodTooLargeException) {
+                    throw new PrestoException(COMPILER_ERROR,
+                            "Query exceeded maximum columns. Please reduce the number of columns referenced and re-run the query.", e);
+                }
+                throw new PrestoException(COMPILER_ERROR, e);
+            }
+
+            return new CompiledProjection(
+                    determinismEvaluator.isDeterministic(projection),
+                    constructorMethodHandle(pageProjectionWorkClass, BlockBuilder.class, ConnectorSession.class, Page.class, SelectedPositions.class));
+        }
     }
 
     private static ParameterizedType generateProjectionWorkClassName(Optional<String> classNameSuffix)
@@ -378,24 +530,18 @@ public class PageFunctionCompiler
 
         PageFieldsToInputParametersRewriter.Result result = rewritePageFieldsToInputParameters(filter);
 
-        CallSiteBinder callSiteBinder = new CallSiteBinder();
-        ClassDefinition classDefinition = defineFilterClass(result.getRewrittenExpression(), result.getInputChannels(), callSiteBinder, classNameSuffix);
-
         Class<? extends PageFilter> functionClass;
-        try {
-            functionClass = defineClass(classDefinition, PageFilter.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+        if (filterClassCache == null) {
+            functionClass = compileFilterClass(result.getRewrittenExpression(), classNameSuffix);
         }
-        catch (Exception e) {
-            if (Throwables.getRootCause(e) instanceof MethodTooLargeException) {
-                throw new PrestoException(COMPILER_ERROR,
-                        "Query exceeded maximum filters. Please reduce the number of filters referenced and re-run the query.", e);
-            }
-            throw new PrestoException(COMPILER_ERROR, filter.toString(), e.getCause());
+        else {
+            functionClass = filterClassCache.getUnchecked(result.getRewrittenExpression());
         }
 
+        InputChannels inputChannels = result.getInputChannels();
         return () -> {
             try {
-                return functionClass.getConstructor().newInstance();
+                return functionClass.getConstructor(InputChannels.class).newInstance(inputChannels);
             }
             catch (ReflectiveOperationException e) {
                 throw new PrestoException(COMPILER_ERROR, e);
@@ -403,12 +549,31 @@ public class PageFunctionCompiler
         };
     }
 
+    private Class<? extends PageFilter> compileFilterClass(RowExpression filter, Optional<String> classNameSuffix)
+    {
+        try (TimeStat.BlockTimer ignored = filterCompilationTime.time()) {
+            CallSiteBinder callSiteBinder = new CallSiteBinder();
+            ClassDefinition classDefinition = defineFilterClass(filter, callSiteBinder, classNameSuffix);
+
+            try {
+                return defineClass(classDefinition, PageFilter.class, callSiteBinder.getBindings(), getClass().getClassLoader());
+            }
+            catch (Exception e) {
+                if (Throwables.getRootCause(e) instanceof MethodTooLargeException) {
+                    throw new PrestoException(COMPILER_ERROR,
+                            "Query exceeded maximum filters. Please reduce the number of filters referenced and re-run the query.", e);
+                }
+                throw new PrestoException(COMPILER_ERROR, filter.toString(), e.getCause());
+            }
+        }
+    }
+
     private static ParameterizedType generateFilterClassName(Optional<String> classNameSuffix)
     {
         return makeClassName(PageFilter.class.getSimpleName(), classNameSuffix);
     }
 
-    private ClassDefinition defineFilterClass(RowExpression filter, InputChannels inputChannels, CallSiteBinder callSiteBinder, Optional<String> classNameSuffix)
+    private ClassDefinition defineFilterClass(RowExpression filter, CallSiteBinder callSiteBinder, Optional<String> classNameSuffix)
     {
         ClassDefinition classDefinition = new ClassDefinition(
                 a(PUBLIC, FINAL),
@@ -422,6 +587,7 @@ public class PageFunctionCompiler
         generateFilterMethod(classDefinition, callSiteBinder, cachedInstanceBinder, compiledLambdaMap, filter);
 
         FieldDefinition selectedPositions = classDefinition.declareField(a(PRIVATE), "selectedPositions", boolean[].class);
+        FieldDefinition inputChannels = classDefinition.declareField(a(PRIVATE, FINAL), "inputChannels", InputChannels.class);
         generatePageFilterMethod(classDefinition, selectedPositions);
 
         // isDeterministic
@@ -431,9 +597,9 @@ public class PageFunctionCompiler
                 .retBoolean();
 
         // getInputChannels
-        classDefinition.declareMethod(a(PUBLIC), "getInputChannels", type(InputChannels.class))
-                .getBody()
-                .append(invoke(callSiteBinder.bind(inputChannels, InputChannels.class), "getInputChannels"))
+        MethodDefinition getInputChannels = classDefinition.declareMethod(a(PUBLIC), "getInputChannels", type(InputChannels.class));
+        getInputChannels.getBody()
+                .append(getInputChannels.getThis().getField(inputChannels))
                 .retObject();
 
         // toString
@@ -448,9 +614,12 @@ public class PageFunctionCompiler
                 .retObject();
 
         // constructor
-        generateConstructor(classDefinition, cachedInstanceBinder, compiledLambdaMap, method -> {
+        Parameter inputChannelsParameter = arg("inputChannels", InputChannels.class);
+        generateConstructor(classDefinition, cachedInstanceBinder, compiledLambdaMap, ImmutableList.of(inputChannelsParameter), method -> {
             Variable thisVariable = method.getScope().getThis();
-            method.getBody().append(thisVariable.setField(selectedPositions, newArray(type(boolean[].class), 0)));
+            method.getBody()
+                    .append(thisVariable.setField(selectedPositions, newArray(type(boolean[].class), 0)))
+                    .append(thisVariable.setField(inputChannels, inputChannelsParameter));
         });
 
         return classDefinition;
@@ -573,9 +742,10 @@ public class PageFunctionCompiler
             ClassDefinition classDefinition,
             CachedInstanceBinder cachedInstanceBinder,
             Map<LambdaDefinitionExpression, CompiledLambda> compiledLambdaMap,
+            List<Parameter> parameters,
             Consumer<MethodDefinition> additionalStatements)
     {
-        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC));
+        MethodDefinition constructorDefinition = classDefinition.declareConstructor(a(PUBLIC), parameters);
 
         BytecodeBlock body = constructorDefinition.getBody();
         Variable thisVariable = constructorDefinition.getThis();
@@ -629,4 +799,26 @@ public class PageFunctionCompiler
                 (scope, field) -> scope.getVariable("position"),
                 callSiteBinder);
     }
+
+    private static class CompiledProjection
+    {
+        private final boolean deterministic;
+        private final MethodHandle workFactory;
+
+        public CompiledProjection(boolean deterministic, MethodHandle workFactory)
+        {
+            this.deterministic = deterministic;
+            this.workFactory = requireNonNull(workFactory, "workFactory is null");
+        }
+
+        public boolean isDeterministic()
+        {
+            return deterministic;
+        }
+
+        public MethodHandle getWorkFactory()
+        {
+            return workFactory;
+        }
+    }
 }
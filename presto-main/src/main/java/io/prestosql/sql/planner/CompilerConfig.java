@@ -23,6 +23,9 @@ import javax.validation.constraints.Min;
 public class CompilerConfig
 {
     private int expressionCacheSize = 10_000;
+    private boolean batchFunctionsEnabled = true;
+    private boolean memoizeExpensiveFunctions;
+    private boolean filterConjunctReorderingEnabled = true;
 
     @Min(0)
     public int getExpressionCacheSize()
@@ -37,4 +40,43 @@ public class CompilerConfig
         this.expressionCacheSize = expressionCacheSize;
         return this;
     }
+
+    public boolean isBatchFunctionsEnabled()
+    {
+        return batchFunctionsEnabled;
+    }
+
+    @Config("compiler.batch-functions-enabled")
+    @Description("Evaluate the scalar functions that have a block at a time implementation once per page")
+    public CompilerConfig setBatchFunctionsEnabled(boolean batchFunctionsEnabled)
+    {
+        this.batchFunctionsEnabled = batchFunctionsEnabled;
+        return this;
+    }
+
+    public boolean isMemoizeExpensiveFunctions()
+    {
+        return memoizeExpensiveFunctions;
+    }
+
+    @Config("compiler.memoize-expensive-functions")
+    @Description("Cache the results of expensive functions for the values recently seen by each driver")
+    public CompilerConfig setMemoizeExpensiveFunctions(boolean memoizeExpensiveFunctions)
+    {
+        this.memoizeExpensiveFunctions = memoizeExpensiveFunctions;
+        return this;
+    }
+
+    public boolean isFilterConjunctReorderingEnabled()
+    {
+        return filterConjunctReorderingEnabled;
+    }
+
+    @Config("compiler.filter-conjunct-reordering-enabled")
+    @Description("Evaluate the conjuncts of filters in the order of their observed cost and selectivity")
+    public CompilerConfig setFilterConjunctReorderingEnabled(boolean filterConjunctReorderingEnabled)
+    {
+        this.filterConjunctReorderingEnabled = filterConjunctReorderingEnabled;
+        return this;
+    }
 }
@@ -66,9 +66,11 @@ import io.prestosql.sql.planner.plan.WindowNode;
 
 import javax.inject.Inject;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Iterables.getOnlyElement;
@@ -157,6 +159,7 @@ public class DistributedExecutionPlanner
         private final Session session;
         private final StageExecutionDescriptor stageExecutionDescriptor;
         private final ImmutableList.Builder<SplitSource> splitSources;
+        private final Set<PlanNodeId> limitedScans = new HashSet<>();
 
         private Visitor(Session session, StageExecutionDescriptor stageExecutionDescriptor, ImmutableList.Builder<SplitSource> allSplitSources)
         {
@@ -196,7 +199,8 @@ public class DistributedExecutionPlanner
                     session,
                     node.getTable(),
                     stageExecutionDescriptor.isScanGroupedExecution(node.getId()) ? GROUPED_SCHEDULING : UNGROUPED_SCHEDULING,
-                    dynamicFilter);
+                    dynamicFilter,
+                    limitedScans.contains(node.getId()));
 
             splitSources.add(splitSource);
 
@@ -364,6 +368,12 @@ public class DistributedExecutionPlanner
         @Override
         public Map<PlanNodeId, SplitSource> visitLimit(LimitNode node, Void context)
         {
+            // the scans which directly feed the limit may only need a few splits
+            searchFrom(node.getSource())
+                    .where(TableScanNode.class::isInstance)
+                    .recurseOnlyWhen(source -> source instanceof ProjectNode || source instanceof FilterNode)
+                    .findAll()
+                    .forEach(scan -> limitedScans.add(scan.getId()));
             return node.getSource().accept(this, context);
         }
 
@@ -270,6 +270,7 @@ import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.FINAL;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
@@ -2362,7 +2363,7 @@ public class LocalExecutionPlanner
             if (node.getPartitioningScheme().isPresent()) {
                 PartitioningHandle partitioningHandle = node.getPartitioningScheme().get().getPartitioning().getHandle();
                 // TODO: add support for arbitrary partitioning in local exchanges
-                if (partitioningHandle.equals(FIXED_HASH_DISTRIBUTION)) {
+                if (partitioningHandle.equals(FIXED_HASH_DISTRIBUTION) || partitioningHandle.equals(SCALED_WRITER_HASH_DISTRIBUTION)) {
                     context.setDriverInstanceCount(getTaskWriterCount(session));
                 }
                 else {
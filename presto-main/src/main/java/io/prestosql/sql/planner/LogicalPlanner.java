@@ -102,6 +102,7 @@ import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Streams.zip;
 import static io.prestosql.SystemSessionProperties.isCollectPlanStatisticsForAllQueries;
+import static io.prestosql.SystemSessionProperties.isScaleWriters;
 import static io.prestosql.SystemSessionProperties.isUsePreferredWritePartitioning;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.prestosql.spi.statistics.TableStatisticType.ROW_COUNT;
@@ -113,6 +114,7 @@ import static io.prestosql.sql.analyzer.TypeSignatureTranslator.toSqlType;
 import static io.prestosql.sql.planner.LogicalPlanner.Stage.OPTIMIZED;
 import static io.prestosql.sql.planner.LogicalPlanner.Stage.OPTIMIZED_AND_VALIDATED;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.plan.AggregationNode.singleGroupingSet;
 import static io.prestosql.sql.planner.plan.TableWriterNode.CreateReference;
 import static io.prestosql.sql.planner.plan.TableWriterNode.InsertReference;
@@ -489,8 +491,10 @@ public class LogicalPlanner
             else if (isUsePreferredWritePartitioning(session)) {
                 // TODO: move to iterative optimizer and use CBO
                 // empty connector partitioning handle means evenly partitioning on partitioning columns
+                // when scaling writers, skewed partitions are spread over multiple writers
+                PartitioningHandle writerPartitioning = isScaleWriters(session) ? SCALED_WRITER_HASH_DISTRIBUTION : FIXED_HASH_DISTRIBUTION;
                 partitioningScheme = Optional.of(new PartitioningScheme(
-                        Partitioning.create(FIXED_HASH_DISTRIBUTION, partitionFunctionArguments),
+                        Partitioning.create(writerPartitioning, partitionFunctionArguments),
                         outputLayout));
             }
         }
@@ -55,6 +55,7 @@ import io.prestosql.sql.planner.iterative.rule.InlineProjections;
 import io.prestosql.sql.planner.iterative.rule.MergeExcept;
 import io.prestosql.sql.planner.iterative.rule.MergeFilters;
 import io.prestosql.sql.planner.iterative.rule.MergeIntersect;
+import io.prestosql.sql.planner.iterative.rule.MergeJsonExtractCalls;
 import io.prestosql.sql.planner.iterative.rule.MergeLimitOverProjectWithSort;
 import io.prestosql.sql.planner.iterative.rule.MergeLimitWithDistinct;
 import io.prestosql.sql.planner.iterative.rule.MergeLimitWithSort;
@@ -726,6 +727,13 @@ public class PlanOptimizers
                         .add(new InlineProjections())
                         .build()));
 
+        // Must run after InlineProjections, which would otherwise inline the shared extraction of the JSON paths back
+        builder.add(new IterativeOptimizer(
+                ruleStats,
+                statsCalculator,
+                costCalculator,
+                ImmutableSet.of(new MergeJsonExtractCalls(metadata, typeAnalyzer))));
+
         // Optimizers above this don't understand local exchanges, so be careful moving this.
         builder.add(new AddLocalExchanges(metadata, typeAnalyzer));
 
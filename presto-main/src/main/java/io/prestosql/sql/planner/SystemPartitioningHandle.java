@@ -25,6 +25,7 @@ import io.prestosql.operator.HashGenerator;
 import io.prestosql.operator.InterpretedHashGenerator;
 import io.prestosql.operator.PartitionFunction;
 import io.prestosql.operator.PrecomputedHashGenerator;
+import io.prestosql.operator.SkewedPartitionFunction;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.connector.BucketFunction;
 import io.prestosql.spi.connector.ConnectorPartitioningHandle;
@@ -60,6 +61,7 @@ public final class SystemPartitioningHandle
     public static final PartitioningHandle FIXED_ARBITRARY_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.ROUND_ROBIN);
     public static final PartitioningHandle FIXED_BROADCAST_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.BROADCAST);
     public static final PartitioningHandle SCALED_WRITER_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.SCALED, SystemPartitionFunction.ROUND_ROBIN);
+    public static final PartitioningHandle SCALED_WRITER_HASH_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.SKEWED_HASH);
     public static final PartitioningHandle SOURCE_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.SOURCE, SystemPartitionFunction.UNKNOWN);
     public static final PartitioningHandle ARBITRARY_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.ARBITRARY, SystemPartitionFunction.UNKNOWN);
     public static final PartitioningHandle FIXED_PASSTHROUGH_DISTRIBUTION = createSystemPartitioning(SystemPartitioning.FIXED, SystemPartitionFunction.UNKNOWN);
@@ -164,7 +166,12 @@ public final class SystemPartitioningHandle
         requireNonNull(bucketToPartition, "bucketToPartition is null");
 
         BucketFunction bucketFunction = function.createBucketFunction(partitionChannelTypes, isHashPrecomputed, bucketToPartition.length);
-        return new BucketPartitionFunction(bucketFunction, bucketToPartition);
+        PartitionFunction partitionFunction = new BucketPartitionFunction(bucketFunction, bucketToPartition);
+        if (function == SystemPartitionFunction.SKEWED_HASH) {
+            // spread skewed partitions over the writer tasks, rather than over the buckets, as buckets may share a task
+            return new SkewedPartitionFunction(partitionFunction);
+        }
+        return partitionFunction;
     }
 
     public enum SystemPartitionFunction
@@ -192,6 +199,13 @@ public final class SystemPartitioningHandle
                 return new HashBucketFunction(new InterpretedHashGenerator(partitionChannelTypes, hashChannels), bucketCount);
             }
         },
+        SKEWED_HASH {
+            @Override
+            public BucketFunction createBucketFunction(List<Type> partitionChannelTypes, boolean isHashPrecomputed, int bucketCount)
+            {
+                return HASH.createBucketFunction(partitionChannelTypes, isHashPrecomputed, bucketCount);
+            }
+        },
         ROUND_ROBIN {
             @Override
             public BucketFunction createBucketFunction(List<Type> partitionChannelTypes, boolean isHashPrecomputed, int bucketCount)
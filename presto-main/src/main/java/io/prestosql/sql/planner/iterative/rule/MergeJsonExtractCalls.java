@@ -0,0 +1,375 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.Session;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.scalar.JsonPath;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.ExpressionInterpreter;
+import io.prestosql.sql.planner.FunctionCallBuilder;
+import io.prestosql.sql.planner.LiteralEncoder;
+import io.prestosql.sql.planner.NoOpSymbolResolver;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeAnalyzer;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.tree.Cast;
+import io.prestosql.sql.tree.CoalesceExpression;
+import io.prestosql.sql.tree.DefaultExpressionTraversalVisitor;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.IfExpression;
+import io.prestosql.sql.tree.InPredicate;
+import io.prestosql.sql.tree.LambdaExpression;
+import io.prestosql.sql.tree.LogicalBinaryExpression;
+import io.prestosql.sql.tree.LongLiteral;
+import io.prestosql.sql.tree.NodeRef;
+import io.prestosql.sql.tree.QualifiedName;
+import io.prestosql.sql.tree.SearchedCaseExpression;
+import io.prestosql.sql.tree.SimpleCaseExpression;
+import io.prestosql.sql.tree.SubscriptExpression;
+import io.prestosql.sql.tree.SymbolReference;
+import io.prestosql.sql.tree.TryExpression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static io.prestosql.SystemSessionProperties.isMergeJsonExtractCalls;
+import static io.prestosql.metadata.ResolvedFunction.extractFunctionName;
+import static io.prestosql.metadata.ResolvedFunction.isResolved;
+import static io.prestosql.operator.scalar.JsonExtractPathsFunctions.JSON_EXTRACT_PATHS;
+import static io.prestosql.operator.scalar.JsonExtractPathsFunctions.JSON_EXTRACT_SCALAR_PATHS;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureTranslator.toSqlType;
+import static io.prestosql.sql.planner.ReferenceAwareExpressionNodeInliner.replaceExpression;
+import static io.prestosql.sql.planner.plan.Patterns.project;
+import static io.prestosql.type.JsonType.JSON;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces calls to json_extract_scalar (or json_extract) that extract different constant paths
+ * from the same value with a single call extracting all the paths in one pass over the JSON value:
+ * <pre>
+ * - Project (a := json_extract_scalar(x, '$.a'), b := json_extract_scalar(x, '$.b'))
+ *     - Source
+ * </pre>
+ * into:
+ * <pre>
+ * - Project (a := values[1], b := values[2])
+ *     - Project (x := x, values := $json_extract_scalar_paths(x, ARRAY['$.a', '$.b']))
+ *         - Source
+ * </pre>
+ */
+public class MergeJsonExtractCalls
+        implements Rule<ProjectNode>
+{
+    private static final Pattern<ProjectNode> PATTERN = project();
+
+    private static final String JSON_EXTRACT_SCALAR = "json_extract_scalar";
+    private static final String JSON_EXTRACT = "json_extract";
+
+    private final Metadata metadata;
+    private final TypeAnalyzer typeAnalyzer;
+    private final LiteralEncoder literalEncoder;
+
+    public MergeJsonExtractCalls(Metadata metadata, TypeAnalyzer typeAnalyzer)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.typeAnalyzer = requireNonNull(typeAnalyzer, "typeAnalyzer is null");
+        this.literalEncoder = new LiteralEncoder(metadata);
+    }
+
+    @Override
+    public Pattern<ProjectNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    public boolean isEnabled(Session session)
+    {
+        return isMergeJsonExtractCalls(session);
+    }
+
+    @Override
+    public Result apply(ProjectNode node, Captures captures, Context context)
+    {
+        Set<Symbol> sourceSymbols = ImmutableSet.copyOf(node.getSource().getOutputSymbols());
+
+        Map<ExtractedValue, List<Extraction>> extractions = new LinkedHashMap<>();
+        for (Expression expression : node.getAssignments().getExpressions()) {
+            Map<NodeRef<Expression>, Type> expressionTypes = typeAnalyzer.getTypes(context.getSession(), context.getSymbolAllocator().getTypes(), expression);
+            for (FunctionCall call : getUnconditionalCalls(expression)) {
+                Extraction extraction = toExtraction(call, sourceSymbols, expressionTypes, context.getSession());
+                if (extraction != null) {
+                    extractions.computeIfAbsent(new ExtractedValue(extraction.getValue(), extraction.isScalar()), key -> new ArrayList<>())
+                            .add(extraction);
+                }
+            }
+        }
+
+        Assignments.Builder newSourceAssignments = Assignments.builder()
+                .putIdentities(node.getSource().getOutputSymbols());
+        Map<NodeRef<Expression>, Expression> replacements = new HashMap<>();
+        for (Map.Entry<ExtractedValue, List<Extraction>> entry : extractions.entrySet()) {
+            Map<String, Integer> pathIndexes = new LinkedHashMap<>();
+            for (Extraction extraction : entry.getValue()) {
+                pathIndexes.putIfAbsent(extraction.getPath(), pathIndexes.size() + 1);
+            }
+            if (pathIndexes.size() < 2) {
+                continue;
+            }
+
+            ExtractedValue extractedValue = entry.getKey();
+            Type valueType = extractedValue.isScalar() ? VARCHAR : JSON;
+            Symbol values = context.getSymbolAllocator().newSymbol("json_values", new ArrayType(valueType));
+            newSourceAssignments.put(values, new FunctionCallBuilder(metadata)
+                    .setName(QualifiedName.of(extractedValue.isScalar() ? JSON_EXTRACT_SCALAR_PATHS : JSON_EXTRACT_PATHS))
+                    .addArgument(context.getSymbolAllocator().getTypes().get(extractedValue.getSymbol()), extractedValue.getSymbol().toSymbolReference())
+                    .addArgument(new ArrayType(VARCHAR), toPathsLiteral(pathIndexes.keySet()))
+                    .build());
+
+            for (Extraction extraction : entry.getValue()) {
+                Expression value = new SubscriptExpression(values.toSymbolReference(), new LongLiteral(String.valueOf(pathIndexes.get(extraction.getPath()))));
+                if (!extraction.getType().equals(valueType)) {
+                    // json_extract_scalar on a varchar(x) value returns a varchar(x)
+                    value = new Cast(value, toSqlType(extraction.getType()));
+                }
+                replacements.put(NodeRef.<Expression>of(extraction.getCall()), value);
+            }
+        }
+
+        if (replacements.isEmpty()) {
+            return Result.empty();
+        }
+
+        ProjectNode source = new ProjectNode(context.getIdAllocator().getNextId(), node.getSource(), newSourceAssignments.build());
+        return Result.ofPlanNode(new ProjectNode(
+                node.getId(),
+                source,
+                node.getAssignments().rewrite(expression -> replaceExpression(expression, replacements))));
+    }
+
+    /**
+     * Returns the function calls that are evaluated whenever the expression is. The merged call is
+     * evaluated for every row, so merging a call that is only evaluated for some rows, like a call in
+     * a branch of a CASE or in a lambda, could fail the query on values it is never evaluated for.
+     */
+    private static List<FunctionCall> getUnconditionalCalls(Expression expression)
+    {
+        ImmutableList.Builder<FunctionCall> calls = ImmutableList.builder();
+        new UnconditionalCallCollector().process(expression, calls);
+        return calls.build();
+    }
+
+    private Extraction toExtraction(FunctionCall call, Set<Symbol> sourceSymbols, Map<NodeRef<Expression>, Type> expressionTypes, Session session)
+    {
+        if (!isResolved(call.getName()) || call.getArguments().size() != 2) {
+            return null;
+        }
+        String name = extractFunctionName(call.getName());
+        if (!name.equals(JSON_EXTRACT_SCALAR) && !name.equals(JSON_EXTRACT)) {
+            return null;
+        }
+
+        // Only values produced by the source can be extracted ahead, not lambda arguments
+        Expression value = call.getArguments().get(0);
+        if (!(value instanceof SymbolReference) || !sourceSymbols.contains(Symbol.from(value))) {
+            return null;
+        }
+
+        Expression pathExpression = call.getArguments().get(1);
+        Object path = ExpressionInterpreter.expressionOptimizer(pathExpression, metadata, session, expressionTypes)
+                .optimize(NoOpSymbolResolver.INSTANCE);
+        if (!(path instanceof JsonPath)) {
+            return null;
+        }
+
+        return new Extraction(call, Symbol.from(value), ((JsonPath) path).pattern(), name.equals(JSON_EXTRACT_SCALAR), expressionTypes.get(NodeRef.<Expression>of(call)));
+    }
+
+    private Expression toPathsLiteral(Set<String> paths)
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, paths.size());
+        for (String path : paths) {
+            VARCHAR.writeString(blockBuilder, path);
+        }
+        return literalEncoder.toExpression(blockBuilder.build(), new ArrayType(VARCHAR));
+    }
+
+    private static class UnconditionalCallCollector
+            extends DefaultExpressionTraversalVisitor<ImmutableList.Builder<FunctionCall>>
+    {
+        @Override
+        protected Void visitFunctionCall(FunctionCall node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            calls.add(node);
+            return super.visitFunctionCall(node, calls);
+        }
+
+        @Override
+        protected Void visitIfExpression(IfExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            process(node.getCondition(), calls);
+            return null;
+        }
+
+        @Override
+        protected Void visitSearchedCaseExpression(SearchedCaseExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            // only the first condition is evaluated for every row
+            process(node.getWhenClauses().get(0).getOperand(), calls);
+            return null;
+        }
+
+        @Override
+        protected Void visitSimpleCaseExpression(SimpleCaseExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            process(node.getOperand(), calls);
+            return null;
+        }
+
+        @Override
+        protected Void visitCoalesceExpression(CoalesceExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            process(node.getOperands().get(0), calls);
+            return null;
+        }
+
+        @Override
+        protected Void visitLogicalBinaryExpression(LogicalBinaryExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            process(node.getLeft(), calls);
+            return null;
+        }
+
+        @Override
+        protected Void visitInPredicate(InPredicate node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            process(node.getValue(), calls);
+            return null;
+        }
+
+        @Override
+        protected Void visitTryExpression(TryExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            // failures of the merged call would not be suppressed
+            return null;
+        }
+
+        @Override
+        protected Void visitLambdaExpression(LambdaExpression node, ImmutableList.Builder<FunctionCall> calls)
+        {
+            return null;
+        }
+    }
+
+    private static class ExtractedValue
+    {
+        private final Symbol symbol;
+        private final boolean scalar;
+
+        public ExtractedValue(Symbol symbol, boolean scalar)
+        {
+            this.symbol = requireNonNull(symbol, "symbol is null");
+            this.scalar = scalar;
+        }
+
+        public Symbol getSymbol()
+        {
+            return symbol;
+        }
+
+        public boolean isScalar()
+        {
+            return scalar;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ExtractedValue that = (ExtractedValue) o;
+            return scalar == that.scalar &&
+                    symbol.equals(that.symbol);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(symbol, scalar);
+        }
+    }
+
+    private static class Extraction
+    {
+        private final FunctionCall call;
+        private final Symbol value;
+        private final String path;
+        private final boolean scalar;
+        private final Type type;
+
+        public Extraction(FunctionCall call, Symbol value, String path, boolean scalar, Type type)
+        {
+            this.call = requireNonNull(call, "call is null");
+            this.value = requireNonNull(value, "value is null");
+            this.path = requireNonNull(path, "path is null");
+            this.scalar = scalar;
+            this.type = requireNonNull(type, "type is null");
+        }
+
+        public FunctionCall getCall()
+        {
+            return call;
+        }
+
+        public Symbol getValue()
+        {
+            return value;
+        }
+
+        public String getPath()
+        {
+            return path;
+        }
+
+        public boolean isScalar()
+        {
+            return scalar;
+        }
+
+        public Type getType()
+        {
+            return type;
+        }
+    }
+}
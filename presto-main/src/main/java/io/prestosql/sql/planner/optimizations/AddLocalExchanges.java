@@ -77,6 +77,7 @@ import static io.prestosql.SystemSessionProperties.isDistributedSortEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillEnabled;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_HASH_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static io.prestosql.sql.planner.optimizations.StreamPreferredProperties.any;
 import static io.prestosql.sql.planner.optimizations.StreamPreferredProperties.defaultParallelism;
@@ -539,6 +540,10 @@ public class AddLocalExchanges
                         .map(scheme -> scheme.getPartitioning().getHandle())
                         .filter(isEqual(FIXED_HASH_DISTRIBUTION))
                         .isPresent();
+                boolean hasScaledWriterHashDistribution = node.getPartitioningScheme()
+                        .map(scheme -> scheme.getPartitioning().getHandle())
+                        .filter(isEqual(SCALED_WRITER_HASH_DISTRIBUTION))
+                        .isPresent();
                 if (node.getPartitioningScheme().isEmpty()) {
                     requiredProperties = fixedParallelism();
                     preferredProperties = fixedParallelism();
@@ -547,6 +552,16 @@ public class AddLocalExchanges
                     requiredProperties = exactlyPartitionedOn(node.getPartitioningScheme().get().getPartitioning().getColumns());
                     preferredProperties = requiredProperties;
                 }
+                else if (hasScaledWriterHashDistribution) {
+                    // the rows of a skewed partition are spread over multiple writers, so the streams are not partitioned on the columns
+                    PlanWithProperties source = planAndEnforce(node.getSource(), fixedParallelism(), fixedParallelism());
+                    ExchangeNode exchangeNode = partitionedExchange(
+                            idAllocator.getNextId(),
+                            LOCAL,
+                            source.getNode(),
+                            new PartitioningScheme(node.getPartitioningScheme().get().getPartitioning(), source.getNode().getOutputSymbols()));
+                    return rebaseAndDeriveProperties(node, ImmutableList.of(deriveProperties(exchangeNode, source.getProperties())));
+                }
                 else {
                     requiredProperties = singleStream();
                     preferredProperties = defaultParallelism(session);
@@ -24,6 +24,9 @@ public final class JoniRegexp
     private final Slice pattern;
     private final Regex regex;
 
+    // chosen on first use, as many patterns are only used to replace or extract
+    private RegexpSearcher searcher;
+
     public JoniRegexp(Slice pattern, Regex regex)
     {
         this.pattern = requireNonNull(pattern, "pattern is null");
@@ -45,6 +48,19 @@ public final class JoniRegexp
         return regex.matcher(bytes);
     }
 
+    /**
+     * Returns whether the source contains a match of the pattern.
+     */
+    public boolean search(Slice source)
+    {
+        RegexpSearcher searcher = this.searcher;
+        if (searcher == null) {
+            searcher = RegexpSearcher.compile(pattern, regex);
+            this.searcher = searcher;
+        }
+        return searcher.search(source);
+    }
+
     @Override
     public String toString()
     {
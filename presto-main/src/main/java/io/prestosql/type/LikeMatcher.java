@@ -0,0 +1,297 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.type;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.jcodings.specific.NonStrictUTF8Encoding;
+import io.airlift.joni.Matcher;
+import io.airlift.joni.Option;
+import io.airlift.joni.Regex;
+import io.airlift.joni.Syntax;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.joni.constants.MetaChar.INEFFECTIVE_META_CHAR;
+import static io.airlift.joni.constants.SyntaxProperties.OP_ASTERISK_ZERO_INF;
+import static io.airlift.joni.constants.SyntaxProperties.OP_DOT_ANYCHAR;
+import static io.airlift.joni.constants.SyntaxProperties.OP_LINE_ANCHOR;
+import static io.prestosql.type.LikeFunctions.checkEscape;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Matches values against a LIKE pattern. Patterns made only of literals and {@code %} wildcards
+ * are matched by comparing and searching the literals in the value bytes, which is correct for
+ * UTF-8 because a valid UTF-8 sequence can only be found at a code point boundary. Patterns
+ * with a {@code _} wildcard must count code points and are translated to a Joni regular
+ * expression instead.
+ */
+abstract class LikeMatcher
+{
+    private static final Syntax SYNTAX = new Syntax(
+            OP_DOT_ANYCHAR | OP_ASTERISK_ZERO_INF | OP_LINE_ANCHOR,
+            0,
+            0,
+            Option.NONE,
+            new Syntax.MetaCharTable(
+                    '\\',                           /* esc */
+                    INEFFECTIVE_META_CHAR,          /* anychar '.' */
+                    INEFFECTIVE_META_CHAR,          /* anytime '*' */
+                    INEFFECTIVE_META_CHAR,          /* zero or one time '?' */
+                    INEFFECTIVE_META_CHAR,          /* one or more time '+' */
+                    INEFFECTIVE_META_CHAR));        /* anychar anytime */
+
+    public abstract boolean match(Slice value);
+
+    public static LikeMatcher compile(String pattern, Optional<Character> escape)
+    {
+        // split the pattern on the unescaped '%' wildcards
+        ImmutableList.Builder<String> parts = ImmutableList.builder();
+        StringBuilder part = new StringBuilder(pattern.length());
+        boolean singleCharacterWildcard = false;
+        boolean escaped = false;
+        for (char currentChar : pattern.toCharArray()) {
+            checkEscape(!escaped || currentChar == '%' || currentChar == '_' || escape.get() == currentChar);
+            if (!escaped && escape.isPresent() && escape.get() == currentChar) {
+                escaped = true;
+            }
+            else if (!escaped && currentChar == '%') {
+                parts.add(part.toString());
+                part.setLength(0);
+            }
+            else if (!escaped && currentChar == '_') {
+                singleCharacterWildcard = true;
+            }
+            else {
+                part.append(currentChar);
+                escaped = false;
+            }
+        }
+        checkEscape(!escaped);
+        if (singleCharacterWildcard) {
+            return new JoniMatcher(pattern, escape);
+        }
+        parts.add(part.toString());
+
+        List<Slice> literals = parts.build().stream()
+                .map(Slices::utf8Slice)
+                .collect(toImmutableList());
+        if (literals.size() == 1) {
+            return new EqualsMatcher(literals.get(0));
+        }
+
+        Slice prefix = literals.get(0);
+        Slice suffix = literals.get(literals.size() - 1);
+        List<Slice> infixes = literals.subList(1, literals.size() - 1).stream()
+                .filter(literal -> literal.length() > 0)
+                .collect(toImmutableList());
+        if (infixes.isEmpty() && suffix.length() == 0) {
+            return new PrefixMatcher(prefix);
+        }
+        if (infixes.isEmpty() && prefix.length() == 0) {
+            return new SuffixMatcher(suffix);
+        }
+        if (infixes.size() == 1 && prefix.length() == 0 && suffix.length() == 0) {
+            return new ContainsMatcher(infixes.get(0));
+        }
+        return new SequenceMatcher(prefix, infixes, suffix);
+    }
+
+    private static boolean startsWith(Slice value, Slice prefix)
+    {
+        return value.length() >= prefix.length() && value.equals(0, prefix.length(), prefix, 0, prefix.length());
+    }
+
+    private static boolean endsWith(Slice value, Slice suffix)
+    {
+        return value.length() >= suffix.length() && value.equals(value.length() - suffix.length(), suffix.length(), suffix, 0, suffix.length());
+    }
+
+    private static class EqualsMatcher
+            extends LikeMatcher
+    {
+        private final Slice literal;
+
+        public EqualsMatcher(Slice literal)
+        {
+            this.literal = requireNonNull(literal, "literal is null");
+        }
+
+        @Override
+        public boolean match(Slice value)
+        {
+            return value.equals(literal);
+        }
+    }
+
+    private static class PrefixMatcher
+            extends LikeMatcher
+    {
+        private final Slice prefix;
+
+        public PrefixMatcher(Slice prefix)
+        {
+            this.prefix = requireNonNull(prefix, "prefix is null");
+        }
+
+        @Override
+        public boolean match(Slice value)
+        {
+            return startsWith(value, prefix);
+        }
+    }
+
+    private static class SuffixMatcher
+            extends LikeMatcher
+    {
+        private final Slice suffix;
+
+        public SuffixMatcher(Slice suffix)
+        {
+            this.suffix = requireNonNull(suffix, "suffix is null");
+        }
+
+        @Override
+        public boolean match(Slice value)
+        {
+            return endsWith(value, suffix);
+        }
+    }
+
+    private static class ContainsMatcher
+            extends LikeMatcher
+    {
+        private final Slice infix;
+
+        public ContainsMatcher(Slice infix)
+        {
+            this.infix = requireNonNull(infix, "infix is null");
+        }
+
+        @Override
+        public boolean match(Slice value)
+        {
+            return value.indexOf(infix) >= 0;
+        }
+    }
+
+    /**
+     * Matches {@code prefix%infix_1%...%infix_n%suffix}. Searching each infix at its leftmost
+     * position leaves the most room to the following ones, so no backtracking is needed.
+     */
+    private static class SequenceMatcher
+            extends LikeMatcher
+    {
+        private final Slice prefix;
+        private final List<Slice> infixes;
+        private final Slice suffix;
+
+        public SequenceMatcher(Slice prefix, List<Slice> infixes, Slice suffix)
+        {
+            this.prefix = requireNonNull(prefix, "prefix is null");
+            this.infixes = ImmutableList.copyOf(requireNonNull(infixes, "infixes is null"));
+            this.suffix = requireNonNull(suffix, "suffix is null");
+        }
+
+        @Override
+        public boolean match(Slice value)
+        {
+            int end = value.length() - suffix.length();
+            if (end < prefix.length() || !startsWith(value, prefix) || !endsWith(value, suffix)) {
+                return false;
+            }
+
+            int position = prefix.length();
+            for (Slice infix : infixes) {
+                int index = value.indexOf(infix, position);
+                if (index < 0 || index + infix.length() > end) {
+                    return false;
+                }
+                position = index + infix.length();
+            }
+            return true;
+        }
+    }
+
+    private static class JoniMatcher
+            extends LikeMatcher
+    {
+        private final Regex regex;
+
+        @SuppressWarnings("NestedSwitchStatement")
+        public JoniMatcher(String pattern, Optional<Character> escape)
+        {
+            StringBuilder regex = new StringBuilder(pattern.length() * 2);
+
+            regex.append('^');
+            boolean escaped = false;
+            for (char currentChar : pattern.toCharArray()) {
+                if (!escaped && escape.isPresent() && escape.get() == currentChar) {
+                    escaped = true;
+                }
+                else {
+                    switch (currentChar) {
+                        case '%':
+                            regex.append(escaped ? "%" : ".*");
+                            escaped = false;
+                            break;
+                        case '_':
+                            regex.append(escaped ? "_" : ".");
+                            escaped = false;
+                            break;
+                        default:
+                            // escape special regex characters
+                            switch (currentChar) {
+                                case '\\':
+                                case '^':
+                                case '$':
+                                case '.':
+                                case '*':
+                                    regex.append('\\');
+                            }
+
+                            regex.append(currentChar);
+                            escaped = false;
+                    }
+                }
+            }
+            regex.append('$');
+
+            byte[] bytes = regex.toString().getBytes(UTF_8);
+            this.regex = new Regex(bytes, 0, bytes.length, Option.MULTILINE, NonStrictUTF8Encoding.INSTANCE, SYNTAX);
+        }
+
+        @Override
+        public boolean match(Slice value)
+        {
+            // Joni can infinite loop with UTF8Encoding when invalid UTF-8 is encountered.
+            // NonStrictUTF8Encoding must be used to avoid this issue.
+            Matcher matcher;
+            int offset;
+            if (value.hasByteArray()) {
+                offset = value.byteArrayOffset();
+                matcher = regex.matcher(value.byteArray(), offset, offset + value.length());
+            }
+            else {
+                offset = 0;
+                matcher = regex.matcher(value.getBytes());
+            }
+            return matcher.match(offset, offset + value.length(), Option.NONE) != -1;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.type;
+
+import io.airlift.slice.Slice;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+public final class LikePattern
+{
+    private final String pattern;
+    private final Optional<Character> escape;
+    private final LikeMatcher matcher;
+
+    public static LikePattern compile(String pattern, Optional<Character> escape)
+    {
+        return new LikePattern(pattern, escape, LikeMatcher.compile(pattern, escape));
+    }
+
+    private LikePattern(String pattern, Optional<Character> escape, LikeMatcher matcher)
+    {
+        this.pattern = requireNonNull(pattern, "pattern is null");
+        this.escape = requireNonNull(escape, "escape is null");
+        this.matcher = requireNonNull(matcher, "matcher is null");
+    }
+
+    public String getPattern()
+    {
+        return pattern;
+    }
+
+    public Optional<Character> getEscape()
+    {
+        return escape;
+    }
+
+    public boolean matches(Slice value)
+    {
+        return matcher.match(value);
+    }
+
+    @Override
+    public String toString()
+    {
+        return pattern;
+    }
+}
@@ -13,6 +13,7 @@
  */
 package io.prestosql.type;
 
+import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
@@ -20,7 +21,11 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.type.AbstractVariableWidthType;
 import io.prestosql.spi.type.TypeSignature;
 
-import static io.prestosql.operator.scalar.JoniRegexpCasts.joniRegexp;
+import java.util.Optional;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_BYTE;
+import static io.airlift.slice.SizeOf.SIZE_OF_SHORT;
+import static io.airlift.slice.Slices.utf8Slice;
 
 public class LikePatternType
         extends AbstractVariableWidthType
@@ -30,7 +35,7 @@ public class LikePatternType
 
     private LikePatternType()
     {
-        super(new TypeSignature(NAME), JoniRegexp.class);
+        super(new TypeSignature(NAME), LikePattern.class);
     }
 
     @Override
@@ -52,13 +57,26 @@ public class LikePatternType
             return null;
         }
 
-        return joniRegexp(block.getSlice(position, 0, block.getSliceLength(position)));
+        // the escape flag and character, followed by the pattern
+        Slice slice = block.getSlice(position, 0, block.getSliceLength(position));
+        Optional<Character> escape = Optional.empty();
+        int offset = SIZE_OF_BYTE;
+        if (slice.getByte(0) != 0) {
+            escape = Optional.of((char) slice.getShort(offset));
+            offset += SIZE_OF_SHORT;
+        }
+        return LikePattern.compile(slice.slice(offset, slice.length() - offset).toStringUtf8(), escape);
     }
 
     @Override
     public void writeObject(BlockBuilder blockBuilder, Object value)
     {
-        Slice pattern = ((JoniRegexp) value).pattern();
-        blockBuilder.writeBytes(pattern, 0, pattern.length()).closeEntry();
+        LikePattern pattern = (LikePattern) value;
+        DynamicSliceOutput output = new DynamicSliceOutput(SIZE_OF_BYTE + SIZE_OF_SHORT + pattern.getPattern().length());
+        output.writeBoolean(pattern.getEscape().isPresent());
+        pattern.getEscape().ifPresent(output::writeShort);
+        output.writeBytes(utf8Slice(pattern.getPattern()));
+        Slice slice = output.slice();
+        blockBuilder.writeBytes(slice, 0, slice.length()).closeEntry();
     }
 }
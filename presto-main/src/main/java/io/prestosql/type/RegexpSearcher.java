@@ -0,0 +1,382 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.type;
+
+import com.google.re2j.Options;
+import com.google.re2j.Pattern;
+import com.google.re2j.PatternSyntaxException;
+import io.airlift.joni.Matcher;
+import io.airlift.joni.Option;
+import io.airlift.joni.Regex;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.util.Optional;
+
+import static com.google.re2j.Options.Algorithm.DFA_FALLBACK_TO_NFA;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Searches values for a Joni regular expression, as {@code regexp_like} does. The engine is
+ * chosen for each pattern: patterns matching a single literal are searched with
+ * {@link Slice#indexOf}, patterns only using literals, character classes, groups, alternations
+ * and quantifiers are searched with the RE2J DFA, which runs in linear time, and the other
+ * patterns, such as those with anchors, escape classes, flags, backreferences or lookarounds,
+ * are searched with Joni. The constructs searched with RE2J have the same meaning in both
+ * syntaxes.
+ */
+abstract class RegexpSearcher
+{
+    // limit the memory retained by the DFA of each pattern, above which RE2J falls back to NFA
+    private static final int DFA_STATES_LIMIT = 10_000;
+    private static final int DFA_RETRIES = 5;
+
+    public abstract boolean search(Slice source);
+
+    public static RegexpSearcher compile(Slice pattern, Regex regex)
+    {
+        String patternString = pattern.toStringUtf8();
+
+        Optional<String> literal = extractLiteral(patternString);
+        if (literal.isPresent()) {
+            return new LiteralSearcher(Slices.utf8Slice(literal.get()));
+        }
+
+        if (isDfaCompatible(patternString)) {
+            Options options = Options.builder()
+                    .setAlgorithm(DFA_FALLBACK_TO_NFA)
+                    .setMaximumNumberOfDFAStates(DFA_STATES_LIMIT)
+                    .setNumberOfDFARetries(DFA_RETRIES)
+                    .build();
+            try {
+                return new Re2JSearcher(Pattern.compile(removeDotStarPrefix(patternString), options));
+            }
+            catch (PatternSyntaxException ignored) {
+                // let Joni report or accept the pattern
+            }
+        }
+
+        return new JoniSearcher(regex);
+    }
+
+    /**
+     * Returns the literal a pattern matches, if the pattern only consists of literal characters
+     * and escaped punctuation, optionally surrounded by {@code .*}, which does not change whether
+     * a value contains a match.
+     */
+    static Optional<String> extractLiteral(String pattern)
+    {
+        String corePattern = removeDotStarPrefix(pattern);
+        StringBuilder literal = new StringBuilder(corePattern.length());
+        for (int i = 0; i < corePattern.length(); i++) {
+            char currentChar = corePattern.charAt(i);
+            if (currentChar == '\\') {
+                if (i + 1 == corePattern.length() || !isEscapedPunctuation(corePattern.charAt(i + 1))) {
+                    return Optional.empty();
+                }
+                i++;
+                literal.append(corePattern.charAt(i));
+            }
+            else if (currentChar == '.' && isDotStarSuffix(corePattern, i)) {
+                break;
+            }
+            else if (isMetaCharacter(currentChar)) {
+                return Optional.empty();
+            }
+            else {
+                literal.append(currentChar);
+            }
+        }
+        return Optional.of(literal.toString());
+    }
+
+    /**
+     * Checks that a pattern only consists of literal characters, escaped punctuation, {@code .},
+     * character classes of such characters and ranges, groups, alternations, and greedy or lazy
+     * quantifiers.
+     */
+    static boolean isDfaCompatible(String pattern)
+    {
+        int depth = 0;
+        boolean quantifiable = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char currentChar = pattern.charAt(i);
+            switch (currentChar) {
+                case '\\':
+                    if (i + 1 == pattern.length() || !isEscapedPunctuation(pattern.charAt(i + 1))) {
+                        return false;
+                    }
+                    i += 2;
+                    quantifiable = true;
+                    break;
+                case '(':
+                    if (pattern.startsWith("(?:", i)) {
+                        i += 3;
+                    }
+                    else if (pattern.startsWith("(?", i)) {
+                        // flags, lookarounds, named and atomic groups
+                        return false;
+                    }
+                    else {
+                        i++;
+                    }
+                    depth++;
+                    quantifiable = false;
+                    break;
+                case ')':
+                    depth--;
+                    if (depth < 0) {
+                        return false;
+                    }
+                    i++;
+                    quantifiable = true;
+                    break;
+                case '|':
+                    i++;
+                    quantifiable = false;
+                    break;
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    if (!quantifiable) {
+                        return false;
+                    }
+                    i = currentChar == '{' ? skipInterval(pattern, i) : i + 1;
+                    if (i < 0) {
+                        return false;
+                    }
+                    if (i < pattern.length() && pattern.charAt(i) == '?') {
+                        // lazy quantifier
+                        i++;
+                    }
+                    else if (i < pattern.length() && pattern.charAt(i) == '+') {
+                        // possessive quantifiers are not supported by RE2J
+                        return false;
+                    }
+                    quantifiable = false;
+                    break;
+                case '[':
+                    i = skipCharacterClass(pattern, i);
+                    if (i < 0) {
+                        return false;
+                    }
+                    quantifiable = true;
+                    break;
+                case '.':
+                    i++;
+                    quantifiable = true;
+                    break;
+                case '^':
+                case '$':
+                case ']':
+                case '}':
+                    // the anchors depend on the line terminators of each syntax,
+                    // and unbalanced closing brackets are only literals in Joni
+                    return false;
+                default:
+                    i++;
+                    quantifiable = true;
+            }
+        }
+        return depth == 0;
+    }
+
+    /**
+     * Returns the index after the {@code {n}}, {@code {n,}} or {@code {n,m}} interval starting
+     * at the given index, or -1 if there is no such interval.
+     */
+    private static int skipInterval(String pattern, int start)
+    {
+        int i = start + 1;
+        int digits = 0;
+        while (i < pattern.length() && isDigit(pattern.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (digits == 0) {
+            return -1;
+        }
+        if (i < pattern.length() && pattern.charAt(i) == ',') {
+            i++;
+            while (i < pattern.length() && isDigit(pattern.charAt(i))) {
+                i++;
+            }
+        }
+        if (i == pattern.length() || pattern.charAt(i) != '}') {
+            return -1;
+        }
+        return i + 1;
+    }
+
+    /**
+     * Returns the index after the character class starting at the given index, or -1 if the class
+     * uses more than literal characters, escaped punctuation and ranges.
+     */
+    private static int skipCharacterClass(String pattern, int start)
+    {
+        int i = start + 1;
+        if (i < pattern.length() && pattern.charAt(i) == '^') {
+            i++;
+        }
+        int items = 0;
+        while (i < pattern.length() && pattern.charAt(i) != ']') {
+            i = skipClassCharacter(pattern, i, items == 0);
+            if (i >= 0 && i + 1 < pattern.length() && pattern.charAt(i) == '-' && pattern.charAt(i + 1) != ']') {
+                // range
+                i = skipClassCharacter(pattern, i + 1, false);
+            }
+            if (i < 0) {
+                return -1;
+            }
+            items++;
+        }
+        if (items == 0 || i == pattern.length()) {
+            return -1;
+        }
+        return i + 1;
+    }
+
+    private static int skipClassCharacter(String pattern, int index, boolean first)
+    {
+        char currentChar = pattern.charAt(index);
+        if (currentChar == '\\') {
+            if (index + 1 == pattern.length() || !isEscapedPunctuation(pattern.charAt(index + 1))) {
+                return -1;
+            }
+            return index + 2;
+        }
+        if (currentChar == '[' || currentChar == '&') {
+            // nested classes, intersections and POSIX brackets have different meanings in the syntaxes
+            return -1;
+        }
+        if (currentChar == '-' && !first && (index + 1 == pattern.length() || pattern.charAt(index + 1) != ']')) {
+            return -1;
+        }
+        return index + 1;
+    }
+
+    private static String removeDotStarPrefix(String pattern)
+    {
+        if (pattern.startsWith(".*?")) {
+            return pattern.substring(3);
+        }
+        if (pattern.startsWith(".*")) {
+            return pattern.substring(2);
+        }
+        return pattern;
+    }
+
+    private static boolean isDotStarSuffix(String pattern, int index)
+    {
+        String suffix = pattern.substring(index);
+        return suffix.equals(".*") || suffix.equals(".*?");
+    }
+
+    private static boolean isMetaCharacter(char value)
+    {
+        switch (value) {
+            case '\\':
+            case '^':
+            case '$':
+            case '.':
+            case '|':
+            case '?':
+            case '*':
+            case '+':
+            case '(':
+            case ')':
+            case '[':
+            case ']':
+            case '{':
+            case '}':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isEscapedPunctuation(char value)
+    {
+        // escaped letters and digits are classes, anchors, backreferences or control characters
+        return value > ' ' && value < 127 && !Character.isLetterOrDigit(value);
+    }
+
+    private static boolean isDigit(char value)
+    {
+        return value >= '0' && value <= '9';
+    }
+
+    private static class LiteralSearcher
+            extends RegexpSearcher
+    {
+        private final Slice literal;
+
+        public LiteralSearcher(Slice literal)
+        {
+            this.literal = requireNonNull(literal, "literal is null");
+        }
+
+        @Override
+        public boolean search(Slice source)
+        {
+            return source.indexOf(literal) >= 0;
+        }
+    }
+
+    private static class Re2JSearcher
+            extends RegexpSearcher
+    {
+        private final Pattern pattern;
+
+        public Re2JSearcher(Pattern pattern)
+        {
+            this.pattern = requireNonNull(pattern, "pattern is null");
+        }
+
+        @Override
+        public boolean search(Slice source)
+        {
+            return pattern.find(source);
+        }
+    }
+
+    static class JoniSearcher
+            extends RegexpSearcher
+    {
+        private final Regex regex;
+
+        public JoniSearcher(Regex regex)
+        {
+            this.regex = requireNonNull(regex, "regex is null");
+        }
+
+        @Override
+        public boolean search(Slice source)
+        {
+            Matcher matcher;
+            int offset;
+            if (source.hasByteArray()) {
+                offset = source.byteArrayOffset();
+                matcher = regex.matcher(source.byteArray(), offset, offset + source.length());
+            }
+            else {
+                offset = 0;
+                matcher = regex.matcher(source.getBytes());
+            }
+            return matcher.search(offset, offset + source.length(), Option.DEFAULT) != -1;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.util;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.XxHash64;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sets of the constants of large IN lists, for the types which values are equal only when their
+ * native representations are equal. These avoid invoking the HASH_CODE and EQUAL operators of the
+ * type for each lookup, as the sets created by {@link FastutilSetHelper} do.
+ */
+public final class InListSets
+{
+    // a dense set uses at most this many bits per value
+    private static final long MAX_BITS_PER_DENSE_VALUE = 64;
+    private static final long MIN_DENSE_RANGE = 1024;
+
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private InListSets() {}
+
+    /**
+     * Creates a bitset of the values when their range is small, and a hash set otherwise.
+     */
+    public static Object createLongSet(Collection<Long> values)
+    {
+        requireNonNull(values, "values is null");
+        Optional<DenseLongSet> denseSet = DenseLongSet.tryCreate(values);
+        if (denseSet.isPresent()) {
+            return denseSet.get();
+        }
+        return new SparseLongSet(values);
+    }
+
+    public static final class DenseLongSet
+    {
+        private final long min;
+        private final long range;
+        private final long[] bits;
+
+        private DenseLongSet(long min, long range, long[] bits)
+        {
+            this.min = min;
+            this.range = range;
+            this.bits = bits;
+        }
+
+        public static Optional<DenseLongSet> tryCreate(Collection<Long> values)
+        {
+            if (values.isEmpty()) {
+                return Optional.empty();
+            }
+            long min = values.stream().mapToLong(Long::longValue).min().getAsLong();
+            long max = values.stream().mapToLong(Long::longValue).max().getAsLong();
+            // the range overflows when the values span more than half of the longs
+            long range = max - min + 1;
+            if (range <= 0 || range > max(MIN_DENSE_RANGE, values.size() * MAX_BITS_PER_DENSE_VALUE)) {
+                return Optional.empty();
+            }
+
+            long[] bits = new long[toIntExact((range + 63) >>> 6)];
+            for (long value : values) {
+                long offset = value - min;
+                bits[(int) (offset >>> 6)] |= 1L << offset;
+            }
+            return Optional.of(new DenseLongSet(min, range, bits));
+        }
+
+        public boolean contains(long value)
+        {
+            // values below the minimum wrap around to offsets beyond the range
+            long offset = value - min;
+            if (Long.compareUnsigned(offset, range) >= 0) {
+                return false;
+            }
+            return (bits[(int) (offset >>> 6)] & (1L << offset)) != 0;
+        }
+    }
+
+    /**
+     * Open addressed hash set with a load factor of at most 0.25, using zero as the empty slot.
+     */
+    public static final class SparseLongSet
+    {
+        private final long[] keys;
+        private final int mask;
+        private final int shift;
+        private final boolean containsZero;
+
+        public SparseLongSet(Collection<Long> values)
+        {
+            requireNonNull(values, "values is null");
+            int capacity = tableSize(values.size());
+            keys = new long[capacity];
+            mask = capacity - 1;
+            shift = numberOfLeadingZeros(capacity) + 1;
+
+            boolean containsZero = false;
+            for (long value : values) {
+                if (value == 0) {
+                    containsZero = true;
+                    continue;
+                }
+                int slot = slot(value);
+                while (keys[slot] != 0 && keys[slot] != value) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = value;
+            }
+            this.containsZero = containsZero;
+        }
+
+        public boolean contains(long value)
+        {
+            if (value == 0) {
+                return containsZero;
+            }
+            int slot = slot(value);
+            while (true) {
+                long key = keys[slot];
+                if (key == value) {
+                    return true;
+                }
+                if (key == 0) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private int slot(long value)
+        {
+            // the high bits of the product are well mixed
+            return (int) ((value * MULTIPLIER) >>> shift);
+        }
+    }
+
+    /**
+     * Hash set of byte sequences, which rejects the values with a length that none of the
+     * constants have before hashing them.
+     */
+    public static final class SliceSet
+    {
+        private final long[] lengths;
+        private final Slice[] keys;
+        private final long[] keyHashes;
+        private final int mask;
+
+        public SliceSet(Collection<Slice> values)
+        {
+            requireNonNull(values, "values is null");
+            int maxLength = values.stream().mapToInt(Slice::length).max().orElse(0);
+            lengths = new long[(maxLength >>> 6) + 1];
+            int capacity = tableSize(values.size());
+            keys = new Slice[capacity];
+            keyHashes = new long[capacity];
+            mask = capacity - 1;
+
+            for (Slice value : values) {
+                lengths[value.length() >>> 6] |= 1L << value.length();
+                long hash = XxHash64.hash(value);
+                int slot = (int) hash & mask;
+                while (keys[slot] != null && !keys[slot].equals(value)) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = value;
+                keyHashes[slot] = hash;
+            }
+        }
+
+        public boolean contains(Slice value)
+        {
+            int length = value.length();
+            int lengthIndex = length >>> 6;
+            if (lengthIndex >= lengths.length || (lengths[lengthIndex] & (1L << length)) == 0) {
+                return false;
+            }
+
+            long hash = XxHash64.hash(value);
+            int slot = (int) hash & mask;
+            while (true) {
+                Slice key = keys[slot];
+                if (key == null) {
+                    return false;
+                }
+                if (keyHashes[slot] == hash && key.equals(value)) {
+                    return true;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    private static int tableSize(int valueCount)
+    {
+        checkArgument(valueCount < 1 << 28, "Too many values: %s", valueCount);
+        // a power of two that is at least four times the number of values
+        return Integer.highestOneBit(max(valueCount, 1) * 8 - 1);
+    }
+}
@@ -174,6 +174,7 @@ public class MockManagedQueryExecution
 
                         new Duration(100, NANOSECONDS),
                         new Duration(200, NANOSECONDS),
+                        new Duration(150, NANOSECONDS),
 
                         9,
                         10,
@@ -170,6 +170,7 @@ public class TestQueryStats
 
             new Duration(100, NANOSECONDS),
             new Duration(200, NANOSECONDS),
+            new Duration(150, NANOSECONDS),
 
             9,
             10,
@@ -258,6 +259,7 @@ public class TestQueryStats
 
         assertEquals(actual.getPlanningTime(), new Duration(100, NANOSECONDS));
         assertEquals(actual.getFinishingTime(), new Duration(200, NANOSECONDS));
+        assertEquals(actual.getCommitTime(), new Duration(150, NANOSECONDS));
 
         assertEquals(actual.getTotalTasks(), 9);
         assertEquals(actual.getRunningTasks(), 10);
@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestSkewedPartitionFunction
+{
+    private static final int PARTITION_COUNT = 8;
+    private static final long MIN_ROWS_PER_WRITER = 100;
+
+    @Test
+    public void testUniformDataIsNotSpread()
+    {
+        SkewedPartitionFunction function = new SkewedPartitionFunction(new ValuePartitionFunction(PARTITION_COUNT), MIN_ROWS_PER_WRITER);
+
+        for (int i = 0; i < 1000; i++) {
+            Page page = createPage(0, 1, 2, 3, 4, 5, 6, 7);
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                assertEquals(function.getPartition(page, position), position);
+            }
+        }
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            assertEquals(function.getWriterCount(partition), 1);
+        }
+    }
+
+    @Test
+    public void testSkewedPartitionIsSpread()
+    {
+        SkewedPartitionFunction function = new SkewedPartitionFunction(new ValuePartitionFunction(PARTITION_COUNT), MIN_ROWS_PER_WRITER);
+
+        Set<Integer> hotPartitions = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            // partition 2 receives most of the data
+            Page page = createPage(2, 2, 2, 2, 2, 2, 2, 5);
+            for (int position = 0; position < page.getPositionCount() - 1; position++) {
+                hotPartitions.add(function.getPartition(page, position));
+            }
+            assertEquals(function.getPartition(page, page.getPositionCount() - 1), 5);
+        }
+
+        assertTrue(function.getWriterCount(2) > 1);
+        assertTrue(function.getWriterCount(2) <= PARTITION_COUNT);
+        assertEquals(hotPartitions.size(), function.getWriterCount(2));
+        // the extra writers follow the home partition
+        for (int writer = 0; writer < function.getWriterCount(2); writer++) {
+            assertTrue(hotPartitions.contains((2 + writer) % PARTITION_COUNT));
+        }
+        assertEquals(function.getWriterCount(5), 1);
+    }
+
+    @Test
+    public void testSmallSkewedPartitionIsNotSpread()
+    {
+        SkewedPartitionFunction function = new SkewedPartitionFunction(new ValuePartitionFunction(PARTITION_COUNT));
+
+        Page page = createPage(2, 2, 2, 2, 2, 2, 2, 5);
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            function.getPartition(page, position);
+        }
+        assertEquals(function.getWriterCount(2), 1);
+    }
+
+    @Test
+    public void testRunLengthEncodedPartitionIsSpread()
+    {
+        // a single partition value arrives as a run length encoded block, whose size does not grow with its rows
+        SkewedPartitionFunction function = new SkewedPartitionFunction(new ValuePartitionFunction(PARTITION_COUNT), MIN_ROWS_PER_WRITER);
+
+        Page page = new Page(new RunLengthEncodedBlock(createBlock(2), 1024));
+        Set<Integer> writers = new HashSet<>();
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            writers.add(function.getPartition(page, position));
+        }
+
+        assertTrue(function.getWriterCount(2) > 1);
+        assertEquals(writers.size(), function.getWriterCount(2));
+    }
+
+    @Test
+    public void testSkewedDictionaryPartitionIsSpread()
+    {
+        SkewedPartitionFunction function = new SkewedPartitionFunction(new ValuePartitionFunction(PARTITION_COUNT), MIN_ROWS_PER_WRITER);
+
+        // partition 2 receives seven of every eight rows
+        int[] ids = new int[1024];
+        for (int position = 0; position < ids.length; position++) {
+            ids[position] = position % 8 == 7 ? 1 : 0;
+        }
+        Page page = new Page(new DictionaryBlock(createBlock(2, 5), ids));
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            int partition = function.getPartition(page, position);
+            if (ids[position] == 1) {
+                assertEquals(partition, 5);
+            }
+        }
+
+        assertTrue(function.getWriterCount(2) > 1);
+        assertEquals(function.getWriterCount(5), 1);
+    }
+
+    private static Page createPage(long... values)
+    {
+        return new Page(createBlock(values));
+    }
+
+    private static Block createBlock(long... values)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, values.length);
+        for (long value : values) {
+            BIGINT.writeLong(blockBuilder, value);
+        }
+        return blockBuilder.build();
+    }
+
+    private static class ValuePartitionFunction
+            implements PartitionFunction
+    {
+        private final int partitionCount;
+
+        public ValuePartitionFunction(int partitionCount)
+        {
+            this.partitionCount = partitionCount;
+        }
+
+        @Override
+        public int getPartitionCount()
+        {
+            return partitionCount;
+        }
+
+        @Override
+        public int getPartition(Page page, int position)
+        {
+            return (int) (BIGINT.getLong(page.getBlock(0), position) % partitionCount);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ConnectorSession;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
+import static io.prestosql.operator.project.ConjunctionPageFilter.STATISTICS_WINDOW_PAGES;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertThrows;
+
+public class TestConjunctionPageFilter
+{
+    @Test
+    public void testInputChannels()
+    {
+        ConjunctionPageFilter filter = new ConjunctionPageFilter(ImmutableList.of(
+                new TestLongFilter(5, value -> true),
+                new TestLongFilter(2, value -> true),
+                new TestLongFilter(5, value -> true)));
+        assertEquals(filter.getInputChannels().getInputChannels(), ImmutableList.of(2, 5));
+        assertEquals(filter.isDeterministic(), true);
+    }
+
+    @Test
+    public void testFilter()
+    {
+        ConjunctionPageFilter filter = new ConjunctionPageFilter(ImmutableList.of(
+                new TestLongFilter(0, value -> value % 2 == 0),
+                new TestLongFilter(1, value -> value > 10),
+                new TestLongFilter(0, value -> value < 90)));
+
+        Page page = new Page(createLongSequenceBlock(0, 100), createLongSequenceBlock(-50, 50));
+        for (int i = 0; i < 3 * STATISTICS_WINDOW_PAGES; i++) {
+            assertEquals(toList(filter.filter(null, page)), IntStream.range(61, 90).filter(position -> position % 2 == 0).boxed().collect(toImmutableList()));
+        }
+
+        // all the positions are rejected
+        Page rejected = new Page(createLongSequenceBlock(0, 100), createLongSequenceBlock(-100, 0));
+        assertEquals(toList(filter.filter(null, rejected)), ImmutableList.of());
+    }
+
+    @Test
+    public void testReordering()
+    {
+        ConjunctionPageFilter filter = new ConjunctionPageFilter(ImmutableList.of(
+                new TestLongFilter(0, value -> value >= 0),
+                new TestLongFilter(1, value -> value == 7)));
+        assertEquals(filter.getOrder(), ImmutableList.of(0, 1));
+
+        Page page = new Page(createLongSequenceBlock(0, 1000), createLongSequenceBlock(0, 1000));
+        for (int i = 0; i < STATISTICS_WINDOW_PAGES; i++) {
+            assertEquals(toList(filter.filter(null, page)), ImmutableList.of(7));
+        }
+
+        // the conjunct rejecting most positions is evaluated first
+        assertEquals(filter.getOrder(), ImmutableList.of(1, 0));
+        assertEquals(toList(filter.filter(null, page)), ImmutableList.of(7));
+    }
+
+    @Test
+    public void testFailureInReorderedConjunct()
+    {
+        // the second conjunct fails for the values the first one rejects
+        ConjunctionPageFilter filter = new ConjunctionPageFilter(ImmutableList.of(
+                new TestLongFilter(0, value -> value != 0),
+                new TestLongFilter(0, value -> 100 / value > 50)));
+
+        Page page = new Page(createLongSequenceBlock(1, 1001));
+        for (int i = 0; i < STATISTICS_WINDOW_PAGES; i++) {
+            assertEquals(toList(filter.filter(null, page)), ImmutableList.of(0));
+        }
+        assertEquals(filter.getOrder(), ImmutableList.of(1, 0));
+
+        // the page is filtered again in the original order, which is kept from then on
+        Page pageWithZero = new Page(createLongsBlock(3, 0, 1, 0, 2));
+        assertEquals(toList(filter.filter(null, pageWithZero)), ImmutableList.of(2));
+        assertEquals(filter.getOrder(), ImmutableList.of(0, 1));
+
+        for (int i = 0; i < 2 * STATISTICS_WINDOW_PAGES; i++) {
+            assertEquals(toList(filter.filter(null, page)), ImmutableList.of(0));
+        }
+        assertEquals(filter.getOrder(), ImmutableList.of(0, 1));
+    }
+
+    @Test
+    public void testFailure()
+    {
+        ConjunctionPageFilter filter = new ConjunctionPageFilter(ImmutableList.of(
+                new TestLongFilter(0, value -> value >= 0),
+                new TestLongFilter(0, value -> 100 / value > 50)));
+
+        assertThrows(ArithmeticException.class, () -> filter.filter(null, new Page(createLongsBlock(3, 0, 1))));
+    }
+
+    private static List<Integer> toList(SelectedPositions selectedPositions)
+    {
+        int start = selectedPositions.getOffset();
+        int end = start + selectedPositions.size();
+        if (selectedPositions.isList()) {
+            return Arrays.stream(Arrays.copyOfRange(selectedPositions.getPositions(), start, end)).boxed().collect(toImmutableList());
+        }
+        return IntStream.range(start, end).boxed().collect(toImmutableList());
+    }
+
+    private static class TestLongFilter
+            implements PageFilter
+    {
+        private final int channel;
+        private final LongPredicate predicate;
+
+        public TestLongFilter(int channel, LongPredicate predicate)
+        {
+            this.channel = channel;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(channel);
+        }
+
+        @Override
+        public SelectedPositions filter(ConnectorSession session, Page page)
+        {
+            assertEquals(page.getChannelCount(), 1);
+            Block block = page.getBlock(0);
+
+            IntArrayList selectedPositions = new IntArrayList();
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (predicate.test(block.getLong(position, 0))) {
+                    selectedPositions.add(position);
+                }
+            }
+            return SelectedPositions.positionsList(selectedPositions.elements(), 0, selectedPositions.size());
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package io.prestosql.operator.project;
 
 import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.CompletedWork;
 import io.prestosql.operator.DriverYieldSignal;
 import io.prestosql.operator.Work;
 import io.prestosql.spi.Page;
@@ -169,6 +170,78 @@ public class TestDictionaryAwarePageProjection
         testProjectList(effectiveBlock, LongArrayBlock.class, projection, forceYield, produceLazyBlock);
     }
 
+    @Test
+    public void testMultipleInputs()
+    {
+        SumPageProjection sumProjection = new SumPageProjection();
+        DictionaryAwarePageProjection projection = new DictionaryAwarePageProjection(sumProjection, block -> randomDictionaryId(), false);
+        SelectedPositions selectedPositions = SelectedPositions.positionsRange(5, 10);
+
+        // the dictionary is evaluated with the run length encoded value
+        DictionaryBlock dictionaryBlock = createDictionaryBlock(10, 100);
+        Block rleValue = createLongSequenceBlock(100, 101);
+        Block result = project(projection, new Page(dictionaryBlock, new RunLengthEncodedBlock(rleValue, 100)), selectedPositions);
+        assertInstanceOf(result, DictionaryBlock.class);
+        assertBlockEquals(BIGINT, result, sum(dictionaryBlock, 100, 5, 10));
+        assertEquals(sumProjection.getProjectedPositions(), 10);
+
+        // the output dictionary is reused for the same dictionary and value
+        result = project(projection, new Page(dictionaryBlock, new RunLengthEncodedBlock(rleValue, 100)), selectedPositions);
+        assertInstanceOf(result, DictionaryBlock.class);
+        assertBlockEquals(BIGINT, result, sum(dictionaryBlock, 100, 5, 10));
+        assertEquals(sumProjection.getProjectedPositions(), 10);
+
+        // unloaded inputs are not loaded to check their encoding
+        LazyBlock lazyBlock = lazyWrapper(new RunLengthEncodedBlock(rleValue, 100));
+        result = project(projection, new Page(dictionaryBlock, lazyBlock), selectedPositions);
+        assertInstanceOf(result, LongArrayBlock.class);
+        assertBlockEquals(BIGINT, result, sum(dictionaryBlock, 100, 5, 10));
+        assertEquals(sumProjection.getProjectedPositions(), 20);
+
+        // the output dictionary is still reused after unloaded inputs
+        result = project(projection, new Page(dictionaryBlock, new RunLengthEncodedBlock(rleValue, 100)), selectedPositions);
+        assertInstanceOf(result, DictionaryBlock.class);
+        assertBlockEquals(BIGINT, result, sum(dictionaryBlock, 100, 5, 10));
+        assertEquals(sumProjection.getProjectedPositions(), 20);
+
+        // a different value requires evaluating the dictionary again
+        result = project(projection, new Page(dictionaryBlock, new RunLengthEncodedBlock(createLongSequenceBlock(7, 8), 100)), selectedPositions);
+        assertInstanceOf(result, DictionaryBlock.class);
+        assertBlockEquals(BIGINT, result, sum(dictionaryBlock, 7, 5, 10));
+        assertEquals(sumProjection.getProjectedPositions(), 30);
+
+        // run length encoded inputs are evaluated once
+        result = project(projection, new Page(new RunLengthEncodedBlock(createLongSequenceBlock(3, 4), 100), new RunLengthEncodedBlock(rleValue, 100)), selectedPositions);
+        assertInstanceOf(result, RunLengthEncodedBlock.class);
+        assertBlockEquals(BIGINT, result, new RunLengthEncodedBlock(createLongSequenceBlock(103, 104), 10));
+        assertEquals(sumProjection.getProjectedPositions(), 31);
+
+        // inputs varying per position are evaluated for each position
+        Block block = createLongSequenceBlock(0, 100);
+        result = project(projection, new Page(dictionaryBlock, block), selectedPositions);
+        assertInstanceOf(result, LongArrayBlock.class);
+        assertEquals(sumProjection.getProjectedPositions(), 41);
+        result = project(projection, new Page(dictionaryBlock, createDictionaryBlock(20, 100)), selectedPositions);
+        assertInstanceOf(result, LongArrayBlock.class);
+        assertEquals(sumProjection.getProjectedPositions(), 51);
+    }
+
+    private static Block project(DictionaryAwarePageProjection projection, Page page, SelectedPositions selectedPositions)
+    {
+        Work<Block> work = projection.project(null, new DriverYieldSignal(), page, selectedPositions);
+        assertTrue(work.process());
+        return work.getResult();
+    }
+
+    private static Block sum(Block block, long value, int offset, int length)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, length);
+        for (int position = offset; position < offset + length; position++) {
+            BIGINT.writeLong(blockBuilder, BIGINT.getLong(block, position) + value);
+        }
+        return blockBuilder.build();
+    }
+
     private static DictionaryBlock createDictionaryBlock(int dictionarySize, int blockSize)
     {
         Block dictionary = createLongSequenceBlock(0, dictionarySize);
@@ -333,6 +406,48 @@ public class TestDictionaryAwarePageProjection
         return new LazyBlock(block.getPositionCount(), block::getLoadedBlock);
     }
 
+    private static class SumPageProjection
+            implements PageProjection
+    {
+        private long projectedPositions;
+
+        @Override
+        public Type getType()
+        {
+            return BIGINT;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(1, 3);
+        }
+
+        @Override
+        public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+        {
+            assertEquals(page.getChannelCount(), 2);
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, selectedPositions.size());
+            for (int index = selectedPositions.getOffset(); index < selectedPositions.getOffset() + selectedPositions.size(); index++) {
+                int position = selectedPositions.isList() ? selectedPositions.getPositions()[index] : index;
+                BIGINT.writeLong(blockBuilder, BIGINT.getLong(page.getBlock(0), position) + BIGINT.getLong(page.getBlock(1), position));
+            }
+            projectedPositions += selectedPositions.size();
+            return new CompletedWork<>(blockBuilder.build());
+        }
+
+        public long getProjectedPositions()
+        {
+            return projectedPositions;
+        }
+    }
+
     private static class TestPageProjection
             implements PageProjection
     {
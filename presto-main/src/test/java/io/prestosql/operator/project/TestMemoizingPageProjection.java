@@ -0,0 +1,269 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.project;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.CompletedWork;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.PageFunctionCompiler;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.block.BlockAssertions.assertBlockEquals;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
+import static io.prestosql.block.BlockAssertions.createStringsBlock;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.project.MemoizingPageProjection.CACHE_CAPACITY;
+import static io.prestosql.operator.project.MemoizingPageProjection.MIN_LOOKUPS_FOR_HIT_RATE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+
+public class TestMemoizingPageProjection
+{
+    @Test
+    public void testMemoization()
+    {
+        LengthProjection delegate = new LengthProjection();
+        MemoizingPageProjection projection = new MemoizingPageProjection(delegate);
+
+        Page page = new Page(createStringsBlock("a", "bb", null, "a", "ccc", "bb", null, "a"));
+        assertBlockEquals(BIGINT, project(projection, page, positionsRange(page)), createLongsBlock(1L, 2L, null, 1L, 3L, 2L, null, 1L));
+        // the nulls and the first occurrence of each value are evaluated
+        assertEquals(delegate.getProjectedPositions(), 5);
+        assertEquals(projection.getLookups(), 8);
+        assertEquals(projection.getHits(), 3);
+
+        Page secondPage = new Page(createStringsBlock("ccc", "dddd", "a"));
+        assertBlockEquals(BIGINT, project(projection, secondPage, positionsRange(secondPage)), createLongsBlock(3L, 4L, 1L));
+        assertEquals(delegate.getProjectedPositions(), 6);
+        assertEquals(projection.getLookups(), 11);
+        assertEquals(projection.getHits(), 5);
+
+        assertBlockEquals(BIGINT, project(projection, page, SelectedPositions.positionsList(new int[] {1, 2, 4}, 0, 3)), createLongsBlock(2L, null, 3L));
+        assertEquals(delegate.getProjectedPositions(), 7);
+        assertTrue(projection.isMemoizationEnabled());
+    }
+
+    @Test
+    public void testFullCache()
+    {
+        LengthProjection delegate = new LengthProjection();
+        MemoizingPageProjection projection = new MemoizingPageProjection(delegate);
+
+        // the values beyond the capacity of the cache are evaluated without being cached
+        List<String> values = IntStream.range(0, CACHE_CAPACITY + 10)
+                .mapToObj(value -> "x".repeat(value % 200) + value)
+                .collect(toImmutableList());
+        Page page = new Page(createStringsBlock(values));
+        assertBlockEquals(BIGINT, project(projection, page, positionsRange(page)), expectedLengths(values));
+        assertEquals(delegate.getProjectedPositions(), values.size());
+        assertEquals(projection.getHits(), 0);
+
+        // the full cache is cleared before the next page
+        Page secondPage = new Page(createStringsBlock(values.get(0), values.get(0)));
+        assertBlockEquals(BIGINT, project(projection, secondPage, positionsRange(secondPage)), expectedLengths(ImmutableList.of(values.get(0), values.get(0))));
+        assertEquals(delegate.getProjectedPositions(), values.size() + 1);
+        assertEquals(projection.getHits(), 1);
+
+        assertBlockEquals(BIGINT, project(projection, secondPage, positionsRange(secondPage)), expectedLengths(ImmutableList.of(values.get(0), values.get(0))));
+        assertEquals(delegate.getProjectedPositions(), values.size() + 1);
+        assertEquals(projection.getHits(), 3);
+    }
+
+    @Test
+    public void testLowHitRate()
+    {
+        LengthProjection delegate = new LengthProjection();
+        MemoizingPageProjection projection = new MemoizingPageProjection(delegate);
+
+        int pageCount = 0;
+        while (projection.isMemoizationEnabled()) {
+            int start = pageCount * 100;
+            List<String> values = IntStream.range(start, start + 100)
+                    .mapToObj(String::valueOf)
+                    .collect(toImmutableList());
+            Page page = new Page(createStringsBlock(values));
+            assertBlockEquals(BIGINT, project(projection, page, positionsRange(page)), expectedLengths(values));
+            pageCount++;
+        }
+        assertEquals(projection.getLookups(), MIN_LOOKUPS_FOR_HIT_RATE - (MIN_LOOKUPS_FOR_HIT_RATE % 100) + 100);
+        assertEquals(projection.getHits(), 0);
+
+        // the values are evaluated by the delegate from then on
+        Page page = new Page(createStringsBlock("a", "a"));
+        assertBlockEquals(BIGINT, project(projection, page, positionsRange(page)), createLongsBlock(1L, 1L));
+        assertEquals(delegate.getProjectedPositions(), projection.getLookups() + 2);
+    }
+
+    @Test
+    public void testFailure()
+    {
+        LengthProjection delegate = new LengthProjection();
+        MemoizingPageProjection projection = new MemoizingPageProjection(delegate);
+
+        Page failingPage = new Page(createStringsBlock("a", "fail"));
+        assertThrows(IllegalArgumentException.class, () -> project(projection, failingPage, positionsRange(failingPage)));
+
+        // the values of the failed page are not cached
+        Page page = new Page(createStringsBlock("a", "bb"));
+        assertBlockEquals(BIGINT, project(projection, page, positionsRange(page)), createLongsBlock(1L, 2L));
+        assertEquals(projection.getHits(), 0);
+    }
+
+    @Test
+    public void testRetainedSize()
+    {
+        MemoizingPageProjection projection = new MemoizingPageProjection(new LengthProjection());
+        long emptyRetainedSize = projection.getRetainedSizeInBytes();
+
+        // the memoized results are reported by the page processor, also once the page is processed
+        PageProcessor processor = new PageProcessor(Optional.empty(), ImmutableList.of(projection));
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName());
+        Page page = new Page(createStringsBlock("a", "bb", "a", "ccc"));
+        Iterator<Optional<Page>> output = processor.process(SESSION, new DriverYieldSignal(), memoryContext, page);
+        while (output.hasNext()) {
+            output.next();
+        }
+        assertTrue(projection.getRetainedSizeInBytes() > emptyRetainedSize);
+        assertEquals(memoryContext.getBytes(), projection.getRetainedSizeInBytes());
+
+        // the full cache is cleared before the next page
+        List<String> values = IntStream.range(0, CACHE_CAPACITY)
+                .mapToObj(String::valueOf)
+                .collect(toImmutableList());
+        Page fullPage = new Page(createStringsBlock(values));
+        project(projection, fullPage, positionsRange(fullPage));
+        long fullRetainedSize = projection.getRetainedSizeInBytes();
+        Page secondPage = new Page(createStringsBlock("a"));
+        project(projection, secondPage, positionsRange(secondPage));
+        assertTrue(projection.getRetainedSizeInBytes() < fullRetainedSize);
+    }
+
+    @Test
+    public void testCompiler()
+    {
+        Metadata metadata = createTestMetadataManager();
+        RowExpression urlExtractHost = call(metadata.resolveFunction(QualifiedName.of("url_extract_host"), fromTypes(VARCHAR)), field(3, VARCHAR));
+        RowExpression upper = call(metadata.resolveFunction(QualifiedName.of("upper"), fromTypes(VARCHAR)), field(3, VARCHAR));
+
+        PageFunctionCompiler memoizingCompiler = new PageFunctionCompiler(metadata, 0, true, true);
+        PageProjection projection = memoizingCompiler.compileProjection(urlExtractHost, Optional.empty()).get();
+        assertTrue(projection instanceof MemoizingPageProjection);
+        assertEquals(projection.getInputChannels().getInputChannels(), ImmutableList.of(3));
+        assertFalse(memoizingCompiler.compileProjection(upper, Optional.empty()).get() instanceof MemoizingPageProjection);
+
+        PageFunctionCompiler compiler = new PageFunctionCompiler(metadata, 0, true, false);
+        assertFalse(compiler.compileProjection(urlExtractHost, Optional.empty()).get() instanceof MemoizingPageProjection);
+
+        Page page = new Page(createStringsBlock("http://example.com/a", "http://example.com/a", null, "http://example.org"));
+        PageProcessor processor = new PageProcessor(Optional.empty(), ImmutableList.of(projection));
+        assertBlockEquals(VARCHAR, project(projection, page, positionsRange(page)), createStringsBlock("example.com", "example.com", null, "example.org"));
+        assertEquals(processor.getMemoizedCallsInfo().get().getLookups(), 4);
+        assertEquals(processor.getMemoizedCallsInfo().get().getHits(), 1);
+    }
+
+    private static Block project(PageProjection projection, Page page, SelectedPositions selectedPositions)
+    {
+        Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), page, selectedPositions);
+        assertTrue(work.process());
+        return work.getResult();
+    }
+
+    private static SelectedPositions positionsRange(Page page)
+    {
+        return SelectedPositions.positionsRange(0, page.getPositionCount());
+    }
+
+    private static Block expectedLengths(List<String> values)
+    {
+        return createLongsBlock(values.stream()
+                .map(value -> (long) value.length())
+                .collect(toImmutableList()));
+    }
+
+    private static class LengthProjection
+            implements PageProjection
+    {
+        private long projectedPositions;
+
+        @Override
+        public Type getType()
+        {
+            return BIGINT;
+        }
+
+        @Override
+        public boolean isDeterministic()
+        {
+            return true;
+        }
+
+        @Override
+        public InputChannels getInputChannels()
+        {
+            return new InputChannels(0);
+        }
+
+        @Override
+        public Work<Block> project(ConnectorSession session, DriverYieldSignal yieldSignal, Page page, SelectedPositions selectedPositions)
+        {
+            assertEquals(page.getChannelCount(), 1);
+            Block block = page.getBlock(0);
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, selectedPositions.size());
+            for (int index = selectedPositions.getOffset(); index < selectedPositions.getOffset() + selectedPositions.size(); index++) {
+                int position = selectedPositions.isList() ? selectedPositions.getPositions()[index] : index;
+                if (block.isNull(position)) {
+                    blockBuilder.appendNull();
+                    continue;
+                }
+                String value = VARCHAR.getSlice(block, position).toStringUtf8();
+                if (value.equals("fail")) {
+                    throw new IllegalArgumentException("failing value");
+                }
+                BIGINT.writeLong(blockBuilder, value.length());
+            }
+            projectedPositions += selectedPositions.size();
+            return new CompletedWork<>(blockBuilder.build());
+        }
+
+        public long getProjectedPositions()
+        {
+            return projectedPositions;
+        }
+    }
+}
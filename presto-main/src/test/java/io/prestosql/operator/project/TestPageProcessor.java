@@ -29,14 +29,20 @@ import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.LazyBlock;
 import io.prestosql.spi.block.VariableWidthBlock;
 import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.function.OperatorType;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.ExpressionCompiler;
 import io.prestosql.sql.gen.ExpressionProfiler;
 import io.prestosql.sql.gen.PageFunctionCompiler;
 import io.prestosql.sql.relational.CallExpression;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.tree.QualifiedName;
 import org.openjdk.jol.info.ClassLayout;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -45,9 +51,11 @@ import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
 import static io.prestosql.block.BlockAssertions.createSlicesBlock;
 import static io.prestosql.block.BlockAssertions.createStringsBlock;
 import static io.prestosql.execution.executor.PrioritizedSplitRunner.SPLIT_RUN_QUANTA;
@@ -57,13 +65,23 @@ import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.operator.project.PageProcessor.MAX_BATCH_SIZE;
 import static io.prestosql.operator.project.PageProcessor.MAX_PAGE_SIZE_IN_BYTES;
 import static io.prestosql.operator.project.PageProcessor.MIN_PAGE_SIZE_IN_BYTES;
+import static io.prestosql.operator.project.SelectedPositions.positionsList;
 import static io.prestosql.operator.project.SelectedPositions.positionsRange;
 import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.DIVIDE;
+import static io.prestosql.spi.function.OperatorType.GREATER_THAN;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN;
+import static io.prestosql.spi.function.OperatorType.MODULUS;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.function.OperatorType.NOT_EQUAL;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
 import static io.prestosql.sql.relational.Expressions.call;
 import static io.prestosql.sql.relational.Expressions.constant;
 import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.AND;
 import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static java.lang.String.join;
 import static java.util.Collections.nCopies;
@@ -451,6 +469,148 @@ public class TestPageProcessor
         }
     }
 
+    @Test
+    public void testProjectionSubExpressionYield()
+    {
+        YieldPageProjection subExpression = new YieldPageProjection(new InputPageProjection(0, BIGINT));
+        PageProcessor pageProcessor = new PageProcessor(
+                Optional.of(new TestingPageFilter(positionsList(IntStream.range(0, 50).map(position -> position * 2).toArray(), 0, 50))),
+                ImmutableList.of(new InputPageProjection(1, BIGINT), new InputPageProjection(0, BIGINT)),
+                OptionalInt.of(MAX_BATCH_SIZE),
+                new CommonSubExpressions(1, ImmutableList.of(), ImmutableList.of(subExpression)));
+
+        Page inputPage = new Page(createLongSequenceBlock(0, 100));
+        DriverYieldSignal yieldSignal = new DriverYieldSignal();
+        AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+        Iterator<Optional<Page>> output = processAndAssertRetainedPageSize(pageProcessor, yieldSignal, memoryContext, inputPage, false);
+
+        // the subexpression yields after it is evaluated, and its values are retained with the page
+        assertTrue(output.hasNext());
+        assertFalse(output.next().isPresent());
+        assertTrue(yieldSignal.isSet());
+        assertEquals(subExpression.getInvocationCount(), 1);
+        assertTrue(memoryContext.getBytes() > inputPage.getRetainedSizeInBytes());
+        yieldSignal.reset();
+
+        // the values of the subexpression are not evaluated again
+        assertTrue(output.hasNext());
+        Page outputPage = output.next().orElseThrow();
+        assertEquals(subExpression.getInvocationCount(), 1);
+        Block expected = createLongsBlock(IntStream.range(0, 50).map(position -> position * 2).toArray());
+        assertPageEquals(ImmutableList.of(BIGINT, BIGINT), outputPage, new Page(expected, expected));
+        assertEquals(memoryContext.getBytes(), 0);
+        assertFalse(output.hasNext());
+    }
+
+    @Test
+    public void testCommonSubExpressions()
+    {
+        int rows = 10_000;
+        Metadata metadata = createTestMetadataManager();
+        RowExpression input = field(0, BIGINT);
+        RowExpression abs = call(metadata.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)), input);
+        // selects two of every three positions
+        RowExpression filter = operator(metadata, LESS_THAN, constant(0L, BIGINT), operator(metadata, MODULUS, operator(metadata, ADD, input, constant((long) rows, BIGINT)), constant(3L, BIGINT)));
+        ExpressionCompiler compiler = new ExpressionCompiler(metadata, new PageFunctionCompiler(metadata, 0));
+        PageProcessor pageProcessor = compiler.compilePageProcessor(
+                Optional.of(filter),
+                ImmutableList.of(operator(metadata, MULTIPLY, abs, constant(2L, BIGINT)), operator(metadata, ADD, abs, input)),
+                1)
+                .get();
+
+        Page inputPage = new Page(createLongSequenceBlock(-rows / 2, rows / 2));
+        DriverYieldSignal yieldSignal = new DriverYieldSignal();
+        AggregatedMemoryContext memoryContext = newSimpleAggregatedMemoryContext();
+        Iterator<Optional<Page>> output = processAndAssertRetainedPageSize(pageProcessor, yieldSignal, memoryContext, inputPage, false);
+
+        // yield before every other batch, and start from a single position, so the batches grow over many output pages
+        List<Long> actualDoubled = new ArrayList<>();
+        List<Long> actualSums = new ArrayList<>();
+        int outputPages = 0;
+        for (int call = 0; ; call++) {
+            boolean forceYield = call % 2 == 0;
+            if (forceYield) {
+                yieldSignal.forceYieldForTesting();
+            }
+            if (!output.hasNext()) {
+                break;
+            }
+            Optional<Page> outputPage = output.next();
+            yieldSignal.resetYieldForTesting();
+            if (forceYield) {
+                assertFalse(outputPage.isPresent());
+                assertTrue(memoryContext.getBytes() > 0);
+                continue;
+            }
+            Page page = outputPage.orElseThrow();
+            outputPages++;
+            for (int position = 0; position < page.getPositionCount(); position++) {
+                actualDoubled.add(BIGINT.getLong(page.getBlock(0), position));
+                actualSums.add(BIGINT.getLong(page.getBlock(1), position));
+            }
+        }
+        yieldSignal.resetYieldForTesting();
+        assertTrue(outputPages > 1);
+        assertEquals(memoryContext.getBytes(), 0);
+
+        List<Long> expectedDoubled = new ArrayList<>();
+        List<Long> expectedSums = new ArrayList<>();
+        for (long value = -rows / 2; value < rows / 2; value++) {
+            if ((value + rows) % 3 > 0) {
+                expectedDoubled.add(Math.abs(value) * 2);
+                expectedSums.add(Math.abs(value) + value);
+            }
+        }
+        assertEquals(actualDoubled, expectedDoubled);
+        assertEquals(actualSums, expectedSums);
+    }
+
+    @Test
+    public void testGuardedConjunct()
+    {
+        Metadata metadata = createTestMetadataManager();
+        PageFunctionCompiler functionCompiler = new PageFunctionCompiler(metadata, 0);
+        assertGuardedConjunct(metadata, new ExpressionCompiler(metadata, functionCompiler, true));
+        assertGuardedConjunct(metadata, new ExpressionCompiler(metadata, functionCompiler, false));
+    }
+
+    private static void assertGuardedConjunct(Metadata metadata, ExpressionCompiler compiler)
+    {
+        // x <> 0 AND y / x > 1
+        RowExpression x = field(0, BIGINT);
+        RowExpression y = field(1, BIGINT);
+        RowExpression filter = new SpecialForm(
+                AND,
+                BOOLEAN,
+                operator(metadata, NOT_EQUAL, x, constant(0L, BIGINT)),
+                operator(metadata, GREATER_THAN, operator(metadata, DIVIDE, y, x), constant(1L, BIGINT)));
+        PageProcessor pageProcessor = compiler.compilePageProcessor(Optional.of(filter), ImmutableList.of(y), MAX_BATCH_SIZE).get();
+
+        // the division rejects all the positions, so it is evaluated first when the conjuncts are reordered
+        Page pageWithoutZero = new Page(createLongSequenceBlock(1, 1001), createLongSequenceBlock(0, 1000));
+        for (int i = 0; i < 2 * ConjunctionPageFilter.STATISTICS_WINDOW_PAGES; i++) {
+            assertEquals(filterValues(pageProcessor, pageWithoutZero), ImmutableList.of());
+        }
+
+        // the division is not evaluated for the positions rejected by x <> 0
+        Page pageWithZero = new Page(createLongsBlock(3, 0, 1, 0, 2), createLongsBlock(9, 5, 1, 7, 6));
+        assertEquals(filterValues(pageProcessor, pageWithZero), ImmutableList.of(9L, 6L));
+        assertEquals(filterValues(pageProcessor, pageWithZero), ImmutableList.of(9L, 6L));
+    }
+
+    private static List<Long> filterValues(PageProcessor pageProcessor, Page page)
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        Iterator<Optional<Page>> output = pageProcessor.process(SESSION, new DriverYieldSignal(), newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()), page);
+        while (output.hasNext()) {
+            Page outputPage = output.next().orElseThrow();
+            for (int position = 0; position < outputPage.getPositionCount(); position++) {
+                values.add(BIGINT.getLong(outputPage.getBlock(0), position));
+            }
+        }
+        return values.build();
+    }
+
     @Test
     public void testIncreasingBatchSize()
     {
@@ -551,6 +711,11 @@ public class TestPageProcessor
         return output;
     }
 
+    private static RowExpression operator(Metadata metadata, OperatorType operator, RowExpression left, RowExpression right)
+    {
+        return call(metadata.resolveOperator(operator, ImmutableList.of(left.getType(), right.getType())), left, right);
+    }
+
     private static LazyBlock lazyWrapper(Block block)
     {
         return new LazyBlock(block.getPositionCount(), block::getLoadedBlock);
@@ -80,6 +80,23 @@ public abstract class AbstractTestRegexpFunctions
 
         // verify word boundaries at end of pattern (https://github.com/airlift/joni/pull/11)
         assertFunction("REGEXP_LIKE('test', 'test\\b')", BOOLEAN, true);
+
+        // literal patterns
+        assertFunction("REGEXP_LIKE('https://www.example.com/path', 'example\\.com/')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('https://www.example.org/path', 'example\\.com/')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('https://www.example.com/path', '.*example\\.com.*')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('https://www.exampleXcom/path', 'example\\.com')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('有朋自远方来', '远方')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('abc', '')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('', '.*')", BOOLEAN, true);
+
+        // patterns without anchors, escape classes or backreferences
+        assertFunction("REGEXP_LIKE('https://www.example.com/path', 'https?://[^/]*\\.example\\.com')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('https://example.com/path', 'https?://[^/]*\\.example\\.com')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('abcabc', '(abc){2}')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('abcab', '(?:abc){2}')", BOOLEAN, false);
+        assertFunction("REGEXP_LIKE('a-b', '[a-][-b]')", BOOLEAN, true);
+        assertFunction("REGEXP_LIKE('a\nb', 'a.b')", BOOLEAN, false);
     }
 
     @Test
@@ -0,0 +1,171 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.operator.project.PageProjection;
+import io.prestosql.operator.project.SelectedPositions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.sql.gen.PageFunctionCompiler;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.tree.QualifiedName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static java.util.Locale.ENGLISH;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Scope.Thread;
+
+/**
+ * Compares the generated projections, which invoke a function once per position, with the batch
+ * implementations, which are invoked once per page.
+ */
+@SuppressWarnings("MethodMayBeStatic")
+@State(Thread)
+@OutputTimeUnit(MICROSECONDS)
+@BenchmarkMode(AverageTime)
+@Fork(1)
+@Warmup(iterations = 4, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = MILLISECONDS)
+public class BenchmarkBatchScalarFunctions
+{
+    private static final int POSITIONS = 4096;
+
+    @Param({"add_constant", "add_columns", "multiply_constant", "date_trunc_month", "lower", "substr"})
+    private String function = "add_constant";
+
+    @Param({"true", "false"})
+    private boolean batch = true;
+
+    @Param({"0", "0.1"})
+    private double nullRate;
+
+    private Page page;
+    private PageProjection projection;
+    private SelectedPositions selectedPositions;
+
+    @Setup
+    public void setup()
+    {
+        Metadata metadata = createTestMetadataManager();
+        RowExpression expression;
+        switch (function) {
+            case "add_constant":
+                expression = call(metadata.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)), field(0, BIGINT), constant(5L, BIGINT));
+                break;
+            case "add_columns":
+                expression = call(metadata.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)), field(0, BIGINT), field(1, BIGINT));
+                break;
+            case "multiply_constant":
+                expression = call(metadata.resolveOperator(MULTIPLY, ImmutableList.of(BIGINT, BIGINT)), field(0, BIGINT), constant(3L, BIGINT));
+                break;
+            case "date_trunc_month":
+                expression = call(metadata.resolveFunction(QualifiedName.of("date_trunc"), fromTypes(VARCHAR, DATE)), constant(utf8Slice("month"), VARCHAR), field(2, DATE));
+                break;
+            case "lower":
+                expression = call(metadata.resolveFunction(QualifiedName.of("lower"), fromTypes(VARCHAR)), field(3, VARCHAR));
+                break;
+            case "substr":
+                expression = call(metadata.resolveFunction(QualifiedName.of("substr"), fromTypes(VARCHAR, BIGINT, BIGINT)), field(3, VARCHAR), constant(3L, BIGINT), constant(8L, BIGINT));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported function: " + function);
+        }
+
+        PageFunctionCompiler compiler = new PageFunctionCompiler(metadata, 0, batch);
+        projection = compiler.compileProjection(expression, Optional.empty()).get();
+        page = projection.getInputChannels().getInputChannels(createInputPage(nullRate));
+        selectedPositions = SelectedPositions.positionsRange(0, POSITIONS);
+    }
+
+    @Benchmark
+    public Block project()
+    {
+        Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), page, selectedPositions);
+        work.process();
+        return work.getResult();
+    }
+
+    private static Page createInputPage(double nullRate)
+    {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        BlockBuilder first = BIGINT.createBlockBuilder(null, POSITIONS);
+        BlockBuilder second = BIGINT.createBlockBuilder(null, POSITIONS);
+        BlockBuilder dates = DATE.createBlockBuilder(null, POSITIONS);
+        BlockBuilder strings = VARCHAR.createBlockBuilder(null, POSITIONS);
+        for (int position = 0; position < POSITIONS; position++) {
+            if (random.nextDouble() < nullRate) {
+                first.appendNull();
+                second.appendNull();
+                dates.appendNull();
+                strings.appendNull();
+                continue;
+            }
+            BIGINT.writeLong(first, random.nextInt());
+            BIGINT.writeLong(second, random.nextInt());
+            DATE.writeLong(dates, random.nextInt(20_000));
+            VARCHAR.writeString(strings, "Value " + Long.toHexString(random.nextLong()).toUpperCase(ENGLISH));
+        }
+        return new Page(first.build(), second.build(), dates.build(), strings.build());
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkBatchScalarFunctions benchmark = new BenchmarkBatchScalarFunctions();
+        benchmark.setup();
+        benchmark.project();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkBatchScalarFunctions.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
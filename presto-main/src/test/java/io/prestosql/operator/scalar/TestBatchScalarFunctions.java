@@ -0,0 +1,195 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.scalar;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.ResolvedFunction;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.Work;
+import io.prestosql.operator.project.BatchPageProjection;
+import io.prestosql.operator.project.PageProjection;
+import io.prestosql.operator.project.SelectedPositions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.gen.PageFunctionCompiler;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.block.BlockAssertions.assertBlockEquals;
+import static io.prestosql.block.BlockAssertions.createLongsBlock;
+import static io.prestosql.block.BlockAssertions.createStringsBlock;
+import static io.prestosql.block.BlockAssertions.createTypedLongsBlock;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static io.prestosql.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.function.OperatorType.SUBTRACT;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.constantNull;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static io.prestosql.testing.assertions.PrestoExceptionAssert.assertPrestoExceptionThrownBy;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBatchScalarFunctions
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final PageFunctionCompiler GENERATED_COMPILER = new PageFunctionCompiler(METADATA, 0, false);
+    private static final PageFunctionCompiler BATCH_COMPILER = new PageFunctionCompiler(METADATA, 0, true);
+
+    @Test
+    public void testBigintArithmetic()
+    {
+        Page page = new Page(
+                createLongsBlock(1L, null, -5L, 0L, Long.MAX_VALUE / 2, 42L),
+                createLongsBlock(7L, 3L, null, -9L, 1L, 42L));
+        for (OperatorType operator : ImmutableList.of(ADD, SUBTRACT, MULTIPLY)) {
+            assertBatchProjection(arithmetic(operator, field(0, BIGINT), field(1, BIGINT)), page);
+            assertBatchProjection(arithmetic(operator, field(1, BIGINT), constant(10L, BIGINT)), page);
+            assertBatchProjection(arithmetic(operator, constant(-3L, BIGINT), field(0, BIGINT)), page);
+            assertBatchProjection(arithmetic(operator, field(0, BIGINT), field(0, BIGINT)), page);
+        }
+    }
+
+    @Test
+    public void testBigintArithmeticOverflow()
+    {
+        Page page = new Page(createLongsBlock(1L, Long.MAX_VALUE, Long.MIN_VALUE));
+        assertPrestoExceptionThrownBy(() -> project(BATCH_COMPILER, arithmetic(ADD, field(0, BIGINT), constant(1L, BIGINT)), page, positionsRange(page)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint addition overflow: 9223372036854775807 + 1");
+        assertPrestoExceptionThrownBy(() -> project(BATCH_COMPILER, arithmetic(MULTIPLY, field(0, BIGINT), constant(2L, BIGINT)), page, positionsRange(page)))
+                .hasErrorCode(NUMERIC_VALUE_OUT_OF_RANGE)
+                .hasMessage("bigint multiplication overflow: 9223372036854775807 * 2");
+
+        // positions that are not selected are not evaluated
+        assertBatchProjection(arithmetic(ADD, field(0, BIGINT), constant(1L, BIGINT)), page, SelectedPositions.positionsList(new int[] {0, 2}, 0, 2));
+    }
+
+    @Test
+    public void testLower()
+    {
+        Page page = new Page(createStringsBlock("Hello World", null, "", "ÀÉÎ Straße", "MiXeD-123", "İstanbul", "lower"));
+        assertBatchProjection(call(function("lower", VARCHAR), field(0, VARCHAR)), page);
+    }
+
+    @Test
+    public void testSubstring()
+    {
+        Page page = new Page(createStringsBlock("Hello World", null, "", "ÀÉÎ Straße", "ab", "有朋自远方来"));
+        for (long start : new long[] {-20, -3, -1, 0, 1, 2, 7, 20}) {
+            assertBatchProjection(call(function("substr", VARCHAR, BIGINT), field(0, VARCHAR), constant(start, BIGINT)), page);
+            for (long length : new long[] {-1, 0, 1, 3, 100}) {
+                assertBatchProjection(call(function("substr", VARCHAR, BIGINT, BIGINT), field(0, VARCHAR), constant(start, BIGINT), constant(length, BIGINT)), page);
+            }
+        }
+    }
+
+    @Test
+    public void testDateTrunc()
+    {
+        Page page = new Page(createTypedLongsBlock(DATE, Arrays.asList(0L, 0L, null, 18_000L, 18_001L, -1L, -400L, 18_001L)));
+        for (String unit : ImmutableList.of("day", "week", "month", "quarter", "YEAR")) {
+            assertBatchProjection(call(function("date_trunc", VARCHAR, DATE), constant(utf8Slice(unit), VARCHAR), field(0, DATE)), page);
+        }
+
+        RowExpression invalidUnit = call(function("date_trunc", VARCHAR, DATE), constant(utf8Slice("hour"), VARCHAR), field(0, DATE));
+        assertPrestoExceptionThrownBy(() -> project(BATCH_COMPILER, invalidUnit, page, positionsRange(page)))
+                .hasErrorCode(INVALID_FUNCTION_ARGUMENT)
+                .hasMessage("'hour' is not a valid DATE field");
+        // the unit is only resolved for non-null values
+        assertBatchProjection(invalidUnit, page, SelectedPositions.positionsList(new int[] {2}, 0, 1));
+    }
+
+    @Test
+    public void testUnsupportedCalls()
+    {
+        RowExpression lower = call(function("lower", VARCHAR), field(0, VARCHAR));
+        assertTrue(BATCH_COMPILER.compileProjection(lower, Optional.empty()).get() instanceof BatchPageProjection);
+        assertFalse(GENERATED_COMPILER.compileProjection(lower, Optional.empty()).get() instanceof BatchPageProjection);
+
+        // nested calls
+        assertFalse(isBatchProjection(call(function("lower", VARCHAR), lower)));
+        // null constants
+        assertFalse(isBatchProjection(arithmetic(ADD, field(0, BIGINT), constantNull(BIGINT))));
+        // calls without input channels
+        assertFalse(isBatchProjection(arithmetic(ADD, constant(1L, BIGINT), constant(2L, BIGINT))));
+        // non-constant positions and lengths
+        assertFalse(isBatchProjection(call(function("substr", VARCHAR, BIGINT), field(0, VARCHAR), field(1, BIGINT))));
+        // functions without a batch implementation
+        assertFalse(isBatchProjection(call(function("upper", VARCHAR), field(0, VARCHAR))));
+    }
+
+    private static void assertBatchProjection(RowExpression expression, Page page)
+    {
+        assertBatchProjection(expression, page, positionsRange(page));
+
+        int[] positions = IntStream.range(0, page.getPositionCount())
+                .filter(position -> position % 3 != 1)
+                .toArray();
+        assertBatchProjection(expression, page, SelectedPositions.positionsList(positions, 0, positions.length));
+    }
+
+    private static void assertBatchProjection(RowExpression expression, Page page, SelectedPositions selectedPositions)
+    {
+        assertTrue(isBatchProjection(expression));
+        Block expected = project(GENERATED_COMPILER, expression, page, selectedPositions);
+        Block actual = project(BATCH_COMPILER, expression, page, selectedPositions);
+        assertBlockEquals(expression.getType(), actual, expected);
+    }
+
+    private static boolean isBatchProjection(RowExpression expression)
+    {
+        return BATCH_COMPILER.compileProjection(expression, Optional.empty()).get() instanceof BatchPageProjection;
+    }
+
+    private static Block project(PageFunctionCompiler compiler, RowExpression expression, Page page, SelectedPositions selectedPositions)
+    {
+        PageProjection projection = compiler.compileProjection(expression, Optional.empty()).get();
+        Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), projection.getInputChannels().getInputChannels(page), selectedPositions);
+        assertTrue(work.process());
+        return work.getResult();
+    }
+
+    private static SelectedPositions positionsRange(Page page)
+    {
+        return SelectedPositions.positionsRange(0, page.getPositionCount());
+    }
+
+    private static RowExpression arithmetic(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        return call(METADATA.resolveOperator(operator, ImmutableList.of(BIGINT, BIGINT)), left, right);
+    }
+
+    private static ResolvedFunction function(String name, Type... argumentTypes)
+    {
+        return METADATA.resolveFunction(QualifiedName.of(name), fromTypes(argumentTypes));
+    }
+}
@@ -22,6 +22,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import static io.prestosql.operator.scalar.JsonExtract.JsonExtractor;
@@ -29,9 +30,11 @@ import static io.prestosql.operator.scalar.JsonExtract.JsonValueJsonExtractor;
 import static io.prestosql.operator.scalar.JsonExtract.ObjectFieldJsonExtractor;
 import static io.prestosql.operator.scalar.JsonExtract.ScalarValueJsonExtractor;
 import static io.prestosql.operator.scalar.JsonExtract.generateExtractor;
+import static io.prestosql.operator.scalar.JsonExtract.generateMultiPathExtractor;
 import static io.prestosql.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.testing.assertions.PrestoExceptionAssert.assertPrestoExceptionThrownBy;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
@@ -319,6 +322,39 @@ public class TestJsonExtract
         assertEquals(doJsonExtract("{\"15day\" : 0, \"30day\" : 1, \"90day\" : 2, }", "$[\"30day\"]"), "1");
     }
 
+    @Test
+    public void testMultiPathScalarExtract()
+    {
+        String json = "{\"fuu\": {\"bar\": 1, \"baz\": [0, {\"key\": \"value\"}]}, \"abc\": null, \"def\": \"ghi\"}";
+        assertEquals(
+                doMultiPathExtract(json, true, "$.fuu.bar", "$.fuu.baz[1].key", "$.def", "$.abc", "$.fuu", "$.missing", "$.fuu.baz[5]", "$.fuu.bar"),
+                Arrays.asList("1", "value", "ghi", null, null, null, null, "1"));
+        assertEquals(doMultiPathExtract("[0, [1, 2], {\"1\": 3}]", true, "$[0]", "$[1][1]", "$.2.1", "$.x"), Arrays.asList("0", "2", "3", null));
+
+        // Only the first of duplicate fields is matched
+        assertEquals(doMultiPathExtract("{\"a\": 1, \"a\": {\"b\": 2}, \"c\": 3}", true, "$.a", "$.a.b", "$.c"), Arrays.asList("1", null, "3"));
+
+        // Values found before the malformed part of the document are returned
+        assertEquals(doMultiPathExtract("{\"a\": 1, \"b\": 2, garbage", true, "$.a", "$.b"), Arrays.asList("1", "2"));
+        assertEquals(doMultiPathExtract("{\"a\": 1, garbage, \"b\": 2}", true, "$.a", "$.b"), Arrays.asList("1", null));
+        assertEquals(doMultiPathExtract("", true, "$.a", "$.b"), Arrays.asList(null, null));
+    }
+
+    @Test
+    public void testMultiPathJsonExtract()
+    {
+        String json = "{\"fuu\": {\"bar\": 1, \"baz\": [0, {\"key\": \"value\"}]}, \"abc\": null}";
+        assertEquals(
+                doMultiPathExtract(json, false, "$.fuu", "$.fuu.baz", "$.fuu.baz[1].key", "$.abc", "$", "$.missing"),
+                Arrays.asList(
+                        "{\"bar\":1,\"baz\":[0,{\"key\":\"value\"}]}",
+                        "[0,{\"key\":\"value\"}]",
+                        "\"value\"",
+                        "null",
+                        "{\"fuu\":{\"bar\":1,\"baz\":[0,{\"key\":\"value\"}]},\"abc\":null}",
+                        null));
+    }
+
     @Test
     public void testInvalidExtracts()
     {
@@ -350,6 +386,14 @@ public class TestJsonExtract
     }
 
     private static String doScalarExtract(String inputJson, String jsonPath)
+    {
+        Slice value = JsonExtract.extract(Slices.utf8Slice(inputJson), generateExtractor(jsonPath, new ScalarValueJsonExtractor()));
+        String result = (value == null) ? null : value.toStringUtf8();
+        assertEquals(doMultiPathExtract(inputJson, true, jsonPath, "$"), Arrays.asList(result, doSingleScalarExtract(inputJson, "$")));
+        return result;
+    }
+
+    private static String doSingleScalarExtract(String inputJson, String jsonPath)
     {
         Slice value = JsonExtract.extract(Slices.utf8Slice(inputJson), generateExtractor(jsonPath, new ScalarValueJsonExtractor()));
         return (value == null) ? null : value.toStringUtf8();
@@ -358,7 +402,17 @@ public class TestJsonExtract
     private static String doJsonExtract(String inputJson, String jsonPath)
     {
         Slice value = JsonExtract.extract(Slices.utf8Slice(inputJson), generateExtractor(jsonPath, new JsonValueJsonExtractor()));
-        return (value == null) ? null : value.toStringUtf8();
+        String result = (value == null) ? null : value.toStringUtf8();
+        assertEquals(doMultiPathExtract(inputJson, false, jsonPath), Arrays.asList(result));
+        return result;
+    }
+
+    private static List<String> doMultiPathExtract(String inputJson, boolean scalarValues, String... jsonPaths)
+    {
+        Slice[] values = generateMultiPathExtractor(ImmutableList.copyOf(jsonPaths), scalarValues).extract(Slices.utf8Slice(inputJson));
+        return Arrays.stream(values)
+                .map(value -> (value == null) ? null : value.toStringUtf8())
+                .collect(toList());
     }
 
     private static List<String> tokenizePath(String path)
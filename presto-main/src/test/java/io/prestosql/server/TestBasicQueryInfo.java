@@ -67,6 +67,7 @@ public class TestBasicQueryInfo
                                 Duration.valueOf("9m"),
                                 Duration.valueOf("99s"),
                                 Duration.valueOf("12m"),
+                                Duration.valueOf("1m"),
                                 13,
                                 14,
                                 15,
@@ -118,6 +118,7 @@ public class TestQueryStateInfo
                         Duration.valueOf("10m"),
                         Duration.valueOf("11m"),
                         Duration.valueOf("12m"),
+                        Duration.valueOf("1m"),
                         13,
                         14,
                         15,
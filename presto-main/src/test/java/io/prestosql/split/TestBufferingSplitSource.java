@@ -57,6 +57,35 @@ public class TestBufferingSplitSource
         }
     }
 
+    @Test
+    public void testInitialBufferSize()
+    {
+        MockSplitSource mockSource = new MockSplitSource()
+                .setBatchSize(1)
+                .increaseAvailableSplits(25)
+                .atSplitCompletion(FINISH);
+        try (SplitSource source = new BufferingSplitSource(mockSource, 1, 10)) {
+            // the number of splits waited for doubles with each batch
+            requireFutureValue(getNextBatch(source, 20))
+                    .assertSize(1)
+                    .assertNoMoreSplits(false);
+            requireFutureValue(getNextBatch(source, 20))
+                    .assertSize(2)
+                    .assertNoMoreSplits(false);
+            requireFutureValue(getNextBatch(source, 20))
+                    .assertSize(4)
+                    .assertNoMoreSplits(false);
+            requireFutureValue(getNextBatch(source, 20))
+                    .assertSize(8)
+                    .assertNoMoreSplits(false);
+            requireFutureValue(getNextBatch(source, 20))
+                    .assertSize(10)
+                    .assertNoMoreSplits(true);
+            assertTrue(source.isFinished());
+            assertEquals(mockSource.getNextBatchInvocationCount(), 25);
+        }
+    }
+
     @Test
     public void testFastSource()
     {
@@ -17,8 +17,8 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.prestosql.operator.scalar.AbstractTestFunctions;
 import io.prestosql.spi.PrestoException;
-import io.prestosql.type.JoniRegexp;
 import io.prestosql.type.LikeFunctions;
+import io.prestosql.type.LikePattern;
 import org.testng.annotations.Test;
 
 import java.util.Optional;
@@ -51,7 +51,7 @@ public class TestLikeFunctions
     @Test
     public void testLikeBasic()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("f%b__"));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("f%b__"));
         assertTrue(likeVarchar(utf8Slice("foobar"), regex));
         assertTrue(likeVarchar(offsetHeapSlice("foobar"), regex));
 
@@ -59,10 +59,35 @@ public class TestLikeFunctions
         assertFunction("'foob' LIKE 'f%b'", BOOLEAN, true);
     }
 
+    @Test
+    public void testLikeWildcardShapes()
+    {
+        assertLike("abc", "abc", true);
+        assertLike("abc", "abcd", false);
+        assertLike("abc%", "abcd", true);
+        assertLike("abc%", "xabc", false);
+        assertLike("%abc", "xabc", true);
+        assertLike("%abc", "abcx", false);
+        assertLike("%abc%", "xxabcxx", true);
+        assertLike("%abc%", "xxabxcx", false);
+        assertLike("%", "", true);
+        assertLike("%%", "abc", true);
+        assertLike("a%%c", "abc", true);
+        assertLike("%ly%ly%", "quickly, slyly", true);
+        assertLike("%ly%ly%", "lly", false);
+        assertLike("ab%ba", "aba", false);
+        assertLike("ab%ba", "abba", true);
+        assertLike("a%b%c%d", "axbxcxbxd", true);
+        assertLike("a%b%c%d", "axcxbxd", false);
+        assertLike("%\u540d%", "foo\u540d\u8a89", true);
+        assertLike("a_c", "a\u540dc", true);
+        assertLike("a_c", "a\u540d\u8a89c", false);
+    }
+
     @Test
     public void testLikeChar()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("f%b__"));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("f%b__"));
         assertTrue(likeChar(6L, utf8Slice("foobar"), regex));
         assertTrue(likeChar(6L, offsetHeapSlice("foobar"), regex));
         assertTrue(likeChar(6L, utf8Slice("foob"), regex));
@@ -77,7 +102,7 @@ public class TestLikeFunctions
     @Test
     public void testLikeSpacesInPattern()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("ala  "));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("ala  "));
         assertTrue(likeVarchar(utf8Slice("ala  "), regex));
         assertFalse(likeVarchar(utf8Slice("ala"), regex));
 
@@ -89,28 +114,28 @@ public class TestLikeFunctions
     @Test
     public void testLikeNewlineInPattern()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("%o\nbar"));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("%o\nbar"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineBeforeMatch()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("%b%"));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("%b%"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test
     public void testLikeNewlineInMatch()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("f%b%"));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("f%b%"));
         assertTrue(likeVarchar(utf8Slice("foo\nbar"), regex));
     }
 
     @Test(timeOut = 1000)
     public void testLikeUtf8Pattern()
     {
-        JoniRegexp regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
+        LikePattern regex = likePattern(utf8Slice("%\u540d\u8a89%"), utf8Slice("\\"));
         assertFalse(likeVarchar(utf8Slice("foo"), regex));
     }
 
@@ -119,28 +144,28 @@ public class TestLikeFunctions
     public void testLikeInvalidUtf8Value()
     {
         Slice value = Slices.wrappedBuffer(new byte[] {'a', 'b', 'c', (byte) 0xFF, 'x', 'y'});
-        JoniRegexp regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
+        LikePattern regex = likePattern(utf8Slice("%b%"), utf8Slice("\\"));
         assertTrue(likeVarchar(value, regex));
     }
 
     @Test
     public void testBackslashesNoSpecialTreatment()
     {
-        JoniRegexp regex = LikeFunctions.compileLikePattern(utf8Slice("\\abc\\/\\\\"));
+        LikePattern regex = LikeFunctions.compileLikePattern(utf8Slice("\\abc\\/\\\\"));
         assertTrue(likeVarchar(utf8Slice("\\abc\\/\\\\"), regex));
     }
 
     @Test
     public void testSelfEscaping()
     {
-        JoniRegexp regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
+        LikePattern regex = likePattern(utf8Slice("\\\\abc\\%"), utf8Slice("\\"));
         assertTrue(likeVarchar(utf8Slice("\\abc%"), regex));
     }
 
     @Test
     public void testAlternateEscapedCharacters()
     {
-        JoniRegexp regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
+        LikePattern regex = likePattern(utf8Slice("xxx%x_abcxx"), utf8Slice("x"));
         assertTrue(likeVarchar(utf8Slice("x%_abcx"), regex));
     }
 
@@ -204,4 +229,10 @@ public class TestLikeFunctions
         assertEquals(unescapeLiteralLikePattern(utf8Slice("a##bc#_"), Optional.of(utf8Slice("#"))), utf8Slice("a#bc_"));
         assertEquals(unescapeLiteralLikePattern(utf8Slice("a###_bc"), Optional.of(utf8Slice("#"))), utf8Slice("a#_bc"));
     }
+
+    private static void assertLike(String pattern, String value, boolean expected)
+    {
+        assertEquals(likeVarchar(utf8Slice(value), LikeFunctions.compileLikePattern(utf8Slice(pattern))), expected);
+        assertEquals(likeVarchar(offsetHeapSlice(value), LikeFunctions.compileLikePattern(utf8Slice(pattern))), expected);
+    }
 }
@@ -81,6 +81,7 @@ public class TestFeaturesConfig
                 .setMemoryRevokingTarget(0.5)
                 .setOptimizeMixedDistinctAggregations(false)
                 .setUnwrapCasts(true)
+                .setMergeJsonExtractCalls(true)
                 .setIterativeOptimizerTimeout(new Duration(3, MINUTES))
                 .setEnableStatsCalculator(true)
                 .setCollectPlanStatisticsForAllQueries(false)
@@ -146,6 +147,7 @@ public class TestFeaturesConfig
                 .put("optimizer.optimize-hash-generation", "false")
                 .put("optimizer.optimize-mixed-distinct-aggregations", "true")
                 .put("optimizer.unwrap-casts", "false")
+                .put("optimizer.merge-json-extract-calls", "false")
                 .put("optimizer.push-table-write-through-union", "false")
                 .put("optimizer.dictionary-aggregation", "true")
                 .put("optimizer.push-aggregation-through-outer-join", "false")
@@ -215,6 +217,7 @@ public class TestFeaturesConfig
                 .setOptimizeHashGeneration(false)
                 .setOptimizeMixedDistinctAggregations(true)
                 .setUnwrapCasts(false)
+                .setMergeJsonExtractCalls(false)
                 .setPushTableWriteThroughUnion(false)
                 .setDictionaryAggregation(true)
                 .setPushAggregationThroughOuterJoin(false)
@@ -72,6 +72,10 @@ public class BenchmarkInCodeGenerator
     @Param({StandardTypes.BIGINT, StandardTypes.DOUBLE, StandardTypes.VARCHAR})
     private String type = StandardTypes.BIGINT;
 
+    // the constants are the even numbers up to twice their count, and a quarter of the input values match them
+    @Param({"false", "true"})
+    private boolean denseValues;
+
     private Page inputPage;
     private PageProcessor processor;
     private Type prestoType;
@@ -85,19 +89,19 @@ public class BenchmarkInCodeGenerator
             case StandardTypes.BIGINT:
                 prestoType = BIGINT;
                 for (int i = 1; i <= inListCount; i++) {
-                    arguments[i] = constant((long) random.nextInt(), BIGINT);
+                    arguments[i] = constant(denseValues ? 2L * i : random.nextInt(), BIGINT);
                 }
                 break;
             case StandardTypes.DOUBLE:
                 prestoType = DOUBLE;
                 for (int i = 1; i <= inListCount; i++) {
-                    arguments[i] = constant(random.nextDouble(), DOUBLE);
+                    arguments[i] = constant(denseValues ? 2.0 * i : random.nextDouble(), DOUBLE);
                 }
                 break;
             case StandardTypes.VARCHAR:
                 prestoType = VARCHAR;
                 for (int i = 1; i <= inListCount; i++) {
-                    arguments[i] = constant(Slices.utf8Slice(Long.toString(random.nextLong())), VARCHAR);
+                    arguments[i] = constant(Slices.utf8Slice(Long.toString(denseValues ? 2L * i : random.nextLong())), VARCHAR);
                 }
                 break;
             default:
@@ -113,13 +117,13 @@ public class BenchmarkInCodeGenerator
 
             switch (type) {
                 case StandardTypes.BIGINT:
-                    BIGINT.writeLong(pageBuilder.getBlockBuilder(0), random.nextInt());
+                    BIGINT.writeLong(pageBuilder.getBlockBuilder(0), denseValues ? random.nextInt(4 * inListCount) : random.nextInt());
                     break;
                 case StandardTypes.DOUBLE:
-                    DOUBLE.writeDouble(pageBuilder.getBlockBuilder(0), random.nextDouble());
+                    DOUBLE.writeDouble(pageBuilder.getBlockBuilder(0), denseValues ? random.nextInt(4 * inListCount) : random.nextDouble());
                     break;
                 case StandardTypes.VARCHAR:
-                    VARCHAR.writeSlice(pageBuilder.getBlockBuilder(0), Slices.utf8Slice(Long.toString(random.nextLong())));
+                    VARCHAR.writeSlice(pageBuilder.getBlockBuilder(0), Slices.utf8Slice(Long.toString(denseValues ? random.nextInt(4 * inListCount) : random.nextLong())));
                     break;
             }
         }
@@ -0,0 +1,202 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.gen;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.DriverYieldSignal;
+import io.prestosql.operator.project.PageProcessor;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.function.OperatorType;
+import io.prestosql.sql.gen.CommonSubExpressionRewriter.Result;
+import io.prestosql.sql.relational.DeterminismEvaluator;
+import io.prestosql.sql.relational.RowExpression;
+import io.prestosql.sql.relational.SpecialForm;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.project.PageProcessor.MAX_BATCH_SIZE;
+import static io.prestosql.spi.function.OperatorType.ADD;
+import static io.prestosql.spi.function.OperatorType.DIVIDE;
+import static io.prestosql.spi.function.OperatorType.LESS_THAN;
+import static io.prestosql.spi.function.OperatorType.MULTIPLY;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.gen.CommonSubExpressionRewriter.extractCommonSubExpressions;
+import static io.prestosql.sql.relational.Expressions.call;
+import static io.prestosql.sql.relational.Expressions.constant;
+import static io.prestosql.sql.relational.Expressions.constantNull;
+import static io.prestosql.sql.relational.Expressions.field;
+import static io.prestosql.sql.relational.SpecialForm.Form.IF;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestCommonSubExpressionRewriter
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final DeterminismEvaluator DETERMINISM_EVALUATOR = new DeterminismEvaluator(METADATA);
+
+    private static final RowExpression ABS = call(METADATA.resolveFunction(QualifiedName.of("abs"), fromTypes(BIGINT)), field(0, BIGINT));
+
+    @Test
+    public void testProjectionSubExpression()
+    {
+        Result result = extractCommonSubExpressions(
+                DETERMINISM_EVALUATOR,
+                Optional.empty(),
+                ImmutableList.of(
+                        operator(MULTIPLY, ABS, constant(2L, BIGINT)),
+                        ABS,
+                        operator(ADD, ABS, field(1, BIGINT))));
+
+        assertEquals(result.getInputChannelCount(), 2);
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of());
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(ABS));
+        assertEquals(result.getProjections(), ImmutableList.of(
+                operator(MULTIPLY, field(2, BIGINT), constant(2L, BIGINT)),
+                field(2, BIGINT),
+                operator(ADD, field(2, BIGINT), field(1, BIGINT))));
+    }
+
+    @Test
+    public void testFilterSubExpression()
+    {
+        Result result = extractCommonSubExpressions(
+                DETERMINISM_EVALUATOR,
+                Optional.of(operator(LESS_THAN, ABS, constant(20L, BIGINT))),
+                ImmutableList.of(ABS));
+
+        assertEquals(result.getInputChannelCount(), 1);
+        assertEquals(result.getFilterSubExpressions(), ImmutableList.of(ABS));
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of());
+        assertEquals(result.getFilter(), Optional.of(operator(LESS_THAN, field(1, BIGINT), constant(20L, BIGINT))));
+        assertEquals(result.getProjections(), ImmutableList.of(field(1, BIGINT)));
+    }
+
+    @Test
+    public void testConditionalSubExpressionIsNotExtracted()
+    {
+        // the division is only evaluated for some positions
+        RowExpression divide = operator(DIVIDE, constant(100L, BIGINT), field(0, BIGINT));
+        List<RowExpression> projections = ImmutableList.of(
+                new SpecialForm(IF, BIGINT, operator(LESS_THAN, constant(0L, BIGINT), field(0, BIGINT)), divide, constantNull(BIGINT)),
+                operator(ADD, field(1, BIGINT), divide),
+                operator(MULTIPLY, field(1, BIGINT), divide));
+
+        Result result = extractCommonSubExpressions(DETERMINISM_EVALUATOR, Optional.empty(), projections);
+        assertTrue(result.getProjectionSubExpressions().isEmpty());
+        assertEquals(result.getProjections(), projections);
+
+        // the filter does not evaluate the division for all positions, but the projections do
+        RowExpression filter = new SpecialForm(IF, BOOLEAN, operator(LESS_THAN, constant(0L, BIGINT), field(1, BIGINT)), operator(LESS_THAN, divide, constant(5L, BIGINT)), constant(false, BOOLEAN));
+        result = extractCommonSubExpressions(DETERMINISM_EVALUATOR, Optional.of(filter), ImmutableList.of(divide, operator(ADD, divide, constant(1L, BIGINT))));
+        assertTrue(result.getFilterSubExpressions().isEmpty());
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(divide));
+        assertEquals(result.getFilter(), Optional.of(filter));
+    }
+
+    @Test
+    public void testTrivialSubExpressionIsNotExtracted()
+    {
+        RowExpression add = operator(ADD, field(0, BIGINT), constant(10L, BIGINT));
+        RowExpression cast = call(METADATA.getCoercion(INTEGER, BIGINT), field(1, INTEGER));
+        RowExpression multiply = operator(MULTIPLY, add, cast);
+        List<RowExpression> projections = ImmutableList.of(add, operator(LESS_THAN, add, cast), cast, multiply, operator(ADD, multiply, constant(1L, BIGINT)));
+
+        Result result = extractCommonSubExpressions(DETERMINISM_EVALUATOR, Optional.of(operator(LESS_THAN, add, constant(20L, BIGINT))), projections);
+        assertTrue(result.getFilterSubExpressions().isEmpty());
+        assertTrue(result.getProjectionSubExpressions().isEmpty());
+        assertEquals(result.getProjections(), projections);
+
+        // arithmetic of a subexpression that is not trivial is extracted
+        RowExpression absPlusOne = operator(ADD, ABS, constant(1L, BIGINT));
+        result = extractCommonSubExpressions(DETERMINISM_EVALUATOR, Optional.empty(), ImmutableList.of(absPlusOne, operator(MULTIPLY, absPlusOne, constant(2L, BIGINT))));
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(absPlusOne));
+        assertEquals(result.getProjections(), ImmutableList.of(field(1, BIGINT), operator(MULTIPLY, field(1, BIGINT), constant(2L, BIGINT))));
+    }
+
+    @Test
+    public void testNestedSubExpressions()
+    {
+        RowExpression multiply = operator(MULTIPLY, ABS, constant(2L, BIGINT));
+
+        Result result = extractCommonSubExpressions(DETERMINISM_EVALUATOR, Optional.empty(), ImmutableList.of(multiply, multiply, ABS));
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(ABS, operator(MULTIPLY, field(1, BIGINT), constant(2L, BIGINT))));
+        assertEquals(result.getProjections(), ImmutableList.of(field(2, BIGINT), field(2, BIGINT), field(1, BIGINT)));
+
+        // the nested expression is only used once by the extracted expression
+        result = extractCommonSubExpressions(DETERMINISM_EVALUATOR, Optional.empty(), ImmutableList.of(multiply, multiply));
+        assertEquals(result.getProjectionSubExpressions(), ImmutableList.of(multiply));
+        assertEquals(result.getProjections(), ImmutableList.of(field(1, BIGINT), field(1, BIGINT)));
+    }
+
+    @Test
+    public void testPageProcessor()
+    {
+        ExpressionCompiler compiler = new ExpressionCompiler(METADATA, new PageFunctionCompiler(METADATA, 0));
+
+        // the division by zero of the filtered positions must not fail the query
+        RowExpression divide = operator(DIVIDE, constant(100L, BIGINT), field(0, BIGINT));
+        PageProcessor processor = compiler.compilePageProcessor(
+                Optional.of(operator(LESS_THAN, constant(0L, BIGINT), field(0, BIGINT))),
+                ImmutableList.of(divide, operator(ADD, divide, constant(1L, BIGINT)), field(1, BIGINT)),
+                MAX_BATCH_SIZE)
+                .get();
+
+        Page page = new Page(createLongBlock(0, 1, 2, 0, 5, -4), createLongBlock(10, 11, 12, 13, 14, 15));
+        Iterator<Optional<Page>> output = processor.process(SESSION, new DriverYieldSignal(), newSimpleAggregatedMemoryContext().newLocalMemoryContext(PageProcessor.class.getSimpleName()), page);
+        assertTrue(output.hasNext());
+        Page result = output.next().orElseThrow();
+        assertFalse(output.hasNext());
+
+        assertEquals(result.getChannelCount(), 3);
+        assertEquals(result.getPositionCount(), 3);
+        assertLongs(result, 0, 100, 50, 20);
+        assertLongs(result, 1, 101, 51, 21);
+        assertLongs(result, 2, 11, 12, 14);
+    }
+
+    private static void assertLongs(Page page, int channel, long... expected)
+    {
+        for (int position = 0; position < expected.length; position++) {
+            assertEquals(BIGINT.getLong(page.getBlock(channel), position), expected[position]);
+        }
+    }
+
+    private static Block createLongBlock(long... values)
+    {
+        BlockBuilder builder = BIGINT.createFixedSizeBlockBuilder(values.length);
+        for (long value : values) {
+            BIGINT.writeLong(builder, value);
+        }
+        return builder.build();
+    }
+
+    private static RowExpression operator(OperatorType operator, RowExpression left, RowExpression right)
+    {
+        return call(METADATA.resolveOperator(operator, ImmutableList.of(left.getType(), right.getType())), left, right);
+    }
+}
@@ -50,8 +50,8 @@ import io.prestosql.spi.type.TimeZoneKey;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.VarcharType;
 import io.prestosql.sql.tree.Extract.Field;
-import io.prestosql.type.JoniRegexp;
 import io.prestosql.type.LikeFunctions;
+import io.prestosql.type.LikePattern;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.testng.annotations.AfterClass;
@@ -1313,6 +1313,12 @@ public class TestExpressionCompiler
         assertExecute("bound_long in (1234, " + longValues + ")", BOOLEAN, true);
         assertExecute("bound_long in (" + longValues + ")", BOOLEAN, false);
 
+        String sparseLongValues = LongStream.range(-2500, 2500)
+                .mapToObj(value -> Long.toString(value * 1_000_003L))
+                .collect(joining(", "));
+        assertExecute("bound_long in (1234, " + sparseLongValues + ")", BOOLEAN, true);
+        assertExecute("bound_long in (" + sparseLongValues + ")", BOOLEAN, false);
+
         String doubleValues = range(2000, 7000).asDoubleStream()
                 .mapToObj(this::formatDoubleToScientificNotation)
                 .collect(joining(", "));
@@ -1587,7 +1593,7 @@ public class TestExpressionCompiler
             for (String pattern : stringLefts) {
                 Boolean expected = null;
                 if (value != null && pattern != null) {
-                    JoniRegexp regex = LikeFunctions.likePattern(utf8Slice(pattern), utf8Slice("\\"));
+                    LikePattern regex = LikeFunctions.likePattern(utf8Slice(pattern), utf8Slice("\\"));
                     expected = LikeFunctions.likeVarchar(utf8Slice(value), regex);
                 }
                 assertExecute(generateExpression("%s like %s", value, pattern), BOOLEAN, expected);
@@ -77,7 +77,7 @@ public class TestPageFunctionCompiler
     @Test
     public void testGeneratedClassName()
     {
-        PageFunctionCompiler functionCompiler = new PageFunctionCompiler(METADATA, 0);
+        PageFunctionCompiler functionCompiler = new PageFunctionCompiler(METADATA, 0, false);
 
         String planNodeId = "7";
         String stageId = "20170707_223500_67496_zguwn.2";
@@ -121,6 +121,31 @@ public class TestPageFunctionCompiler
                 noCacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.of("hint2")));
     }
 
+    @Test
+    public void testCacheSharesClassesAcrossInputChannels()
+    {
+        CallExpression add10OnSecondChannel = call(
+                METADATA.resolveOperator(ADD, ImmutableList.of(BIGINT, BIGINT)),
+                field(1, BIGINT),
+                constant(10L, BIGINT));
+
+        PageFunctionCompiler cacheCompiler = new PageFunctionCompiler(METADATA, 100, false);
+        PageProjection projection = cacheCompiler.compileProjection(ADD_10_EXPRESSION, Optional.empty()).get();
+        PageProjection secondChannelProjection = cacheCompiler.compileProjection(add10OnSecondChannel, Optional.empty()).get();
+        assertEquals(secondChannelProjection.getInputChannels().getInputChannels(), ImmutableList.of(1));
+
+        Page page = new Page(createLongBlockPage(1, 2).getBlock(0), createLongBlockPage(5, 6).getBlock(0));
+        SelectedPositions positions = SelectedPositions.positionsRange(0, 2);
+        Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), projection.getInputChannels().getInputChannels(page), positions);
+        Work<Block> secondChannelWork = secondChannelProjection.project(SESSION, new DriverYieldSignal(), secondChannelProjection.getInputChannels().getInputChannels(page), positions);
+        assertSame(work.getClass(), secondChannelWork.getClass());
+
+        assertTrue(secondChannelWork.process());
+        Block result = secondChannelWork.getResult();
+        assertEquals(BIGINT.getLong(result, 0), 15L);
+        assertEquals(BIGINT.getLong(result, 1), 16L);
+    }
+
     private Block project(PageProjection projection, Page page, SelectedPositions selectedPositions)
     {
         Work<Block> work = projection.project(SESSION, new DriverYieldSignal(), page, selectedPositions);
@@ -28,7 +28,10 @@ public class TestCompilerConfig
     public void testDefaults()
     {
         assertRecordedDefaults(recordDefaults(CompilerConfig.class)
-                .setExpressionCacheSize(10_000));
+                .setExpressionCacheSize(10_000)
+                .setBatchFunctionsEnabled(true)
+                .setMemoizeExpensiveFunctions(false)
+                .setFilterConjunctReorderingEnabled(true));
     }
 
     @Test
@@ -36,10 +39,16 @@ public class TestCompilerConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("compiler.expression-cache-size", "52")
+                .put("compiler.batch-functions-enabled", "false")
+                .put("compiler.memoize-expensive-functions", "true")
+                .put("compiler.filter-conjunct-reordering-enabled", "false")
                 .build();
 
         CompilerConfig expected = new CompilerConfig()
-                .setExpressionCacheSize(52);
+                .setExpressionCacheSize(52)
+                .setBatchFunctionsEnabled(false)
+                .setMemoizeExpensiveFunctions(true)
+                .setFilterConjunctReorderingEnabled(false);
 
         assertFullMapping(properties, expected);
     }
@@ -30,6 +30,7 @@ import org.testng.annotations.Test;
 import java.util.Optional;
 
 import static io.prestosql.SystemSessionProperties.REDISTRIBUTE_WRITES;
+import static io.prestosql.SystemSessionProperties.SCALE_WRITERS;
 import static io.prestosql.SystemSessionProperties.TASK_WRITER_COUNT;
 import static io.prestosql.SystemSessionProperties.USE_PREFERRED_WRITE_PARTITIONING;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
@@ -108,6 +109,22 @@ public class TestInsert
                                                         anyTree(values("column1", "column2"))))))));
     }
 
+    @Test
+    public void testInsertWithPreferredPartitioningAndScaledWriters()
+    {
+        assertDistributedPlan(
+                "INSERT into test_table_preferred_partitioning VALUES (1, 2)",
+                Session.builder(withPreferredPartitioning())
+                        .setSystemProperty(SCALE_WRITERS, "true")
+                        .build(),
+                anyTree(
+                        node(TableWriterNode.class,
+                                anyTree(
+                                        exchange(LOCAL, REPARTITION, ImmutableList.of(), ImmutableSet.of("column1"),
+                                                exchange(REMOTE, REPARTITION, ImmutableList.of(), ImmutableSet.of("column1"),
+                                                        anyTree(values("column1", "column2"))))))));
+    }
+
     @Test
     public void testInsertWithoutPreferredPartitioningEnabled()
     {
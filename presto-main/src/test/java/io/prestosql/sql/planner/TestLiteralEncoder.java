@@ -53,6 +53,8 @@ import static io.prestosql.sql.planner.ExpressionInterpreter.expressionInterpret
 import static io.prestosql.type.CodePointsType.CODE_POINTS;
 import static io.prestosql.type.JoniRegexpType.JONI_REGEXP;
 import static io.prestosql.type.JsonPathType.JSON_PATH;
+import static io.prestosql.type.LikeFunctions.compileLikePattern;
+import static io.prestosql.type.LikeFunctions.likePattern;
 import static io.prestosql.type.LikePatternType.LIKE_PATTERN;
 import static io.prestosql.type.Re2JRegexpType.RE2J_REGEXP_SIGNATURE;
 import static io.prestosql.type.UnknownType.UNKNOWN;
@@ -85,7 +87,8 @@ public class TestLiteralEncoder
         assertEncode(123L, BIGINT, "BIGINT '123'");
         assertEncode(utf8Slice("hello"), VARCHAR, "CAST('hello' AS varchar)");
         assertEncode(utf8Slice("hello"), VARBINARY, literalVarbinary("hello".getBytes(UTF_8)));
-        assertRoundTrip(castVarcharToJoniRegexp(utf8Slice("[a-z]")), LIKE_PATTERN, (left, right) -> left.pattern().equals(right.pattern()));
+        assertRoundTrip(compileLikePattern(utf8Slice("a%b_c")), LIKE_PATTERN, (left, right) -> left.getPattern().equals(right.getPattern()) && left.getEscape().equals(right.getEscape()));
+        assertRoundTrip(likePattern(utf8Slice("a#%b\u540d%"), utf8Slice("#")), LIKE_PATTERN, (left, right) -> left.getPattern().equals(right.getPattern()) && left.getEscape().equals(right.getEscape()));
         assertRoundTrip(castVarcharToJoniRegexp(utf8Slice("[a-z]")), JONI_REGEXP, (left, right) -> left.pattern().equals(right.pattern()));
         assertRoundTrip(castVarcharToRe2JRegexp(utf8Slice("[a-z]")), metadata.getType(RE2J_REGEXP_SIGNATURE), (left, right) -> left.pattern().equals(right.pattern()));
         assertRoundTrip(castVarcharToJsonPath(utf8Slice("$.foo")), JSON_PATH, (left, right) -> left.pattern().equals(right.pattern()));
@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.FunctionCallBuilder;
+import io.prestosql.sql.planner.LiteralEncoder;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.tree.Cast;
+import io.prestosql.sql.tree.ComparisonExpression;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.Identifier;
+import io.prestosql.sql.tree.LambdaArgumentDeclaration;
+import io.prestosql.sql.tree.LambdaExpression;
+import io.prestosql.sql.tree.LongLiteral;
+import io.prestosql.sql.tree.QualifiedName;
+import io.prestosql.sql.tree.SearchedCaseExpression;
+import io.prestosql.sql.tree.StringLiteral;
+import io.prestosql.sql.tree.SubscriptExpression;
+import io.prestosql.sql.tree.SymbolReference;
+import io.prestosql.sql.tree.WhenClause;
+import io.prestosql.type.FunctionType;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.prestosql.operator.scalar.JsonExtractPathsFunctions.JSON_EXTRACT_PATHS;
+import static io.prestosql.operator.scalar.JsonExtractPathsFunctions.JSON_EXTRACT_SCALAR_PATHS;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.spi.type.VarcharType.createVarcharType;
+import static io.prestosql.sql.analyzer.TypeSignatureTranslator.toSqlType;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.expression;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.project;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.values;
+import static io.prestosql.sql.tree.ComparisonExpression.Operator.GREATER_THAN;
+import static io.prestosql.type.JsonPathType.JSON_PATH;
+import static io.prestosql.type.JsonType.JSON;
+
+public class TestMergeJsonExtractCalls
+        extends BaseRuleTest
+{
+    @Test
+    public void testMergeCalls()
+    {
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .put(p.symbol("b", VARCHAR), jsonExtractScalar("x", "$.b"))
+                                .put(p.symbol("c", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR))))
+                .matches(
+                        project(
+                                ImmutableMap.of(
+                                        "a", expression(subscript("values", 1)),
+                                        "b", expression(subscript("values", 2)),
+                                        "c", expression(subscript("values", 1))),
+                                project(
+                                        ImmutableMap.of("values", expression(extractPaths(JSON_EXTRACT_SCALAR_PATHS, VARCHAR, "x", "$.a", "$.b"))),
+                                        values("x"))));
+    }
+
+    @Test
+    public void testBoundedVarcharIsCastBack()
+    {
+        // json_extract_scalar on a varchar(x) value returns a varchar(x)
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", createVarcharType(10)), jsonExtractScalar(createVarcharType(10), "x", "$.a"))
+                                .put(p.symbol("b", createVarcharType(10)), jsonExtractScalar(createVarcharType(10), "x", "$.b"))
+                                .build(),
+                        p.values(p.symbol("x", createVarcharType(10)))))
+                .matches(
+                        project(
+                                ImmutableMap.of(
+                                        "a", expression(new Cast(subscript("values", 1), toSqlType(createVarcharType(10)))),
+                                        "b", expression(new Cast(subscript("values", 2), toSqlType(createVarcharType(10))))),
+                                project(
+                                        ImmutableMap.of("values", expression(extractPaths(JSON_EXTRACT_SCALAR_PATHS, createVarcharType(10), "x", "$.a", "$.b"))),
+                                        values("x"))));
+    }
+
+    @Test
+    public void testScalarAndJsonExtractionsAreMergedSeparately()
+    {
+        // json_extract_scalar and json_extract return different types for the same path
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .put(p.symbol("b", JSON), jsonExtract("x", "$.a"))
+                                .put(p.symbol("c", VARCHAR), jsonExtractScalar("x", "$.b"))
+                                .put(p.symbol("d", JSON), jsonExtract("x", "$.c"))
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR))))
+                .matches(
+                        project(
+                                ImmutableMap.of(
+                                        "a", expression(subscript("scalar_values", 1)),
+                                        "b", expression(subscript("json_values", 1)),
+                                        "c", expression(subscript("scalar_values", 2)),
+                                        "d", expression(subscript("json_values", 2))),
+                                project(
+                                        ImmutableMap.of(
+                                                "scalar_values", expression(extractPaths(JSON_EXTRACT_SCALAR_PATHS, VARCHAR, "x", "$.a", "$.b")),
+                                                "json_values", expression(extractPaths(JSON_EXTRACT_PATHS, VARCHAR, "x", "$.a", "$.c"))),
+                                        values("x"))));
+    }
+
+    @Test
+    public void testScalarAndJsonExtractionsAreNotMergedTogether()
+    {
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .put(p.symbol("b", JSON), jsonExtract("x", "$.b"))
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR))))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testCaseConditionIsMerged()
+    {
+        // the first condition of a CASE is evaluated for every row
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .put(p.symbol("b", VARCHAR), searchedCase(
+                                        new ComparisonExpression(GREATER_THAN, jsonExtractScalar("x", "$.b"), new StringLiteral("b")),
+                                        jsonExtractScalar("x", "$.c")))
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR))))
+                .matches(
+                        project(
+                                ImmutableMap.of(
+                                        "a", expression(subscript("values", 1)),
+                                        "b", expression(searchedCase(
+                                                new ComparisonExpression(GREATER_THAN, subscript("values", 2), new StringLiteral("b")),
+                                                jsonExtractScalar("x", "$.c")))),
+                                project(
+                                        ImmutableMap.of("values", expression(extractPaths(JSON_EXTRACT_SCALAR_PATHS, VARCHAR, "x", "$.a", "$.b"))),
+                                        values("x"))));
+    }
+
+    @Test
+    public void testCaseBranchIsNotMerged()
+    {
+        // the branch is only evaluated for the rows matching the condition
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .put(p.symbol("b", VARCHAR), searchedCase(
+                                        new ComparisonExpression(GREATER_THAN, new SymbolReference("y"), new LongLiteral("0")),
+                                        jsonExtractScalar("x", "$.b")))
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR), p.symbol("y", BIGINT))))
+                .doesNotFire();
+    }
+
+    @Test
+    public void testLambdaIsNotMerged()
+    {
+        // the lambda is only evaluated for the elements of the array
+        tester().assertThat(new MergeJsonExtractCalls(tester().getMetadata(), tester().getTypeAnalyzer()))
+                .on(p -> p.project(
+                        Assignments.builder()
+                                .put(p.symbol("a", VARCHAR), jsonExtractScalar("x", "$.a"))
+                                .put(p.symbol("b", new ArrayType(VARCHAR)), new FunctionCallBuilder(tester().getMetadata())
+                                        .setName(QualifiedName.of("transform"))
+                                        .addArgument(new ArrayType(BIGINT), new SymbolReference("elements"))
+                                        .addArgument(
+                                                new FunctionType(ImmutableList.of(BIGINT), VARCHAR),
+                                                new LambdaExpression(
+                                                        ImmutableList.of(new LambdaArgumentDeclaration(new Identifier("element"))),
+                                                        jsonExtractScalar("x", "$.b")))
+                                        .build())
+                                .build(),
+                        p.values(p.symbol("x", VARCHAR), p.symbol("elements", new ArrayType(BIGINT)))))
+                .doesNotFire();
+    }
+
+    private Expression jsonExtractScalar(String value, String path)
+    {
+        return jsonExtractScalar(VARCHAR, value, path);
+    }
+
+    private Expression jsonExtractScalar(Type valueType, String value, String path)
+    {
+        return jsonExtract("json_extract_scalar", valueType, value, path);
+    }
+
+    private Expression jsonExtract(String value, String path)
+    {
+        return jsonExtract("json_extract", VARCHAR, value, path);
+    }
+
+    private Expression jsonExtract(String function, Type valueType, String value, String path)
+    {
+        return new FunctionCallBuilder(tester().getMetadata())
+                .setName(QualifiedName.of(function))
+                .addArgument(valueType, new SymbolReference(value))
+                .addArgument(JSON_PATH, new Cast(new StringLiteral(path), toSqlType(JSON_PATH)))
+                .build();
+    }
+
+    private Expression extractPaths(String function, Type valueType, String value, String... paths)
+    {
+        BlockBuilder blockBuilder = VARCHAR.createBlockBuilder(null, paths.length);
+        for (String path : paths) {
+            VARCHAR.writeString(blockBuilder, path);
+        }
+        return new FunctionCallBuilder(tester().getMetadata())
+                .setName(QualifiedName.of(function))
+                .addArgument(valueType, new SymbolReference(value))
+                .addArgument(new ArrayType(VARCHAR), new LiteralEncoder(tester().getMetadata()).toExpression(blockBuilder.build(), new ArrayType(VARCHAR)))
+                .build();
+    }
+
+    private static Expression subscript(String array, int index)
+    {
+        return new SubscriptExpression(new SymbolReference(array), new LongLiteral(String.valueOf(index)));
+    }
+
+    private static Expression searchedCase(Expression condition, Expression result)
+    {
+        return new SearchedCaseExpression(ImmutableList.of(new WhenClause(condition, result)), Optional.empty());
+    }
+}
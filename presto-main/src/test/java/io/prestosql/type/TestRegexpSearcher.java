@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.type;
+
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.operator.scalar.JoniRegexpCasts.joniRegexp;
+import static io.prestosql.type.RegexpSearcher.extractLiteral;
+import static io.prestosql.type.RegexpSearcher.isDfaCompatible;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestRegexpSearcher
+{
+    @Test
+    public void testExtractLiteral()
+    {
+        assertEquals(extractLiteral("abc"), Optional.of("abc"));
+        assertEquals(extractLiteral(""), Optional.of(""));
+        assertEquals(extractLiteral("example\\.com/"), Optional.of("example.com/"));
+        assertEquals(extractLiteral(".*example\\.com.*"), Optional.of("example.com"));
+        assertEquals(extractLiteral(".*?abc.*?"), Optional.of("abc"));
+        assertEquals(extractLiteral("有朋"), Optional.of("有朋"));
+        assertEquals(extractLiteral("\\$\\(\\)"), Optional.of("$()"));
+
+        assertEquals(extractLiteral("a.c"), Optional.empty());
+        assertEquals(extractLiteral("abc\\.*"), Optional.empty());
+        assertEquals(extractLiteral("^abc"), Optional.empty());
+        assertEquals(extractLiteral("abc$"), Optional.empty());
+        assertEquals(extractLiteral("a|b"), Optional.empty());
+        assertEquals(extractLiteral("\\d"), Optional.empty());
+        assertEquals(extractLiteral("abc\\"), Optional.empty());
+    }
+
+    @Test
+    public void testDfaCompatible()
+    {
+        assertTrue(isDfaCompatible("Ste(v|ph)en"));
+        assertTrue(isDfaCompatible("https?://[^/]*\\.example\\.com"));
+        assertTrue(isDfaCompatible("(?:abc){2,3}?"));
+        assertTrue(isDfaCompatible("[a-z0-9_-]+@[a-z]+\\.(com|org)"));
+        assertTrue(isDfaCompatible("[-a].*?b{2,}"));
+
+        // anchors
+        assertFalse(isDfaCompatible("^abc"));
+        assertFalse(isDfaCompatible("abc$"));
+        assertFalse(isDfaCompatible("test\\b"));
+        // escape classes and backreferences
+        assertFalse(isDfaCompatible("\\d+"));
+        assertFalse(isDfaCompatible("(a)\\1"));
+        // flags, lookarounds and possessive quantifiers
+        assertFalse(isDfaCompatible("(?i)abc"));
+        assertFalse(isDfaCompatible("a(?=b)"));
+        assertFalse(isDfaCompatible("a*+"));
+        // character classes with different meanings in the syntaxes
+        assertFalse(isDfaCompatible("[a-z&&[^d]]"));
+        assertFalse(isDfaCompatible("[[:alpha:]]"));
+        assertFalse(isDfaCompatible("[\\w]"));
+        assertFalse(isDfaCompatible("[]a]"));
+        // invalid patterns
+        assertFalse(isDfaCompatible("(abc"));
+        assertFalse(isDfaCompatible("abc)"));
+        assertFalse(isDfaCompatible("*a"));
+        assertFalse(isDfaCompatible("a{,2}"));
+        assertFalse(isDfaCompatible("[abc"));
+    }
+
+    @Test
+    public void testSearch()
+    {
+        String[] patterns = {
+                "", ".*", "abc", ".*bc.*", "b\\.c", "a.c", "(b|x)c", "[^a]c", "[a-c]{3}", "a+?b", "^abc", "c$", "\\w\\d", "(?i)ABC", "(a)\\1",
+        };
+        String[] values = {"", "abc", "xbc", "b.c", "aabc", "abcd", "a\nc", "a1", "aa", "ABC", "有朋abc"};
+        for (String pattern : patterns) {
+            JoniRegexp regexp = joniRegexp(utf8Slice(pattern));
+            RegexpSearcher joniSearcher = new RegexpSearcher.JoniSearcher(regexp.regex());
+            for (String value : values) {
+                assertEquals(regexp.search(utf8Slice(value)), joniSearcher.search(utf8Slice(value)), "pattern " + pattern + " on value " + value);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.util;
+
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.prestosql.util.InListSets.DenseLongSet;
+import io.prestosql.util.InListSets.SliceSet;
+import io.prestosql.util.InListSets.SparseLongSet;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestInListSets
+{
+    @Test
+    public void testDenseLongSet()
+    {
+        Set<Long> values = ImmutableSet.of(-70L, -64L, -1L, 0L, 1L, 63L, 64L, 1000L);
+        DenseLongSet set = DenseLongSet.tryCreate(values).get();
+        for (long value = -200; value < 1200; value++) {
+            assertEquals(set.contains(value), values.contains(value), "value " + value);
+        }
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertFalse(set.contains(Long.MAX_VALUE));
+
+        Set<Long> extremeValues = ImmutableSet.of(Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        set = DenseLongSet.tryCreate(extremeValues).get();
+        assertTrue(set.contains(Long.MAX_VALUE));
+        assertTrue(set.contains(Long.MAX_VALUE - 1));
+        assertFalse(set.contains(Long.MAX_VALUE - 2));
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertFalse(set.contains(0));
+
+        // the values are too sparse
+        assertFalse(DenseLongSet.tryCreate(ImmutableSet.of(0L, 1_000_000L)).isPresent());
+        assertFalse(DenseLongSet.tryCreate(ImmutableSet.of(Long.MIN_VALUE, Long.MAX_VALUE)).isPresent());
+        assertFalse(DenseLongSet.tryCreate(ImmutableSet.of()).isPresent());
+    }
+
+    @Test
+    public void testSparseLongSet()
+    {
+        Random random = new Random(42);
+        Set<Long> values = ImmutableSet.<Long>builder()
+                .add(0L, Long.MIN_VALUE, Long.MAX_VALUE)
+                .addAll(LongStream.generate(random::nextLong).limit(10_000).iterator())
+                .build();
+        SparseLongSet set = new SparseLongSet(values);
+        for (long value : values) {
+            assertTrue(set.contains(value));
+        }
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong();
+            assertEquals(set.contains(value), values.contains(value));
+        }
+
+        SparseLongSet withoutZero = new SparseLongSet(ImmutableSet.of(5L, -5L));
+        assertFalse(withoutZero.contains(0));
+        assertTrue(withoutZero.contains(-5));
+        assertFalse(new SparseLongSet(ImmutableSet.of()).contains(5));
+
+        assertTrue(InListSets.createLongSet(ImmutableSet.of(1L, 3L)) instanceof DenseLongSet);
+        assertTrue(InListSets.createLongSet(values) instanceof SparseLongSet);
+    }
+
+    @Test
+    public void testSliceSet()
+    {
+        Set<Slice> values = IntStream.range(0, 5_000)
+                .mapToObj(value -> utf8Slice("customer_" + value))
+                .collect(toImmutableSet());
+        SliceSet set = new SliceSet(ImmutableSet.<Slice>builder()
+                .addAll(values)
+                .add(utf8Slice(""))
+                .add(utf8Slice("x".repeat(100)))
+                .build());
+        for (Slice value : values) {
+            // the values are looked up in slices of other blocks
+            assertTrue(set.contains(wrappedBuffer(value.getBytes())));
+        }
+        assertTrue(set.contains(utf8Slice("")));
+        assertTrue(set.contains(utf8Slice("x".repeat(100))));
+        assertFalse(set.contains(utf8Slice("x".repeat(99))));
+        assertFalse(set.contains(utf8Slice("x".repeat(164))));
+        assertFalse(set.contains(utf8Slice("x".repeat(1000))));
+        assertFalse(set.contains(utf8Slice("customer_5000")));
+        assertFalse(set.contains(utf8Slice("customer_")));
+        assertFalse(set.contains(utf8Slice("Customer_1")));
+
+        assertFalse(new SliceSet(ImmutableSet.of()).contains(utf8Slice("")));
+    }
+}
@@ -14,6 +14,7 @@
 package io.prestosql.orc;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.prestosql.orc.stream.AbstractDiskOrcDataReader;
@@ -22,12 +23,22 @@ import io.prestosql.orc.stream.OrcDataReader;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static io.prestosql.orc.OrcDataSourceUtils.getDiskRangeSlice;
 import static io.prestosql.orc.OrcDataSourceUtils.mergeAdjacentDiskRanges;
@@ -40,15 +51,31 @@ public abstract class AbstractOrcDataSource
     private final OrcDataSourceId id;
     private final long estimatedSize;
     private final OrcReaderOptions options;
-    private long readTimeNanos;
-    private long readBytes;
+    private final Optional<Executor> readExecutor;
+    // reads may be issued concurrently when a read executor is used
+    private final AtomicLong readTimeNanos = new AtomicLong();
+    private final AtomicLong readBytes = new AtomicLong();
+    // the ranges read ahead on the read executor which have not been used yet
+    private final Set<AsyncBufferLoader> readAheadLoaders = ConcurrentHashMap.newKeySet();
+    private final AtomicLong readAheadBytes = new AtomicLong();
 
     public AbstractOrcDataSource(OrcDataSourceId id, long estimatedSize, OrcReaderOptions options)
+    {
+        this(id, estimatedSize, options, Optional.empty());
+    }
+
+    /**
+     * @param readExecutor if present, the small disk ranges following a range passed to
+     * {@link #readFully(Map)} are read ahead on this executor when the range is first used, and
+     * {@link #readInternal} must be thread-safe
+     */
+    public AbstractOrcDataSource(OrcDataSourceId id, long estimatedSize, OrcReaderOptions options, Optional<Executor> readExecutor)
     {
         this.id = requireNonNull(id, "id is null");
 
         this.estimatedSize = estimatedSize;
         this.options = requireNonNull(options, "options is null");
+        this.readExecutor = requireNonNull(readExecutor, "readExecutor is null");
     }
 
     protected abstract void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
@@ -63,13 +90,13 @@ public abstract class AbstractOrcDataSource
     @Override
     public final long getReadBytes()
     {
-        return readBytes;
+        return readBytes.get();
     }
 
     @Override
     public final long getReadTimeNanos()
     {
-        return readTimeNanos;
+        return readTimeNanos.get();
     }
 
     @Override
@@ -88,7 +115,18 @@ public abstract class AbstractOrcDataSource
     @Override
     public long getRetainedSize()
     {
-        return 0;
+        return readAheadBytes.get();
+    }
+
+    /**
+     * Cancels the reads ahead which have not started yet. Subclasses using a read executor
+     * must call this when closed.
+     */
+    protected final void cancelReadAhead()
+    {
+        for (AsyncBufferLoader loader : readAheadLoaders) {
+            loader.cancel();
+        }
     }
 
     @Override
@@ -107,8 +145,8 @@ public abstract class AbstractOrcDataSource
 
         readInternal(position, buffer, bufferOffset, bufferLength);
 
-        readTimeNanos += System.nanoTime() - start;
-        readBytes += bufferLength;
+        readTimeNanos.addAndGet(System.nanoTime() - start);
+        readBytes.addAndGet(bufferLength);
     }
 
     @Override
@@ -158,7 +196,20 @@ public abstract class AbstractOrcDataSource
         Iterable<DiskRange> mergedRanges = mergeAdjacentDiskRanges(diskRanges.values(), options.getMaxMergeDistance(), options.getMaxBufferSize());
 
         ImmutableMap.Builder<K, OrcDataReader> slices = ImmutableMap.builder();
-        if (options.isLazyReadSmallRanges()) {
+        if (readExecutor.isPresent()) {
+            List<AsyncBufferLoader> mergedRangeLoaders = new ArrayList<>();
+            for (DiskRange mergedRange : mergedRanges) {
+                AsyncBufferLoader mergedRangeAsyncLoader = new AsyncBufferLoader(mergedRange, readExecutor.get(), mergedRangeLoaders, mergedRangeLoaders.size());
+                mergedRangeLoaders.add(mergedRangeAsyncLoader);
+                for (Entry<K, DiskRange> diskRangeEntry : diskRanges.entrySet()) {
+                    DiskRange diskRange = diskRangeEntry.getValue();
+                    if (mergedRange.contains(diskRange)) {
+                        slices.put(diskRangeEntry.getKey(), new MergedOrcDataReader(id, diskRange, mergedRangeAsyncLoader));
+                    }
+                }
+            }
+        }
+        else if (options.isLazyReadSmallRanges()) {
             for (DiskRange mergedRange : mergedRanges) {
                 LazyBufferLoader mergedRangeLazyLoader = new LazyBufferLoader(mergedRange);
                 for (Entry<K, DiskRange> diskRangeEntry : diskRanges.entrySet()) {
@@ -207,7 +258,13 @@ public abstract class AbstractOrcDataSource
         return id.toString();
     }
 
+    private interface BufferLoader
+    {
+        Slice loadNestedDiskRangeBuffer(DiskRange nestedDiskRange);
+    }
+
     private final class LazyBufferLoader
+            implements BufferLoader
     {
         private final DiskRange diskRange;
         private Slice bufferSlice;
@@ -217,6 +274,7 @@ public abstract class AbstractOrcDataSource
             this.diskRange = requireNonNull(diskRange, "diskRange is null");
         }
 
+        @Override
         public Slice loadNestedDiskRangeBuffer(DiskRange nestedDiskRange)
         {
             load();
@@ -240,19 +298,101 @@ public abstract class AbstractOrcDataSource
         }
     }
 
+    private final class AsyncBufferLoader
+            implements BufferLoader
+    {
+        private final DiskRange diskRange;
+        private final Executor executor;
+        // the merged ranges read together, in file order, which are read ahead of this one
+        private final List<AsyncBufferLoader> plannedLoaders;
+        private final int plannedIndex;
+        private final ListenableFutureTask<Slice> readTask;
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        public AsyncBufferLoader(DiskRange diskRange, Executor executor, List<AsyncBufferLoader> plannedLoaders, int plannedIndex)
+        {
+            this.diskRange = requireNonNull(diskRange, "diskRange is null");
+            this.executor = requireNonNull(executor, "executor is null");
+            this.plannedLoaders = requireNonNull(plannedLoaders, "plannedLoaders is null");
+            this.plannedIndex = plannedIndex;
+            this.readTask = ListenableFutureTask.create(() -> readFully(diskRange.getOffset(), diskRange.getLength()));
+        }
+
+        @Override
+        public Slice loadNestedDiskRangeBuffer(DiskRange nestedDiskRange)
+        {
+            checkArgument(diskRange.contains(nestedDiskRange));
+            // reads start when a range is first used, so the ranges of streams that are never
+            // read are skipped, and only the following ranges up to the buffer size are read ahead
+            started.set(true);
+            readAhead();
+
+            // run the read in the calling thread if the executor has not picked it up yet
+            readTask.run();
+            Slice bufferSlice;
+            try {
+                bufferSlice = readTask.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while reading " + diskRange, e);
+            }
+            catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                throwIfUnchecked(cause);
+                if (cause instanceof IOException) {
+                    throw new UncheckedIOException((IOException) cause);
+                }
+                throw new RuntimeException(cause);
+            }
+            finally {
+                if (readAheadLoaders.remove(this)) {
+                    readAheadBytes.addAndGet(-diskRange.getLength());
+                }
+            }
+            int offset = toIntExact(nestedDiskRange.getOffset() - diskRange.getOffset());
+            return bufferSlice.slice(offset, nestedDiskRange.getLength());
+        }
+
+        private void readAhead()
+        {
+            long readAheadBudget = options.getMaxBufferSize().toBytes();
+            for (int index = plannedIndex + 1; index < plannedLoaders.size(); index++) {
+                AsyncBufferLoader loader = plannedLoaders.get(index);
+                readAheadBudget -= loader.diskRange.getLength();
+                if (readAheadBudget < 0) {
+                    break;
+                }
+                if (loader.started.compareAndSet(false, true)) {
+                    readAheadLoaders.add(loader);
+                    readAheadBytes.addAndGet(loader.diskRange.getLength());
+                    executor.execute(loader.readTask);
+                }
+            }
+        }
+
+        private void cancel()
+        {
+            readTask.cancel(false);
+            if (readAheadLoaders.remove(this)) {
+                readAheadBytes.addAndGet(-diskRange.getLength());
+            }
+        }
+    }
+
     private final class MergedOrcDataReader
             implements OrcDataReader
     {
         private final OrcDataSourceId orcDataSourceId;
         private final DiskRange diskRange;
-        private final LazyBufferLoader lazyBufferLoader;
+        private final BufferLoader bufferLoader;
         private Slice data;
 
-        public MergedOrcDataReader(OrcDataSourceId orcDataSourceId, DiskRange diskRange, LazyBufferLoader lazyBufferLoader)
+        public MergedOrcDataReader(OrcDataSourceId orcDataSourceId, DiskRange diskRange, BufferLoader bufferLoader)
         {
             this.orcDataSourceId = requireNonNull(orcDataSourceId, "orcDataSourceId is null");
             this.diskRange = requireNonNull(diskRange, "diskRange is null");
-            this.lazyBufferLoader = requireNonNull(lazyBufferLoader, "lazyBufferLoader is null");
+            this.bufferLoader = requireNonNull(bufferLoader, "bufferLoader is null");
         }
 
         @Override
@@ -284,7 +424,7 @@ public abstract class AbstractOrcDataSource
                 throws IOException
         {
             if (data == null) {
-                data = lazyBufferLoader.loadNestedDiskRangeBuffer(diskRange);
+                data = bufferLoader.loadNestedDiskRangeBuffer(diskRange);
                 if (data == null) {
                     throw new OrcCorruptionException(id, "Data loader returned null");
                 }
@@ -13,27 +13,43 @@
  */
 package io.prestosql.orc;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import static java.lang.String.format;
 
 public class FileOrcDataSource
         extends AbstractOrcDataSource
 {
     private final RandomAccessFile input;
+    private final FileChannel channel;
 
     public FileOrcDataSource(File path, OrcReaderOptions options)
             throws FileNotFoundException
     {
-        super(new OrcDataSourceId(path.getPath()), path.length(), options);
+        this(path, options, Optional.empty());
+    }
+
+    public FileOrcDataSource(File path, OrcReaderOptions options, Optional<Executor> readExecutor)
+            throws FileNotFoundException
+    {
+        super(new OrcDataSourceId(path.getPath()), path.length(), options, readExecutor);
         this.input = new RandomAccessFile(path, "r");
+        this.channel = input.getChannel();
     }
 
     @Override
     public void close()
             throws IOException
     {
+        cancelReadAhead();
         input.close();
     }
 
@@ -41,7 +57,13 @@ public class FileOrcDataSource
     protected void readInternal(long position, byte[] buffer, int bufferOffset, int bufferLength)
             throws IOException
     {
-        input.seek(position);
-        input.readFully(buffer, bufferOffset, bufferLength);
+        // positional reads do not change the file position, so concurrent reads are safe
+        ByteBuffer target = ByteBuffer.wrap(buffer, bufferOffset, bufferLength);
+        while (target.hasRemaining()) {
+            int bytesRead = channel.read(target, position + target.position() - bufferOffset);
+            if (bytesRead < 0) {
+                throw new EOFException(format("Read %s of %s bytes at position %s of %s", target.position() - bufferOffset, bufferLength, position, getId()));
+            }
+        }
     }
 }
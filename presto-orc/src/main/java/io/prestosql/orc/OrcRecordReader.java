@@ -416,6 +416,8 @@ public class OrcRecordReader
 
     private void blockLoaded(int columnIndex, Block block)
     {
+        // loading a block may read ahead the following ranges of the stripe
+        orcDataSourceMemoryUsage.setBytes(orcDataSource.getRetainedSize());
         if (block.getPositionCount() <= 0) {
             return;
         }
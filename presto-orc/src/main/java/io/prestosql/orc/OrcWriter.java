@@ -17,6 +17,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.prestosql.orc.OrcWriteValidation.OrcWriteValidationBuilder;
@@ -60,14 +62,20 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.prestosql.orc.OrcReader.validateFile;
 import static io.prestosql.orc.OrcWriterStats.FlushReason.CLOSED;
@@ -88,6 +96,8 @@ public final class OrcWriter
         implements Closeable
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(OrcWriter.class).instanceSize();
+    // upper bound of the tasks used to encode the columns of a single chunk
+    private static final int MAX_PARALLEL_ENCODING_TASKS = 8;
 
     private static final String PRESTO_ORC_WRITER_VERSION_METADATA_KEY = "presto.writer.version";
     private static final String PRESTO_ORC_WRITER_VERSION;
@@ -114,6 +124,11 @@ public final class OrcWriter
 
     private final List<ColumnWriter> columnWriters;
     private final DictionaryCompressionOptimizer dictionaryCompressionOptimizer;
+    private final Optional<Executor> writerExecutor;
+    private long writtenBytes;
+    @Nullable
+    private ListenableFutureTask<?> pendingFlush;
+    private long pendingFlushRetainedBytes;
     private int stripeRowCount;
     private int rowGroupRowCount;
     private int bufferedBytes;
@@ -141,6 +156,29 @@ public final class OrcWriter
             boolean validate,
             OrcWriteValidationMode validationMode,
             OrcWriterStats stats)
+    {
+        this(orcDataSink, columnNames, types, orcTypes, compression, options, writeLegacyVersion, userMetadata, validate, validationMode, stats, Optional.empty());
+    }
+
+    /**
+     * When {@code writerExecutor} is present, the columns of the file are encoded in parallel
+     * and finished stripes are written to the data sink in the background while the next
+     * stripe is being built. At most one stripe is pending at any time, and it is included
+     * in {@link #getRetainedBytes()}.
+     */
+    public OrcWriter(
+            OrcDataSink orcDataSink,
+            List<String> columnNames,
+            List<Type> types,
+            ColumnMetadata<OrcType> orcTypes,
+            CompressionKind compression,
+            OrcWriterOptions options,
+            boolean writeLegacyVersion,
+            Map<String, String> userMetadata,
+            boolean validate,
+            OrcWriteValidationMode validationMode,
+            OrcWriterStats stats,
+            Optional<Executor> writerExecutor)
     {
         this.validationBuilder = validate ? new OrcWriteValidationBuilder(validationMode, types)
                 .setStringStatisticsLimitInBytes(toIntExact(options.getMaxStringStatisticsLimit().toBytes())) : null;
@@ -167,6 +205,8 @@ public final class OrcWriter
                 .build();
         this.metadataWriter = new CompressedMetadataWriter(new OrcMetadataWriter(writeLegacyVersion), compression, maxCompressionBufferSize);
         this.stats = requireNonNull(stats, "stats is null");
+        this.writerExecutor = requireNonNull(writerExecutor, "writerExecutor is null");
+        this.writtenBytes = orcDataSink.size();
 
         requireNonNull(columnNames, "columnNames is null");
         this.orcTypes = requireNonNull(orcTypes, "orcTypes is null");
@@ -218,11 +258,12 @@ public final class OrcWriter
     }
 
     /**
-     * Number of bytes already flushed to the data sink.
+     * Number of bytes already flushed to the data sink, including a stripe
+     * that is still being written in the background.
      */
     public long getWrittenBytes()
     {
-        return orcDataSink.size();
+        return writtenBytes;
     }
 
     /**
@@ -238,6 +279,7 @@ public final class OrcWriter
         return INSTANCE_SIZE +
                 columnWritersRetainedBytes +
                 closedStripesRetainedBytes +
+                pendingFlushRetainedBytes +
                 orcDataSink.getRetainedSizeInBytes() +
                 (validationBuilder == null ? 0 : validationBuilder.getRetainedSize()) +
                 fileStatsRetainedBytes;
@@ -292,10 +334,18 @@ public final class OrcWriter
         }
 
         // write chunks
+        if (writerExecutor.isPresent()) {
+            // lazy blocks are loaded by the calling thread
+            Page loadedChunk = chunk.getLoadedPage();
+            forEachColumnWriter(writerExecutor.get(), channel -> columnWriters.get(channel).writeBlock(loadedChunk.getBlock(channel)));
+        }
+        else {
+            for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
+                columnWriters.get(channel).writeBlock(chunk.getBlock(channel));
+            }
+        }
         bufferedBytes = 0;
-        for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
-            ColumnWriter writer = columnWriters.get(channel);
-            writer.writeBlock(chunk.getBlock(channel));
+        for (ColumnWriter writer : columnWriters) {
             bufferedBytes += writer.getBufferedBytes();
         }
 
@@ -338,8 +388,12 @@ public final class OrcWriter
     private void flushStripe(FlushReason flushReason)
             throws IOException
     {
+        // the previous stripe must be written before the column writers are reset,
+        // which bounds the memory of the writer to a single pending stripe
+        waitForPendingFlush();
+
         List<OrcDataOutput> outputData = new ArrayList<>();
-        long stripeStartOffset = orcDataSink.size();
+        long stripeStartOffset = writtenBytes;
         // add header to first stripe (this is not required but nice to have)
         if (closedStripes.isEmpty()) {
             outputData.add(createDataOutput(MAGIC));
@@ -353,7 +407,27 @@ public final class OrcWriter
         }
 
         // write all data
-        orcDataSink.write(outputData);
+        long outputSize = outputData.stream()
+                .mapToLong(OrcDataOutput::size)
+                .sum();
+        if (writerExecutor.isPresent() && flushReason != CLOSED) {
+            // copy the stripe, so the column writers can be reused while it is written
+            DynamicSliceOutput stripeData = new DynamicSliceOutput(toIntExact(outputSize));
+            outputData.forEach(output -> output.writeData(stripeData));
+            List<OrcDataOutput> stripeOutput = ImmutableList.of(createDataOutput(stripeData.slice()));
+            ListenableFutureTask<?> flush = ListenableFutureTask.create(() -> {
+                orcDataSink.write(stripeOutput);
+                return null;
+            });
+            pendingFlush = flush;
+            pendingFlushRetainedBytes = stripeData.getRetainedSize();
+            stats.updatePendingFlushSizeInBytes(pendingFlushRetainedBytes);
+            writerExecutor.get().execute(flush);
+        }
+        else {
+            orcDataSink.write(outputData);
+        }
+        writtenBytes += outputSize;
 
         // open next stripe
         columnWriters.forEach(ColumnWriter::reset);
@@ -384,7 +458,13 @@ public final class OrcWriter
         // convert any dictionary encoded column with a low compression ratio to direct
         dictionaryCompressionOptimizer.finalOptimize(bufferedBytes);
 
-        columnWriters.forEach(ColumnWriter::close);
+        // closing a column writer encodes and compresses the buffered data of the stripe
+        if (writerExecutor.isPresent()) {
+            forEachColumnWriter(writerExecutor.get(), channel -> columnWriters.get(channel).close());
+        }
+        else {
+            columnWriters.forEach(ColumnWriter::close);
+        }
 
         List<OrcDataOutput> outputData = new ArrayList<>();
         List<Stream> allStreams = new ArrayList<>(columnWriters.size() * 3);
@@ -468,6 +548,95 @@ public final class OrcWriter
         }
     }
 
+    private void waitForPendingFlush()
+            throws IOException
+    {
+        if (pendingFlush == null) {
+            return;
+        }
+        ListenableFutureTask<?> flush = pendingFlush;
+        pendingFlush = null;
+        stats.updatePendingFlushSizeInBytes(-pendingFlushRetainedBytes);
+        pendingFlushRetainedBytes = 0;
+
+        // write the stripe in this thread if the executor has not started it yet
+        flush.run();
+        try {
+            getUninterruptibly(flush);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throwIfInstanceOf(cause, IOException.class);
+            throwIfUnchecked(cause);
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Runs the task for each column writer, using the calling thread and up to
+     * {@link #MAX_PARALLEL_ENCODING_TASKS} tasks of the executor. Column writers
+     * are independent, so they can be used concurrently as long as each of them
+     * is used by a single thread.
+     */
+    private void forEachColumnWriter(Executor executor, ColumnWriterTask task)
+    {
+        int columnCount = columnWriters.size();
+        AtomicInteger nextColumn = new AtomicInteger();
+        Runnable worker = () -> {
+            try {
+                for (int channel = nextColumn.getAndIncrement(); channel < columnCount; channel = nextColumn.getAndIncrement()) {
+                    task.run(channel);
+                }
+            }
+            catch (RuntimeException | Error e) {
+                // stop the other workers
+                nextColumn.set(columnCount);
+                throw e;
+            }
+        };
+
+        List<ListenableFutureTask<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < min(columnCount, MAX_PARALLEL_ENCODING_TASKS); i++) {
+            ListenableFutureTask<?> helper = ListenableFutureTask.create(worker, null);
+            helpers.add(helper);
+            executor.execute(helper);
+        }
+
+        Throwable failure = null;
+        try {
+            worker.run();
+        }
+        catch (RuntimeException | Error e) {
+            failure = e;
+        }
+
+        // all columns are assigned at this point, so helpers that have not started yet are no-ops,
+        // and the column writers must not be used before the running helpers are finished
+        for (ListenableFutureTask<?> helper : helpers) {
+            helper.run();
+            try {
+                getUninterruptibly(helper);
+            }
+            catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+                else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throwIfUnchecked(failure);
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private interface ColumnWriterTask
+    {
+        void run(int channel);
+    }
+
     /**
      * Collect the data for for the file footer.  This is not the actual data, but
      * instead are functions that know how to write the data.
@@ -37,6 +37,7 @@ public class OrcWriterStats
     private final OrcWriterFlushStats dictionaryFullFlush = new OrcWriterFlushStats(DICTIONARY_FULL.name());
     private final OrcWriterFlushStats closedFlush = new OrcWriterFlushStats(CLOSED.name());
     private final AtomicLong writerSizeInBytes = new AtomicLong();
+    private final AtomicLong pendingFlushSizeInBytes = new AtomicLong();
 
     public void recordStripeWritten(FlushReason flushReason, long stripeBytes, int stripeRows, int dictionaryBytes)
     {
@@ -49,6 +50,11 @@ public class OrcWriterStats
         writerSizeInBytes.addAndGet(deltaInBytes);
     }
 
+    public void updatePendingFlushSizeInBytes(long deltaInBytes)
+    {
+        pendingFlushSizeInBytes.addAndGet(deltaInBytes);
+    }
+
     @Managed
     @Nested
     public OrcWriterFlushStats getAllFlush()
@@ -90,6 +96,12 @@ public class OrcWriterStats
         return writerSizeInBytes.get();
     }
 
+    @Managed
+    public long getPendingFlushSizeInBytes()
+    {
+        return pendingFlushSizeInBytes.get();
+    }
+
     private OrcWriterFlushStats getFlushStats(FlushReason flushReason)
     {
         switch (flushReason) {
@@ -116,6 +128,7 @@ public class OrcWriterStats
                 .add("dictionaryFullFlush", dictionaryFullFlush)
                 .add("closedFlush", closedFlush)
                 .add("writerSizeInBytes", writerSizeInBytes.get())
+                .add("pendingFlushSizeInBytes", pendingFlushSizeInBytes.get())
                 .toString();
     }
 }
@@ -29,6 +29,8 @@ public final class LongBitPacker
 {
     // ORC uses no more than 9 bits to store run lengths (https://orc.apache.org/docs/run-length.html#direct)
     private static final int MAX_BUFFERED_POSITIONS = 512;
+    // Widest value that, starting at any bit of a byte, fits in a single 64-bit window
+    private static final int MAX_WINDOW_BIT_SIZE = 56;
 
     // We use this temp buffer to work around poor read performance of single bytes from Slice.
     // Benchmarks show that reading from this byte[] is ~3x faster, even after accounting for the
@@ -76,7 +78,35 @@ public final class LongBitPacker
                 unpack64(buffer, offset, len, input);
                 break;
             default:
-                unpackGeneric(buffer, offset, len, bitSize, input);
+                if (bitSize <= MAX_WINDOW_BIT_SIZE) {
+                    unpackWindowed(buffer, offset, len, bitSize, input);
+                }
+                else {
+                    unpackGeneric(buffer, offset, len, bitSize, input);
+                }
+        }
+    }
+
+    /**
+     * Decodes the widths without a dedicated kernel, avoiding per-byte reads.
+     * Each value is extracted from a big endian 64-bit window starting at the byte that contains
+     * its first bit, so the loop has no data dependent branches and no carry between values.
+     */
+    private void unpackWindowed(long[] buffer, int offset, int len, int bitSize, InputStream input)
+            throws IOException
+    {
+        int blockReadableBytes = (len * bitSize + 7) / 8;
+        for (int i = 0; i < blockReadableBytes; ) {
+            i += input.read(tmp, i, blockReadableBytes - i);
+        }
+        int shift = Long.SIZE - bitSize;
+        int bitPosition = 0;
+        for (int i = 0; i < len; i++) {
+            // It's safe to read 8-bytes at a time, because slice is a view over tmp,
+            // which has 8 bytes of buffer space for every position
+            long window = Long.reverseBytes(getLongUnchecked(slice, bitPosition >>> 3));
+            buffer[offset + i] = (window << (bitPosition & 7)) >>> shift;
+            bitPosition += bitSize;
         }
     }
 
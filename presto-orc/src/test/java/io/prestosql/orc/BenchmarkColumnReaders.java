@@ -225,6 +225,24 @@ public class BenchmarkColumnReaders
         }
     }
 
+    @Benchmark
+    public Object readLongSequenceNoNull(BigintSequenceNoNullBenchmarkData data)
+            throws Exception
+    {
+        try (OrcRecordReader recordReader = data.createRecordReader()) {
+            return readFirstColumn(recordReader);
+        }
+    }
+
+    @Benchmark
+    public Object readLongSkewedNoNull(BigintSkewedNoNullBenchmarkData data)
+            throws Exception
+    {
+        try (OrcRecordReader recordReader = data.createRecordReader()) {
+            return readFirstColumn(recordReader);
+        }
+    }
+
     @Benchmark
     public Object readIntNoNull(IntegerNoNullBenchmarkData data)
             throws Exception
@@ -766,6 +784,59 @@ public class BenchmarkColumnReaders
         }
     }
 
+    @State(Scope.Thread)
+    public static class BigintSequenceNoNullBenchmarkData
+            extends BenchmarkData
+    {
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            setup(BIGINT);
+        }
+
+        @Override
+        protected Iterator<?> createValues()
+        {
+            // increasing values with small varying steps are written with the DELTA encoding
+            List<Long> values = new ArrayList<>();
+            long value = random.nextInt();
+            for (int i = 0; i < ROWS; ++i) {
+                value += random.nextInt(1000);
+                values.add(value);
+            }
+            return values.iterator();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BigintSkewedNoNullBenchmarkData
+            extends BenchmarkData
+    {
+        @Setup
+        public void setup()
+                throws Exception
+        {
+            setup(BIGINT);
+        }
+
+        @Override
+        protected Iterator<?> createValues()
+        {
+            // narrow values with rare wide outliers are written with the PATCHED_BASE encoding
+            List<Long> values = new ArrayList<>();
+            for (int i = 0; i < ROWS; ++i) {
+                if (random.nextInt(100) == 0) {
+                    values.add(random.nextLong() >> 16);
+                }
+                else {
+                    values.add((long) random.nextInt(1 << 12));
+                }
+            }
+            return values.iterator();
+        }
+    }
+
     @State(Scope.Thread)
     public static class IntegerNoNullBenchmarkData
             extends BenchmarkData
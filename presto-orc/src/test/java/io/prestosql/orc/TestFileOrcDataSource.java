@@ -0,0 +1,176 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.stream.OrcDataReader;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static java.lang.Math.toIntExact;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestFileOrcDataSource
+{
+    private static final int FILE_SIZE = 256 * 1024;
+
+    private final byte[] data = new byte[FILE_SIZE];
+    private TempFile tempFile;
+    private ExecutorService executor;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        new Random(42).nextBytes(data);
+        tempFile = new TempFile();
+        Files.write(tempFile.getFile().toPath(), data);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        executor.shutdownNow();
+        tempFile.close();
+    }
+
+    @Test
+    public void testReadSmallDiskRangesConcurrently()
+            throws IOException
+    {
+        List<Runnable> submitted = new ArrayList<>();
+        Map<String, DiskRange> ranges = createDiskRanges();
+
+        try (FileOrcDataSource dataSource = new FileOrcDataSource(tempFile.getFile(), createOptions(), Optional.of(task -> {
+            submitted.add(task);
+            executor.execute(task);
+        }))) {
+            Map<String, OrcDataReader> readers = dataSource.readFully(ranges);
+            // reads start when the ranges are used
+            assertEquals(submitted.size(), 0);
+
+            // "a" and "b" are merged, and "c" and "d" are read ahead, but not "e" which exceeds the buffer size
+            assertReader(readers.get("a"), ranges.get("a"));
+            assertEquals(submitted.size(), 2);
+            assertEquals(dataSource.getRetainedSize(), 3000 + 100);
+
+            // reading "c" reads ahead "e"
+            assertReaders(ranges, readers);
+            assertEquals(submitted.size(), 3);
+            assertEquals(dataSource.getRetainedSize(), 0);
+            assertEquals(dataSource.getReadBytes(), 3500 + 3000 + 100 + 6000);
+        }
+    }
+
+    @Test
+    public void testSkipUnusedDiskRanges()
+            throws IOException
+    {
+        Map<String, DiskRange> ranges = createDiskRanges();
+
+        try (FileOrcDataSource dataSource = new FileOrcDataSource(tempFile.getFile(), createOptions(), Optional.of(executor))) {
+            Map<String, OrcDataReader> readers = dataSource.readFully(ranges);
+            assertReader(readers.get("d"), ranges.get("d"));
+            assertReader(readers.get("e"), ranges.get("e"));
+            assertEquals(dataSource.getReadBytes(), 100 + 6000);
+        }
+    }
+
+    @Test
+    public void testCancelReadAheadOnClose()
+            throws IOException
+    {
+        List<Runnable> submitted = new ArrayList<>();
+        Map<String, DiskRange> ranges = createDiskRanges();
+
+        // the executor never runs the tasks
+        FileOrcDataSource dataSource = new FileOrcDataSource(tempFile.getFile(), createOptions(), Optional.of(submitted::add));
+        assertReader(dataSource.readFully(ranges).get("a"), ranges.get("a"));
+        assertEquals(submitted.size(), 2);
+        assertEquals(dataSource.getRetainedSize(), 3000 + 100);
+
+        dataSource.close();
+        assertEquals(dataSource.getRetainedSize(), 0);
+        for (Runnable task : submitted) {
+            assertTrue(((Future<?>) task).isCancelled());
+        }
+        assertEquals(dataSource.getReadBytes(), 3500);
+    }
+
+    @Test
+    public void testReadInCallingThread()
+            throws IOException
+    {
+        // the executor never runs the tasks, so the reads must happen in the calling thread
+        OrcReaderOptions options = new OrcReaderOptions();
+        Map<String, DiskRange> ranges = ImmutableMap.of(
+                "a", new DiskRange(10, 100),
+                "b", new DiskRange(50_000, 200));
+
+        try (FileOrcDataSource dataSource = new FileOrcDataSource(tempFile.getFile(), options, Optional.of(task -> {}))) {
+            assertReaders(ranges, dataSource.readFully(ranges));
+        }
+    }
+
+    private static OrcReaderOptions createOptions()
+    {
+        return new OrcReaderOptions()
+                .withMaxMergeDistance(DataSize.of(1, KILOBYTE))
+                .withMaxBufferSize(DataSize.of(8, KILOBYTE));
+    }
+
+    private static Map<String, DiskRange> createDiskRanges()
+    {
+        return ImmutableMap.<String, DiskRange>builder()
+                .put("a", new DiskRange(0, 1000))
+                .put("b", new DiskRange(1500, 2000))
+                .put("c", new DiskRange(20_000, 3000))
+                .put("d", new DiskRange(40_000, 100))
+                .put("e", new DiskRange(100_000, 6000))
+                .build();
+    }
+
+    private void assertReaders(Map<String, DiskRange> ranges, Map<String, OrcDataReader> readers)
+            throws IOException
+    {
+        assertEquals(readers.keySet(), ranges.keySet());
+        for (Map.Entry<String, DiskRange> entry : ranges.entrySet()) {
+            assertReader(readers.get(entry.getKey()), entry.getValue());
+        }
+    }
+
+    private void assertReader(OrcDataReader reader, DiskRange range)
+            throws IOException
+    {
+        assertEquals(reader.seekBuffer(0), Slices.wrappedBuffer(data, toIntExact(range.getOffset()), range.getLength()));
+    }
+}
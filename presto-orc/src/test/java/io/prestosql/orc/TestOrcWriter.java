@@ -32,14 +32,19 @@ import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -49,13 +54,24 @@ import static io.prestosql.orc.StripeReader.isIndexStream;
 import static io.prestosql.orc.TestingOrcPredicate.ORC_ROW_GROUP_SIZE;
 import static io.prestosql.orc.TestingOrcPredicate.ORC_STRIPE_SIZE;
 import static io.prestosql.orc.metadata.CompressionKind.NONE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static java.lang.Math.toIntExact;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 
 public class TestOrcWriter
 {
+    private final ExecutorService executor = newFixedThreadPool(4);
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
     @Test
     public void testWriteOutputStreamsInOrder()
             throws IOException
@@ -136,4 +152,67 @@ public class TestOrcWriter
             }
         }
     }
+
+    @Test
+    public void testParallelWriter()
+            throws IOException
+    {
+        try (TempFile sequentialFile = new TempFile();
+                TempFile parallelFile = new TempFile()) {
+            OrcWriterStats stats = new OrcWriterStats();
+            writeMultipleStripes(sequentialFile.getFile(), Optional.empty(), stats);
+            writeMultipleStripes(parallelFile.getFile(), Optional.of(executor), stats);
+
+            // column writers produce the same streams regardless of the thread used to encode them
+            assertEquals(Files.readAllBytes(parallelFile.getFile().toPath()), Files.readAllBytes(sequentialFile.getFile().toPath()));
+            assertEquals(stats.getPendingFlushSizeInBytes(), 0);
+            assertEquals(stats.getWriterSizeInBytes(), 0);
+        }
+    }
+
+    private static void writeMultipleStripes(File file, Optional<Executor> writerExecutor, OrcWriterStats stats)
+            throws IOException
+    {
+        List<String> columnNames = ImmutableList.of("test1", "test2", "test3", "test4", "test5", "test6");
+        List<Type> types = ImmutableList.of(VARCHAR, BIGINT, VARCHAR, BIGINT, VARCHAR, BIGINT);
+
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamOrcDataSink(new FileOutputStream(file)),
+                columnNames,
+                types,
+                OrcType.createRootOrcType(columnNames, types),
+                NONE,
+                new OrcWriterOptions()
+                        .withStripeMinSize(DataSize.of(0, MEGABYTE))
+                        .withStripeMaxRowCount(ORC_ROW_GROUP_SIZE * 3)
+                        .withRowGroupMaxRowCount(ORC_ROW_GROUP_SIZE),
+                false,
+                ImmutableMap.of(),
+                true,
+                OrcWriteValidationMode.BOTH,
+                stats,
+                writerExecutor);
+
+        for (int page = 0; page < 10; page++) {
+            int positions = 5000;
+            Block[] blocks = new Block[types.size()];
+            for (int channel = 0; channel < types.size(); channel++) {
+                BlockBuilder blockBuilder = types.get(channel).createBlockBuilder(null, positions);
+                for (int position = 0; position < positions; position++) {
+                    long value = (long) page * positions + position;
+                    if (types.get(channel) == VARCHAR) {
+                        VARCHAR.writeString(blockBuilder, "value" + (value % (channel * 1000 + 7)));
+                    }
+                    else {
+                        BIGINT.writeLong(blockBuilder, value * channel);
+                    }
+                }
+                blocks[channel] = blockBuilder.build();
+            }
+            writer.write(new Page(blocks));
+        }
+        writer.close();
+
+        writer.validate(new FileOrcDataSource(file, READER_OPTIONS));
+    }
 }
@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcDecompressor.createOrcDecompressor;
@@ -47,6 +48,64 @@ public class TestLongStreamV2
         testWriteValue(groups);
     }
 
+    @Test
+    public void testDelta()
+            throws IOException
+    {
+        Random random = new Random(0);
+        List<List<Long>> groups = new ArrayList<>();
+        for (int groupIndex = 0; groupIndex < 3; groupIndex++) {
+            List<Long> group = new ArrayList<>();
+            long value = random.nextInt();
+            for (int i = 0; i < 2000; i++) {
+                // alternate increasing and decreasing runs with variable deltas
+                int step = random.nextInt(1 << (i % 20));
+                value += ((i / 300) % 2 == 0) ? step : -step;
+                group.add(value);
+            }
+            groups.add(group);
+        }
+        testWriteValue(groups);
+    }
+
+    @Test
+    public void testPatchedBase()
+            throws IOException
+    {
+        Random random = new Random(0);
+        List<List<Long>> groups = new ArrayList<>();
+        for (int groupIndex = 0; groupIndex < 3; groupIndex++) {
+            List<Long> group = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                // mostly narrow values with rare wide outliers, some of them more than 255 positions apart
+                if (random.nextInt(groupIndex == 0 ? 50 : 400) == 0) {
+                    group.add(random.nextLong() >> 8);
+                }
+                else {
+                    group.add((long) random.nextInt(1 << (3 + groupIndex * 5)));
+                }
+            }
+            groups.add(group);
+        }
+        testWriteValue(groups);
+    }
+
+    @Test
+    public void testDirect()
+            throws IOException
+    {
+        Random random = new Random(0);
+        List<List<Long>> groups = new ArrayList<>();
+        for (int bits = 1; bits < 64; bits += 3) {
+            List<Long> group = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                group.add(random.nextLong() >> (64 - bits));
+            }
+            groups.add(group);
+        }
+        testWriteValue(groups);
+    }
+
     @Override
     protected LongOutputStreamV2 createValueOutputStream()
     {
@@ -30,6 +30,14 @@ public interface ParquetDataSource
 
     long getEstimatedSize();
 
+    /**
+     * Returns the size of the data read ahead which has not been handed out by a {@link ChunkReader} yet.
+     */
+    default long getRetainedSize()
+    {
+        return 0;
+    }
+
     Slice readTail(int length);
 
     Slice readFully(long position, int length);
@@ -13,8 +13,10 @@
  */
 package io.prestosql.parquet.reader;
 
+import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.prestosql.memory.context.AggregatedMemoryContext;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.parquet.ChunkKey;
 import io.prestosql.parquet.ChunkReader;
 import io.prestosql.parquet.DiskRange;
@@ -89,7 +91,8 @@ public class ParquetReader
     private int maxBatchSize = MAX_VECTOR_LENGTH;
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
-    private final Map<ChunkKey, ChunkReader> chunkReaders;
+    private final LocalMemoryContext dataSourceMemoryUsage;
+    private Map<ChunkKey, ChunkReader> chunkReaders = ImmutableMap.of();
 
     public ParquetReader(
             Optional<String> fileCreatedBy,
@@ -108,22 +111,10 @@ public class ParquetReader
         this.timeZone = requireNonNull(timeZone, "timeZone is null");
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
+        this.dataSourceMemoryUsage = systemMemoryContext.newLocalMemoryContext(ParquetDataSource.class.getSimpleName());
         this.options = requireNonNull(options, "options is null");
         this.columnReaders = new PrimitiveColumnReader[columns.size()];
         this.maxBytesPerCell = new long[columns.size()];
-
-        Map<ChunkKey, DiskRange> ranges = new HashMap<>();
-        for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
-            BlockMetaData metadata = blocks.get(rowGroup);
-            for (PrimitiveColumnIO column : columns) {
-                int columnId = column.getId();
-                ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(metadata, column.getColumnDescriptor());
-                DiskRange range = new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize()));
-                ranges.put(new ChunkKey(columnId, rowGroup), range);
-            }
-        }
-
-        this.chunkReaders = dataSource.planRead(ranges);
     }
 
     @Override
@@ -132,6 +123,7 @@ public class ParquetReader
     {
         freeCurrentRowGroupBuffers();
         currentRowGroupMemoryContext.close();
+        dataSourceMemoryUsage.close();
         dataSource.close();
     }
 
@@ -157,11 +149,13 @@ public class ParquetReader
         currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
 
         freeCurrentRowGroupBuffers();
+        dataSourceMemoryUsage.setBytes(dataSource.getRetainedSize());
         currentRowGroup++;
         if (currentRowGroup == blocks.size()) {
             return false;
         }
         currentBlockMetadata = blocks.get(currentRowGroup);
+        chunkReaders = planRowGroupRead(currentRowGroup, currentBlockMetadata);
 
         nextRowInGroup = 0L;
         currentGroupRowCount = currentBlockMetadata.getRowCount();
@@ -169,6 +163,18 @@ public class ParquetReader
         return true;
     }
 
+    private Map<ChunkKey, ChunkReader> planRowGroupRead(int rowGroup, BlockMetaData metadata)
+    {
+        // reads are planned one row group at a time, so a data source only reads ahead within a row group
+        Map<ChunkKey, DiskRange> ranges = new HashMap<>();
+        for (PrimitiveColumnIO column : columns) {
+            ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(metadata, column.getColumnDescriptor());
+            DiskRange range = new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize()));
+            ranges.put(new ChunkKey(column.getId(), rowGroup), range);
+        }
+        return dataSource.planRead(ranges);
+    }
+
     private void freeCurrentRowGroupBuffers()
     {
         if (currentRowGroup < 0) {
@@ -254,6 +260,7 @@ public class ParquetReader
             // todo this just an estimate and doesn't reflect actual retained memory
             currentRowGroupMemoryContext.newLocalMemoryContext(ParquetReader.class.getSimpleName())
                     .setBytes(data.length());
+            dataSourceMemoryUsage.setBytes(dataSource.getRetainedSize());
 
             ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata);
             ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, data);
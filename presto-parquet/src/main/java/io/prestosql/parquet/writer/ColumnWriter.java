@@ -13,10 +13,13 @@
  */
 package io.prestosql.parquet.writer;
 
+import org.apache.parquet.format.ColumnIndex;
 import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.OffsetIndex;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -40,11 +43,15 @@ public interface ColumnWriter
     {
         private final ColumnMetaData metaData;
         private final List<ParquetDataOutput> data;
+        private final Optional<ColumnIndex> columnIndex;
+        private final Optional<OffsetIndex> offsetIndex;
 
-        public BufferData(List<ParquetDataOutput> data, ColumnMetaData metaData)
+        public BufferData(List<ParquetDataOutput> data, ColumnMetaData metaData, Optional<ColumnIndex> columnIndex, Optional<OffsetIndex> offsetIndex)
         {
             this.data = requireNonNull(data, "data is null");
             this.metaData = requireNonNull(metaData, "metaData is null");
+            this.columnIndex = requireNonNull(columnIndex, "columnIndex is null");
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
         }
 
         public ColumnMetaData getMetaData()
@@ -56,5 +63,16 @@ public interface ColumnWriter
         {
             return data;
         }
+
+        public Optional<ColumnIndex> getColumnIndex()
+        {
+            return columnIndex;
+        }
+
+        // page offsets are relative to the beginning of the column chunk
+        public Optional<OffsetIndex> getOffsetIndex()
+        {
+            return offsetIndex;
+        }
     }
 }
@@ -23,9 +23,14 @@ import io.prestosql.parquet.writer.ColumnWriter.BufferData;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.Type;
 import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.format.ColumnIndex;
 import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.ColumnOrder;
 import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
 import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.TypeDefinedOrder;
 import org.apache.parquet.format.Util;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 import org.apache.parquet.schema.MessageType;
@@ -36,6 +41,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -67,6 +73,7 @@ public class ParquetWriter
     private final int chunkMaxLogicalBytes;
 
     private final ImmutableList.Builder<RowGroup> rowGroupBuilder = ImmutableList.builder();
+    private final ImmutableList.Builder<ColumnChunkPageIndex> pageIndexBuilder = ImmutableList.builder();
 
     private int rows;
     private long bufferedBytes;
@@ -91,6 +98,8 @@ public class ParquetWriter
         ParquetProperties parquetProperties = ParquetProperties.builder()
                 .withWriterVersion(PARQUET_2_0)
                 .withPageSize(writerOption.getMaxPageSize())
+                .withDictionaryPageSize(writerOption.getMaxDictionaryPageSize())
+                .withDictionaryEncoding(writerOption.isDictionaryEncodingEnabled())
                 .build();
 
         this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName);
@@ -179,6 +188,7 @@ public class ParquetWriter
         columnWriters.forEach(ColumnWriter::close);
 
         flush();
+        writePageIndexes();
         writeFooter();
         outputStream.close();
     }
@@ -187,6 +197,8 @@ public class ParquetWriter
     //
     // MAGIC
     // variable: Data
+    // variable: Column indexes
+    // variable: Offset indexes
     // variable: Metadata
     // 4 bytes: MetadataLength
     // MAGIC
@@ -211,7 +223,22 @@ public class ParquetWriter
         List<ColumnMetaData> metadatas = bufferDataList.stream()
                 .map(BufferData::getMetaData)
                 .collect(toImmutableList());
-        updateRowGroups(updateColumnMetadataOffset(metadatas, stripeStartOffset));
+        List<org.apache.parquet.format.ColumnChunk> columnChunks = updateColumnMetadataOffset(metadatas, stripeStartOffset).stream()
+                .map(ParquetWriter::toColumnChunk)
+                .collect(toImmutableList());
+        updateRowGroups(columnChunks);
+
+        // the page index is written after all row groups, so only remember it here
+        for (int i = 0; i < columnChunks.size(); i++) {
+            BufferData bufferData = bufferDataList.get(i);
+            long columnStartOffset = columnChunks.get(i).getMeta_data().getData_page_offset();
+            bufferData.getOffsetIndex().ifPresent(offsetIndex -> {
+                for (PageLocation pageLocation : offsetIndex.getPage_locations()) {
+                    pageLocation.setOffset(pageLocation.getOffset() + columnStartOffset);
+                }
+            });
+            pageIndexBuilder.add(new ColumnChunkPageIndex(columnChunks.get(i), bufferData.getColumnIndex(), bufferData.getOffsetIndex()));
+        }
 
         // flush pages
         bufferDataList.stream()
@@ -220,6 +247,31 @@ public class ParquetWriter
                 .forEach(data -> data.writeData(outputStream));
     }
 
+    private void writePageIndexes()
+            throws IOException
+    {
+        checkState(closed);
+        List<ColumnChunkPageIndex> pageIndexes = pageIndexBuilder.build();
+        for (ColumnChunkPageIndex pageIndex : pageIndexes) {
+            if (pageIndex.getColumnIndex().isPresent()) {
+                DynamicSliceOutput output = new DynamicSliceOutput(64);
+                Util.writeColumnIndex(pageIndex.getColumnIndex().get(), output);
+                pageIndex.getColumnChunk().setColumn_index_offset(outputStream.size());
+                pageIndex.getColumnChunk().setColumn_index_length(output.size());
+                createDataOutput(output.slice()).writeData(outputStream);
+            }
+        }
+        for (ColumnChunkPageIndex pageIndex : pageIndexes) {
+            if (pageIndex.getOffsetIndex().isPresent()) {
+                DynamicSliceOutput output = new DynamicSliceOutput(64);
+                Util.writeOffsetIndex(pageIndex.getOffsetIndex().get(), output);
+                pageIndex.getColumnChunk().setOffset_index_offset(outputStream.size());
+                pageIndex.getColumnChunk().setOffset_index_length(output.size());
+                createDataOutput(output.slice()).writeData(outputStream);
+            }
+        }
+    }
+
     private void writeFooter()
             throws IOException
     {
@@ -243,17 +295,27 @@ public class ParquetWriter
         long totalRows = rowGroups.stream().mapToLong(RowGroup::getNum_rows).sum();
         fileMetaData.setNum_rows(totalRows);
         fileMetaData.setRow_groups(ImmutableList.copyOf(rowGroups));
+        // min and max statistics are written in the order defined by the column type
+        fileMetaData.setColumn_orders(messageType.getColumns().stream()
+                .map(column -> {
+                    ColumnOrder columnOrder = new ColumnOrder();
+                    columnOrder.setTYPE_ORDER(new TypeDefinedOrder());
+                    return columnOrder;
+                })
+                .collect(toImmutableList()));
 
         DynamicSliceOutput dynamicSliceOutput = new DynamicSliceOutput(40);
         Util.writeFileMetaData(fileMetaData, dynamicSliceOutput);
         return dynamicSliceOutput.slice();
     }
 
-    private void updateRowGroups(List<ColumnMetaData> columnMetaData)
+    private void updateRowGroups(List<org.apache.parquet.format.ColumnChunk> columnChunks)
     {
         // TODO Avoid writing empty row group
-        long totalBytes = columnMetaData.stream().mapToLong(ColumnMetaData::getTotal_compressed_size).sum();
-        ImmutableList<org.apache.parquet.format.ColumnChunk> columnChunks = columnMetaData.stream().map(ParquetWriter::toColumnChunk).collect(toImmutableList());
+        long totalBytes = columnChunks.stream()
+                .map(org.apache.parquet.format.ColumnChunk::getMeta_data)
+                .mapToLong(ColumnMetaData::getTotal_compressed_size)
+                .sum();
         rowGroupBuilder.add(new RowGroup(columnChunks, totalBytes, rows));
     }
 
@@ -277,4 +339,33 @@ public class ParquetWriter
         }
         return builder.build();
     }
+
+    private static class ColumnChunkPageIndex
+    {
+        private final org.apache.parquet.format.ColumnChunk columnChunk;
+        private final Optional<ColumnIndex> columnIndex;
+        private final Optional<OffsetIndex> offsetIndex;
+
+        public ColumnChunkPageIndex(org.apache.parquet.format.ColumnChunk columnChunk, Optional<ColumnIndex> columnIndex, Optional<OffsetIndex> offsetIndex)
+        {
+            this.columnChunk = requireNonNull(columnChunk, "columnChunk is null");
+            this.columnIndex = requireNonNull(columnIndex, "columnIndex is null");
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
+        }
+
+        public org.apache.parquet.format.ColumnChunk getColumnChunk()
+        {
+            return columnChunk;
+        }
+
+        public Optional<ColumnIndex> getColumnIndex()
+        {
+            return columnIndex;
+        }
+
+        public Optional<OffsetIndex> getOffsetIndex()
+        {
+            return offsetIndex;
+        }
+    }
 }
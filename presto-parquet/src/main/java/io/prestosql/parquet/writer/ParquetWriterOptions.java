@@ -23,6 +23,7 @@ public class ParquetWriterOptions
 {
     private static final DataSize DEFAULT_MAX_ROW_GROUP_SIZE = DataSize.ofBytes(ParquetWriter.DEFAULT_BLOCK_SIZE);
     private static final DataSize DEFAULT_MAX_PAGE_SIZE = DataSize.ofBytes(ParquetWriter.DEFAULT_PAGE_SIZE);
+    private static final DataSize DEFAULT_MAX_DICTIONARY_PAGE_SIZE = DataSize.ofBytes(ParquetWriter.DEFAULT_PAGE_SIZE);
 
     public static ParquetWriterOptions.Builder builder()
     {
@@ -31,11 +32,15 @@ public class ParquetWriterOptions
 
     private final int maxRowGroupSize;
     private final int maxPageSize;
+    private final int maxDictionaryPageSize;
+    private final boolean dictionaryEncodingEnabled;
 
-    private ParquetWriterOptions(DataSize maxBlockSize, DataSize maxPageSize)
+    private ParquetWriterOptions(DataSize maxBlockSize, DataSize maxPageSize, DataSize maxDictionaryPageSize, boolean dictionaryEncodingEnabled)
     {
         this.maxRowGroupSize = toIntExact(requireNonNull(maxBlockSize, "maxRowGroupSize is null").toBytes());
         this.maxPageSize = toIntExact(requireNonNull(maxPageSize, "maxPageSize is null").toBytes());
+        this.maxDictionaryPageSize = toIntExact(requireNonNull(maxDictionaryPageSize, "maxDictionaryPageSize is null").toBytes());
+        this.dictionaryEncodingEnabled = dictionaryEncodingEnabled;
     }
 
     public long getMaxRowGroupSize()
@@ -48,10 +53,26 @@ public class ParquetWriterOptions
         return maxPageSize;
     }
 
+    /**
+     * Columns fall back to plain encoding for the rest of the row group once
+     * their dictionary grows beyond this size.
+     */
+    public int getMaxDictionaryPageSize()
+    {
+        return maxDictionaryPageSize;
+    }
+
+    public boolean isDictionaryEncodingEnabled()
+    {
+        return dictionaryEncodingEnabled;
+    }
+
     public static class Builder
     {
         private DataSize maxBlockSize = DEFAULT_MAX_ROW_GROUP_SIZE;
         private DataSize maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+        private DataSize maxDictionaryPageSize = DEFAULT_MAX_DICTIONARY_PAGE_SIZE;
+        private boolean dictionaryEncodingEnabled = true;
 
         public Builder setMaxBlockSize(DataSize maxBlockSize)
         {
@@ -65,9 +86,21 @@ public class ParquetWriterOptions
             return this;
         }
 
+        public Builder setMaxDictionaryPageSize(DataSize maxDictionaryPageSize)
+        {
+            this.maxDictionaryPageSize = maxDictionaryPageSize;
+            return this;
+        }
+
+        public Builder setDictionaryEncodingEnabled(boolean dictionaryEncodingEnabled)
+        {
+            this.dictionaryEncodingEnabled = dictionaryEncodingEnabled;
+            return this;
+        }
+
         public ParquetWriterOptions build()
         {
-            return new ParquetWriterOptions(maxBlockSize, maxPageSize);
+            return new ParquetWriterOptions(maxBlockSize, maxPageSize, maxDictionaryPageSize, dictionaryEncodingEnabled);
         }
     }
 }
@@ -145,7 +145,9 @@ final class ParquetWriters
                     parquetProperties.newDefinitionLevelEncoder(columnDescriptor),
                     parquetProperties.newRepetitionLevelEncoder(columnDescriptor),
                     compressionCodecName,
-                    parquetProperties.getPageSizeThreshold());
+                    parquetProperties.getPageSizeThreshold(),
+                    parquetProperties.getPageRowCountLimit(),
+                    parquetProperties.getColumnIndexTruncateLength());
         }
 
         private String[] currentPath()
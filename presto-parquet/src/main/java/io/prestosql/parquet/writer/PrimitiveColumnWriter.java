@@ -30,6 +30,8 @@ import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
 import org.apache.parquet.format.ColumnMetaData;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
 import org.openjdk.jol.info.ClassLayout;
 
 import javax.annotation.Nullable;
@@ -40,6 +42,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -81,6 +84,11 @@ public class PrimitiveColumnWriter
     private long totalRows;
     private Statistics<?> columnStatistics;
 
+    // page index of the current column chunk
+    private ColumnIndexBuilder columnIndexBuilder;
+    private OffsetIndexBuilder offsetIndexBuilder;
+    private long dictionaryPagesSize;
+
     private final int maxDefinitionLevel;
 
     private final List<ParquetDataOutput> pageBuffer = new ArrayList<>();
@@ -89,8 +97,19 @@ public class PrimitiveColumnWriter
     private final ParquetCompressor compressor;
 
     private final int pageSizeThreshold;
-
-    public PrimitiveColumnWriter(Type type, ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold)
+    private final int pageRowCountLimit;
+    private final int columnIndexTruncateLength;
+
+    public PrimitiveColumnWriter(
+            Type type,
+            ColumnDescriptor columnDescriptor,
+            PrimitiveValueWriter primitiveValueWriter,
+            RunLengthBitPackingHybridEncoder definitionLevelEncoder,
+            RunLengthBitPackingHybridEncoder repetitionLevelEncoder,
+            CompressionCodecName compressionCodecName,
+            int pageSizeThreshold,
+            int pageRowCountLimit,
+            int columnIndexTruncateLength)
     {
         this.type = requireNonNull(type, "type is null");
         this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
@@ -103,8 +122,12 @@ public class PrimitiveColumnWriter
         this.compressionCodec = requireNonNull(compressionCodecName, "compressionCodecName is null");
         this.compressor = getCompressor(compressionCodecName);
         this.pageSizeThreshold = pageSizeThreshold;
+        this.pageRowCountLimit = pageRowCountLimit;
+        this.columnIndexTruncateLength = columnIndexTruncateLength;
 
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        this.columnIndexBuilder = ColumnIndexBuilder.getBuilder(columnDescriptor.getPrimitiveType(), columnIndexTruncateLength);
+        this.offsetIndexBuilder = OffsetIndexBuilder.getBuilder();
     }
 
     @Override
@@ -147,7 +170,8 @@ public class PrimitiveColumnWriter
             }
         }
 
-        if (getBufferedBytes() >= pageSizeThreshold) {
+        // pages always end on a row boundary, as required by the page index
+        if (getCurrentPageBufferedBytes() >= pageSizeThreshold || currentPageRowCount >= pageRowCountLimit) {
             flushCurrentPageToBuffer();
         }
     }
@@ -163,7 +187,22 @@ public class PrimitiveColumnWriter
             throws IOException
     {
         checkState(closed);
-        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData()));
+        List<ParquetDataOutput> dataStreams = getDataStreams();
+        return ImmutableList.of(new BufferData(dataStreams, getColumnMetaData(), getColumnIndex(), getOffsetIndex()));
+    }
+
+    private Optional<org.apache.parquet.format.ColumnIndex> getColumnIndex()
+    {
+        // builder returns null when the statistics of some page cannot be represented in the index
+        return Optional.ofNullable(columnIndexBuilder.build())
+                .map(columnIndex -> ParquetMetadataConverter.toParquetColumnIndex(columnDescriptor.getPrimitiveType(), columnIndex));
+    }
+
+    private Optional<org.apache.parquet.format.OffsetIndex> getOffsetIndex()
+    {
+        // data pages are written after the dictionary page
+        return Optional.ofNullable(offsetIndexBuilder.build(dictionaryPagesSize))
+                .map(ParquetMetadataConverter::toParquetOffsetIndex);
     }
 
     // Returns ColumnMetaData that offset is invalid
@@ -219,6 +258,7 @@ public class PrimitiveColumnWriter
         statistics.incrementNumNulls(currentPageNullCounts);
 
         columnStatistics.mergeStatistics(statistics);
+        columnIndexBuilder.add(statistics);
 
         parquetMetadataConverter.writeDataPageV2Header((int) uncompressedSize,
                 (int) compressedSize,
@@ -239,6 +279,8 @@ public class PrimitiveColumnWriter
 
         List<ParquetDataOutput> dataOutputs = outputDataStreams.build();
 
+        offsetIndexBuilder.add(toIntExact(pageHeader.size() + compressedSize), currentPageRowCount);
+
         // update total stats
         totalCompressedSize += pageHeader.size() + compressedSize;
         totalUnCompressedSize += pageHeader.size() + uncompressedSize;
@@ -286,6 +328,7 @@ public class PrimitiveColumnWriter
             dictPage.add(pageData);
             totalCompressedSize += pageHeader.size() + compressedSize;
             totalUnCompressedSize += pageHeader.size() + uncompressedSize;
+            dictionaryPagesSize += pageHeader.size() + compressedSize;
 
             primitiveValueWriter.resetDictionary();
         }
@@ -300,8 +343,12 @@ public class PrimitiveColumnWriter
     @Override
     public long getBufferedBytes()
     {
-        return pageBuffer.stream().mapToLong(ParquetDataOutput::size).sum() +
-                definitionLevelEncoder.getBufferedSize() +
+        return pageBuffer.stream().mapToLong(ParquetDataOutput::size).sum() + getCurrentPageBufferedBytes();
+    }
+
+    private long getCurrentPageBufferedBytes()
+    {
+        return definitionLevelEncoder.getBufferedSize() +
                 repetitionLevelEncoder.getBufferedSize() +
                 primitiveValueWriter.getBufferedSize();
     }
@@ -326,6 +373,9 @@ public class PrimitiveColumnWriter
         totalRows = 0;
         encodings.clear();
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        this.columnIndexBuilder = ColumnIndexBuilder.getBuilder(columnDescriptor.getPrimitiveType(), columnIndexTruncateLength);
+        this.offsetIndexBuilder = OffsetIndexBuilder.getBuilder();
+        dictionaryPagesSize = 0;
 
         getDataStreamsCalled = false;
     }
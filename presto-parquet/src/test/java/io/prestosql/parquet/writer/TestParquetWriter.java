@@ -0,0 +1,198 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.Encoding;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.format.Util;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntToLongFunction;
+import java.util.stream.LongStream;
+
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetWriter
+{
+    private static final int PAGE_COUNT = 10;
+    private static final int ROWS_PER_PAGE = 1000;
+
+    @Test
+    public void testPageSizeAndPageIndexes()
+            throws IOException
+    {
+        long[] values = new Random(42).longs(PAGE_COUNT * ROWS_PER_PAGE).toArray();
+        ParquetWriterOptions options = ParquetWriterOptions.builder()
+                .setMaxPageSize(DataSize.of(1, KILOBYTE))
+                .setDictionaryEncodingEnabled(false)
+                .build();
+        byte[] file = writeBigints(options, position -> values[position]);
+        FileMetaData fileMetaData = readFileMetaData(file);
+        assertEquals(fileMetaData.getNum_rows(), values.length);
+        assertEquals(fileMetaData.getRow_groups().size(), 1);
+        ColumnChunk columnChunk = getOnlyColumnChunk(fileMetaData);
+
+        // each written page exceeds the maximum page size, so it is flushed as a data page
+        OffsetIndex offsetIndex = readOffsetIndex(file, columnChunk);
+        List<PageLocation> pageLocations = offsetIndex.getPage_locations();
+        assertEquals(pageLocations.size(), PAGE_COUNT);
+        long offset = columnChunk.getMeta_data().getData_page_offset();
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            PageLocation pageLocation = pageLocations.get(page);
+            assertEquals(pageLocation.getFirst_row_index(), page * ROWS_PER_PAGE);
+            assertEquals(pageLocation.getOffset(), offset);
+            offset += pageLocation.getCompressed_page_size();
+        }
+        assertEquals(offset, columnChunk.getMeta_data().getData_page_offset() + columnChunk.getMeta_data().getTotal_compressed_size());
+
+        // the page indexes are written after the data of the row groups
+        assertThat(columnChunk.getColumn_index_offset()).isGreaterThanOrEqualTo(offset);
+        assertThat(columnChunk.getOffset_index_offset()).isGreaterThanOrEqualTo(columnChunk.getColumn_index_offset() + columnChunk.getColumn_index_length());
+
+        ColumnIndex columnIndex = readColumnIndex(file, columnChunk);
+        assertEquals(columnIndex.getMin_values().size(), PAGE_COUNT);
+        assertEquals(columnIndex.getMax_values().size(), PAGE_COUNT);
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            assertFalse(columnIndex.getNull_pages().get(page));
+            LongStream pageValues = LongStream.of(values).skip(page * ROWS_PER_PAGE).limit(ROWS_PER_PAGE);
+            long[] sortedPageValues = pageValues.sorted().toArray();
+            assertEquals(toLong(columnIndex.getMin_values().get(page)), sortedPageValues[0]);
+            assertEquals(toLong(columnIndex.getMax_values().get(page)), sortedPageValues[sortedPageValues.length - 1]);
+        }
+    }
+
+    @Test
+    public void testDictionaryEncoding()
+            throws IOException
+    {
+        byte[] file = writeBigints(ParquetWriterOptions.builder().build(), position -> position % 10);
+        ColumnChunk columnChunk = getOnlyColumnChunk(readFileMetaData(file));
+        assertTrue(columnChunk.getMeta_data().getEncodings().stream().anyMatch(TestParquetWriter::isDictionaryEncoding));
+
+        // the dictionary page precedes the data pages of the column chunk
+        List<PageLocation> pageLocations = readOffsetIndex(file, columnChunk).getPage_locations();
+        assertThat(pageLocations.get(0).getOffset()).isGreaterThan(columnChunk.getMeta_data().getData_page_offset());
+        assertEquals(pageLocations.get(0).getFirst_row_index(), 0);
+    }
+
+    @Test
+    public void testDictionaryFallback()
+            throws IOException
+    {
+        long[] values = new Random(42).longs(PAGE_COUNT * ROWS_PER_PAGE).toArray();
+        ParquetWriterOptions options = ParquetWriterOptions.builder()
+                .setMaxDictionaryPageSize(DataSize.of(1, KILOBYTE))
+                .build();
+        byte[] file = writeBigints(options, position -> values[position]);
+        ColumnChunk columnChunk = getOnlyColumnChunk(readFileMetaData(file));
+
+        // the dictionary outgrows its maximum size within the first page, so no page is dictionary encoded
+        assertFalse(columnChunk.getMeta_data().getEncodings().stream().anyMatch(TestParquetWriter::isDictionaryEncoding));
+        assertTrue(columnChunk.getMeta_data().getEncodings().contains(Encoding.DELTA_BINARY_PACKED));
+        List<PageLocation> pageLocations = readOffsetIndex(file, columnChunk).getPage_locations();
+        assertEquals(pageLocations.get(0).getOffset(), columnChunk.getMeta_data().getData_page_offset());
+    }
+
+    @Test
+    public void testDictionaryEncodingDisabled()
+            throws IOException
+    {
+        ParquetWriterOptions options = ParquetWriterOptions.builder()
+                .setDictionaryEncodingEnabled(false)
+                .build();
+        byte[] file = writeBigints(options, position -> position % 10);
+        ColumnChunk columnChunk = getOnlyColumnChunk(readFileMetaData(file));
+        assertFalse(columnChunk.getMeta_data().getEncodings().stream().anyMatch(TestParquetWriter::isDictionaryEncoding));
+        List<PageLocation> pageLocations = readOffsetIndex(file, columnChunk).getPage_locations();
+        assertEquals(pageLocations.get(0).getOffset(), columnChunk.getMeta_data().getData_page_offset());
+    }
+
+    private static byte[] writeBigints(ParquetWriterOptions options, IntToLongFunction values)
+            throws IOException
+    {
+        ParquetSchemaConverter schemaConverter = new ParquetSchemaConverter(ImmutableList.of(BIGINT), ImmutableList.of("value"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ParquetWriter writer = new ParquetWriter(output, schemaConverter.getMessageType(), schemaConverter.getPrimitiveTypes(), options, UNCOMPRESSED);
+        for (int page = 0; page < PAGE_COUNT; page++) {
+            BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, ROWS_PER_PAGE);
+            for (int position = page * ROWS_PER_PAGE; position < (page + 1) * ROWS_PER_PAGE; position++) {
+                BIGINT.writeLong(blockBuilder, values.applyAsLong(position));
+            }
+            writer.write(new Page(blockBuilder.build()));
+        }
+        writer.close();
+        return output.toByteArray();
+    }
+
+    private static FileMetaData readFileMetaData(byte[] file)
+            throws IOException
+    {
+        // the footer is followed by its length and the magic
+        int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        return Util.readFileMetaData(new ByteArrayInputStream(file, file.length - 8 - footerLength, footerLength));
+    }
+
+    private static ColumnChunk getOnlyColumnChunk(FileMetaData fileMetaData)
+    {
+        assertEquals(fileMetaData.getRow_groups().size(), 1);
+        List<ColumnChunk> columns = fileMetaData.getRow_groups().get(0).getColumns();
+        assertEquals(columns.size(), 1);
+        return columns.get(0);
+    }
+
+    private static ColumnIndex readColumnIndex(byte[] file, ColumnChunk columnChunk)
+            throws IOException
+    {
+        assertTrue(columnChunk.isSetColumn_index_offset());
+        return Util.readColumnIndex(new ByteArrayInputStream(file, (int) columnChunk.getColumn_index_offset(), columnChunk.getColumn_index_length()));
+    }
+
+    private static OffsetIndex readOffsetIndex(byte[] file, ColumnChunk columnChunk)
+            throws IOException
+    {
+        assertTrue(columnChunk.isSetOffset_index_offset());
+        return Util.readOffsetIndex(new ByteArrayInputStream(file, (int) columnChunk.getOffset_index_offset(), columnChunk.getOffset_index_length()));
+    }
+
+    private static long toLong(ByteBuffer value)
+    {
+        return value.duplicate().order(ByteOrder.LITTLE_ENDIAN).getLong();
+    }
+
+    private static boolean isDictionaryEncoding(Encoding encoding)
+    {
+        return encoding == Encoding.PLAIN_DICTIONARY || encoding == Encoding.RLE_DICTIONARY;
+    }
+}
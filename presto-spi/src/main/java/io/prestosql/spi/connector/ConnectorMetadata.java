@@ -187,6 +187,17 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Return the connector-specific metadata for the specified table, for connectors which need the session to compute it.
+     * This is the object that is passed to the event listener framework.
+     *
+     * @throws RuntimeException if table handle is no longer valid
+     */
+    default Optional<Object> getInfo(ConnectorSession session, ConnectorTableHandle table)
+    {
+        return getInfo(table);
+    }
+
     /**
      * List table and view names, possibly filtered by schema. An empty list is returned if none match.
      */
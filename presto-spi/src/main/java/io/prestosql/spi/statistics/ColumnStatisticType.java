@@ -18,6 +18,7 @@ public enum ColumnStatisticType
     MIN_VALUE,
     MAX_VALUE,
     NUMBER_OF_DISTINCT_VALUES,
+    NUMBER_OF_DISTINCT_VALUES_SUMMARY,
     NUMBER_OF_NON_NULL_VALUES,
     NUMBER_OF_TRUE_VALUES,
     MAX_VALUE_SIZE_IN_BYTES,